@@ -0,0 +1,99 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.rocketmq.client.java.impl.consumer;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import apache.rocketmq.v2.AckMessageResponse;
+import com.google.common.util.concurrent.ListenableFuture;
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.apache.rocketmq.client.apis.consumer.ConsumeResult;
+import org.apache.rocketmq.client.apis.consumer.FilterExpression;
+import org.apache.rocketmq.client.java.message.MessageViewImpl;
+import org.apache.rocketmq.client.java.rpc.RpcInvocation;
+import org.apache.rocketmq.client.java.tool.TestBase;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmark of caching the received messages, then taking and erasing them one by one as the consumption does.
+ *
+ * <p>The push consumer is mocked and acknowledges the message at once, the score is for a whole batch.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ProcessQueueBenchmark extends TestBase {
+    @Param({"1", "32"})
+    private int batchSize;
+
+    private ProcessQueueImpl processQueue;
+    private List<MessageViewImpl> messageViews;
+
+    @Setup
+    public void setup() throws NoSuchFieldException, IllegalAccessException {
+        final PushConsumerImpl pushConsumer = mock(PushConsumerImpl.class);
+        setField(pushConsumer, "consumptionOkQuantity", new AtomicLong(0));
+        setField(pushConsumer, "consumptionErrorQuantity", new AtomicLong(0));
+        when(pushConsumer.isRunning()).thenReturn(true);
+        when(pushConsumer.clientId()).thenReturn(FAKE_CLIENT_ID);
+        final ListenableFuture<RpcInvocation<AckMessageResponse>> future = okAckMessageResponseFuture();
+        when(pushConsumer.ackMessage(any(MessageViewImpl.class))).thenReturn(future);
+        processQueue = new ProcessQueueImpl(pushConsumer, fakeMessageQueueImpl0(), FilterExpression.SUB_ALL);
+        messageViews = new ArrayList<>();
+        for (int i = 0; i < batchSize; i++) {
+            messageViews.add(fakeMessageViewImpl(1024, false));
+        }
+    }
+
+    private static void setField(PushConsumerImpl pushConsumer, String name, Object value)
+        throws NoSuchFieldException, IllegalAccessException {
+        final Field field = PushConsumerImpl.class.getDeclaredField(name);
+        field.setAccessible(true);
+        field.set(pushConsumer, value);
+    }
+
+    @Benchmark
+    public void cacheTakeAndErase() {
+        processQueue.cacheMessages(messageViews);
+        Optional<MessageViewImpl> optionalMessageView = processQueue.tryTakeMessage();
+        while (optionalMessageView.isPresent()) {
+            processQueue.eraseMessage(optionalMessageView.get(), ConsumeResult.SUCCESS);
+            optionalMessageView = processQueue.tryTakeMessage();
+        }
+    }
+}
@@ -0,0 +1,100 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.rocketmq.client.java.impl.producer;
+
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.apache.rocketmq.client.apis.ClientConfiguration;
+import org.apache.rocketmq.client.java.hook.MessageHookPoints;
+import org.apache.rocketmq.client.java.hook.MessageHookPointsStatus;
+import org.apache.rocketmq.client.java.hook.MessageInterceptor;
+import org.apache.rocketmq.client.java.message.LazyMessageCommonList;
+import org.apache.rocketmq.client.java.message.MessageCommon;
+import org.apache.rocketmq.client.java.message.MessageViewImpl;
+import org.apache.rocketmq.client.java.tool.TestBase;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Benchmark of the message interceptor chain around each hook point, interceptors are enabled or not.
+ *
+ * <p>The built-in meter interceptor is always registered and stays disabled since the producer is not started.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class InterceptorChainBenchmark extends TestBase {
+    @Param({"0", "1", "4"})
+    private int interceptorCount;
+
+    @Param({"false", "true"})
+    private boolean enabled;
+
+    private ProducerImpl producer;
+    private MessageViewImpl messageView;
+
+    @Setup
+    public void setup(Blackhole blackhole) {
+        final ClientConfiguration clientConfiguration =
+            ClientConfiguration.newBuilder().setEndpoints(FAKE_ACCESS_POINT).build();
+        producer = new ProducerImpl(clientConfiguration, new HashSet<>(), 3, null);
+        for (int i = 0; i < interceptorCount; i++) {
+            producer.registerMessageInterceptor(new MessageInterceptor() {
+                @Override
+                public boolean isEnabled() {
+                    return enabled;
+                }
+
+                @Override
+                public void doBefore(MessageHookPoints messageHookPoints, List<MessageCommon> messageCommons) {
+                    blackhole.consume(messageCommons.get(0));
+                }
+
+                @Override
+                public void doAfter(MessageHookPoints messageHookPoints, List<MessageCommon> messageCommons,
+                    Duration duration, MessageHookPointsStatus status) {
+                    blackhole.consume(messageCommons.get(0));
+                }
+            });
+        }
+        messageView = fakeMessageViewImpl();
+    }
+
+    @Benchmark
+    public void doBeforeAndAfter() {
+        final List<MessageCommon> messageCommons =
+            LazyMessageCommonList.singleton(messageView, MessageViewImpl::getMessageCommon);
+        producer.doBefore(MessageHookPoints.CONSUME, messageCommons);
+        producer.doAfter(MessageHookPoints.CONSUME, messageCommons, Duration.ZERO, MessageHookPointsStatus.OK);
+    }
+}
@@ -0,0 +1,103 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.rocketmq.client.java.impl.producer;
+
+import apache.rocketmq.v2.Address;
+import apache.rocketmq.v2.Broker;
+import apache.rocketmq.v2.MessageQueue;
+import apache.rocketmq.v2.Permission;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.apache.rocketmq.client.apis.ClientException;
+import org.apache.rocketmq.client.java.misc.Utilities;
+import org.apache.rocketmq.client.java.route.CircuitBreaker;
+import org.apache.rocketmq.client.java.route.CircuitBreakers;
+import org.apache.rocketmq.client.java.route.Endpoints;
+import org.apache.rocketmq.client.java.route.MessageQueueImpl;
+import org.apache.rocketmq.client.java.route.TopicRouteData;
+import org.apache.rocketmq.client.java.route.TopicRouteDataResult;
+import org.apache.rocketmq.client.java.tool.TestBase;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmark of taking candidate message queues for each message to send, with and without the open circuit breakers.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PublishingLoadBalancerBenchmark extends TestBase {
+    private static final int QUEUES_PER_BROKER = 8;
+
+    @Param({"2", "16"})
+    private int brokerCount;
+
+    @Param({"3"})
+    private int maxAttempts;
+
+    private PublishingLoadBalancer loadBalancer;
+    private CircuitBreakers circuitBreakers;
+
+    @Setup
+    public void setup() {
+        List<MessageQueue> messageQueues = new ArrayList<>();
+        circuitBreakers = new CircuitBreakers(Duration.ofSeconds(1));
+        for (int i = 0; i < brokerCount; i++) {
+            final Address address = fakePbAddress(FAKE_HOST_0, FAKE_PORT_0 + i);
+            final apache.rocketmq.v2.Endpoints endpoints = fakePbEndpoints(address);
+            final Broker broker = Broker.newBuilder().setName(FAKE_BROKER_NAME_0 + "-" + i).setEndpoints(endpoints)
+                .setId(Utilities.MASTER_BROKER_ID).build();
+            for (int j = 0; j < QUEUES_PER_BROKER; j++) {
+                messageQueues.add(MessageQueue.newBuilder().setTopic(fakePbTopic0()).setBroker(broker).setId(j)
+                    .setPermission(Permission.READ_WRITE).build());
+            }
+            // Open the circuit breakers of the half of brokers.
+            if (0 == i % 2) {
+                final CircuitBreaker breaker = circuitBreakers.get(new Endpoints(endpoints));
+                while (CircuitBreaker.State.OPEN != breaker.getState()) {
+                    breaker.onFailure();
+                }
+            }
+        }
+        loadBalancer = new PublishingLoadBalancer(new TopicRouteDataResult(new TopicRouteData(messageQueues)));
+    }
+
+    @Benchmark
+    public List<MessageQueueImpl> takeMessageQueues() throws ClientException {
+        return loadBalancer.takeMessageQueues(endpoints -> true, maxAttempts);
+    }
+
+    @Benchmark
+    public List<MessageQueueImpl> takeMessageQueuesWithOpenCircuitBreakers() throws ClientException {
+        return loadBalancer.takeMessageQueues(circuitBreakers::isAvailable, maxAttempts);
+    }
+}
@@ -0,0 +1,106 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.rocketmq.client.java.message;
+
+import apache.rocketmq.v2.Digest;
+import apache.rocketmq.v2.DigestType;
+import apache.rocketmq.v2.Encoding;
+import apache.rocketmq.v2.Message;
+import apache.rocketmq.v2.MessageType;
+import apache.rocketmq.v2.Resource;
+import apache.rocketmq.v2.SystemProperties;
+import com.google.protobuf.ByteString;
+import java.io.IOException;
+import java.security.NoSuchAlgorithmException;
+import java.util.concurrent.TimeUnit;
+import org.apache.commons.lang3.RandomUtils;
+import org.apache.rocketmq.client.java.misc.Utilities;
+import org.apache.rocketmq.client.java.route.MessageQueueImpl;
+import org.apache.rocketmq.client.java.tool.TestBase;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmark of decoding the received message, including the body digest verification and decompression.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class MessageViewBenchmark extends TestBase {
+    @Param({"16", "4096", "1048576"})
+    private int bodySize;
+
+    @Param({"CRC32", "MD5", "SHA1"})
+    private DigestType digestType;
+
+    @Param({"IDENTITY", "GZIP"})
+    private Encoding encoding;
+
+    private Message message;
+    private MessageQueueImpl mq;
+
+    @Setup
+    public void setup() throws IOException, NoSuchAlgorithmException {
+        byte[] body = RandomUtils.nextBytes(bodySize);
+        if (Encoding.GZIP.equals(encoding)) {
+            body = Utilities.compressBytesGzip(body, 5);
+        }
+        String checksum;
+        switch (digestType) {
+            case MD5:
+                checksum = Utilities.md5CheckSum(body);
+                break;
+            case SHA1:
+                checksum = Utilities.sha1CheckSum(body);
+                break;
+            case CRC32:
+            default:
+                checksum = Utilities.crc32CheckSum(body);
+        }
+        final Digest digest = Digest.newBuilder().setType(digestType).setChecksum(checksum).build();
+        final SystemProperties systemProperties = SystemProperties.newBuilder().setMessageType(MessageType.NORMAL)
+            .setMessageId(MessageIdCodec.getInstance().nextMessageId().toString())
+            .setBornHost(FAKE_HOST_0)
+            .setTag(FAKE_TAG_0)
+            .setBodyDigest(digest)
+            .setBodyEncoding(encoding)
+            .setReceiptHandle(FAKE_RECEIPT_HANDLE_0)
+            .build();
+        final Resource topicResource = Resource.newBuilder().setName(FAKE_TOPIC_0).build();
+        message = Message.newBuilder().setTopic(topicResource).setSystemProperties(systemProperties)
+            .setBody(ByteString.copyFrom(body)).build();
+        mq = fakeMessageQueueImpl0();
+    }
+
+    @Benchmark
+    public MessageViewImpl fromProtobuf() {
+        return MessageViewImpl.fromProtobuf(message, mq);
+    }
+}
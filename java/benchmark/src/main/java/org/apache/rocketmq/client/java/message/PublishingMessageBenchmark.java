@@ -0,0 +1,69 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.rocketmq.client.java.message;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import org.apache.commons.lang3.RandomUtils;
+import org.apache.rocketmq.client.apis.message.Message;
+import org.apache.rocketmq.client.java.tool.TestBase;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmark of wrapping the publishing message before sending, including the message id generation.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PublishingMessageBenchmark extends TestBase {
+    @Param({"16", "4096", "1048576"})
+    private int bodySize;
+
+    private Message message;
+    private PublishingMessageImpl publishingMessage;
+
+    @Setup
+    public void setup() throws IOException {
+        message = new MessageBuilderImpl().setTopic(FAKE_TOPIC_0).setTag(FAKE_TAG_0)
+            .setBody(RandomUtils.nextBytes(bodySize)).build();
+        publishingMessage = new PublishingMessageImpl(message, fakeProducerSettings(), false);
+    }
+
+    @Benchmark
+    public PublishingMessageImpl newPublishingMessage() throws IOException {
+        return new PublishingMessageImpl(message, fakeProducerSettings(), false);
+    }
+
+    @Benchmark
+    public apache.rocketmq.v2.Message toProtobuf() {
+        return publishingMessage.toProtobuf();
+    }
+}
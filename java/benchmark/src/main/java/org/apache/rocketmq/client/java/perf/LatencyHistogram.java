@@ -0,0 +1,98 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.rocketmq.client.java.perf;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Lock-free histogram of latencies in microseconds, whose relative error is no more than 1/32.
+ *
+ * <p>Values below 64 are counted exactly, the others are counted by the highest 6 significant bits.
+ */
+public class LatencyHistogram {
+    private static final int EXACT_BUCKETS = 64;
+    private static final int SUB_BUCKET_BITS = 5;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int MIN_EXPONENT = 6;
+    private static final int MAX_EXPONENT = 62;
+
+    private final AtomicLongArray counts =
+        new AtomicLongArray(EXACT_BUCKETS + (MAX_EXPONENT - MIN_EXPONENT + 1) * SUB_BUCKETS);
+
+    private static int indexOf(long value) {
+        if (value < EXACT_BUCKETS) {
+            return (int) Math.max(value, 0);
+        }
+        final int exponent = 63 - Long.numberOfLeadingZeros(value);
+        final int subBucket = (int) (value >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+        return EXACT_BUCKETS + (exponent - MIN_EXPONENT) * SUB_BUCKETS + subBucket;
+    }
+
+    private static long valueOf(int index) {
+        if (index < EXACT_BUCKETS) {
+            return index;
+        }
+        final int exponent = (index - EXACT_BUCKETS) / SUB_BUCKETS + MIN_EXPONENT;
+        final int subBucket = (index - EXACT_BUCKETS) % SUB_BUCKETS;
+        return (long) (SUB_BUCKETS + subBucket) << (exponent - SUB_BUCKET_BITS);
+    }
+
+    public void record(long micros) {
+        counts.incrementAndGet(indexOf(micros));
+    }
+
+    public void reset() {
+        for (int i = 0; i < counts.length(); i++) {
+            counts.set(i, 0);
+        }
+    }
+
+    public long count() {
+        long count = 0;
+        for (int i = 0; i < counts.length(); i++) {
+            count += counts.get(i);
+        }
+        return count;
+    }
+
+    /**
+     * @param percentile percentile in [0, 100].
+     * @return the lower bound of the bucket where the percentile falls, 0 if nothing was recorded.
+     */
+    public long percentile(double percentile) {
+        final long count = count();
+        if (0 == count) {
+            return 0;
+        }
+        final long rank = Math.max(1, (long) Math.ceil(percentile / 100 * count));
+        long accumulated = 0;
+        int last = 0;
+        for (int i = 0; i < counts.length(); i++) {
+            final long c = counts.get(i);
+            if (0 == c) {
+                continue;
+            }
+            accumulated += c;
+            last = i;
+            if (accumulated >= rank) {
+                return valueOf(i);
+            }
+        }
+        return valueOf(last);
+    }
+}
@@ -0,0 +1,251 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.rocketmq.client.java.perf;
+
+import com.google.common.util.concurrent.RateLimiter;
+import java.io.Closeable;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.apache.rocketmq.client.apis.ClientConfiguration;
+import org.apache.rocketmq.client.apis.ClientServiceProvider;
+import org.apache.rocketmq.client.apis.consumer.ConsumeResult;
+import org.apache.rocketmq.client.apis.consumer.FilterExpression;
+import org.apache.rocketmq.client.apis.consumer.SimpleConsumer;
+import org.apache.rocketmq.client.apis.message.Message;
+import org.apache.rocketmq.client.apis.message.MessageView;
+import org.apache.rocketmq.client.apis.producer.Producer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Drives a real producer, push consumer or simple consumer against the {@link MockMessagingServer} at a fixed rate
+ * or as fast as possible, and reports throughput, latency percentiles, allocation, GC and thread usage.
+ *
+ * <p>The mock server is embedded unless {@code --endpoints} is given. Latency of producer is measured from sending
+ * to completion, and latency of consumers is measured from the message generation on the mock server to the
+ * consumption, which requires the mock server to run on the same host.
+ */
+public class LoadGenerator {
+    private static final Logger LOGGER = LoggerFactory.getLogger(LoadGenerator.class);
+
+    private static final Duration INVISIBLE_DURATION = Duration.ofSeconds(30);
+    private static final Duration AWAIT_DURATION = Duration.ofSeconds(1);
+
+    private final LoadOptions options;
+    private final ClientServiceProvider provider;
+    private final AtomicLong operations = new AtomicLong();
+    private final AtomicLong errors = new AtomicLong();
+    private final LatencyHistogram histogram = new LatencyHistogram();
+    private volatile boolean running = true;
+
+    private LoadGenerator(LoadOptions options) {
+        this.options = options;
+        this.provider = ClientServiceProvider.loadService();
+    }
+
+    public static LoadReport run(LoadOptions options) throws Exception {
+        MockMessagingServer server = null;
+        String endpoints = options.getEndpoints();
+        if (null == endpoints) {
+            server = startServer(options);
+            endpoints = server.getEndpoints();
+        }
+        try {
+            return new LoadGenerator(options).run(endpoints);
+        } finally {
+            if (null != server) {
+                server.shutdown();
+            }
+        }
+    }
+
+    private static MockMessagingServer startServer(LoadOptions options) throws Exception {
+        // Deliver at the expected rate for consumers, the producer does not care about it.
+        final MockMessagingServer server = new MockMessagingServer(options.getPort(), options.getQueues(),
+            options.getLatency(), options.getErrorRate(), options.getRate(), options.getMessageSize());
+        server.start();
+        LOGGER.info("Mock messaging server is started, endpoints={}", server.getEndpoints());
+        return server;
+    }
+
+    private LoadReport run(String endpoints) throws Exception {
+        final ClientConfiguration configuration = ClientConfiguration.newBuilder().setEndpoints(endpoints).build();
+        final List<Thread> drivers = new ArrayList<>();
+        final Closeable client;
+        switch (options.getMode()) {
+            case PRODUCER:
+                client = startProducer(configuration, drivers);
+                break;
+            case PUSH:
+                client = startPushConsumer(configuration);
+                break;
+            case SIMPLE:
+                client = startSimpleConsumer(configuration, drivers);
+                break;
+            default:
+                throw new IllegalArgumentException("Mode is not a client: " + options.getMode());
+        }
+        try {
+            drivers.forEach(Thread::start);
+            TimeUnit.MILLISECONDS.sleep(options.getWarmup().toMillis());
+            operations.set(0);
+            errors.set(0);
+            histogram.reset();
+            ResourceUsage.resetPeakThreadCount();
+            final ResourceUsage start = ResourceUsage.snapshot();
+            TimeUnit.MILLISECONDS.sleep(options.getDuration().toMillis());
+            final ResourceUsage end = ResourceUsage.snapshot();
+            return new LoadReport(options.getMode(), operations.get(), errors.get(), histogram, start, end);
+        } finally {
+            running = false;
+            for (Thread driver : drivers) {
+                driver.join();
+            }
+            client.close();
+        }
+    }
+
+    private void recordSince(long startNanoTime) {
+        histogram.record(TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - startNanoTime));
+        operations.incrementAndGet();
+    }
+
+    private void recordGenerationLatency(MessageView messageView) {
+        final String generationNanoTime = messageView.getProperties()
+            .get(MockMessagingService.GENERATION_NANO_TIME_KEY);
+        if (null == generationNanoTime) {
+            operations.incrementAndGet();
+            return;
+        }
+        recordSince(Long.parseLong(generationNanoTime));
+    }
+
+    private Closeable startProducer(ClientConfiguration configuration, List<Thread> drivers) throws Exception {
+        final Producer producer = provider.newProducerBuilder().setClientConfiguration(configuration)
+            .setTopics(options.getTopic()).build();
+        final Message message = provider.newMessageBuilder().setTopic(options.getTopic())
+            .setBody(new byte[options.getMessageSize()]).build();
+        final RateLimiter rateLimiter = options.getRate() > 0 ? RateLimiter.create(options.getRate()) : null;
+        final Semaphore inflight = new Semaphore(options.getMaxInflight());
+        drivers.add(new Thread(() -> {
+            while (running) {
+                if (null != rateLimiter) {
+                    rateLimiter.acquire();
+                }
+                if (!inflight.tryAcquire()) {
+                    try {
+                        if (!inflight.tryAcquire(100, TimeUnit.MILLISECONDS)) {
+                            continue;
+                        }
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        return;
+                    }
+                }
+                final long startNanoTime = System.nanoTime();
+                producer.sendAsync(message).whenComplete((sendReceipt, t) -> {
+                    inflight.release();
+                    if (null != t) {
+                        errors.incrementAndGet();
+                        return;
+                    }
+                    recordSince(startNanoTime);
+                });
+            }
+            // Wait for the in-flight sends before the producer is closed.
+            inflight.acquireUninterruptibly(options.getMaxInflight());
+        }, "LoadProducer"));
+        return producer;
+    }
+
+    private Closeable startPushConsumer(ClientConfiguration configuration) throws Exception {
+        return provider.newPushConsumerBuilder().setClientConfiguration(configuration)
+            .setConsumerGroup(options.getGroup())
+            .setSubscriptionExpressions(Collections.singletonMap(options.getTopic(), FilterExpression.SUB_ALL))
+            .setConsumptionThreadCount(options.getConsumptionThreads())
+            .setMessageListener(messageView -> {
+                recordGenerationLatency(messageView);
+                return ConsumeResult.SUCCESS;
+            }).build();
+    }
+
+    private Closeable startSimpleConsumer(ClientConfiguration configuration, List<Thread> drivers) throws Exception {
+        final SimpleConsumer consumer = provider.newSimpleConsumerBuilder().setClientConfiguration(configuration)
+            .setConsumerGroup(options.getGroup())
+            .setSubscriptionExpressions(Collections.singletonMap(options.getTopic(), FilterExpression.SUB_ALL))
+            .setAwaitDuration(AWAIT_DURATION).build();
+        for (int i = 0; i < options.getReceiveThreads(); i++) {
+            drivers.add(new Thread(() -> {
+                while (running) {
+                    final List<MessageView> messageViews;
+                    try {
+                        messageViews = consumer.receive(options.getBatchSize(), INVISIBLE_DURATION);
+                    } catch (Throwable t) {
+                        errors.incrementAndGet();
+                        continue;
+                    }
+                    for (MessageView messageView : messageViews) {
+                        recordGenerationLatency(messageView);
+                        consumer.ackAsync(messageView).whenComplete((v, t) -> {
+                            if (null != t) {
+                                errors.incrementAndGet();
+                            }
+                        });
+                    }
+                }
+            }, "LoadSimpleConsumer-" + i));
+        }
+        return consumer;
+    }
+
+    // CHECKSTYLE:OFF
+    // The usage and the report are the output of the command line tool rather than logs.
+    public static void main(String[] args) throws Exception {
+        final LoadOptions options;
+        try {
+            options = LoadOptions.parse(args);
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.err.println(LoadOptions.USAGE);
+            System.exit(1);
+            return;
+        }
+        if (LoadOptions.Mode.SERVER == options.getMode()) {
+            final MockMessagingServer server = startServer(options);
+            System.out.println("Mock messaging server is listening on " + server.getEndpoints());
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                try {
+                    server.shutdown();
+                } catch (InterruptedException ignore) {
+                    Thread.currentThread().interrupt();
+                }
+            }));
+            new CountDownLatch(1).await();
+            return;
+        }
+        System.out.println(run(options));
+        System.exit(0);
+    }
+    // CHECKSTYLE:ON
+}
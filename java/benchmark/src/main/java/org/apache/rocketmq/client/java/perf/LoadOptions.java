@@ -0,0 +1,288 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.rocketmq.client.java.perf;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import java.time.Duration;
+import java.util.Locale;
+
+/**
+ * Options of {@link LoadGenerator}, parsed from the command line arguments in the form of {@code --name=value}.
+ */
+public class LoadOptions {
+    static final String USAGE = "Usage: LoadGenerator [--name=value]...\n"
+        + "  --mode=producer|push|simple|server  client to drive, or start the mock server only (producer)\n"
+        + "  --endpoints=host:port              external mock server, the embedded one is started if absent\n"
+        + "  --port=N                           port of the embedded mock server, 0 means any (0)\n"
+        + "  --topic=NAME                       topic (load-topic)\n"
+        + "  --group=NAME                       consumer group (load-group)\n"
+        + "  --rate=N                           messages per second, 0 means unlimited (0)\n"
+        + "  --duration=SECONDS                 measurement duration (30)\n"
+        + "  --warmup=SECONDS                   warmup duration before measurement (5)\n"
+        + "  --message-size=BYTES               message body size (1024)\n"
+        + "  --max-inflight=N                   max in-flight sends of producer (1024)\n"
+        + "  --consumption-threads=N            consumption threads of push consumer (20)\n"
+        + "  --receive-threads=N                receiving threads of simple consumer (4)\n"
+        + "  --batch-size=N                     max messages per receive of simple consumer (32)\n"
+        + "  --queues=N                         message queues of each topic on the mock server (8)\n"
+        + "  --latency-millis=N                 latency injected by the mock server (0)\n"
+        + "  --error-rate=R                     ratio of failed send/receive/ack on the mock server (0)";
+
+    public enum Mode {
+        PRODUCER,
+        PUSH,
+        SIMPLE,
+        SERVER
+    }
+
+    private Mode mode = Mode.PRODUCER;
+    private String endpoints = null;
+    private int port = 0;
+    private String topic = "load-topic";
+    private String group = "load-group";
+    private double rate = 0;
+    private Duration duration = Duration.ofSeconds(30);
+    private Duration warmup = Duration.ofSeconds(5);
+    private int messageSize = 1024;
+    private int maxInflight = 1024;
+    private int consumptionThreads = 20;
+    private int receiveThreads = 4;
+    private int batchSize = 32;
+    private int queues = 8;
+    private Duration latency = Duration.ZERO;
+    private double errorRate = 0;
+
+    public static LoadOptions parse(String[] args) {
+        final LoadOptions options = new LoadOptions();
+        for (String arg : args) {
+            checkArgument(arg.startsWith("--") && arg.contains("="), "Illegal argument: " + arg);
+            final String name = arg.substring(2, arg.indexOf('='));
+            final String value = arg.substring(arg.indexOf('=') + 1);
+            switch (name) {
+                case "mode":
+                    options.setMode(Mode.valueOf(value.toUpperCase(Locale.ROOT)));
+                    break;
+                case "endpoints":
+                    options.setEndpoints(value);
+                    break;
+                case "port":
+                    options.setPort(Integer.parseInt(value));
+                    break;
+                case "topic":
+                    options.setTopic(value);
+                    break;
+                case "group":
+                    options.setGroup(value);
+                    break;
+                case "rate":
+                    options.setRate(Double.parseDouble(value));
+                    break;
+                case "duration":
+                    options.setDuration(Duration.ofSeconds(Long.parseLong(value)));
+                    break;
+                case "warmup":
+                    options.setWarmup(Duration.ofSeconds(Long.parseLong(value)));
+                    break;
+                case "message-size":
+                    options.setMessageSize(Integer.parseInt(value));
+                    break;
+                case "max-inflight":
+                    options.setMaxInflight(Integer.parseInt(value));
+                    break;
+                case "consumption-threads":
+                    options.setConsumptionThreads(Integer.parseInt(value));
+                    break;
+                case "receive-threads":
+                    options.setReceiveThreads(Integer.parseInt(value));
+                    break;
+                case "batch-size":
+                    options.setBatchSize(Integer.parseInt(value));
+                    break;
+                case "queues":
+                    options.setQueues(Integer.parseInt(value));
+                    break;
+                case "latency-millis":
+                    options.setLatency(Duration.ofMillis(Long.parseLong(value)));
+                    break;
+                case "error-rate":
+                    options.setErrorRate(Double.parseDouble(value));
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unrecognized option: " + name);
+            }
+        }
+        return options;
+    }
+
+    public Mode getMode() {
+        return mode;
+    }
+
+    public LoadOptions setMode(Mode mode) {
+        this.mode = mode;
+        return this;
+    }
+
+    public String getEndpoints() {
+        return endpoints;
+    }
+
+    public LoadOptions setEndpoints(String endpoints) {
+        this.endpoints = endpoints;
+        return this;
+    }
+
+    public int getPort() {
+        return port;
+    }
+
+    public LoadOptions setPort(int port) {
+        checkArgument(port >= 0, "port should not be negative");
+        this.port = port;
+        return this;
+    }
+
+    public String getTopic() {
+        return topic;
+    }
+
+    public LoadOptions setTopic(String topic) {
+        this.topic = topic;
+        return this;
+    }
+
+    public String getGroup() {
+        return group;
+    }
+
+    public LoadOptions setGroup(String group) {
+        this.group = group;
+        return this;
+    }
+
+    public double getRate() {
+        return rate;
+    }
+
+    public LoadOptions setRate(double rate) {
+        checkArgument(rate >= 0, "rate should not be negative");
+        this.rate = rate;
+        return this;
+    }
+
+    public Duration getDuration() {
+        return duration;
+    }
+
+    public LoadOptions setDuration(Duration duration) {
+        checkArgument(!duration.isNegative() && !duration.isZero(), "duration should be positive");
+        this.duration = duration;
+        return this;
+    }
+
+    public Duration getWarmup() {
+        return warmup;
+    }
+
+    public LoadOptions setWarmup(Duration warmup) {
+        checkArgument(!warmup.isNegative(), "warmup should not be negative");
+        this.warmup = warmup;
+        return this;
+    }
+
+    public int getMessageSize() {
+        return messageSize;
+    }
+
+    public LoadOptions setMessageSize(int messageSize) {
+        checkArgument(messageSize > 0, "message size should be positive");
+        this.messageSize = messageSize;
+        return this;
+    }
+
+    public int getMaxInflight() {
+        return maxInflight;
+    }
+
+    public LoadOptions setMaxInflight(int maxInflight) {
+        checkArgument(maxInflight > 0, "max in-flight should be positive");
+        this.maxInflight = maxInflight;
+        return this;
+    }
+
+    public int getConsumptionThreads() {
+        return consumptionThreads;
+    }
+
+    public LoadOptions setConsumptionThreads(int consumptionThreads) {
+        checkArgument(consumptionThreads > 0, "consumption threads should be positive");
+        this.consumptionThreads = consumptionThreads;
+        return this;
+    }
+
+    public int getReceiveThreads() {
+        return receiveThreads;
+    }
+
+    public LoadOptions setReceiveThreads(int receiveThreads) {
+        checkArgument(receiveThreads > 0, "receive threads should be positive");
+        this.receiveThreads = receiveThreads;
+        return this;
+    }
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    public LoadOptions setBatchSize(int batchSize) {
+        checkArgument(batchSize > 0, "batch size should be positive");
+        this.batchSize = batchSize;
+        return this;
+    }
+
+    public int getQueues() {
+        return queues;
+    }
+
+    public LoadOptions setQueues(int queues) {
+        checkArgument(queues > 0, "queues should be positive");
+        this.queues = queues;
+        return this;
+    }
+
+    public Duration getLatency() {
+        return latency;
+    }
+
+    public LoadOptions setLatency(Duration latency) {
+        checkArgument(!latency.isNegative(), "latency should not be negative");
+        this.latency = latency;
+        return this;
+    }
+
+    public double getErrorRate() {
+        return errorRate;
+    }
+
+    public LoadOptions setErrorRate(double errorRate) {
+        checkArgument(errorRate >= 0 && errorRate <= 1, "error rate should be in [0, 1]");
+        this.errorRate = errorRate;
+        return this;
+    }
+}
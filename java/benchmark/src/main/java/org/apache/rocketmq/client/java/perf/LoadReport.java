@@ -0,0 +1,126 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.rocketmq.client.java.perf;
+
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Result of a {@link LoadGenerator} run, latencies are in microseconds.
+ */
+public class LoadReport {
+    private final LoadOptions.Mode mode;
+    private final long elapsedNanos;
+    private final long operations;
+    private final long errors;
+    private final long p50;
+    private final long p90;
+    private final long p99;
+    private final long p999;
+    private final long max;
+    private final long allocatedBytes;
+    private final long gcCount;
+    private final long gcMillis;
+    private final int threadCount;
+    private final int peakThreadCount;
+
+    LoadReport(LoadOptions.Mode mode, long operations, long errors, LatencyHistogram histogram, ResourceUsage start,
+        ResourceUsage end) {
+        this.mode = mode;
+        this.elapsedNanos = end.nanosSince(start);
+        this.operations = operations;
+        this.errors = errors;
+        this.p50 = histogram.percentile(50);
+        this.p90 = histogram.percentile(90);
+        this.p99 = histogram.percentile(99);
+        this.p999 = histogram.percentile(99.9);
+        this.max = histogram.percentile(100);
+        this.allocatedBytes = end.allocatedBytesSince(start);
+        this.gcCount = end.gcCountSince(start);
+        this.gcMillis = end.gcMillisSince(start);
+        this.threadCount = end.getThreadCount();
+        this.peakThreadCount = end.getPeakThreadCount();
+    }
+
+    public long getOperations() {
+        return operations;
+    }
+
+    public long getErrors() {
+        return errors;
+    }
+
+    public double getThroughput() {
+        return elapsedNanos <= 0 ? 0 : operations * (double) TimeUnit.SECONDS.toNanos(1) / elapsedNanos;
+    }
+
+    public long getP50() {
+        return p50;
+    }
+
+    public long getP90() {
+        return p90;
+    }
+
+    public long getP99() {
+        return p99;
+    }
+
+    public long getP999() {
+        return p999;
+    }
+
+    public long getMax() {
+        return max;
+    }
+
+    public long getAllocatedBytes() {
+        return allocatedBytes;
+    }
+
+    public double getAllocatedBytesPerOperation() {
+        return operations <= 0 ? 0 : allocatedBytes / (double) operations;
+    }
+
+    public long getGcCount() {
+        return gcCount;
+    }
+
+    public long getGcMillis() {
+        return gcMillis;
+    }
+
+    public int getThreadCount() {
+        return threadCount;
+    }
+
+    public int getPeakThreadCount() {
+        return peakThreadCount;
+    }
+
+    @Override
+    public String toString() {
+        final double seconds = elapsedNanos / (double) TimeUnit.SECONDS.toNanos(1);
+        return String.format(Locale.ROOT, "mode=%s, elapsed=%.1fs, operations=%d, errors=%d, throughput=%.1f/s%n"
+                + "latency(us): p50=%d, p90=%d, p99=%d, p99.9=%d, max=%d%n"
+                + "allocation: %.1f MB/s, %.0f B/op; gc: count=%d, time=%dms; threads: live=%d, peak=%d",
+            mode.name().toLowerCase(Locale.ROOT), seconds, operations, errors, getThroughput(), p50, p90, p99, p999,
+            max, seconds <= 0 ? 0 : allocatedBytes / seconds / (1024 * 1024), getAllocatedBytesPerOperation(),
+            gcCount, gcMillis, threadCount, peakThreadCount);
+    }
+}
@@ -0,0 +1,100 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.rocketmq.client.java.perf;
+
+import io.grpc.Server;
+import io.grpc.netty.shaded.io.grpc.netty.GrpcSslContexts;
+import io.grpc.netty.shaded.io.grpc.netty.NettyServerBuilder;
+import io.grpc.netty.shaded.io.netty.handler.ssl.util.SelfSignedCertificate;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.security.cert.CertificateException;
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import org.apache.rocketmq.client.java.misc.ThreadFactoryImpl;
+
+/**
+ * Loopback gRPC server of {@link MockMessagingService}, which is secured by a self-signed certificate generated on
+ * start since the client always connects over TLS.
+ */
+public class MockMessagingServer {
+    private static final String HOST = "127.0.0.1";
+
+    private final int port;
+    private final MockMessagingService service;
+    private final ScheduledExecutorService scheduler;
+    private final ExecutorService executor;
+    private Server server;
+
+    /**
+     * @param port         port to listen, 0 means any free port.
+     * @param queueCount   message queue quantity of each topic.
+     * @param latency      latency injected before each response.
+     * @param errorRate    ratio of sending, receiving and acknowledgement to fail, in [0, 1].
+     * @param deliveryRate messages delivered per second, non-positive means unlimited.
+     * @param bodySize     body size of the delivered message.
+     */
+    public MockMessagingServer(int port, int queueCount, Duration latency, double errorRate, double deliveryRate,
+        int bodySize) {
+        this.port = port;
+        this.scheduler = Executors.newScheduledThreadPool(1, new ThreadFactoryImpl("MockServerScheduler"));
+        this.executor = Executors.newCachedThreadPool(new ThreadFactoryImpl("MockServerWorker"));
+        this.service = new MockMessagingService(queueCount, latency, errorRate, deliveryRate, bodySize, scheduler);
+    }
+
+    public void start() throws IOException {
+        final SelfSignedCertificate certificate;
+        try {
+            certificate = new SelfSignedCertificate(HOST);
+        } catch (CertificateException e) {
+            throw new IOException("Failed to generate the self-signed certificate", e);
+        }
+        try {
+            server = NettyServerBuilder.forAddress(new InetSocketAddress(HOST, port))
+                .sslContext(GrpcSslContexts.forServer(certificate.certificate(), certificate.privateKey()).build())
+                .executor(executor)
+                .maxInboundMessageSize(Integer.MAX_VALUE)
+                .addService(service)
+                .build()
+                .start();
+        } finally {
+            // The certificate and the private key are loaded already, delete their temporary files.
+            certificate.delete();
+        }
+        service.bind(HOST, server.getPort());
+    }
+
+    /**
+     * @return endpoints for the client to connect.
+     */
+    public String getEndpoints() {
+        return HOST + ":" + server.getPort();
+    }
+
+    public void shutdown() throws InterruptedException {
+        if (null != server) {
+            server.shutdownNow();
+            server.awaitTermination(10, TimeUnit.SECONDS);
+        }
+        scheduler.shutdownNow();
+        executor.shutdownNow();
+    }
+}
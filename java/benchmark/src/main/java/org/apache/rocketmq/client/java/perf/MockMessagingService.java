@@ -0,0 +1,354 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.rocketmq.client.java.perf;
+
+import apache.rocketmq.v2.AckMessageRequest;
+import apache.rocketmq.v2.AckMessageResponse;
+import apache.rocketmq.v2.AckMessageResultEntry;
+import apache.rocketmq.v2.Address;
+import apache.rocketmq.v2.AddressScheme;
+import apache.rocketmq.v2.Assignment;
+import apache.rocketmq.v2.Broker;
+import apache.rocketmq.v2.ChangeInvisibleDurationRequest;
+import apache.rocketmq.v2.ChangeInvisibleDurationResponse;
+import apache.rocketmq.v2.Code;
+import apache.rocketmq.v2.Digest;
+import apache.rocketmq.v2.DigestType;
+import apache.rocketmq.v2.Encoding;
+import apache.rocketmq.v2.EndTransactionRequest;
+import apache.rocketmq.v2.EndTransactionResponse;
+import apache.rocketmq.v2.Endpoints;
+import apache.rocketmq.v2.ExponentialBackoff;
+import apache.rocketmq.v2.ForwardMessageToDeadLetterQueueRequest;
+import apache.rocketmq.v2.ForwardMessageToDeadLetterQueueResponse;
+import apache.rocketmq.v2.HeartbeatRequest;
+import apache.rocketmq.v2.HeartbeatResponse;
+import apache.rocketmq.v2.Message;
+import apache.rocketmq.v2.MessageQueue;
+import apache.rocketmq.v2.MessageType;
+import apache.rocketmq.v2.MessagingServiceGrpc;
+import apache.rocketmq.v2.NotifyClientTerminationRequest;
+import apache.rocketmq.v2.NotifyClientTerminationResponse;
+import apache.rocketmq.v2.Permission;
+import apache.rocketmq.v2.QueryAssignmentRequest;
+import apache.rocketmq.v2.QueryAssignmentResponse;
+import apache.rocketmq.v2.QueryRouteRequest;
+import apache.rocketmq.v2.QueryRouteResponse;
+import apache.rocketmq.v2.ReceiveMessageRequest;
+import apache.rocketmq.v2.ReceiveMessageResponse;
+import apache.rocketmq.v2.Resource;
+import apache.rocketmq.v2.RetryPolicy;
+import apache.rocketmq.v2.SendMessageRequest;
+import apache.rocketmq.v2.SendMessageResponse;
+import apache.rocketmq.v2.SendResultEntry;
+import apache.rocketmq.v2.Settings;
+import apache.rocketmq.v2.Status;
+import apache.rocketmq.v2.SystemProperties;
+import apache.rocketmq.v2.TelemetryCommand;
+import com.google.common.util.concurrent.RateLimiter;
+import com.google.protobuf.ByteString;
+import com.google.protobuf.util.Durations;
+import com.google.protobuf.util.Timestamps;
+import io.grpc.stub.StreamObserver;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.apache.rocketmq.client.java.message.MessageIdCodec;
+import org.apache.rocketmq.client.java.misc.Utilities;
+
+/**
+ * Messaging service which serves the client from memory, every topic is routed to the mock broker itself.
+ *
+ * <p>Messages to receive are generated on demand rather than taken from what was sent, so that consumers could be
+ * driven without producers. The delivery rate is limited if required, and the long polling is returned as message
+ * not found once nothing could be delivered in {@link #LONG_POLLING_TIMEOUT}.
+ */
+class MockMessagingService extends MessagingServiceGrpc.MessagingServiceImplBase {
+    /**
+     * User property holding the {@link System#nanoTime()} when the message is generated.
+     */
+    static final String GENERATION_NANO_TIME_KEY = "__LOAD_GENERATION_NANO_TIME";
+
+    private static final String BROKER_NAME = "mock-broker";
+    private static final Duration LONG_POLLING_TIMEOUT = Duration.ofSeconds(1);
+    private static final int MAX_BODY_SIZE = 4 * 1024 * 1024;
+    private static final int RECEIVE_BATCH_SIZE = 32;
+    private static final int MAX_DELIVERY_ATTEMPTS = 16;
+
+    private final int queueCount;
+    private final Duration latency;
+    private final double errorRate;
+    private final RateLimiter deliveryRateLimiter;
+    private final ScheduledExecutorService scheduler;
+    private final ByteString body;
+    private final Digest bodyDigest;
+
+    private final AtomicLong offset = new AtomicLong();
+    private volatile Endpoints endpoints;
+
+    MockMessagingService(int queueCount, Duration latency, double errorRate, double deliveryRate, int bodySize,
+        ScheduledExecutorService scheduler) {
+        this.queueCount = queueCount;
+        this.latency = latency;
+        this.errorRate = errorRate;
+        this.deliveryRateLimiter = deliveryRate > 0 ? RateLimiter.create(deliveryRate) : null;
+        this.scheduler = scheduler;
+        final byte[] bytes = new byte[bodySize];
+        ThreadLocalRandom.current().nextBytes(bytes);
+        this.body = ByteString.copyFrom(bytes);
+        this.bodyDigest = Digest.newBuilder().setType(DigestType.CRC32)
+            .setChecksum(Utilities.crc32CheckSum(bytes)).build();
+    }
+
+    void bind(String host, int port) {
+        final Address address = Address.newBuilder().setHost(host).setPort(port).build();
+        this.endpoints = Endpoints.newBuilder().setScheme(AddressScheme.IPv4).addAddresses(address).build();
+    }
+
+    private static Status status(Code code) {
+        return Status.newBuilder().setCode(code).setMessage(code.name()).build();
+    }
+
+    private boolean injectError() {
+        return errorRate > 0 && ThreadLocalRandom.current().nextDouble() < errorRate;
+    }
+
+    /**
+     * Respond after the injected latency.
+     */
+    private <T> void respond(StreamObserver<T> observer, List<T> responses) {
+        final Runnable task = () -> {
+            for (T response : responses) {
+                observer.onNext(response);
+            }
+            observer.onCompleted();
+        };
+        if (latency.isZero()) {
+            task.run();
+            return;
+        }
+        scheduler.schedule(task, latency.toNanos(), TimeUnit.NANOSECONDS);
+    }
+
+    private <T> void respond(StreamObserver<T> observer, T response) {
+        final List<T> responses = new ArrayList<>(1);
+        responses.add(response);
+        respond(observer, responses);
+    }
+
+    private List<MessageQueue> messageQueues(Resource topic) {
+        final Broker broker = Broker.newBuilder().setName(BROKER_NAME).setId(Utilities.MASTER_BROKER_ID)
+            .setEndpoints(endpoints).build();
+        List<MessageQueue> messageQueues = new ArrayList<>(queueCount);
+        for (int i = 0; i < queueCount; i++) {
+            messageQueues.add(MessageQueue.newBuilder().setTopic(topic).setId(i).setBroker(broker)
+                .setPermission(Permission.READ_WRITE).addAcceptMessageTypes(MessageType.NORMAL)
+                .addAcceptMessageTypes(MessageType.FIFO).addAcceptMessageTypes(MessageType.DELAY)
+                .addAcceptMessageTypes(MessageType.TRANSACTION).build());
+        }
+        return messageQueues;
+    }
+
+    @Override
+    public void queryRoute(QueryRouteRequest request, StreamObserver<QueryRouteResponse> observer) {
+        respond(observer, QueryRouteResponse.newBuilder().setStatus(status(Code.OK))
+            .addAllMessageQueues(messageQueues(request.getTopic())).build());
+    }
+
+    @Override
+    public void heartbeat(HeartbeatRequest request, StreamObserver<HeartbeatResponse> observer) {
+        respond(observer, HeartbeatResponse.newBuilder().setStatus(status(Code.OK)).build());
+    }
+
+    @Override
+    public void sendMessage(SendMessageRequest request, StreamObserver<SendMessageResponse> observer) {
+        final Status status = injectError() ? status(Code.INTERNAL_SERVER_ERROR) : status(Code.OK);
+        final SendMessageResponse.Builder builder = SendMessageResponse.newBuilder().setStatus(status);
+        for (Message message : request.getMessagesList()) {
+            builder.addEntries(SendResultEntry.newBuilder().setStatus(status)
+                .setMessageId(message.getSystemProperties().getMessageId())
+                .setOffset(offset.getAndIncrement()).build());
+        }
+        respond(observer, builder.build());
+    }
+
+    @Override
+    public void queryAssignment(QueryAssignmentRequest request, StreamObserver<QueryAssignmentResponse> observer) {
+        final QueryAssignmentResponse.Builder builder = QueryAssignmentResponse.newBuilder()
+            .setStatus(status(Code.OK));
+        for (MessageQueue messageQueue : messageQueues(request.getTopic())) {
+            builder.addAssignments(Assignment.newBuilder().setMessageQueue(messageQueue).build());
+        }
+        respond(observer, builder.build());
+    }
+
+    /**
+     * Acquire the quantity of messages to deliver, which blocks for the long polling at most.
+     */
+    private int acquireDeliveries(int batchSize) {
+        if (null == deliveryRateLimiter) {
+            return batchSize;
+        }
+        if (!deliveryRateLimiter.tryAcquire(LONG_POLLING_TIMEOUT.toNanos(), TimeUnit.NANOSECONDS)) {
+            return 0;
+        }
+        int quantity = 1;
+        while (quantity < batchSize && deliveryRateLimiter.tryAcquire()) {
+            quantity++;
+        }
+        return quantity;
+    }
+
+    private Message generateMessage(MessageQueue messageQueue) {
+        final long now = System.currentTimeMillis();
+        final String messageId = MessageIdCodec.getInstance().nextMessageId().toString();
+        final SystemProperties systemProperties = SystemProperties.newBuilder()
+            .setMessageId(messageId)
+            .setMessageType(MessageType.NORMAL)
+            .setBodyDigest(bodyDigest)
+            .setBodyEncoding(Encoding.IDENTITY)
+            .setBornTimestamp(Timestamps.fromMillis(now))
+            .setBornHost(BROKER_NAME)
+            .setStoreTimestamp(Timestamps.fromMillis(now))
+            .setQueueId(messageQueue.getId())
+            .setQueueOffset(offset.getAndIncrement())
+            .setReceiptHandle(messageId)
+            .setDeliveryAttempt(1)
+            .build();
+        return Message.newBuilder().setTopic(messageQueue.getTopic()).setSystemProperties(systemProperties)
+            .putUserProperties(GENERATION_NANO_TIME_KEY, String.valueOf(System.nanoTime()))
+            .setBody(body).build();
+    }
+
+    @Override
+    public void receiveMessage(ReceiveMessageRequest request, StreamObserver<ReceiveMessageResponse> observer) {
+        List<ReceiveMessageResponse> responses = new ArrayList<>();
+        if (injectError()) {
+            responses.add(ReceiveMessageResponse.newBuilder().setStatus(status(Code.INTERNAL_SERVER_ERROR)).build());
+            respond(observer, responses);
+            return;
+        }
+        final int quantity = acquireDeliveries(Math.max(request.getBatchSize(), 1));
+        if (quantity <= 0) {
+            responses.add(ReceiveMessageResponse.newBuilder().setStatus(status(Code.MESSAGE_NOT_FOUND)).build());
+            respond(observer, responses);
+            return;
+        }
+        responses.add(ReceiveMessageResponse.newBuilder().setStatus(status(Code.OK)).build());
+        responses.add(ReceiveMessageResponse.newBuilder()
+            .setDeliveryTimestamp(Timestamps.fromMillis(System.currentTimeMillis())).build());
+        for (int i = 0; i < quantity; i++) {
+            responses.add(ReceiveMessageResponse.newBuilder()
+                .setMessage(generateMessage(request.getMessageQueue())).build());
+        }
+        respond(observer, responses);
+    }
+
+    @Override
+    public void ackMessage(AckMessageRequest request, StreamObserver<AckMessageResponse> observer) {
+        final Status status = injectError() ? status(Code.INTERNAL_SERVER_ERROR) : status(Code.OK);
+        final AckMessageResponse.Builder builder = AckMessageResponse.newBuilder().setStatus(status);
+        request.getEntriesList().forEach(entry -> builder.addEntries(AckMessageResultEntry.newBuilder()
+            .setMessageId(entry.getMessageId()).setReceiptHandle(entry.getReceiptHandle()).setStatus(status)
+            .build()));
+        respond(observer, builder.build());
+    }
+
+    @Override
+    public void forwardMessageToDeadLetterQueue(ForwardMessageToDeadLetterQueueRequest request,
+        StreamObserver<ForwardMessageToDeadLetterQueueResponse> observer) {
+        respond(observer, ForwardMessageToDeadLetterQueueResponse.newBuilder().setStatus(status(Code.OK)).build());
+    }
+
+    @Override
+    public void endTransaction(EndTransactionRequest request, StreamObserver<EndTransactionResponse> observer) {
+        respond(observer, EndTransactionResponse.newBuilder().setStatus(status(Code.OK)).build());
+    }
+
+    @Override
+    public void notifyClientTermination(NotifyClientTerminationRequest request,
+        StreamObserver<NotifyClientTerminationResponse> observer) {
+        respond(observer, NotifyClientTerminationResponse.newBuilder().setStatus(status(Code.OK)).build());
+    }
+
+    @Override
+    public void changeInvisibleDuration(ChangeInvisibleDurationRequest request,
+        StreamObserver<ChangeInvisibleDurationResponse> observer) {
+        respond(observer, ChangeInvisibleDurationResponse.newBuilder().setStatus(status(Code.OK))
+            .setReceiptHandle(request.getReceiptHandle()).build());
+    }
+
+    /**
+     * Complete the settings reported by the client with what is supposed to be issued by the server.
+     */
+    private Settings issueSettings(Settings settings) {
+        final int maxAttempts = settings.hasBackoffPolicy() ? settings.getBackoffPolicy().getMaxAttempts() :
+            MAX_DELIVERY_ATTEMPTS;
+        final ExponentialBackoff backoff = ExponentialBackoff.newBuilder().setInitial(Durations.fromMillis(10))
+            .setMax(Durations.fromSeconds(1)).setMultiplier(2).build();
+        final Settings.Builder builder = settings.toBuilder().setBackoffPolicy(RetryPolicy.newBuilder()
+            .setMaxAttempts(maxAttempts).setExponentialBackoff(backoff).build());
+        switch (settings.getPubSubCase()) {
+            case PUBLISHING:
+                builder.setPublishing(settings.getPublishing().toBuilder().setMaxBodySize(MAX_BODY_SIZE)
+                    .setValidateMessageType(true).build());
+                break;
+            case SUBSCRIPTION:
+                builder.setSubscription(settings.getSubscription().toBuilder().setFifo(false)
+                    .setReceiveBatchSize(RECEIVE_BATCH_SIZE)
+                    .setLongPollingTimeout(Durations.fromNanos(LONG_POLLING_TIMEOUT.toNanos())).build());
+                break;
+            default:
+                break;
+        }
+        return builder.build();
+    }
+
+    @Override
+    public StreamObserver<TelemetryCommand> telemetry(StreamObserver<TelemetryCommand> responseObserver) {
+        return new StreamObserver<TelemetryCommand>() {
+            @Override
+            public void onNext(TelemetryCommand command) {
+                if (!command.hasSettings()) {
+                    return;
+                }
+                final TelemetryCommand response = TelemetryCommand.newBuilder().setStatus(status(Code.OK))
+                    .setSettings(issueSettings(command.getSettings())).build();
+                synchronized (responseObserver) {
+                    responseObserver.onNext(response);
+                }
+            }
+
+            @Override
+            public void onError(Throwable t) {
+                // The stream is closed by the client.
+            }
+
+            @Override
+            public void onCompleted() {
+                synchronized (responseObserver) {
+                    responseObserver.onCompleted();
+                }
+            }
+        };
+    }
+}
@@ -0,0 +1,103 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.rocketmq.client.java.perf;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Snapshot of the resource usage of the current JVM, the difference of two snapshots tells the usage in between.
+ *
+ * <p>Allocation is summed over the live threads, so the allocation of threads terminated in between is missed.
+ */
+public class ResourceUsage {
+    private final long nanoTime;
+    private final Map<Long, Long> allocatedBytes;
+    private final long gcCount;
+    private final long gcMillis;
+    private final int threadCount;
+    private final int peakThreadCount;
+
+    private ResourceUsage(long nanoTime, Map<Long, Long> allocatedBytes, long gcCount, long gcMillis,
+        int threadCount, int peakThreadCount) {
+        this.nanoTime = nanoTime;
+        this.allocatedBytes = allocatedBytes;
+        this.gcCount = gcCount;
+        this.gcMillis = gcMillis;
+        this.threadCount = threadCount;
+        this.peakThreadCount = peakThreadCount;
+    }
+
+    public static ResourceUsage snapshot() {
+        final ThreadMXBean threadMxBean = ManagementFactory.getThreadMXBean();
+        Map<Long, Long> allocatedBytes = new HashMap<>();
+        if (threadMxBean instanceof com.sun.management.ThreadMXBean) {
+            final com.sun.management.ThreadMXBean bean = (com.sun.management.ThreadMXBean) threadMxBean;
+            final long[] threadIds = bean.getAllThreadIds();
+            final long[] bytes = bean.getThreadAllocatedBytes(threadIds);
+            for (int i = 0; i < threadIds.length; i++) {
+                if (bytes[i] >= 0) {
+                    allocatedBytes.put(threadIds[i], bytes[i]);
+                }
+            }
+        }
+        long gcCount = 0;
+        long gcMillis = 0;
+        for (GarbageCollectorMXBean bean : ManagementFactory.getGarbageCollectorMXBeans()) {
+            gcCount += Math.max(bean.getCollectionCount(), 0);
+            gcMillis += Math.max(bean.getCollectionTime(), 0);
+        }
+        return new ResourceUsage(System.nanoTime(), allocatedBytes, gcCount, gcMillis,
+            threadMxBean.getThreadCount(), threadMxBean.getPeakThreadCount());
+    }
+
+    public static void resetPeakThreadCount() {
+        ManagementFactory.getThreadMXBean().resetPeakThreadCount();
+    }
+
+    public long allocatedBytesSince(ResourceUsage start) {
+        long bytes = 0;
+        for (Map.Entry<Long, Long> entry : allocatedBytes.entrySet()) {
+            bytes += entry.getValue() - start.allocatedBytes.getOrDefault(entry.getKey(), 0L);
+        }
+        return bytes;
+    }
+
+    public long gcCountSince(ResourceUsage start) {
+        return gcCount - start.gcCount;
+    }
+
+    public long gcMillisSince(ResourceUsage start) {
+        return gcMillis - start.gcMillis;
+    }
+
+    public long nanosSince(ResourceUsage start) {
+        return nanoTime - start.nanoTime;
+    }
+
+    public int getThreadCount() {
+        return threadCount;
+    }
+
+    public int getPeakThreadCount() {
+        return peakThreadCount;
+    }
+}
@@ -19,6 +19,7 @@ package org.apache.rocketmq.client.apis;
 
 import java.time.Duration;
 import java.util.Optional;
+import java.util.concurrent.Executor;
 
 /**
  * Common client configuration.
@@ -27,16 +28,30 @@ public class ClientConfiguration {
     private final String endpoints;
     private final SessionCredentialsProvider sessionCredentialsProvider;
     private final Duration requestTimeout;
+    private final String routeSnapshotDirectory;
+    private final Integer localMetricsPort;
+    private final boolean localMetricsJmxEnabled;
+    private final double stageLatencySampleRate;
+    private final Executor completionExecutor;
+    private final ExecutorProvider executorProvider;
 
     /**
      * The caller is supposed to have validated the arguments and handled throwing exceptions or
      * logging warnings already, so we avoid repeating args check here.
      */
     ClientConfiguration(String endpoints, SessionCredentialsProvider sessionCredentialsProvider,
-        Duration requestTimeout) {
+        Duration requestTimeout, String routeSnapshotDirectory, Integer localMetricsPort,
+        boolean localMetricsJmxEnabled, double stageLatencySampleRate, Executor completionExecutor,
+        ExecutorProvider executorProvider) {
         this.endpoints = endpoints;
         this.sessionCredentialsProvider = sessionCredentialsProvider;
         this.requestTimeout = requestTimeout;
+        this.routeSnapshotDirectory = routeSnapshotDirectory;
+        this.localMetricsPort = localMetricsPort;
+        this.localMetricsJmxEnabled = localMetricsJmxEnabled;
+        this.stageLatencySampleRate = stageLatencySampleRate;
+        this.completionExecutor = completionExecutor;
+        this.executorProvider = executorProvider;
     }
 
     public static ClientConfigurationBuilder newBuilder() {
@@ -54,4 +69,28 @@ public class ClientConfiguration {
     public Duration getRequestTimeout() {
         return requestTimeout;
     }
+
+    public Optional<String> getRouteSnapshotDirectory() {
+        return null == routeSnapshotDirectory ? Optional.empty() : Optional.of(routeSnapshotDirectory);
+    }
+
+    public Optional<Integer> getLocalMetricsPort() {
+        return null == localMetricsPort ? Optional.empty() : Optional.of(localMetricsPort);
+    }
+
+    public boolean isLocalMetricsJmxEnabled() {
+        return localMetricsJmxEnabled;
+    }
+
+    public double getStageLatencySampleRate() {
+        return stageLatencySampleRate;
+    }
+
+    public Optional<Executor> getCompletionExecutor() {
+        return null == completionExecutor ? Optional.empty() : Optional.of(completionExecutor);
+    }
+
+    public Optional<ExecutorProvider> getExecutorProvider() {
+        return null == executorProvider ? Optional.empty() : Optional.of(executorProvider);
+    }
 }
@@ -17,9 +17,11 @@
 
 package org.apache.rocketmq.client.apis;
 
+import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkNotNull;
 
 import java.time.Duration;
+import java.util.concurrent.Executor;
 
 /**
  * Builder to set {@link ClientConfiguration}.
@@ -28,6 +30,12 @@ public class ClientConfigurationBuilder {
     private String endpoints;
     private SessionCredentialsProvider sessionCredentialsProvider = null;
     private Duration requestTimeout = Duration.ofSeconds(3);
+    private String routeSnapshotDirectory = null;
+    private Integer localMetricsPort = null;
+    private boolean localMetricsJmxEnabled = false;
+    private double stageLatencySampleRate = 0;
+    private Executor completionExecutor = null;
+    private ExecutorProvider executorProvider = null;
 
     /**
      * Configure the access point with which the SDK should communicate.
@@ -66,6 +74,97 @@ public class ClientConfigurationBuilder {
         return this;
     }
 
+    /**
+     * Configure the directory to persist the snapshot of topic route, which is disabled by default.
+     *
+     * <p>Once enabled, the last known route of each topic is written into the directory whenever it changes, and is
+     * used to warm up the client during the next startup, the route would be refreshed from remote in the background.
+     * So the client could start quickly even if the remote endpoints are unavailable temporarily.
+     *
+     * @param routeSnapshotDirectory directory to persist the route snapshot.
+     * @return the client configuration builder instance.
+     */
+    public ClientConfigurationBuilder setRouteSnapshotDirectory(String routeSnapshotDirectory) {
+        this.routeSnapshotDirectory = checkNotNull(routeSnapshotDirectory, "routeSnapshotDirectory should not be "
+            + "null");
+        return this;
+    }
+
+    /**
+     * Configure the port to serve client metrics in Prometheus text format over HTTP, which is disabled by default.
+     *
+     * <p>Local metrics are collected regardless of the metric settings issued by the server, and are only computed
+     * when being scraped.
+     *
+     * @param localMetricsPort port to serve metrics, {@code 0} means an ephemeral port.
+     * @return the client configuration builder instance.
+     */
+    public ClientConfigurationBuilder setLocalMetricsPort(int localMetricsPort) {
+        checkArgument(localMetricsPort >= 0 && localMetricsPort <= 65535, "localMetricsPort should be in [0, 65535]");
+        this.localMetricsPort = localMetricsPort;
+        return this;
+    }
+
+    /**
+     * Configure whether to expose client metrics as JMX MBean, which is disabled by default.
+     *
+     * @param localMetricsJmxEnabled whether to expose client metrics as JMX MBean.
+     * @return the client configuration builder instance.
+     */
+    public ClientConfigurationBuilder setLocalMetricsJmxEnabled(boolean localMetricsJmxEnabled) {
+        this.localMetricsJmxEnabled = localMetricsJmxEnabled;
+        return this;
+    }
+
+    /**
+     * Configure the sample rate to profile the latency of each stage of message publishing and consumption, which is
+     * disabled by default.
+     *
+     * <p>The latency of sampled messages is recorded as histogram per stage, it only works once metrics are enabled,
+     * either by the server or by the local metrics exporter.
+     *
+     * @param stageLatencySampleRate sample rate in [0, 1], {@code 0} means disabled.
+     * @return the client configuration builder instance.
+     */
+    public ClientConfigurationBuilder setStageLatencySampleRate(double stageLatencySampleRate) {
+        checkArgument(stageLatencySampleRate >= 0 && stageLatencySampleRate <= 1, "stageLatencySampleRate should be "
+            + "in [0, 1]");
+        this.stageLatencySampleRate = stageLatencySampleRate;
+        return this;
+    }
+
+    /**
+     * Configure the executor to complete the futures returned by asynchronous APIs, the internal callback executor of
+     * client is used by default.
+     *
+     * <p>Use a direct executor such as {@code Runnable::run} to complete the futures in the RPC thread if the
+     * callbacks are trivial, which saves a thread switch for each call. The message interceptors and retries of
+     * message publishing are executed in it as well, so nothing blocking should be done in the callbacks once a direct
+     * executor is used. The executor is not shut down along with the client.
+     *
+     * @param completionExecutor executor to complete the futures.
+     * @return the client configuration builder instance.
+     */
+    public ClientConfigurationBuilder setCompletionExecutor(Executor completionExecutor) {
+        this.completionExecutor = checkNotNull(completionExecutor, "completionExecutor should not be null");
+        return this;
+    }
+
+    /**
+     * Configure the provider of executors used by the client, all executors are created by the client itself by
+     * default.
+     *
+     * <p>It allows to plug in instrumented executors, executors shared by several clients or executors with bounded
+     * queues, see {@link ExecutorProvider} about the threading contract of each role.
+     *
+     * @param executorProvider provider of executors.
+     * @return the client configuration builder instance.
+     */
+    public ClientConfigurationBuilder setExecutorProvider(ExecutorProvider executorProvider) {
+        this.executorProvider = checkNotNull(executorProvider, "executorProvider should not be null");
+        return this;
+    }
+
     /**
      * Finalize the build of {@link ClientConfiguration}.
      *
@@ -74,6 +173,8 @@ public class ClientConfigurationBuilder {
     public ClientConfiguration build() {
         checkNotNull(endpoints, "endpoints should not be null");
         checkNotNull(requestTimeout, "requestTimeout should not be null");
-        return new ClientConfiguration(endpoints, sessionCredentialsProvider, requestTimeout);
+        return new ClientConfiguration(endpoints, sessionCredentialsProvider, requestTimeout,
+            routeSnapshotDirectory, localMetricsPort, localMetricsJmxEnabled, stageLatencySampleRate,
+            completionExecutor, executorProvider);
     }
 }
@@ -0,0 +1,102 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.rocketmq.client.apis;
+
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ScheduledExecutorService;
+
+/**
+ * Provider of the executors used by the client, each method corresponds to one role.
+ *
+ * <p>The client creates its own executor for the role whose executor is not provided, which is the default. The
+ * provided executors are owned by the caller, they are neither shut down nor awaited for termination when the client
+ * is closed, so the caller is supposed to shut them down after closing all clients using them. Each method is invoked
+ * once while the client is being built.
+ *
+ * <p>Rejected tasks are not retried by the client, so an executor with bounded queue is supposed to handle the
+ * rejection by running the task in the caller thread, such as
+ * {@link java.util.concurrent.ThreadPoolExecutor.CallerRunsPolicy}.
+ */
+public interface ExecutorProvider {
+    /**
+     * Get the executor to run client callbacks, including message interceptors, retries of message publishing and the
+     * completion of futures returned by asynchronous APIs unless {@link ClientConfiguration#getCompletionExecutor()}
+     * is configured.
+     *
+     * <p>Tasks are short and never block, which is typically sized as the number of available cores.
+     *
+     * @param clientId id of the client.
+     * @return the callback executor, or {@link Optional#empty()} to use the default one.
+     */
+    default Optional<ExecutorService> getCallbackExecutor(String clientId) {
+        return Optional.empty();
+    }
+
+    /**
+     * Get the executor to run the RPC responses, which is shared by all RPCs of the client.
+     *
+     * <p>Tasks are tiny and must not be delayed by anything blocking, it would stall all RPCs otherwise.
+     *
+     * @param clientId id of the client.
+     * @return the RPC executor, or {@link Optional#empty()} to use the default one.
+     */
+    default Optional<ExecutorService> getAsyncWorker(String clientId) {
+        return Optional.empty();
+    }
+
+    /**
+     * Get the scheduler to run periodic and delayed tasks, such as heartbeat, route refreshing and delayed retries.
+     *
+     * <p>Tasks are short and never block. Periodic tasks are cancelled once the client is closed.
+     *
+     * @param clientId id of the client.
+     * @return the scheduler, or {@link Optional#empty()} to use the default one.
+     */
+    default Optional<ScheduledExecutorService> getScheduler(String clientId) {
+        return Optional.empty();
+    }
+
+    /**
+     * Get the executor to run the message listener of push consumer, which is not used by other clients.
+     *
+     * <p>The message listener may block, the parallelism of the executor bounds the consumption concurrency, and the
+     * consumption thread count of push consumer is ignored once it is provided. Messages are cached locally before
+     * they are submitted, and the cache is bounded already.
+     *
+     * @param clientId id of the client.
+     * @return the consumption executor, or {@link Optional#empty()} to use the default one.
+     */
+    default Optional<ExecutorService> getConsumptionExecutor(String clientId) {
+        return Optional.empty();
+    }
+
+    /**
+     * Get the executor to dispatch cached messages of push consumer to the consumption executor, which is not used by
+     * other clients.
+     *
+     * <p>Dispatches of a consumer are always executed one by one even if the executor is multi-threaded, and each of
+     * them is short and never blocks.
+     *
+     * @param clientId id of the client.
+     * @return the dispatcher executor, or {@link Optional#empty()} to use the default one.
+     */
+    default Optional<ExecutorService> getDispatcherExecutor(String clientId) {
+        return Optional.empty();
+    }
+}
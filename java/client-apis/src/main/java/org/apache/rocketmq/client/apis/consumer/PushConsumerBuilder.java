@@ -18,6 +18,7 @@
 package org.apache.rocketmq.client.apis.consumer;
 
 import java.util.Map;
+import java.util.concurrent.ExecutorService;
 import org.apache.rocketmq.client.apis.ClientConfiguration;
 import org.apache.rocketmq.client.apis.ClientException;
 
@@ -81,6 +82,31 @@ public interface PushConsumerBuilder {
      */
     PushConsumerBuilder setConsumptionThreadCount(int count);
 
+    /**
+     * Set the executor to run the message listener, which takes precedence over the consumption executor of
+     * {@link org.apache.rocketmq.client.apis.ExecutorProvider}.
+     *
+     * <p>The consumption thread count is ignored once the executor is set, and the executor is not shut down along
+     * with the consumer, see {@link org.apache.rocketmq.client.apis.ExecutorProvider#getConsumptionExecutor(String)}
+     * about the threading contract.
+     *
+     * @param executor consumption executor.
+     * @return the consumer builder instance.
+     */
+    PushConsumerBuilder setConsumptionExecutor(ExecutorService executor);
+
+    /**
+     * Set the maximum number of concurrent receive requests of each message queue, which is 1 by default.
+     *
+     * <p>The concurrency is adapted between 1 and the maximum, it grows while full batches are received, which means
+     * the queue has a backlog, and shrinks once the backlog is drained. The receive requests are never more than the
+     * remaining cache of the queue could take, see {@link #setMaxCacheMessageCount(int)}.
+     *
+     * @param concurrency maximum number of concurrent receive requests of each message queue.
+     * @return the consumer builder instance.
+     */
+    PushConsumerBuilder setMaxReceptionConcurrencyPerQueue(int concurrency);
+
     /**
      * Finalize the build of {@link PushConsumer}.
      *
@@ -60,6 +60,38 @@ public interface SimpleConsumerBuilder {
      */
     SimpleConsumerBuilder setAwaitDuration(Duration awaitDuration);
 
+    /**
+     * Set the number of message queues to poll in parallel for each reception, which is 1 by default.
+     *
+     * <p>Message queues of all subscribed topics are polled, and the queues which returned messages recently are
+     * polled more often. The max number of messages to receive is split across the queues, so at most that many
+     * queues are polled. The reception returns as soon as any of them returns messages, so that it is not blocked by
+     * the empty queues, and the other polls are cancelled then. Messages returned by them in a race are released to
+     * be received again.
+     *
+     * @param fanout number of message queues to poll in parallel for each reception.
+     * @return the consumer builder instance.
+     */
+    SimpleConsumerBuilder setReceiveFanout(int fanout);
+
+    /**
+     * Set the max count of messages to prefetch in background, prefetching is disabled by default or if it is 0.
+     *
+     * <p>Once enabled, receptions are issued in background after the first {@link SimpleConsumer#receive(int,
+     * Duration)}, with the invisible duration of the latest one, and {@link SimpleConsumer#receive(int, Duration)}
+     * is served from the prefetched messages if there are any, otherwise it waits for the prefetching in flight.
+     * Prefetched messages are only served within half of their invisible duration, and messages which sit in the
+     * buffer longer than that are released to be received again.
+     *
+     * <p>The invisible duration requested by {@link SimpleConsumer#receive(int, Duration)} is honoured: if less than
+     * that is left for a prefetched message, its invisible duration is changed to the requested one before it is
+     * served, which costs an extra request to the server, and the message is skipped if the change fails.
+     *
+     * @param count max count of messages to prefetch.
+     * @return the consumer builder instance.
+     */
+    SimpleConsumerBuilder setMaxPrefetchMessageCount(int count);
+
     /**
      * Finalize the build of the {@link SimpleConsumer} instance and start.
      *
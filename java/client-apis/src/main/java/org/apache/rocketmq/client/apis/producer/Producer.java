@@ -19,6 +19,7 @@ package org.apache.rocketmq.client.apis.producer;
 
 import java.io.Closeable;
 import java.io.IOException;
+import java.time.Duration;
 import java.util.concurrent.CompletableFuture;
 import org.apache.rocketmq.client.apis.ClientException;
 import org.apache.rocketmq.client.apis.message.Message;
@@ -41,6 +42,19 @@ public interface Producer extends Closeable {
      */
     SendReceipt send(Message message) throws ClientException;
 
+    /**
+     * Sends a message synchronously with the total timeout, which overrides the one of {@link ProducerBuilder}.
+     *
+     * @param message the message to send.
+     * @param timeout total timeout of the publishing, including all internal retries.
+     * @return the returned receipt.
+     * @throws UnsupportedOperationException if the producer does not support the timeout of each call.
+     * @see ProducerBuilder#setSendTimeout(Duration)
+     */
+    default SendReceipt send(Message message, Duration timeout) throws ClientException {
+        throw new UnsupportedOperationException("Send with timeout is not supported by " + getClass().getName());
+    }
+
     /**
      * Sends a transactional message synchronously.
      *
@@ -60,6 +74,19 @@ public interface Producer extends Closeable {
      */
     CompletableFuture<SendReceipt> sendAsync(Message message);
 
+    /**
+     * Sends a message asynchronously with the total timeout, which overrides the one of {@link ProducerBuilder}.
+     *
+     * @param message the message to send.
+     * @param timeout total timeout of the publishing, including all internal retries.
+     * @return a future that indicates the send receipt.
+     * @throws UnsupportedOperationException if the producer does not support the timeout of each call.
+     * @see ProducerBuilder#setSendTimeout(Duration)
+     */
+    default CompletableFuture<SendReceipt> sendAsync(Message message, Duration timeout) {
+        throw new UnsupportedOperationException("Send with timeout is not supported by " + getClass().getName());
+    }
+
     /**
      * Begins a transaction.
      *
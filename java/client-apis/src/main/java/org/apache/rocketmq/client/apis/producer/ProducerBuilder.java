@@ -17,6 +17,7 @@
 
 package org.apache.rocketmq.client.apis.producer;
 
+import java.time.Duration;
 import org.apache.rocketmq.client.apis.ClientConfiguration;
 import org.apache.rocketmq.client.apis.ClientException;
 import org.apache.rocketmq.client.apis.message.Message;
@@ -66,6 +67,41 @@ public interface ProducerBuilder {
      */
     ProducerBuilder setMaxAttempts(int maxAttempts);
 
+    /**
+     * Set the total timeout of each message publishing, which covers all internal retries and the backoff between
+     * them, it is not bounded by default.
+     *
+     * <p>The timeout of each attempt is the request timeout of {@link ClientConfiguration} or the remaining time,
+     * whichever is less, and no more retry is made if it could not be done in time. It could be overridden for each
+     * call by {@link Producer#send(Message, Duration)} and {@link Producer#sendAsync(Message, Duration)}.
+     *
+     * @param sendTimeout total timeout of each message publishing.
+     * @return the producer builder instance.
+     * @throws UnsupportedOperationException if the producer builder does not support the send timeout.
+     */
+    default ProducerBuilder setSendTimeout(Duration sendTimeout) {
+        throw new UnsupportedOperationException("Send timeout is not supported by " + getClass().getName());
+    }
+
+    /**
+     * Enable hedged publishing of normal messages to cut the tail latency, it is disabled by default.
+     *
+     * <p>If the first attempt of a normal message has not completed within the given percentile of the recent
+     * publishing latency, a second attempt is made to another broker, the first success wins and the other attempt
+     * is cancelled. Hedging is never applied to FIFO, delay and transactional messages, and hedged attempts are
+     * limited to a small ratio of the publishing, so the extra load on brokers is bounded.
+     *
+     * <p>Since both attempts might succeed, the message could be delivered twice, which is similar to the internal
+     * retries.
+     *
+     * @param percentile percentile of the publishing latency to trigger the hedged attempt, in (0, 100).
+     * @return the producer builder instance.
+     * @throws UnsupportedOperationException if the producer builder does not support hedged publishing.
+     */
+    default ProducerBuilder setHedgingPercentile(double percentile) {
+        throw new UnsupportedOperationException("Hedged publishing is not supported by " + getClass().getName());
+    }
+
     /**
      * Set the transaction checker for the producer.
      *
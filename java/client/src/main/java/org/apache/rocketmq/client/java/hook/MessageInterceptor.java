@@ -43,4 +43,14 @@ public interface MessageInterceptor {
      */
     void doAfter(MessageHookPoints messageHookPoints, List<MessageCommon> messageCommons, Duration duration,
         MessageHookPointsStatus status);
+
+    /**
+     * Whether the interceptor is interested in message hook points currently, hook points are skipped entirely if
+     * all registered interceptors are disabled.
+     *
+     * @return true if enabled.
+     */
+    default boolean isEnabled() {
+        return true;
+    }
 }
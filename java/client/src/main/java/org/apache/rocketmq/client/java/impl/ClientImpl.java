@@ -34,6 +34,7 @@ import apache.rocketmq.v2.TelemetryCommand;
 import apache.rocketmq.v2.ThreadStackTrace;
 import apache.rocketmq.v2.VerifyMessageCommand;
 import apache.rocketmq.v2.VerifyMessageResult;
+import com.google.common.annotations.VisibleForTesting;
 import com.google.common.util.concurrent.AbstractIdleService;
 import com.google.common.util.concurrent.FutureCallback;
 import com.google.common.util.concurrent.Futures;
@@ -46,20 +47,25 @@ import io.grpc.stub.StreamObserver;
 import java.security.InvalidKeyException;
 import java.security.NoSuchAlgorithmException;
 import java.time.Duration;
-import java.util.ArrayList;
-import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.Queue;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
 import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.locks.Lock;
@@ -69,6 +75,7 @@ import java.util.concurrent.locks.ReentrantReadWriteLock;
 import java.util.stream.Collectors;
 import org.apache.rocketmq.client.apis.ClientConfiguration;
 import org.apache.rocketmq.client.apis.ClientException;
+import org.apache.rocketmq.client.apis.ExecutorProvider;
 import org.apache.rocketmq.client.java.exception.InternalErrorException;
 import org.apache.rocketmq.client.java.exception.NotFoundException;
 import org.apache.rocketmq.client.java.hook.MessageHookPoints;
@@ -76,13 +83,23 @@ import org.apache.rocketmq.client.java.hook.MessageHookPointsStatus;
 import org.apache.rocketmq.client.java.hook.MessageInterceptor;
 import org.apache.rocketmq.client.java.impl.producer.ClientSessionProcessor;
 import org.apache.rocketmq.client.java.message.MessageCommon;
+import org.apache.rocketmq.client.java.metrics.ClientEvent;
+import org.apache.rocketmq.client.java.metrics.ClientEventType;
+import org.apache.rocketmq.client.java.metrics.ClientEvents;
 import org.apache.rocketmq.client.java.metrics.ClientMeterProvider;
 import org.apache.rocketmq.client.java.metrics.Metric;
+import org.apache.rocketmq.client.java.metrics.StageProfiler;
+import org.apache.rocketmq.client.java.metrics.StageTrace;
 import org.apache.rocketmq.client.java.misc.ExecutorServices;
+import org.apache.rocketmq.client.java.misc.RateLimitedLogger;
 import org.apache.rocketmq.client.java.misc.ThreadFactoryImpl;
 import org.apache.rocketmq.client.java.misc.Utilities;
+import org.apache.rocketmq.client.java.route.CircuitBreaker;
+import org.apache.rocketmq.client.java.route.CircuitBreakers;
 import org.apache.rocketmq.client.java.route.Endpoints;
+import org.apache.rocketmq.client.java.route.TopicRouteData;
 import org.apache.rocketmq.client.java.route.TopicRouteDataResult;
+import org.apache.rocketmq.client.java.route.TopicRouteSnapshot;
 import org.apache.rocketmq.client.java.rpc.RpcInvocation;
 import org.apache.rocketmq.client.java.rpc.Signature;
 import org.slf4j.Logger;
@@ -92,17 +109,35 @@ import org.slf4j.LoggerFactory;
 public abstract class ClientImpl extends AbstractIdleService implements Client, ClientSessionProcessor,
     MessageInterceptor {
     private static final Logger LOGGER = LoggerFactory.getLogger(ClientImpl.class);
+    private static final RateLimitedLogger BEFORE_INTERCEPTOR_FAILURE_LOGGER =
+        new RateLimitedLogger(LOGGER, "ClientImpl.beforeInterceptorFailure");
+    private static final RateLimitedLogger AFTER_INTERCEPTOR_FAILURE_LOGGER =
+        new RateLimitedLogger(LOGGER, "ClientImpl.afterInterceptorFailure");
     private static final Duration TOPIC_ROUTE_AWAIT_DURATION_DURING_STARTUP = Duration.ofSeconds(3);
 
+    private static final Duration ROUTE_CACHE_REFRESH_PERIOD = Duration.ofSeconds(30);
+    /**
+     * Route refresh of each topic is delayed randomly within the jitter, which spreads the route queries over the
+     * period rather than bursting at once.
+     */
+    private static final Duration ROUTE_CACHE_REFRESH_MAX_JITTER = Duration.ofSeconds(15);
+    private static final int MAX_INFLIGHT_ROUTE_REFRESH_REQUESTS = 64;
+
     private static final Duration TELEMETRY_TIMEOUT = Duration.ofDays(102 * 365);
 
     protected final ClientManager clientManager;
     protected final ClientConfiguration clientConfiguration;
     protected final Endpoints endpoints;
     protected final Set<String> topics;
-    // Thread-safe set.
-    protected final Set<Endpoints> isolated;
+    /**
+     * Circuit breakers of remote endpoints, which are shared by all requests of the client.
+     */
+    protected final CircuitBreakers circuitBreakers;
     protected final ExecutorService clientCallbackExecutor;
+    /**
+     * Executor to complete the futures of asynchronous APIs, which is {@link #clientCallbackExecutor} by default.
+     */
+    protected final Executor completionExecutor;
     protected final ClientMeterProvider clientMeterProvider;
     /**
      * Telemetry command executor, which aims to execute commands from the remote.
@@ -110,8 +145,24 @@ public abstract class ClientImpl extends AbstractIdleService implements Client,
     protected final ThreadPoolExecutor telemetryCommandExecutor;
     protected final String clientId;
 
+    /**
+     * Indicates whether the client callback executor is created by the client itself, it is shut down along with the
+     * client only if so.
+     */
+    private final boolean clientCallbackExecutorOwned;
+
     private volatile ScheduledFuture<?> updateRouteCacheFuture;
     private final ConcurrentMap<String, TopicRouteDataResult> topicRouteResultCache;
+    /**
+     * Local snapshot of topic route, which is null if it is not enabled.
+     */
+    private final TopicRouteSnapshot topicRouteSnapshot;
+    /**
+     * Topics whose route refresh is pending or in-flight.
+     */
+    private final Set<String> routeRefreshingTopics;
+    private final Queue<String> pendingRouteRefreshTopics;
+    private final Semaphore routeRefreshPermits;
 
     @GuardedBy("inflightRouteFutureLock")
     private final Map<String /* topic */, Set<SettableFuture<TopicRouteDataResult>>> inflightRouteFutureTable;
@@ -121,9 +172,7 @@ public abstract class ClientImpl extends AbstractIdleService implements Client,
     private final Map<Endpoints, ClientSessionImpl> endpointsSessionTable;
     private final ReadWriteLock endpointsSessionsLock;
 
-    @GuardedBy("messageInterceptorsLock")
     private final List<MessageInterceptor> messageInterceptors;
-    private final ReadWriteLock messageInterceptorsLock;
 
     public ClientImpl(ClientConfiguration clientConfiguration, Set<String> topics) {
         this.clientConfiguration = checkNotNull(clientConfiguration, "clientConfiguration should not be null");
@@ -133,6 +182,11 @@ public abstract class ClientImpl extends AbstractIdleService implements Client,
         this.clientId = Utilities.genClientId();
 
         this.topicRouteResultCache = new ConcurrentHashMap<>();
+        this.topicRouteSnapshot = clientConfiguration.getRouteSnapshotDirectory()
+            .map(directory -> new TopicRouteSnapshot(directory, endpoints)).orElse(null);
+        this.routeRefreshingTopics = ConcurrentHashMap.newKeySet();
+        this.pendingRouteRefreshTopics = new ConcurrentLinkedQueue<>();
+        this.routeRefreshPermits = new Semaphore(MAX_INFLIGHT_ROUTE_REFRESH_REQUESTS);
 
         this.inflightRouteFutureTable = new ConcurrentHashMap<>();
         this.inflightRouteFutureLock = new ReentrantLock();
@@ -140,22 +194,31 @@ public abstract class ClientImpl extends AbstractIdleService implements Client,
         this.endpointsSessionTable = new HashMap<>();
         this.endpointsSessionsLock = new ReentrantReadWriteLock();
 
-        this.isolated = Collections.newSetFromMap(new ConcurrentHashMap<>());
+        // Requests which take more than half of the request timeout are regarded as slow.
+        this.circuitBreakers = new CircuitBreakers(clientConfiguration.getRequestTimeout().dividedBy(2));
 
-        this.messageInterceptors = new ArrayList<>();
-        this.messageInterceptorsLock = new ReentrantReadWriteLock();
+        this.messageInterceptors = new CopyOnWriteArrayList<>();
 
-        this.clientManager = new ClientManagerImpl(this);
+        this.clientMeterProvider = new ClientMeterProvider(this);
+        clientMeterProvider.setCircuitBreakers(circuitBreakers);
+        final Optional<ExecutorProvider> executorProvider = clientConfiguration.getExecutorProvider();
+        this.clientManager = new ClientManagerImpl(this, clientMeterProvider,
+            executorProvider.flatMap(provider -> provider.getScheduler(clientId)).orElse(null),
+            executorProvider.flatMap(provider -> provider.getAsyncWorker(clientId)).orElse(null));
 
-        this.clientCallbackExecutor = new ThreadPoolExecutor(
+        final Optional<ExecutorService> providedCallbackExecutor =
+            executorProvider.flatMap(provider -> provider.getCallbackExecutor(clientId));
+        this.clientCallbackExecutorOwned = !providedCallbackExecutor.isPresent();
+        this.clientCallbackExecutor = providedCallbackExecutor.orElseGet(() -> new ThreadPoolExecutor(
             Runtime.getRuntime().availableProcessors(),
             Runtime.getRuntime().availableProcessors(),
             60,
             TimeUnit.SECONDS,
             new LinkedBlockingQueue<>(),
-            new ThreadFactoryImpl("ClientCallbackWorker"));
+            new ThreadFactoryImpl("ClientCallbackWorker")));
+        clientMeterProvider.registerExecutor("ClientCallbackWorker", clientCallbackExecutor);
+        this.completionExecutor = clientConfiguration.getCompletionExecutor().orElse(clientCallbackExecutor);
 
-        this.clientMeterProvider = new ClientMeterProvider(this);
         this.telemetryCommandExecutor = new ThreadPoolExecutor(
             1,
             1,
@@ -177,11 +240,19 @@ public abstract class ClientImpl extends AbstractIdleService implements Client,
     protected void startUp() throws Exception {
         LOGGER.info("Begin to start the rocketmq client, clientId={}", clientId);
         this.clientManager.startAsync().awaitRunning();
+        clientMeterProvider.start();
+        // Restore topic route from the local snapshot, which is refreshed from remote in the background.
+        final Set<String> restoredTopics = restoreTopicRouteSnapshot();
+        for (String topic : restoredTopics) {
+            scheduleRouteCacheRefresh(topic, 0);
+        }
         // Fetch topic route from remote.
+        final List<String> topicsToFetch = topics.stream().filter(topic -> !restoredTopics.contains(topic))
+            .collect(Collectors.toList());
         LOGGER.info("Begin to fetch topic(s) route data from remote during client startup, clientId={}, topics={}",
-            clientId, topics);
+            clientId, topicsToFetch);
         // Aggregate all topic route data futures into a composited future.
-        final List<ListenableFuture<TopicRouteDataResult>> futures = topics.stream()
+        final List<ListenableFuture<TopicRouteDataResult>> futures = topicsToFetch.stream()
             .map(this::getRouteDataResult)
             .collect(Collectors.toList());
         List<TopicRouteDataResult> results;
@@ -190,14 +261,14 @@ public abstract class ClientImpl extends AbstractIdleService implements Client,
                 TimeUnit.NANOSECONDS);
         } catch (Throwable t) {
             LOGGER.error("Failed to get topic route data result from remote during client startup, clientId={}, "
-                + "topics={}", clientId, topics, t);
+                + "topics={}", clientId, topicsToFetch, t);
             throw new NotFoundException(t);
         }
         for (TopicRouteDataResult result : results) {
             result.checkAndGetTopicRouteData();
         }
         LOGGER.info("Fetch topic route data from remote successfully during startup, clientId={}, topics={}",
-            clientId, topics);
+            clientId, topicsToFetch);
         // Update route cache periodically.
         final ScheduledExecutorService scheduler = clientManager.getScheduler();
         this.updateRouteCacheFuture = scheduler.scheduleWithFixedDelay(() -> {
@@ -206,7 +277,7 @@ public abstract class ClientImpl extends AbstractIdleService implements Client,
             } catch (Throwable t) {
                 LOGGER.error("Exception raised while updating topic route cache, clientId={}", clientId, t);
             }
-        }, 10, 30, TimeUnit.SECONDS);
+        }, 10, ROUTE_CACHE_REFRESH_PERIOD.getSeconds(), TimeUnit.SECONDS);
         LOGGER.info("The rocketmq client starts successfully, clientId={}", clientId);
     }
 
@@ -230,54 +301,72 @@ public abstract class ClientImpl extends AbstractIdleService implements Client,
         releaseClientSessions();
         LOGGER.info("Release telemetry sessions successfully, clientId={}", clientId);
         clientManager.stopAsync().awaitTerminated();
-        clientCallbackExecutor.shutdown();
-        if (!ExecutorServices.awaitTerminated(clientCallbackExecutor)) {
-            LOGGER.error("[Bug] Timeout to shutdown the client callback executor, clientId={}", clientId);
+        clientMeterProvider.shutdown();
+        if (clientCallbackExecutorOwned) {
+            clientCallbackExecutor.shutdown();
+            if (!ExecutorServices.awaitTerminated(clientCallbackExecutor)) {
+                LOGGER.error("[Bug] Timeout to shutdown the client callback executor, clientId={}", clientId);
+            }
         }
         LOGGER.info("Shutdown the rocketmq client successfully, clientId={}", clientId);
     }
 
+    /**
+     * Start to trace the stages of a message pipeline, see {@link StageProfiler#startTrace()}.
+     */
+    public StageTrace startStageTrace() {
+        return clientMeterProvider.getStageProfiler().startTrace();
+    }
+
     public void registerMessageInterceptor(MessageInterceptor messageInterceptor) {
-        messageInterceptorsLock.writeLock().lock();
-        try {
-            messageInterceptors.add(messageInterceptor);
-        } finally {
-            messageInterceptorsLock.writeLock().unlock();
+        messageInterceptors.add(messageInterceptor);
+    }
+
+    /**
+     * Check if any registered interceptor is enabled, hook points could be skipped entirely if not.
+     */
+    public boolean hasEnabledMessageInterceptor() {
+        for (MessageInterceptor interceptor : messageInterceptors) {
+            if (interceptor.isEnabled()) {
+                return true;
+            }
         }
+        return false;
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return hasEnabledMessageInterceptor();
     }
 
     @Override
     public void doBefore(MessageHookPoints hookPoint, List<MessageCommon> messageCommons) {
-        messageInterceptorsLock.readLock().lock();
-        try {
-            for (MessageInterceptor interceptor : messageInterceptors) {
-                try {
-                    interceptor.doBefore(hookPoint, messageCommons);
-                } catch (Throwable t) {
-                    LOGGER.warn("Exception raised while intercepting message, hookPoint={}, clientId={}", hookPoint,
-                        clientId);
-                }
+        for (MessageInterceptor interceptor : messageInterceptors) {
+            if (!interceptor.isEnabled()) {
+                continue;
+            }
+            try {
+                interceptor.doBefore(hookPoint, messageCommons);
+            } catch (Throwable t) {
+                BEFORE_INTERCEPTOR_FAILURE_LOGGER.warn("Exception raised while intercepting message, hookPoint={}, "
+                    + "clientId={}", hookPoint, clientId, t);
             }
-        } finally {
-            messageInterceptorsLock.readLock().unlock();
         }
     }
 
     @Override
     public void doAfter(MessageHookPoints hookPoints, List<MessageCommon> messageCommons, Duration duration,
         MessageHookPointsStatus status) {
-        messageInterceptorsLock.readLock().lock();
-        try {
-            for (MessageInterceptor interceptor : messageInterceptors) {
-                try {
-                    interceptor.doAfter(hookPoints, messageCommons, duration, status);
-                } catch (Throwable t) {
-                    LOGGER.warn("Exception raised while intercepting message, hookPoint={}, clientId={}", hookPoints,
-                        clientId);
-                }
+        for (MessageInterceptor interceptor : messageInterceptors) {
+            if (!interceptor.isEnabled()) {
+                continue;
+            }
+            try {
+                interceptor.doAfter(hookPoints, messageCommons, duration, status);
+            } catch (Throwable t) {
+                AFTER_INTERCEPTOR_FAILURE_LOGGER.warn("Exception raised while intercepting message, hookPoint={}, "
+                    + "clientId={}", hookPoints, clientId, t);
             }
-        } finally {
-            messageInterceptorsLock.readLock().unlock();
         }
     }
 
@@ -406,6 +495,15 @@ public abstract class ClientImpl extends AbstractIdleService implements Client,
         }
     }
 
+    private boolean isTelemetrySessionRegistered(Set<Endpoints> endpointsSet) {
+        endpointsSessionsLock.readLock().lock();
+        try {
+            return endpointsSessionTable.keySet().containsAll(endpointsSet);
+        } finally {
+            endpointsSessionsLock.readLock().unlock();
+        }
+    }
+
     /**
      * Try to register telemetry session, return it directly if session is existed already.
      */
@@ -447,6 +545,12 @@ public abstract class ClientImpl extends AbstractIdleService implements Client,
      */
     public ListenableFuture<Void> onTopicRouteDataResultFetched(String topic,
         TopicRouteDataResult topicRouteDataResult) {
+        // Skip the session registration and the update if nothing changed.
+        if (topicRouteDataResult.equals(topicRouteResultCache.get(topic))
+            && isTelemetrySessionRegistered(topicRouteDataResult.getTopicRouteData().getTotalEndpoints())) {
+            LOGGER.debug("Topic route result remains the same, topic={}, clientId={}", topic, clientId);
+            return Futures.immediateVoidFuture();
+        }
         final ListenableFuture<List<ClientSessionImpl>> future =
             Futures.allAsList(topicRouteDataResult.getTopicRouteData()
                 .getMessageQueues().stream()
@@ -469,6 +573,7 @@ public abstract class ClientImpl extends AbstractIdleService implements Client,
                     // Log if topic route result is updated.
                     LOGGER.info("Topic route result is updated, topic={}, clientId={}, {} => {}", topic, clientId,
                         old, topicRouteDataResult);
+                    storeTopicRouteSnapshot(topic);
                 }
                 future0.setFuture(Futures.immediateVoidFuture());
                 onTopicRouteDataResultUpdate0(topic, topicRouteDataResult);
@@ -525,24 +630,161 @@ public abstract class ClientImpl extends AbstractIdleService implements Client,
     }
 
     private void updateRouteCache() {
+        updateRouteCache(ROUTE_CACHE_REFRESH_MAX_JITTER);
+    }
+
+    @VisibleForTesting
+    void updateRouteCache(Duration maxJitter) {
         LOGGER.info("Start to update route cache for a new round, clientId={}", clientId);
-        topicRouteResultCache.keySet().forEach(topic -> {
-            // Set timeout for future on purpose.
-            final ListenableFuture<TopicRouteDataResult> future = Futures.withTimeout(fetchTopicRoute(topic),
-                TOPIC_ROUTE_AWAIT_DURATION_DURING_STARTUP, getScheduler());
-            Futures.addCallback(future, new FutureCallback<TopicRouteDataResult>() {
-                @Override
-                public void onSuccess(TopicRouteDataResult topicRouteDataResult) {
-                    onTopicRouteDataResultFetched(topic, topicRouteDataResult);
+        final long maxJitterMillis = maxJitter.toMillis();
+        for (String topic : topicRouteResultCache.keySet()) {
+            final long delayMillis = maxJitterMillis > 0 ? ThreadLocalRandom.current().nextLong(maxJitterMillis) : 0;
+            scheduleRouteCacheRefresh(topic, delayMillis);
+        }
+    }
+
+    /**
+     * Schedule the route refresh of topic, which is ignored if the last refresh of topic is not finished yet.
+     */
+    private void scheduleRouteCacheRefresh(String topic, long delayMillis) {
+        if (!routeRefreshingTopics.add(topic)) {
+            LOGGER.debug("Route refresh is in progress, ignore it, topic={}, clientId={}", topic, clientId);
+            return;
+        }
+        if (delayMillis <= 0) {
+            pendingRouteRefreshTopics.add(topic);
+            drainRouteCacheRefresh();
+            return;
+        }
+        try {
+            getScheduler().schedule(() -> {
+                // The scheduler may be provided by the caller, which keeps running after the client is shut down.
+                if (isShutDown()) {
+                    routeRefreshingTopics.remove(topic);
+                    return;
                 }
+                pendingRouteRefreshTopics.add(topic);
+                drainRouteCacheRefresh();
+            }, delayMillis, TimeUnit.MILLISECONDS);
+        } catch (Throwable t) {
+            routeRefreshingTopics.remove(topic);
+            LOGGER.error("Failed to schedule route refresh, topic={}, clientId={}", topic, clientId, t);
+        }
+    }
 
-                @Override
-                public void onFailure(Throwable t) {
-                    LOGGER.error("Failed to fetch topic route for update cache, topic={}, clientId={}", topic,
-                        clientId, t);
+    /**
+     * Unlike {@link #isRunning()}, route refreshes are allowed before the client is running.
+     */
+    private boolean isShutDown() {
+        final State state = state();
+        return State.STOPPING == state || State.TERMINATED == state || State.FAILED == state;
+    }
+
+    /**
+     * Refresh the route of pending topics, at most {@link #MAX_INFLIGHT_ROUTE_REFRESH_REQUESTS} queries are in-flight
+     * at the same time.
+     */
+    private void drainRouteCacheRefresh() {
+        while (!pendingRouteRefreshTopics.isEmpty() && routeRefreshPermits.tryAcquire()) {
+            final String topic = pendingRouteRefreshTopics.poll();
+            if (null == topic) {
+                routeRefreshPermits.release();
+                continue;
+            }
+            final ListenableFuture<Void> future;
+            try {
+                future = updateRouteCache(topic);
+            } catch (Throwable t) {
+                // Return the permit, otherwise route refresh would stop once all permits are leaked.
+                routeRefreshingTopics.remove(topic);
+                routeRefreshPermits.release();
+                LOGGER.error("Exception raised while refreshing route, topic={}, clientId={}", topic, clientId, t);
+                continue;
+            }
+            future.addListener(() -> {
+                routeRefreshingTopics.remove(topic);
+                routeRefreshPermits.release();
+                // Drain asynchronously to avoid the deep recursion once the refresh is completed immediately.
+                try {
+                    getScheduler().execute(this::drainRouteCacheRefresh);
+                } catch (Throwable t) {
+                    LOGGER.error("Failed to drain route refresh, clientId={}", clientId, t);
                 }
             }, MoreExecutors.directExecutor());
-        });
+        }
+    }
+
+    private ListenableFuture<Void> updateRouteCache(String topic) {
+        // Set timeout for future on purpose.
+        final ListenableFuture<TopicRouteDataResult> future = Futures.withTimeout(fetchTopicRoute(topic),
+            TOPIC_ROUTE_AWAIT_DURATION_DURING_STARTUP, getScheduler());
+        final SettableFuture<Void> future0 = SettableFuture.create();
+        final ClientEvent routeRefreshEvent = ClientEvents.begin(ClientEventType.ROUTE_REFRESH);
+        Futures.addCallback(future, new FutureCallback<TopicRouteDataResult>() {
+            @Override
+            public void onSuccess(TopicRouteDataResult topicRouteDataResult) {
+                routeRefreshEvent.complete(topic, null, endpoints, 1,
+                    topicRouteDataResult.getTopicRouteData().getMessageQueues().size(), topicRouteDataResult.ok());
+                future0.setFuture(onTopicRouteDataResultFetched(topic, topicRouteDataResult));
+            }
+
+            @Override
+            public void onFailure(Throwable t) {
+                routeRefreshEvent.complete(topic, null, endpoints, 1, 0, false);
+                LOGGER.error("Failed to fetch topic route for update cache, topic={}, clientId={}", topic,
+                    clientId, t);
+                future0.setException(t);
+            }
+        }, MoreExecutors.directExecutor());
+        return future0;
+    }
+
+    /**
+     * Seed the route cache by the local snapshot.
+     *
+     * @return topics whose route is restored from the snapshot.
+     */
+    private Set<String> restoreTopicRouteSnapshot() {
+        Set<String> restoredTopics = new HashSet<>();
+        if (null == topicRouteSnapshot) {
+            return restoredTopics;
+        }
+        for (String topic : topics) {
+            final Optional<TopicRouteData> optionalTopicRouteData = topicRouteSnapshot.load(topic);
+            if (!optionalTopicRouteData.isPresent()) {
+                continue;
+            }
+            final TopicRouteDataResult topicRouteDataResult = new TopicRouteDataResult(optionalTopicRouteData.get());
+            topicRouteResultCache.put(topic, topicRouteDataResult);
+            onTopicRouteDataResultUpdate0(topic, topicRouteDataResult);
+            restoredTopics.add(topic);
+        }
+        LOGGER.info("Restore topic route from the local snapshot, clientId={}, topics={}", clientId, restoredTopics);
+        return restoredTopics;
+    }
+
+    /**
+     * Store the cached topic route into the local snapshot by the scheduler, which keeps the blocking file IO away
+     * from the callback thread of RPC.
+     *
+     * <p>The latest cached route is stored rather than the one which triggers the store, so the out-of-order stores
+     * never leave a stale route in the snapshot.
+     */
+    private void storeTopicRouteSnapshot(String topic) {
+        if (null == topicRouteSnapshot) {
+            return;
+        }
+        try {
+            getScheduler().execute(() -> {
+                final TopicRouteDataResult topicRouteDataResult = topicRouteResultCache.get(topic);
+                if (null != topicRouteDataResult && topicRouteDataResult.ok()) {
+                    topicRouteSnapshot.store(topic, topicRouteDataResult.getTopicRouteData());
+                }
+            });
+        } catch (Throwable t) {
+            LOGGER.error("Failed to schedule the store of topic route snapshot, topic={}, clientId={}", topic,
+                clientId, t);
+        }
     }
 
     /**
@@ -618,11 +860,7 @@ public abstract class ClientImpl extends AbstractIdleService implements Client,
                         return;
                     }
                     LOGGER.info("Send heartbeat successfully, endpoints={}, clientId={}", endpoints, clientId);
-                    final boolean removed = isolated.remove(endpoints);
-                    if (removed) {
-                        LOGGER.info("Rejoin endpoints which is isolated before, clientId={}, endpoints={}", clientId,
-                            endpoints);
-                    }
+                    onProbeSuccess(endpoints);
                 }
 
                 @Override
@@ -636,6 +874,96 @@ public abstract class ClientImpl extends AbstractIdleService implements Client,
         }
     }
 
+    /**
+     * @see CircuitBreaker#allowRequest()
+     */
+    public boolean allowRequest(Endpoints endpoints) {
+        return circuitBreakers.allowRequest(endpoints);
+    }
+
+    /**
+     * Record the successful request to the endpoints for its circuit breaker.
+     *
+     * @param latency latency of the request, {@link Duration#ZERO} if it should not be accounted.
+     */
+    protected void onRequestSuccess(Endpoints endpoints, Duration latency) {
+        circuitBreakers.get(endpoints).onSuccess(latency);
+    }
+
+    /**
+     * Record the failed request to the endpoints for its circuit breaker, and start to probe the endpoints actively
+     * once the breaker is opened.
+     */
+    protected void onRequestFailure(Endpoints endpoints) {
+        final CircuitBreaker breaker = circuitBreakers.get(endpoints);
+        if (!breaker.onFailure()) {
+            return;
+        }
+        LOGGER.warn("Circuit breaker is opened, would probe the endpoints after {}, endpoints={}, clientId={}",
+            breaker.getOpenDuration(), endpoints, clientId);
+        scheduleProbe(breaker, breaker.getOpenDuration());
+    }
+
+    private void onProbeSuccess(Endpoints endpoints) {
+        final CircuitBreaker breaker = circuitBreakers.getIfPresent(endpoints);
+        if (null != breaker && CircuitBreaker.State.OPEN == breaker.getState()) {
+            breaker.onProbeSuccess();
+            LOGGER.info("Circuit breaker is half-opened, endpoints={}, clientId={}", endpoints, clientId);
+        }
+    }
+
+    private void scheduleProbe(CircuitBreaker breaker, Duration delay) {
+        try {
+            clientManager.getScheduler().schedule(() -> probe(breaker), delay.toNanos(), TimeUnit.NANOSECONDS);
+        } catch (Throwable t) {
+            // The scheduler is shut down along with the client.
+            LOGGER.info("Failed to schedule the probe, endpoints={}, clientId={}", breaker.getEndpoints(),
+                clientId, t);
+        }
+    }
+
+    /**
+     * Probe the endpoints by heartbeat, which half-opens the circuit breaker if succeeded.
+     */
+    private void probe(CircuitBreaker breaker) {
+        final Endpoints endpoints = breaker.getEndpoints();
+        if (!isRunning() || CircuitBreaker.State.OPEN != breaker.getState()) {
+            return;
+        }
+        final ListenableFuture<RpcInvocation<HeartbeatResponse>> future;
+        try {
+            future = clientManager.heartbeat(endpoints, sign(), wrapHeartbeatRequest(),
+                clientConfiguration.getRequestTimeout());
+        } catch (Throwable t) {
+            LOGGER.error("Exception raised while preparing the probe, endpoints={}, clientId={}", endpoints,
+                clientId, t);
+            scheduleProbe(breaker, breaker.onProbeFailure());
+            return;
+        }
+        Futures.addCallback(future, new FutureCallback<RpcInvocation<HeartbeatResponse>>() {
+            @Override
+            public void onSuccess(RpcInvocation<HeartbeatResponse> inv) {
+                final Code code = inv.getResponse().getStatus().getCode();
+                if (Code.OK == code) {
+                    onProbeSuccess(endpoints);
+                    return;
+                }
+                final Duration delay = breaker.onProbeFailure();
+                LOGGER.warn("Failed to probe the endpoints, would probe again after {}, code={}, endpoints={}, "
+                    + "clientId={}", delay, code, endpoints, clientId);
+                scheduleProbe(breaker, delay);
+            }
+
+            @Override
+            public void onFailure(Throwable t) {
+                final Duration delay = breaker.onProbeFailure();
+                LOGGER.warn("Failed to probe the endpoints, would probe again after {}, endpoints={}, clientId={}",
+                    delay, endpoints, clientId, t);
+                scheduleProbe(breaker, delay);
+            }
+        }, MoreExecutors.directExecutor());
+    }
+
     /**
      * Wrap heartbeat request
      */
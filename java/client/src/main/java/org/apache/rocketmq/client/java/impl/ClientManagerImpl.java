@@ -47,10 +47,13 @@ import java.io.IOException;
 import java.time.Duration;
 import java.util.HashMap;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.ScheduledThreadPoolExecutor;
 import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
@@ -58,6 +61,7 @@ import java.util.concurrent.locks.ReadWriteLock;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
 import javax.net.ssl.SSLException;
 import org.apache.rocketmq.client.apis.ClientException;
+import org.apache.rocketmq.client.java.metrics.ClientMeterProvider;
 import org.apache.rocketmq.client.java.misc.ExecutorServices;
 import org.apache.rocketmq.client.java.misc.ThreadFactoryImpl;
 import org.apache.rocketmq.client.java.route.Endpoints;
@@ -96,27 +100,62 @@ public class ClientManagerImpl extends ClientManager {
      * In charge of all scheduled tasks.
      */
     private final ScheduledExecutorService scheduler;
+    /**
+     * Indicates whether the scheduler is created by the client manager itself, it is shut down along with the client
+     * manager only if so.
+     */
+    private final boolean schedulerOwned;
+    /**
+     * Periodic tasks, which are cancelled explicitly in case the scheduler is not owned.
+     */
+    private final List<ScheduledFuture<?>> periodicTaskFutures;
 
     /**
      * Public executor for all async RPCs, <strong>should never submit a heavy task.</strong>
      */
     private final ExecutorService asyncWorker;
+    private final boolean asyncWorkerOwned;
+
+    /**
+     * Meter provider to record RPC metrics, which could be {@code null}.
+     */
+    private final ClientMeterProvider clientMeterProvider;
 
     public ClientManagerImpl(Client client) {
+        this(client, null);
+    }
+
+    public ClientManagerImpl(Client client, ClientMeterProvider clientMeterProvider) {
+        this(client, clientMeterProvider, null, null);
+    }
+
+    /**
+     * @param scheduler   scheduler provided by the caller, or {@code null} to create one.
+     * @param asyncWorker executor for async RPCs provided by the caller, or {@code null} to create one.
+     */
+    public ClientManagerImpl(Client client, ClientMeterProvider clientMeterProvider,
+        ScheduledExecutorService scheduler, ExecutorService asyncWorker) {
         this.client = client;
+        this.clientMeterProvider = clientMeterProvider;
         this.rpcClientTable = new HashMap<>();
         this.rpcClientTableLock = new ReentrantReadWriteLock();
-        this.scheduler = new ScheduledThreadPoolExecutor(
+        this.schedulerOwned = null == scheduler;
+        this.scheduler = schedulerOwned ? new ScheduledThreadPoolExecutor(
             Runtime.getRuntime().availableProcessors(),
-            new ThreadFactoryImpl("ClientScheduler"));
+            new ThreadFactoryImpl("ClientScheduler")) : scheduler;
+        this.periodicTaskFutures = new CopyOnWriteArrayList<>();
 
-        this.asyncWorker = new ThreadPoolExecutor(
+        this.asyncWorkerOwned = null == asyncWorker;
+        this.asyncWorker = asyncWorkerOwned ? new ThreadPoolExecutor(
             Runtime.getRuntime().availableProcessors(),
             Runtime.getRuntime().availableProcessors(),
             60,
             TimeUnit.SECONDS,
             new LinkedBlockingQueue<>(),
-            new ThreadFactoryImpl("ClientAsyncWorker"));
+            new ThreadFactoryImpl("ClientAsyncWorker")) : asyncWorker;
+        if (null != clientMeterProvider) {
+            clientMeterProvider.registerExecutor("ClientAsyncWorker", this.asyncWorker);
+        }
     }
 
     /**
@@ -138,6 +177,7 @@ public class ClientManagerImpl extends ClientManager {
                 if (idleDuration.compareTo(RPC_CLIENT_MAX_IDLE_DURATION) > 0) {
                     it.remove();
                     client.shutdown();
+                    removeRpcMeterInterceptor(endpoints);
                     LOGGER.info("Rpc client has been idle for a long time, endpoints={}, idleDuration={}, " +
                         "rpcClientMaxIdleDuration={}", endpoints, idleDuration, RPC_CLIENT_MAX_IDLE_DURATION);
                 }
@@ -147,6 +187,12 @@ public class ClientManagerImpl extends ClientManager {
         }
     }
 
+    private void removeRpcMeterInterceptor(Endpoints endpoints) {
+        if (null != clientMeterProvider) {
+            clientMeterProvider.removeRpcMeterInterceptor(endpoints);
+        }
+    }
+
     /**
      * Return the RPC client by remote {@link Endpoints}, would create the client automatically if it does not exist.
      *
@@ -174,7 +220,8 @@ public class ClientManagerImpl extends ClientManager {
                 return rpcClient;
             }
             try {
-                rpcClient = new RpcClientImpl(endpoints);
+                rpcClient = null == clientMeterProvider ? new RpcClientImpl(endpoints) :
+                    new RpcClientImpl(endpoints, clientMeterProvider.getRpcMeterInterceptor(endpoints));
             } catch (SSLException e) {
                 LOGGER.error("Failed to get rpc client, endpoints={}", endpoints);
                 throw new ClientException("Failed to generate RPC client", e);
@@ -311,7 +358,7 @@ public class ClientManagerImpl extends ClientManager {
     @Override
     protected void startUp() {
         LOGGER.info("Begin to start the client manager");
-        scheduler.scheduleWithFixedDelay(
+        periodicTaskFutures.add(scheduler.scheduleWithFixedDelay(
             () -> {
                 try {
                     clearIdleRpcClients();
@@ -322,9 +369,9 @@ public class ClientManagerImpl extends ClientManager {
             RPC_CLIENT_IDLE_CHECK_INITIAL_DELAY.toNanos(),
             RPC_CLIENT_IDLE_CHECK_PERIOD.toNanos(),
             TimeUnit.NANOSECONDS
-        );
+        ));
 
-        scheduler.scheduleWithFixedDelay(
+        periodicTaskFutures.add(scheduler.scheduleWithFixedDelay(
             () -> {
                 try {
                     client.doHeartbeat();
@@ -335,9 +382,9 @@ public class ClientManagerImpl extends ClientManager {
             HEART_BEAT_INITIAL_DELAY.toNanos(),
             HEART_BEAT_PERIOD.toNanos(),
             TimeUnit.NANOSECONDS
-        );
+        ));
 
-        scheduler.scheduleWithFixedDelay(
+        periodicTaskFutures.add(scheduler.scheduleWithFixedDelay(
             () -> {
                 try {
                     client.doStats();
@@ -348,9 +395,9 @@ public class ClientManagerImpl extends ClientManager {
             LOG_STATS_INITIAL_DELAY.toNanos(),
             LOG_STATS_PERIOD.toNanos(),
             TimeUnit.NANOSECONDS
-        );
+        ));
 
-        scheduler.scheduleWithFixedDelay(
+        periodicTaskFutures.add(scheduler.scheduleWithFixedDelay(
             () -> {
                 try {
                     client.syncSettings();
@@ -361,19 +408,24 @@ public class ClientManagerImpl extends ClientManager {
             SYNC_SETTINGS_DELAY.toNanos(),
             SYNC_SETTINGS_PERIOD.toNanos(),
             TimeUnit.NANOSECONDS
-        );
+        ));
         LOGGER.info("The client manager starts successfully");
     }
 
     @Override
     protected void shutDown() throws IOException {
         LOGGER.info("Begin to shutdown the client manager");
-        scheduler.shutdown();
+        for (ScheduledFuture<?> future : periodicTaskFutures) {
+            future.cancel(false);
+        }
         try {
-            if (!ExecutorServices.awaitTerminated(scheduler)) {
-                LOGGER.error("[Bug] Timeout to shutdown the client scheduler");
-            } else {
-                LOGGER.info("Shutdown the client scheduler successfully");
+            if (schedulerOwned) {
+                scheduler.shutdown();
+                if (!ExecutorServices.awaitTerminated(scheduler)) {
+                    LOGGER.error("[Bug] Timeout to shutdown the client scheduler");
+                } else {
+                    LOGGER.info("Shutdown the client scheduler successfully");
+                }
             }
             rpcClientTableLock.writeLock().lock();
             try {
@@ -383,16 +435,19 @@ public class ClientManagerImpl extends ClientManager {
                     final RpcClient rpcClient = entry.getValue();
                     it.remove();
                     rpcClient.shutdown();
+                    removeRpcMeterInterceptor(entry.getKey());
                 }
             } finally {
                 rpcClientTableLock.writeLock().unlock();
             }
             LOGGER.info("Shutdown all rpc client(s) successfully");
-            asyncWorker.shutdown();
-            if (!ExecutorServices.awaitTerminated(asyncWorker)) {
-                LOGGER.error("[Bug] Timeout to shutdown the client async worker");
-            } else {
-                LOGGER.info("Shutdown the client async worker successfully");
+            if (asyncWorkerOwned) {
+                asyncWorker.shutdown();
+                if (!ExecutorServices.awaitTerminated(asyncWorker)) {
+                    LOGGER.error("[Bug] Timeout to shutdown the client async worker");
+                } else {
+                    LOGGER.info("Shutdown the client async worker successfully");
+                }
             }
         } catch (InterruptedException e) {
             LOGGER.error("[Bug] Unexpected exception raised while shutdown client manager", e);
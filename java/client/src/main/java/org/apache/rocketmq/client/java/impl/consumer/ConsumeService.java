@@ -25,13 +25,14 @@ import com.google.common.util.concurrent.MoreExecutors;
 import com.google.common.util.concurrent.SettableFuture;
 import java.time.Duration;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.ScheduledExecutorService;
-import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
 import org.apache.rocketmq.client.apis.consumer.ConsumeResult;
 import org.apache.rocketmq.client.apis.consumer.MessageListener;
 import org.apache.rocketmq.client.java.hook.MessageInterceptor;
 import org.apache.rocketmq.client.java.message.MessageViewImpl;
+import org.apache.rocketmq.client.java.metrics.PipelineStage;
 import org.apache.rocketmq.client.java.misc.Dispatcher;
 import org.apache.rocketmq.client.java.route.MessageQueueImpl;
 import org.slf4j.Logger;
@@ -45,14 +46,14 @@ public abstract class ConsumeService extends Dispatcher {
 
     protected final String clientId;
     private final MessageListener messageListener;
-    private final ThreadPoolExecutor consumptionExecutor;
+    private final ExecutorService consumptionExecutor;
     private final MessageInterceptor messageInterceptor;
     private final ScheduledExecutorService scheduler;
 
     public ConsumeService(String clientId, ConcurrentMap<MessageQueueImpl, ProcessQueue> processQueueTable,
-        MessageListener messageListener, ThreadPoolExecutor consumptionExecutor, MessageInterceptor messageInterceptor,
-        ScheduledExecutorService scheduler) {
-        super(clientId);
+        MessageListener messageListener, ExecutorService consumptionExecutor, MessageInterceptor messageInterceptor,
+        ScheduledExecutorService scheduler, ExecutorService dispatcherExecutor) {
+        super(clientId, dispatcherExecutor);
         this.clientId = clientId;
         this.processQueueTable = processQueueTable;
         this.messageListener = messageListener;
@@ -66,6 +67,7 @@ public abstract class ConsumeService extends Dispatcher {
     }
 
     public ListenableFuture<ConsumeResult> consume(MessageViewImpl messageView, Duration delay) {
+        messageView.getStageTrace().mark(PipelineStage.CONSUME_CACHE_WAIT);
         final ListeningExecutorService executorService = MoreExecutors.listeningDecorator(consumptionExecutor);
         final ConsumeTask task = new ConsumeTask(clientId, messageListener, messageView, messageInterceptor);
         // Consume message with no delay.
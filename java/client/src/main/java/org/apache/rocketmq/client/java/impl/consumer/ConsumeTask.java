@@ -19,7 +19,6 @@ package org.apache.rocketmq.client.java.impl.consumer;
 
 import com.google.common.base.Stopwatch;
 import java.time.Duration;
-import java.util.Collections;
 import java.util.List;
 import java.util.concurrent.Callable;
 import org.apache.rocketmq.client.apis.consumer.ConsumeResult;
@@ -27,8 +26,14 @@ import org.apache.rocketmq.client.apis.consumer.MessageListener;
 import org.apache.rocketmq.client.java.hook.MessageHookPoints;
 import org.apache.rocketmq.client.java.hook.MessageHookPointsStatus;
 import org.apache.rocketmq.client.java.hook.MessageInterceptor;
+import org.apache.rocketmq.client.java.message.LazyMessageCommonList;
 import org.apache.rocketmq.client.java.message.MessageCommon;
 import org.apache.rocketmq.client.java.message.MessageViewImpl;
+import org.apache.rocketmq.client.java.metrics.ClientEvent;
+import org.apache.rocketmq.client.java.metrics.ClientEventType;
+import org.apache.rocketmq.client.java.metrics.ClientEvents;
+import org.apache.rocketmq.client.java.metrics.PipelineStage;
+import org.apache.rocketmq.client.java.metrics.StageTrace;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -55,10 +60,18 @@ public class ConsumeTask implements Callable<ConsumeResult> {
      */
     @Override
     public ConsumeResult call() {
+        final StageTrace stageTrace = messageView.getStageTrace();
+        stageTrace.mark(PipelineStage.CONSUME_DISPATCH);
         ConsumeResult consumeResult;
-        final List<MessageCommon> messageCommons = Collections.singletonList(messageView.getMessageCommon());
-        messageInterceptor.doBefore(MessageHookPoints.CONSUME, messageCommons);
-        final Stopwatch stopwatch = Stopwatch.createStarted();
+        // Skip the hook points entirely if the interceptor is disabled.
+        final boolean intercepted = messageInterceptor.isEnabled();
+        final List<MessageCommon> messageCommons = intercepted ?
+            LazyMessageCommonList.singleton(messageView, MessageViewImpl::getMessageCommon) : null;
+        if (intercepted) {
+            messageInterceptor.doBefore(MessageHookPoints.CONSUME, messageCommons);
+        }
+        final Stopwatch stopwatch = intercepted ? Stopwatch.createStarted() : null;
+        final ClientEvent consumeEvent = ClientEvents.begin(ClientEventType.CONSUME);
         try {
             consumeResult = messageListener.consume(messageView);
         } catch (Throwable t) {
@@ -66,10 +79,15 @@ public class ConsumeTask implements Callable<ConsumeResult> {
             // If exception was thrown during the period of message consumption, mark it as failure.
             consumeResult = ConsumeResult.FAILURE;
         }
-        final Duration duration = stopwatch.elapsed();
-        MessageHookPointsStatus status = ConsumeResult.SUCCESS.equals(consumeResult) ? MessageHookPointsStatus.OK :
-            MessageHookPointsStatus.ERROR;
-        messageInterceptor.doAfter(MessageHookPoints.CONSUME, messageCommons, duration, status);
+        stageTrace.mark(PipelineStage.CONSUME_LISTENER);
+        consumeEvent.complete(messageView.getTopic(), messageView.getMessageQueue(), messageView.getEndpoints(),
+            messageView.getDeliveryAttempt(), 1, ConsumeResult.SUCCESS.equals(consumeResult));
+        if (intercepted) {
+            final Duration duration = stopwatch.elapsed();
+            MessageHookPointsStatus status = ConsumeResult.SUCCESS.equals(consumeResult) ?
+                MessageHookPointsStatus.OK : MessageHookPointsStatus.ERROR;
+            messageInterceptor.doAfter(MessageHookPoints.CONSUME, messageCommons, duration, status);
+        }
         // Make sure that the return value is the subset of messageViews.
         return consumeResult;
     }
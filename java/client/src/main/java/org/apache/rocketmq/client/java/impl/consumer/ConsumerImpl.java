@@ -39,10 +39,10 @@ import com.google.common.util.concurrent.MoreExecutors;
 import com.google.common.util.concurrent.SettableFuture;
 import com.google.protobuf.Timestamp;
 import com.google.protobuf.util.Durations;
+import io.grpc.Context;
 import io.grpc.Metadata;
 import java.time.Duration;
 import java.util.ArrayList;
-import java.util.Collections;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Set;
@@ -53,8 +53,15 @@ import org.apache.rocketmq.client.apis.message.MessageId;
 import org.apache.rocketmq.client.java.hook.MessageHookPoints;
 import org.apache.rocketmq.client.java.hook.MessageHookPointsStatus;
 import org.apache.rocketmq.client.java.impl.ClientImpl;
+import org.apache.rocketmq.client.java.message.LazyMessageCommonList;
 import org.apache.rocketmq.client.java.message.MessageCommon;
 import org.apache.rocketmq.client.java.message.MessageViewImpl;
+import org.apache.rocketmq.client.java.metrics.ClientEvent;
+import org.apache.rocketmq.client.java.metrics.ClientEventType;
+import org.apache.rocketmq.client.java.metrics.ClientEvents;
+import org.apache.rocketmq.client.java.metrics.PipelineStage;
+import org.apache.rocketmq.client.java.metrics.StageTrace;
+import org.apache.rocketmq.client.java.misc.RateLimitedLogger;
 import org.apache.rocketmq.client.java.route.Endpoints;
 import org.apache.rocketmq.client.java.route.MessageQueueImpl;
 import org.apache.rocketmq.client.java.rpc.RpcInvocation;
@@ -65,6 +72,10 @@ import org.slf4j.LoggerFactory;
 abstract class ConsumerImpl extends ClientImpl {
     static final Pattern CONSUMER_GROUP_PATTERN = Pattern.compile("^[%a-zA-Z0-9_-]+$");
     private static final Logger LOGGER = LoggerFactory.getLogger(ConsumerImpl.class);
+    private static final RateLimitedLogger CHANGE_INVISIBLE_DURATION_FAILURE_LOGGER =
+        new RateLimitedLogger(LOGGER, "ConsumerImpl.changeInvisibleDurationFailure");
+    private static final RateLimitedLogger CHANGE_INVISIBLE_DURATION_EXCEPTION_LOGGER =
+        new RateLimitedLogger(LOGGER, "ConsumerImpl.changeInvisibleDurationException");
 
     private final String consumerGroup;
 
@@ -73,17 +84,24 @@ abstract class ConsumerImpl extends ClientImpl {
         this.consumerGroup = consumerGroup;
     }
 
+    /**
+     * Receive message by long polling, the receive request is aborted if the returned future is cancelled, which
+     * releases the thread blocked on the responses.
+     */
     @SuppressWarnings("SameParameterValue")
     protected ListenableFuture<ReceiveMessageResult> receiveMessage(ReceiveMessageRequest request,
         MessageQueueImpl mq, Duration timeout) {
         List<MessageViewImpl> messages = new ArrayList<>();
+        final StageTrace stageTrace = startStageTrace();
+        final ClientEvent receiveEvent = ClientEvents.begin(ClientEventType.RECEIVE);
+        final Endpoints endpoints = mq.getBroker().getEndpoints();
+        final Context.CancellableContext cancellableContext = Context.current().withCancellation();
         try {
             Metadata metadata = sign();
-            final Endpoints endpoints = mq.getBroker().getEndpoints();
             final ListenableFuture<RpcInvocation<Iterator<ReceiveMessageResponse>>> future =
-                clientManager.receiveMessage(endpoints,
-                    metadata, request, timeout);
-            return Futures.transformAsync(future, context -> {
+                cancellableContext.call(() -> clientManager.receiveMessage(endpoints, metadata, request, timeout));
+            final ListenableFuture<ReceiveMessageResult> resultFuture = Futures.transformAsync(future, context -> {
+                stageTrace.mark(PipelineStage.RECEIVE_RPC);
                 final Iterator<ReceiveMessageResponse> it = context.getResponse();
                 Status status = Status.newBuilder().setCode(Code.INTERNAL_SERVER_ERROR)
                     .setMessage("status was not set by server")
@@ -111,11 +129,38 @@ abstract class ConsumerImpl extends ClientImpl {
                     final MessageViewImpl view = MessageViewImpl.fromProtobuf(message, mq, deliveryTimestampFromRemote);
                     messages.add(view);
                 }
+                stageTrace.mark(PipelineStage.RECEIVE_DECODE);
+                receiveEvent.complete(mq.getTopic(), mq, endpoints, 1, messages.size(),
+                    Code.OK.equals(status.getCode()));
                 final ReceiveMessageResult receiveMessageResult = new ReceiveMessageResult(endpoints,
                     context.getContext().getRequestId(), status, messages);
                 return Futures.immediateFuture(receiveMessageResult);
             }, MoreExecutors.directExecutor());
+            // The failure may be raised while reading the responses, e.g. the deadline is exceeded during long polling.
+            Futures.addCallback(resultFuture, new FutureCallback<ReceiveMessageResult>() {
+                @Override
+                public void onSuccess(ReceiveMessageResult result) {
+                    // The event is completed once responses are decoded, and the latency of long polling is not
+                    // accounted by the circuit breaker.
+                    onRequestSuccess(endpoints, Duration.ZERO);
+                }
+
+                @Override
+                public void onFailure(Throwable t) {
+                    receiveEvent.complete(mq.getTopic(), mq, endpoints, 1, 0, false);
+                    // Aborted by the caller, which says nothing about the endpoints.
+                    if (resultFuture.isCancelled()) {
+                        return;
+                    }
+                    onRequestFailure(endpoints);
+                }
+            }, MoreExecutors.directExecutor());
+            // Abort the call if the reception is cancelled, the context is cancelled after completion either way.
+            resultFuture.addListener(() -> cancellableContext.cancel(null), MoreExecutors.directExecutor());
+            return resultFuture;
         } catch (Throwable t) {
+            cancellableContext.cancel(t);
+            receiveEvent.complete(mq.getTopic(), mq, endpoints, 1, 0, false);
             return Futures.immediateFailedFuture(t);
         }
     }
@@ -144,9 +189,15 @@ abstract class ConsumerImpl extends ClientImpl {
         final Endpoints endpoints = messageView.getEndpoints();
         ListenableFuture<RpcInvocation<AckMessageResponse>> future;
 
-        final Stopwatch stopwatch = Stopwatch.createStarted();
-        final List<MessageCommon> messageCommons = Collections.singletonList(messageView.getMessageCommon());
-        doBefore(MessageHookPoints.ACK, messageCommons);
+        // Skip the hook points entirely if no interceptor is enabled.
+        final boolean intercepted = hasEnabledMessageInterceptor();
+        final Stopwatch stopwatch = intercepted ? Stopwatch.createStarted() : null;
+        final List<MessageCommon> messageCommons = intercepted ?
+            LazyMessageCommonList.singleton(messageView, MessageViewImpl::getMessageCommon) : null;
+        if (intercepted) {
+            doBefore(MessageHookPoints.ACK, messageCommons);
+        }
+        final ClientEvent ackEvent = ClientEvents.begin(ClientEventType.ACK);
         try {
             final AckMessageRequest request = wrapAckMessageRequest(messageView);
             final Metadata metadata = sign();
@@ -162,16 +213,24 @@ abstract class ConsumerImpl extends ClientImpl {
                 final AckMessageResponse response = invocation.getResponse();
                 final Status status = response.getStatus();
                 final Code code = status.getCode();
-                final Duration duration = stopwatch.elapsed();
-                MessageHookPointsStatus messageHookPointsStatus = Code.OK.equals(code) ?
-                    MessageHookPointsStatus.OK : MessageHookPointsStatus.ERROR;
-                doAfter(MessageHookPoints.ACK, messageCommons, duration, messageHookPointsStatus);
+                messageView.getStageTrace().mark(PipelineStage.CONSUME_ACK);
+                ackEvent.complete(messageView.getTopic(), messageView.getMessageQueue(), endpoints,
+                    1, 1, Code.OK.equals(code));
+                if (intercepted) {
+                    final Duration duration = stopwatch.elapsed();
+                    MessageHookPointsStatus messageHookPointsStatus = Code.OK.equals(code) ?
+                        MessageHookPointsStatus.OK : MessageHookPointsStatus.ERROR;
+                    doAfter(MessageHookPoints.ACK, messageCommons, duration, messageHookPointsStatus);
+                }
             }
 
             @Override
             public void onFailure(Throwable t) {
-                final Duration duration = stopwatch.elapsed();
-                doAfter(MessageHookPoints.ACK, messageCommons, duration, MessageHookPointsStatus.ERROR);
+                ackEvent.complete(messageView.getTopic(), messageView.getMessageQueue(), endpoints, 1, 1, false);
+                if (intercepted) {
+                    final Duration duration = stopwatch.elapsed();
+                    doAfter(MessageHookPoints.ACK, messageCommons, duration, MessageHookPointsStatus.ERROR);
+                }
             }
         }, MoreExecutors.directExecutor());
         return future;
@@ -182,9 +241,16 @@ abstract class ConsumerImpl extends ClientImpl {
         final Endpoints endpoints = messageView.getEndpoints();
         ListenableFuture<RpcInvocation<ChangeInvisibleDurationResponse>> future;
 
-        final Stopwatch stopwatch = Stopwatch.createStarted();
-        final List<MessageCommon> messageCommons = Collections.singletonList(messageView.getMessageCommon());
-        doBefore(MessageHookPoints.CHANGE_INVISIBLE_DURATION, messageCommons);
+        // Skip the hook points entirely if no interceptor is enabled.
+        final boolean intercepted = hasEnabledMessageInterceptor();
+        final Stopwatch stopwatch = intercepted ? Stopwatch.createStarted() : null;
+        final List<MessageCommon> messageCommons = intercepted ?
+            LazyMessageCommonList.singleton(messageView, MessageViewImpl::getMessageCommon) : null;
+        if (intercepted) {
+            doBefore(MessageHookPoints.CHANGE_INVISIBLE_DURATION, messageCommons);
+        }
+        final ClientEvent changeInvisibleDurationEvent =
+            ClientEvents.begin(ClientEventType.CHANGE_INVISIBLE_DURATION);
         try {
             final ChangeInvisibleDurationRequest request = wrapChangeInvisibleDuration(messageView, invisibleDuration);
             final Metadata metadata = sign();
@@ -202,22 +268,32 @@ abstract class ConsumerImpl extends ClientImpl {
                 final ChangeInvisibleDurationResponse response = invocation.getResponse();
                 final Status status = response.getStatus();
                 final Code code = status.getCode();
-                final Duration duration = stopwatch.elapsed();
-                MessageHookPointsStatus messageHookPointsStatus = Code.OK.equals(code) ?
-                    MessageHookPointsStatus.OK : MessageHookPointsStatus.ERROR;
+                changeInvisibleDurationEvent.complete(messageView.getTopic(), messageView.getMessageQueue(),
+                    endpoints, 1, 1, Code.OK.equals(code));
                 if (!Code.OK.equals(code)) {
-                    LOGGER.error("Failed to change message invisible duration, messageId={}, endpoints={}, code={}, " +
-                        "status message=[{}], clientId={}", messageId, endpoints, code, status.getMessage(), clientId);
+                    CHANGE_INVISIBLE_DURATION_FAILURE_LOGGER.error("Failed to change message invisible duration, "
+                            + "messageId={}, endpoints={}, code={}, status message=[{}], clientId={}", messageId,
+                        endpoints, code, status.getMessage(), clientId);
+                }
+                if (intercepted) {
+                    final Duration duration = stopwatch.elapsed();
+                    MessageHookPointsStatus messageHookPointsStatus = Code.OK.equals(code) ?
+                        MessageHookPointsStatus.OK : MessageHookPointsStatus.ERROR;
+                    doAfter(MessageHookPoints.CHANGE_INVISIBLE_DURATION, messageCommons, duration,
+                        messageHookPointsStatus);
                 }
-                doAfter(MessageHookPoints.CHANGE_INVISIBLE_DURATION, messageCommons, duration, messageHookPointsStatus);
             }
 
             @Override
             public void onFailure(Throwable t) {
-                final Duration duration = stopwatch.elapsed();
-                doAfter(MessageHookPoints.ACK, messageCommons, duration, MessageHookPointsStatus.ERROR);
-                LOGGER.error("Exception raised during message acknowledgement, messageId={}, endpoints={}, clientId={}",
-                    messageId, endpoints, clientId, t);
+                changeInvisibleDurationEvent.complete(messageView.getTopic(), messageView.getMessageQueue(),
+                    endpoints, 1, 1, false);
+                if (intercepted) {
+                    final Duration duration = stopwatch.elapsed();
+                    doAfter(MessageHookPoints.ACK, messageCommons, duration, MessageHookPointsStatus.ERROR);
+                }
+                CHANGE_INVISIBLE_DURATION_EXCEPTION_LOGGER.error("Exception raised while changing message invisible "
+                    + "duration, messageId={}, endpoints={}, clientId={}", messageId, endpoints, clientId, t);
 
             }
         }, MoreExecutors.directExecutor());
@@ -0,0 +1,178 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.rocketmq.client.java.impl.consumer;
+
+import com.google.errorprone.annotations.concurrent.GuardedBy;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import org.apache.rocketmq.client.java.message.MessageViewImpl;
+import org.apache.rocketmq.client.java.metrics.PrefetchBufferObserver;
+
+/**
+ * Bounded buffer of the messages which are prefetched by {@link SimpleConsumerImpl} in background.
+ *
+ * <p>Each prefetched message is only served within its effective invisible duration, which is a fraction of the
+ * invisible duration it is received with, so that there is still enough time to process it once served. Messages
+ * which sit in the buffer longer than that are expired and removed, and should be released by the caller rather
+ * than left to become visible silently.
+ *
+ * <p>The invisible duration left of a message served may be shorter than the one requested by the reception, such
+ * messages are reported by {@link #poll(int, Duration, List, List)}, so that the caller could extend it before
+ * serving them.
+ */
+class PrefetchBuffer implements PrefetchBufferObserver {
+    /**
+     * Ratio of the effective invisible duration to the invisible duration of prefetched messages.
+     */
+    static final double EFFECTIVE_INVISIBLE_DURATION_RATIO = 0.5;
+
+    private final int capacity;
+
+    @GuardedBy("this")
+    private final Deque<PrefetchedMessage> messages;
+    private final AtomicLong discardedCount;
+
+    PrefetchBuffer(int capacity) {
+        this.capacity = capacity;
+        this.messages = new ArrayDeque<>();
+        this.discardedCount = new AtomicLong();
+    }
+
+    synchronized int remainingCapacity() {
+        return Math.max(0, capacity - messages.size());
+    }
+
+    /**
+     * Add prefetched messages, which are received with the given invisible duration just now.
+     */
+    void offer(List<MessageViewImpl> messageViews, Duration invisibleDuration) {
+        final long now = System.nanoTime();
+        final long effectiveNanos = (long) (invisibleDuration.toNanos() * EFFECTIVE_INVISIBLE_DURATION_RATIO);
+        final long expireNanoTime = now + effectiveNanos;
+        final long invisibleNanoTime = now + invisibleDuration.toNanos();
+        synchronized (this) {
+            for (MessageViewImpl messageView : messageViews) {
+                messages.addLast(new PrefetchedMessage(messageView, expireNanoTime, invisibleNanoTime));
+            }
+        }
+    }
+
+    /**
+     * Take the prefetched messages which are within their effective invisible duration.
+     *
+     * @param maxMessageNum     max number of messages to take.
+     * @param invisibleDuration invisible duration requested by the reception.
+     * @param expired           collector of the expired messages, which are removed from the buffer.
+     * @param shortened         collector of the messages taken whose invisible duration left is shorter than the
+     *                          requested one.
+     * @return messages taken.
+     */
+    List<MessageViewImpl> poll(int maxMessageNum, Duration invisibleDuration, List<MessageViewImpl> expired,
+        List<MessageViewImpl> shortened) {
+        final long now = System.nanoTime();
+        final List<MessageViewImpl> taken = new ArrayList<>();
+        synchronized (this) {
+            while (taken.size() < maxMessageNum && !messages.isEmpty()) {
+                final PrefetchedMessage message = messages.pollFirst();
+                if (message.isExpired(now)) {
+                    expired.add(message.messageView);
+                    continue;
+                }
+                taken.add(message.messageView);
+                if (message.invisibleNanoTime - now < invisibleDuration.toNanos()) {
+                    shortened.add(message.messageView);
+                }
+            }
+        }
+        discardedCount.addAndGet(expired.size());
+        return taken;
+    }
+
+    /**
+     * Remove the messages which are beyond their effective invisible duration.
+     *
+     * @return messages removed.
+     */
+    List<MessageViewImpl> drainExpired() {
+        final long now = System.nanoTime();
+        final List<MessageViewImpl> expired = new ArrayList<>();
+        synchronized (this) {
+            final Iterator<PrefetchedMessage> iterator = messages.iterator();
+            while (iterator.hasNext()) {
+                final PrefetchedMessage message = iterator.next();
+                if (message.isExpired(now)) {
+                    iterator.remove();
+                    expired.add(message.messageView);
+                }
+            }
+        }
+        discardedCount.addAndGet(expired.size());
+        return expired;
+    }
+
+    /**
+     * Remove all messages, which is used once the consumer is shutdown.
+     *
+     * @return messages removed.
+     */
+    List<MessageViewImpl> drainAll() {
+        final List<MessageViewImpl> drained = new ArrayList<>();
+        synchronized (this) {
+            for (PrefetchedMessage message : messages) {
+                drained.add(message.messageView);
+            }
+            messages.clear();
+        }
+        discardedCount.addAndGet(drained.size());
+        return drained;
+    }
+
+    @Override
+    public synchronized int getPrefetchedMessageCount() {
+        return messages.size();
+    }
+
+    @Override
+    public long getDiscardedMessageCount() {
+        return discardedCount.get();
+    }
+
+    private static class PrefetchedMessage {
+        private final MessageViewImpl messageView;
+        private final long expireNanoTime;
+        /**
+         * Time when the message becomes visible again.
+         */
+        private final long invisibleNanoTime;
+
+        PrefetchedMessage(MessageViewImpl messageView, long expireNanoTime, long invisibleNanoTime) {
+            this.messageView = messageView;
+            this.expireNanoTime = expireNanoTime;
+            this.invisibleNanoTime = invisibleNanoTime;
+        }
+
+        boolean isExpired(long nanoTime) {
+            return nanoTime - expireNanoTime >= 0;
+        }
+    }
+}
@@ -37,18 +37,21 @@ import java.util.List;
 import java.util.Optional;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.locks.ReadWriteLock;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
-import java.util.stream.Collectors;
 import org.apache.rocketmq.client.apis.consumer.ConsumeResult;
 import org.apache.rocketmq.client.apis.consumer.FilterExpression;
 import org.apache.rocketmq.client.apis.message.MessageId;
 import org.apache.rocketmq.client.java.exception.BadRequestException;
 import org.apache.rocketmq.client.java.hook.MessageHookPoints;
 import org.apache.rocketmq.client.java.hook.MessageHookPointsStatus;
+import org.apache.rocketmq.client.java.message.LazyMessageCommonList;
 import org.apache.rocketmq.client.java.message.MessageCommon;
 import org.apache.rocketmq.client.java.message.MessageViewImpl;
+import org.apache.rocketmq.client.java.misc.RateLimitedLogger;
+import org.apache.rocketmq.client.java.retry.EndpointsBackoff;
 import org.apache.rocketmq.client.java.retry.RetryPolicy;
 import org.apache.rocketmq.client.java.route.Endpoints;
 import org.apache.rocketmq.client.java.route.MessageQueueImpl;
@@ -71,6 +74,36 @@ class ProcessQueueImpl implements ProcessQueue {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(ProcessQueueImpl.class);
 
+    /**
+     * Loggers of the hot path, which are rate-limited to avoid flooding the log under overload.
+     */
+    private static final RateLimitedLogger CACHE_FULL_LOGGER =
+        new RateLimitedLogger(LOGGER, "ProcessQueueImpl.cacheFull");
+    private static final RateLimitedLogger CACHE_COUNT_EXCEEDED_LOGGER =
+        new RateLimitedLogger(LOGGER, "ProcessQueueImpl.cacheCountExceeded");
+    private static final RateLimitedLogger CACHE_BYTES_EXCEEDED_LOGGER =
+        new RateLimitedLogger(LOGGER, "ProcessQueueImpl.cacheBytesExceeded");
+    private static final RateLimitedLogger RECEIVE_FAILURE_LOGGER =
+        new RateLimitedLogger(LOGGER, "ProcessQueueImpl.receiveFailure");
+    private static final RateLimitedLogger CIRCUIT_BREAKER_OPEN_LOGGER =
+        new RateLimitedLogger(LOGGER, "ProcessQueueImpl.circuitBreakerOpen");
+    private static final RateLimitedLogger ACK_FAILURE_LOGGER =
+        new RateLimitedLogger(LOGGER, "ProcessQueueImpl.ackFailure");
+    private static final RateLimitedLogger DLQ_FAILURE_LOGGER =
+        new RateLimitedLogger(LOGGER, "ProcessQueueImpl.dlqFailure");
+    private static final RateLimitedLogger CACHE_RESERVED_FULL_LOGGER =
+        new RateLimitedLogger(LOGGER, "ProcessQueueImpl.cacheReservedFull");
+    private static final RateLimitedLogger RECEIVE_EXCEPTION_LOGGER =
+        new RateLimitedLogger(LOGGER, "ProcessQueueImpl.receiveException");
+    private static final RateLimitedLogger ACK_EXCEPTION_LOGGER =
+        new RateLimitedLogger(LOGGER, "ProcessQueueImpl.ackException");
+    private static final RateLimitedLogger FIFO_ACK_FAILURE_LOGGER =
+        new RateLimitedLogger(LOGGER, "ProcessQueueImpl.fifoAckFailure");
+    private static final RateLimitedLogger FIFO_ACK_EXCEPTION_LOGGER =
+        new RateLimitedLogger(LOGGER, "ProcessQueueImpl.fifoAckException");
+    private static final RateLimitedLogger DLQ_EXCEPTION_LOGGER =
+        new RateLimitedLogger(LOGGER, "ProcessQueueImpl.dlqException");
+
     private final PushConsumerImpl consumer;
 
     /**
@@ -96,6 +129,21 @@ class ProcessQueueImpl implements ProcessQueue {
 
     private final AtomicLong cachedMessagesBytes;
 
+    /**
+     * Receive requests in flight, and the messages they could receive at most, which are reserved from the cache.
+     */
+    private final AtomicInteger receivingRequests;
+    private final AtomicInteger reservedMessagesCount;
+    /**
+     * Estimated body size of the messages to receive, which is used to reserve the memory of the cache, 0 if no
+     * message is received yet.
+     */
+    private volatile int estimatedMessageBytes = 0;
+    /**
+     * Concurrency of receive requests, which is adapted between 1 and the maximum by the backlog.
+     */
+    private final AtomicInteger receptionConcurrency;
+
     private volatile long activityNanoTime = System.nanoTime();
 
     public ProcessQueueImpl(PushConsumerImpl consumer, MessageQueueImpl mq, FilterExpression filterExpression) {
@@ -108,6 +156,9 @@ class ProcessQueueImpl implements ProcessQueue {
         this.inflightMessages = new ArrayList<>();
         this.inflightMessagesLock = new ReentrantReadWriteLock();
         this.cachedMessagesBytes = new AtomicLong();
+        this.receivingRequests = new AtomicInteger();
+        this.reservedMessagesCount = new AtomicInteger();
+        this.receptionConcurrency = new AtomicInteger(1);
     }
 
     @Override
@@ -148,6 +199,8 @@ class ProcessQueueImpl implements ProcessQueue {
                     previous.setNext(messageView);
                 }
                 previous = messageView;
+                // Each message is sampled individually from now on.
+                messageView.setStageTrace(consumer.startStageTrace());
                 pendingMessages.add(messageView);
                 cachedMessagesBytes.addAndGet(messageView.getBody().remaining());
             }
@@ -169,12 +222,6 @@ class ProcessQueueImpl implements ProcessQueue {
         }
     }
 
-    private int getReceptionBatchSize() {
-        int bufferSize = consumer.cacheMessageCountThresholdPerQueue() - this.cachedMessagesCount();
-        bufferSize = Math.max(bufferSize, 1);
-        return Math.min(bufferSize, consumer.getPushConsumerSettings().getReceiveBatchSize());
-    }
-
     @Override
     public void fetchMessageImmediately() {
         receiveMessageImmediately();
@@ -186,9 +233,24 @@ class ProcessQueueImpl implements ProcessQueue {
      * <p> Make sure that no exception will be thrown.
      */
     public void receiveMessageLater() {
+        receiveMessageLater(RECEIVE_LATER_DELAY);
+    }
+
+    /**
+     * Receive message later by message queue after the specified delay.
+     *
+     * <p> Make sure that no exception will be thrown.
+     */
+    private void receiveMessageLater(Duration delay) {
         final ScheduledExecutorService scheduler = consumer.getScheduler();
         try {
-            scheduler.schedule(this::receiveMessage, RECEIVE_LATER_DELAY.toNanos(), TimeUnit.NANOSECONDS);
+            scheduler.schedule(() -> {
+                // The scheduler may be provided by the caller, which keeps running after the consumer is shut down.
+                if (!consumer.isRunning()) {
+                    return;
+                }
+                receiveMessage();
+            }, delay.toNanos(), TimeUnit.NANOSECONDS);
         } catch (Throwable t) {
             if (scheduler.isShutdown()) {
                 return;
@@ -196,7 +258,34 @@ class ProcessQueueImpl implements ProcessQueue {
             // Should never reach here.
             LOGGER.error("[Bug] Failed to schedule receive message request, mq={}, clientId={}", mq,
                 consumer.clientId(), t);
-            receiveMessageLater();
+            receiveMessageLater(delay);
+        }
+    }
+
+    /**
+     * Receive message after the backoff of the endpoints, or at once if any request to the endpoints succeeds in the
+     * meantime, see {@link EndpointsBackoff#schedule}.
+     *
+     * <p> Make sure that no exception will be thrown.
+     */
+    private void receiveMessageAfterBackoff(Endpoints endpoints, Duration delay) {
+        final ScheduledExecutorService scheduler = consumer.getScheduler();
+        try {
+            consumer.getReceptionBackoff().schedule(scheduler, endpoints, delay, () -> {
+                // The scheduler may be provided by the caller, which keeps running after the consumer is shut down.
+                if (!consumer.isRunning()) {
+                    return;
+                }
+                receiveMessage();
+            });
+        } catch (Throwable t) {
+            if (scheduler.isShutdown()) {
+                return;
+            }
+            // Should never reach here.
+            LOGGER.error("[Bug] Failed to schedule receive message request, mq={}, clientId={}", mq,
+                consumer.clientId(), t);
+            receiveMessageLater(delay);
         }
     }
 
@@ -207,43 +296,91 @@ class ProcessQueueImpl implements ProcessQueue {
             return;
         }
         if (this.isCacheFull()) {
-            LOGGER.warn("Process queue cache is full, would receive message later, mq={}, clientId={}", mq,
-                consumer.clientId());
-            receiveMessageLater();
+            // Receive requests in flight would receive message once they are completed.
+            if (0 == receivingRequests.get()) {
+                CACHE_FULL_LOGGER.warn("Process queue cache is full, would receive message later, mq={}, "
+                    + "clientId={}", mq, consumer.clientId());
+                receiveMessageLater();
+            }
             return;
         }
         receiveMessageImmediately();
     }
 
+    /**
+     * Issue receive requests up to the current concurrency, as long as the cache could take the messages they are
+     * going to receive.
+     */
     private void receiveMessageImmediately() {
         if (!consumer.isRunning()) {
             LOGGER.info("Stop to receive message because consumer is not running, mq={}, clientId={}", mq,
                 consumer.clientId());
             return;
         }
+        final Endpoints endpoints = mq.getBroker().getEndpoints();
+        // Skip the endpoints which is known to be unhealthy, and check it again after the backoff.
+        if (!consumer.allowRequest(endpoints)) {
+            final Duration delay = consumer.getReceptionBackoff().getDelay(endpoints);
+            CIRCUIT_BREAKER_OPEN_LOGGER.warn("Circuit breaker of the endpoints is open, would receive message later "
+                + "after {}, mq={}, endpoints={}, clientId={}", delay, mq, endpoints, consumer.clientId());
+            receiveMessageAfterBackoff(endpoints, delay);
+            return;
+        }
+        int issued = 0;
+        while (tryAcquireReception()) {
+            final int batchSize = reserveReceptionBatchSize();
+            if (batchSize <= 0) {
+                receivingRequests.decrementAndGet();
+                break;
+            }
+            if (!receiveMessageImmediately(endpoints, batchSize)) {
+                return;
+            }
+            issued++;
+        }
+        // No more receive request would be issued by completion if the cache is full already.
+        if (0 == issued && 0 == receivingRequests.get()) {
+            CACHE_RESERVED_FULL_LOGGER.warn("Process queue cache is full, would receive message later, mq={}, "
+                + "clientId={}", mq, consumer.clientId());
+            receiveMessageLater();
+        }
+    }
+
+    /**
+     * @return true if the receive request is issued, false if it failed and would be retried later.
+     */
+    private boolean receiveMessageImmediately(Endpoints endpoints, int batchSize) {
+        boolean issued = false;
         try {
-            final Endpoints endpoints = mq.getBroker().getEndpoints();
-            final int batchSize = this.getReceptionBatchSize();
             final ReceiveMessageRequest request = consumer.wrapReceiveMessageRequest(batchSize, mq, filterExpression);
             activityNanoTime = System.nanoTime();
 
-            // Intercept before message reception.
-            consumer.doBefore(MessageHookPoints.RECEIVE, Collections.emptyList());
-            final Stopwatch stopwatch = Stopwatch.createStarted();
+            // Intercept before message reception, skip the hook points entirely if no interceptor is enabled.
+            final boolean intercepted = consumer.hasEnabledMessageInterceptor();
+            if (intercepted) {
+                consumer.doBefore(MessageHookPoints.RECEIVE, Collections.emptyList());
+            }
+            final Stopwatch stopwatch = intercepted ? Stopwatch.createStarted() : null;
 
             final ListenableFuture<ReceiveMessageResult> future = consumer.receiveMessage(request, mq,
                 consumer.getPushConsumerSettings().getLongPollingTimeout());
+            // The reservation is released by the callback since then.
+            issued = true;
             Futures.addCallback(future, new FutureCallback<ReceiveMessageResult>() {
                 @Override
                 public void onSuccess(ReceiveMessageResult result) {
                     // Intercept after message reception.
-                    final Duration duration = stopwatch.elapsed();
-                    final List<MessageCommon> commons = result.getMessageViewImpls().stream()
-                        .map(MessageViewImpl::getMessageCommon).collect(Collectors.toList());
-                    consumer.doAfter(MessageHookPoints.RECEIVE, commons, duration, MessageHookPointsStatus.OK);
+                    if (intercepted) {
+                        final Duration duration = stopwatch.elapsed();
+                        final List<MessageCommon> commons = LazyMessageCommonList.of(result.getMessageViewImpls(),
+                            MessageViewImpl::getMessageCommon);
+                        consumer.doAfter(MessageHookPoints.RECEIVE, commons, duration, MessageHookPointsStatus.OK);
+                    }
+                    // Recover all process queues of the endpoints from backoff once any of them succeeds.
+                    consumer.getReceptionBackoff().onSuccess(endpoints);
 
                     try {
-                        onReceiveMessageResult(result);
+                        onReceiveMessageResult(result, batchSize);
                     } catch (Throwable t) {
                         // Should never reach here.
                         LOGGER.error("[Bug] Exception raised while handling receive result, would receive later," +
@@ -256,37 +393,123 @@ class ProcessQueueImpl implements ProcessQueue {
                 @Override
                 public void onFailure(Throwable t) {
                     // Intercept after message reception.
-                    final Duration duration = stopwatch.elapsed();
-                    consumer.doAfter(MessageHookPoints.RECEIVE, Collections.emptyList(), duration,
-                        MessageHookPointsStatus.ERROR);
+                    if (intercepted) {
+                        final Duration duration = stopwatch.elapsed();
+                        consumer.doAfter(MessageHookPoints.RECEIVE, Collections.emptyList(), duration,
+                            MessageHookPointsStatus.ERROR);
+                    }
 
-                    LOGGER.error("Exception raised while message reception, would receive later, mq={}, endpoints={}," +
-                        " clientId={}", mq, endpoints, consumer.clientId(), t);
-                    receiveMessageLater();
+                    releaseReception(batchSize);
+                    receptionConcurrency.set(1);
+                    final Duration delay = consumer.getReceptionBackoff().onFailure(endpoints);
+                    RECEIVE_FAILURE_LOGGER.error("Exception raised while message reception, would receive later "
+                        + "after {}, mq={}, endpoints={}, clientId={}", delay, mq, endpoints, consumer.clientId(), t);
+                    receiveMessageAfterBackoff(endpoints, delay);
                 }
             }, MoreExecutors.directExecutor());
             consumer.getReceptionTimes().getAndIncrement();
+            return true;
         } catch (Throwable t) {
-            LOGGER.error("Exception raised while message reception, would receive later, mq={}, clientId={}", mq,
-                consumer.clientId(), t);
+            if (!issued) {
+                releaseReception(batchSize);
+            }
+            RECEIVE_EXCEPTION_LOGGER.error("Exception raised while message reception, would receive later, mq={}, "
+                + "clientId={}", mq, consumer.clientId(), t);
             receiveMessageLater();
+            return false;
         }
     }
 
+    /**
+     * Acquire a receive request if the receive requests in flight are less than the current concurrency.
+     */
+    private boolean tryAcquireReception() {
+        int current;
+        do {
+            current = receivingRequests.get();
+            if (current >= receptionConcurrency.get()) {
+                return false;
+            }
+        } while (!receivingRequests.compareAndSet(current, current + 1));
+        return true;
+    }
+
+    /**
+     * Reserve the cache for the messages to receive, so that the concurrent receive requests never overshoot the
+     * cache thresholds. The memory is reserved by the estimated message size, which may still be exceeded by the
+     * messages larger than the estimation.
+     *
+     * @return the batch size of the receive request, or 0 if the cache could not take any more message.
+     */
+    private int reserveReceptionBatchSize() {
+        final int receiveBatchSize = consumer.getPushConsumerSettings().getReceiveBatchSize();
+        int available = consumer.cacheMessageCountThresholdPerQueue() - this.cachedMessagesCount();
+        final int messageBytes = estimatedMessageBytes;
+        if (0 < messageBytes) {
+            final long availableBytes = consumer.cacheMessageBytesThresholdPerQueue() - this.cachedMessageBytes();
+            available = (int) Math.min(available, availableBytes / messageBytes);
+        }
+        int reserved;
+        int batchSize;
+        do {
+            reserved = reservedMessagesCount.get();
+            // The message size is unknown before any message is received, so only one request is issued until then.
+            if (0 == messageBytes && 0 < reserved) {
+                return 0;
+            }
+            batchSize = Math.min(receiveBatchSize, available - reserved);
+            if (batchSize <= 0) {
+                return 0;
+            }
+        } while (!reservedMessagesCount.compareAndSet(reserved, reserved + batchSize));
+        return batchSize;
+    }
+
+    private void releaseReception(int batchSize) {
+        reservedMessagesCount.addAndGet(-batchSize);
+        receivingRequests.decrementAndGet();
+    }
+
+    /**
+     * Estimate the message size by the moving average of the received batches.
+     */
+    private void estimateMessageBytes(List<MessageViewImpl> messages) {
+        long bytes = 0;
+        for (MessageViewImpl message : messages) {
+            bytes += message.getBody().remaining();
+        }
+        final int batchMessageBytes = (int) Math.max(1, bytes / messages.size());
+        final int previous = estimatedMessageBytes;
+        estimatedMessageBytes = 0 == previous ? batchMessageBytes : previous + (batchMessageBytes - previous) / 4;
+    }
+
+    /**
+     * Grow the concurrency while full batches are received, which means the queue has a backlog, and shrink it once
+     * the backlog is drained.
+     */
+    private void adaptReceptionConcurrency(int batchSize, int received) {
+        final int maxConcurrency = Math.max(1, consumer.getMaxReceptionConcurrencyPerQueue());
+        if (received >= batchSize) {
+            receptionConcurrency.updateAndGet(concurrency -> Math.min(maxConcurrency, concurrency + 1));
+            return;
+        }
+        receptionConcurrency.updateAndGet(concurrency -> Math.max(1, concurrency - 1));
+    }
+
     public boolean isCacheFull() {
         final int cacheMessageCountThresholdPerQueue = consumer.cacheMessageCountThresholdPerQueue();
         final long actualMessagesQuantity = this.cachedMessagesCount();
         if (cacheMessageCountThresholdPerQueue <= actualMessagesQuantity) {
-            LOGGER.warn("Process queue total cached messages quantity exceeds the threshold, threshold={}, actual={}," +
-                    " mq={}, clientId={}", cacheMessageCountThresholdPerQueue, actualMessagesQuantity, mq,
-                consumer.clientId());
+            CACHE_COUNT_EXCEEDED_LOGGER.warn("Process queue total cached messages quantity exceeds the threshold, "
+                    + "threshold={}, actual={}, mq={}, clientId={}", cacheMessageCountThresholdPerQueue,
+                actualMessagesQuantity, mq, consumer.clientId());
             return true;
         }
         final int cacheMessageBytesThresholdPerQueue = consumer.cacheMessageBytesThresholdPerQueue();
         final long actualCachedMessagesBytes = this.cachedMessageBytes();
         if (cacheMessageBytesThresholdPerQueue <= actualCachedMessagesBytes) {
-            LOGGER.warn("Process queue total cached messages memory exceeds the threshold, threshold={} bytes," +
-                    " actual={} bytes, mq={}, clientId={}", cacheMessageBytesThresholdPerQueue,
+            CACHE_BYTES_EXCEEDED_LOGGER.warn("Process queue total cached messages memory exceeds the threshold, "
+                    + "threshold={} bytes, actual={} bytes, mq={}, clientId={}", cacheMessageBytesThresholdPerQueue,
                 actualCachedMessagesBytes, mq, consumer.clientId());
             return true;
         }
@@ -317,13 +540,20 @@ class ProcessQueueImpl implements ProcessQueue {
         return cachedMessagesBytes.get();
     }
 
-    private void onReceiveMessageResult(ReceiveMessageResult result) {
+    private void onReceiveMessageResult(ReceiveMessageResult result, int batchSize) {
         final List<MessageViewImpl> messages = result.getMessageViewImpls();
-        if (!messages.isEmpty()) {
-            cacheMessages(messages);
-            consumer.getReceivedMessagesQuantity().getAndAdd(messages.size());
-            consumer.getConsumeService().signal();
+        try {
+            if (!messages.isEmpty()) {
+                estimateMessageBytes(messages);
+                cacheMessages(messages);
+                consumer.getReceivedMessagesQuantity().getAndAdd(messages.size());
+                consumer.getConsumeService().signal();
+            }
+        } finally {
+            // Release the reservation after caching, so that the messages are always accounted.
+            releaseReception(batchSize);
         }
+        adaptReceptionConcurrency(batchSize, messages.size());
         receiveMessage();
     }
 
@@ -394,15 +624,15 @@ class ProcessQueueImpl implements ProcessQueue {
                         + "endpoints={}, requestId={}", clientId, consumerGroup, messageId, mq, endpoints, requestId);
                     return;
                 }
-                LOGGER.error("Failed to ack message, clientId={}, consumerGroup={}, messageId={}, mq={}, "
+                ACK_FAILURE_LOGGER.error("Failed to ack message, clientId={}, consumerGroup={}, messageId={}, mq={}, "
                         + "endpoints={}, requestId={}, code={}, status message={}", clientId, consumerGroup, messageId,
                     mq, endpoints, requestId, code, status.getMessage());
             }
 
             @Override
             public void onFailure(Throwable t) {
-                LOGGER.error("Exception raised while acknowledging message, clientId={}, consumerGroup={}, "
-                        + "messageId={}, mq={}, endpoints={}", clientId, consumerGroup, messageId, mq,
+                ACK_EXCEPTION_LOGGER.error("Exception raised while acknowledging message, clientId={}, "
+                        + "consumerGroup={}, messageId={}, mq={}, endpoints={}", clientId, consumerGroup, messageId, mq,
                     endpoints, t);
             }
         }, MoreExecutors.directExecutor());
@@ -490,10 +720,10 @@ class ProcessQueueImpl implements ProcessQueue {
                 final Code code = status.getCode();
                 // Log failure and retry later.
                 if (!Code.OK.equals(code)) {
-                    LOGGER.error("Failed to forward message to dead letter queue, would attempt to re-forward later," +
-                            " clientId={}, consumerGroup={} messageId={}, attempt={}, mq={}, endpoints={}, "
-                            + "requestId={}, code={}, status message={}", clientId, consumerGroup, messageId, attempt,
-                        mq, endpoints, requestId, code, status.getMessage());
+                    DLQ_FAILURE_LOGGER.error("Failed to forward message to dead letter queue, would attempt to "
+                            + "re-forward later, clientId={}, consumerGroup={} messageId={}, attempt={}, mq={}, "
+                            + "endpoints={}, requestId={}, code={}, status message={}", clientId, consumerGroup,
+                        messageId, attempt, mq, endpoints, requestId, code, status.getMessage());
                     forwardToDeadLetterQueue(messageView, 1 + attempt, future0);
                     return;
                 }
@@ -514,9 +744,9 @@ class ProcessQueueImpl implements ProcessQueue {
             @Override
             public void onFailure(Throwable t) {
                 // Log failure and retry later.
-                LOGGER.error("Exception raised while forward message to DLQ, would attempt to re-forward later, " +
-                        "clientId={}, consumerGroup={}, attempt={}, messageId={}, mq={}", clientId, consumerGroup,
-                    attempt, messageId, mq, t);
+                DLQ_EXCEPTION_LOGGER.error("Exception raised while forward message to DLQ, would attempt to re-forward "
+                        + "later, clientId={}, consumerGroup={}, attempt={}, messageId={}, mq={}", clientId,
+                    consumerGroup, attempt, messageId, mq, t);
                 forwardToDeadLetterQueueLater(messageView, 1 + attempt, future0);
             }
         }, MoreExecutors.directExecutor());
@@ -577,10 +807,10 @@ class ProcessQueueImpl implements ProcessQueue {
                 }
                 // Log failure and retry later.
                 if (!Code.OK.equals(code)) {
-                    LOGGER.error("Failed to ack fifo message, would attempt to re-ack later, clientId={}, "
-                            + "consumerGroup={}, attempt={}, messageId={}, mq={}, code={}, requestId={}, endpoints={}, "
-                            + "status message=[{}]", clientId, consumerGroup, attempt, messageId, mq, code, requestId,
-                        endpoints, status.getMessage());
+                    FIFO_ACK_FAILURE_LOGGER.error("Failed to ack fifo message, would attempt to re-ack later, "
+                            + "clientId={}, consumerGroup={}, attempt={}, messageId={}, mq={}, code={}, requestId={}, "
+                            + "endpoints={}, status message=[{}]", clientId, consumerGroup, attempt, messageId, mq,
+                        code, requestId, endpoints, status.getMessage());
                     ackFifoMessageLater(messageView, 1 + attempt, future0);
                     return;
                 }
@@ -600,9 +830,9 @@ class ProcessQueueImpl implements ProcessQueue {
             @Override
             public void onFailure(Throwable t) {
                 // Log failure and retry later.
-                LOGGER.error("Exception raised while acknowledging fifo message, clientId={}, consumerGroup={}, "
-                        + "would attempt to re-ack later, attempt={}, messageId={}, mq={}, endpoints={}", clientId,
-                    consumerGroup, attempt, messageId, mq, endpoints, t);
+                FIFO_ACK_EXCEPTION_LOGGER.error("Exception raised while acknowledging fifo message, clientId={}, "
+                        + "consumerGroup={}, would attempt to re-ack later, attempt={}, messageId={}, mq={}, "
+                        + "endpoints={}", clientId, consumerGroup, attempt, messageId, mq, endpoints, t);
                 ackFifoMessageLater(messageView, 1 + attempt, future0);
             }
         }, MoreExecutors.directExecutor());
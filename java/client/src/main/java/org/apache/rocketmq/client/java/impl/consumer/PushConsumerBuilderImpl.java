@@ -23,6 +23,7 @@ import static org.apache.rocketmq.client.java.impl.consumer.ConsumerImpl.CONSUME
 
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
 import org.apache.rocketmq.client.apis.ClientConfiguration;
 import org.apache.rocketmq.client.apis.ClientException;
 import org.apache.rocketmq.client.apis.consumer.FilterExpression;
@@ -41,6 +42,8 @@ public class PushConsumerBuilderImpl implements PushConsumerBuilder {
     private int maxCacheMessageCount = 1024;
     private int maxCacheMessageSizeInBytes = 64 * 1024 * 1024;
     private int consumptionThreadCount = 20;
+    private ExecutorService consumptionExecutor = null;
+    private int maxReceptionConcurrencyPerQueue = 1;
 
     /**
      * @see PushConsumerBuilder#setClientConfiguration(ClientConfiguration)
@@ -113,6 +116,25 @@ public class PushConsumerBuilderImpl implements PushConsumerBuilder {
         return this;
     }
 
+    /**
+     * @see PushConsumerBuilder#setConsumptionExecutor(ExecutorService)
+     */
+    @Override
+    public PushConsumerBuilder setConsumptionExecutor(ExecutorService consumptionExecutor) {
+        this.consumptionExecutor = checkNotNull(consumptionExecutor, "consumptionExecutor should not be null");
+        return this;
+    }
+
+    /**
+     * @see PushConsumerBuilder#setMaxReceptionConcurrencyPerQueue(int)
+     */
+    @Override
+    public PushConsumerBuilder setMaxReceptionConcurrencyPerQueue(int concurrency) {
+        checkArgument(concurrency > 0, "concurrency should be positive");
+        this.maxReceptionConcurrencyPerQueue = concurrency;
+        return this;
+    }
+
     /**
      * @see PushConsumerBuilder#build()
      */
@@ -124,7 +146,7 @@ public class PushConsumerBuilderImpl implements PushConsumerBuilder {
         checkArgument(!subscriptionExpressions.isEmpty(), "subscriptionExpressions have not been set yet");
         final PushConsumerImpl pushConsumer = new PushConsumerImpl(clientConfiguration, consumerGroup,
             subscriptionExpressions, messageListener, maxCacheMessageCount, maxCacheMessageSizeInBytes,
-            consumptionThreadCount);
+            consumptionThreadCount, consumptionExecutor, maxReceptionConcurrencyPerQueue);
         pushConsumer.startAsync().awaitRunning();
         return pushConsumer;
     }
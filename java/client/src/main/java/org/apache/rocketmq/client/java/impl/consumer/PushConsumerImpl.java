@@ -35,7 +35,6 @@ import com.google.common.util.concurrent.ListenableFuture;
 import com.google.common.util.concurrent.MoreExecutors;
 import io.grpc.Metadata;
 import java.time.Duration;
-import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
@@ -44,6 +43,7 @@ import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ScheduledFuture;
@@ -53,6 +53,7 @@ import java.util.concurrent.atomic.AtomicLong;
 import java.util.stream.Collectors;
 import org.apache.rocketmq.client.apis.ClientConfiguration;
 import org.apache.rocketmq.client.apis.ClientException;
+import org.apache.rocketmq.client.apis.ExecutorProvider;
 import org.apache.rocketmq.client.apis.consumer.ConsumeResult;
 import org.apache.rocketmq.client.apis.consumer.FilterExpression;
 import org.apache.rocketmq.client.apis.consumer.MessageListener;
@@ -68,12 +69,14 @@ import org.apache.rocketmq.client.java.exception.UnsupportedException;
 import org.apache.rocketmq.client.java.hook.MessageHookPoints;
 import org.apache.rocketmq.client.java.hook.MessageHookPointsStatus;
 import org.apache.rocketmq.client.java.impl.ClientSettings;
+import org.apache.rocketmq.client.java.message.LazyMessageCommonList;
 import org.apache.rocketmq.client.java.message.MessageCommon;
 import org.apache.rocketmq.client.java.message.MessageViewImpl;
 import org.apache.rocketmq.client.java.message.protocol.Resource;
 import org.apache.rocketmq.client.java.metrics.MessageCacheObserver;
 import org.apache.rocketmq.client.java.misc.ExecutorServices;
 import org.apache.rocketmq.client.java.misc.ThreadFactoryImpl;
+import org.apache.rocketmq.client.java.retry.EndpointsBackoff;
 import org.apache.rocketmq.client.java.retry.RetryPolicy;
 import org.apache.rocketmq.client.java.route.Endpoints;
 import org.apache.rocketmq.client.java.route.MessageQueueImpl;
@@ -93,6 +96,12 @@ import org.slf4j.LoggerFactory;
 @SuppressWarnings({"UnstableApiUsage", "NullableProblems"})
 class PushConsumerImpl extends ConsumerImpl implements PushConsumer, MessageCacheObserver {
     private static final Logger LOGGER = LoggerFactory.getLogger(PushConsumerImpl.class);
+    /**
+     * Delay of message reception after failures, which is doubled on each consecutive failure of the endpoints.
+     */
+    private static final Duration RECEPTION_BACKOFF_INITIAL_DELAY = Duration.ofMillis(100);
+    private static final Duration RECEPTION_BACKOFF_MAX_DELAY = Duration.ofSeconds(10);
+    private static final double RECEPTION_BACKOFF_MULTIPLIER = 2;
 
     final AtomicLong consumptionOkQuantity;
     final AtomicLong consumptionErrorQuantity;
@@ -105,6 +114,7 @@ class PushConsumerImpl extends ConsumerImpl implements PushConsumer, MessageCach
     private final MessageListener messageListener;
     private final int maxCacheMessageCount;
     private final int maxCacheMessageSizeInBytes;
+    private final int maxReceptionConcurrencyPerQueue;
 
     /**
      * Indicates the times of message reception.
@@ -114,8 +124,21 @@ class PushConsumerImpl extends ConsumerImpl implements PushConsumer, MessageCach
      * Indicates the quantity of received messages.
      */
     private final AtomicLong receivedMessagesQuantity;
+    /**
+     * Backoff of message reception after failures, which is shared by all process queues of the same endpoints.
+     */
+    private final EndpointsBackoff receptionBackoff;
 
-    private final ThreadPoolExecutor consumptionExecutor;
+    private final ExecutorService consumptionExecutor;
+    /**
+     * Indicates whether the consumption executor is created by the consumer itself, it is shut down along with the
+     * consumer only if so.
+     */
+    private final boolean consumptionExecutorOwned;
+    /**
+     * Dispatcher executor provided by the caller, which is {@code null} if not provided.
+     */
+    private final ExecutorService dispatcherExecutor;
     private final ConcurrentMap<MessageQueueImpl, ProcessQueue> processQueueTable;
     private ConsumeService consumeService;
 
@@ -128,6 +151,23 @@ class PushConsumerImpl extends ConsumerImpl implements PushConsumer, MessageCach
     public PushConsumerImpl(ClientConfiguration clientConfiguration, String consumerGroup,
         Map<String, FilterExpression> subscriptionExpressions, MessageListener messageListener,
         int maxCacheMessageCount, int maxCacheMessageSizeInBytes, int consumptionThreadCount) {
+        this(clientConfiguration, consumerGroup, subscriptionExpressions, messageListener, maxCacheMessageCount,
+            maxCacheMessageSizeInBytes, consumptionThreadCount, null, 1);
+    }
+
+    /**
+     * The caller is supposed to have validated the arguments and handled throwing exception or
+     * logging warnings already, so we avoid repeating args check here.
+     *
+     * @param consumptionExecutor             executor provided by the caller to consume messages, which takes
+     *                                        precedence over the one from {@link ExecutorProvider}, {@code null}
+     *                                        means not provided.
+     * @param maxReceptionConcurrencyPerQueue maximum number of concurrent receive requests of each message queue.
+     */
+    public PushConsumerImpl(ClientConfiguration clientConfiguration, String consumerGroup,
+        Map<String, FilterExpression> subscriptionExpressions, MessageListener messageListener,
+        int maxCacheMessageCount, int maxCacheMessageSizeInBytes, int consumptionThreadCount,
+        ExecutorService consumptionExecutor, int maxReceptionConcurrencyPerQueue) {
         super(clientConfiguration, consumerGroup, subscriptionExpressions.keySet());
         this.clientConfiguration = clientConfiguration;
         Resource groupResource = new Resource(consumerGroup);
@@ -139,20 +179,29 @@ class PushConsumerImpl extends ConsumerImpl implements PushConsumer, MessageCach
         this.messageListener = messageListener;
         this.maxCacheMessageCount = maxCacheMessageCount;
         this.maxCacheMessageSizeInBytes = maxCacheMessageSizeInBytes;
+        this.maxReceptionConcurrencyPerQueue = maxReceptionConcurrencyPerQueue;
 
         this.receptionTimes = new AtomicLong(0);
         this.receivedMessagesQuantity = new AtomicLong(0);
+        this.receptionBackoff = new EndpointsBackoff(RECEPTION_BACKOFF_INITIAL_DELAY, RECEPTION_BACKOFF_MAX_DELAY,
+            RECEPTION_BACKOFF_MULTIPLIER);
         this.consumptionOkQuantity = new AtomicLong(0);
         this.consumptionErrorQuantity = new AtomicLong(0);
 
         this.processQueueTable = new ConcurrentHashMap<>();
-        this.consumptionExecutor = new ThreadPoolExecutor(
+        final Optional<ExecutorProvider> executorProvider = clientConfiguration.getExecutorProvider();
+        final ExecutorService providedConsumptionExecutor = null != consumptionExecutor ? consumptionExecutor :
+            executorProvider.flatMap(provider -> provider.getConsumptionExecutor(clientId)).orElse(null);
+        this.consumptionExecutorOwned = null == providedConsumptionExecutor;
+        this.consumptionExecutor = consumptionExecutorOwned ? new ThreadPoolExecutor(
             consumptionThreadCount,
             consumptionThreadCount,
             60,
             TimeUnit.SECONDS,
             new LinkedBlockingQueue<>(),
-            new ThreadFactoryImpl("MessageConsumption"));
+            new ThreadFactoryImpl("MessageConsumption")) : providedConsumptionExecutor;
+        this.dispatcherExecutor = executorProvider.flatMap(provider -> provider.getDispatcherExecutor(clientId))
+            .orElse(null);
     }
 
     @Override
@@ -163,6 +212,8 @@ class PushConsumerImpl extends ConsumerImpl implements PushConsumer, MessageCach
             clientMeterProvider.setMessageCacheObserver(this);
             final ScheduledExecutorService scheduler = clientManager.getScheduler();
             this.consumeService = createConsumeService();
+            clientMeterProvider.registerExecutor("MessageConsumption", consumptionExecutor);
+            clientMeterProvider.registerExecutor("Dispatcher", consumeService.getDispatcherExecutor());
             this.consumeService.startAsync().awaitRunning();
             // Scan assignments periodically.
             scanAssignmentsFuture = scheduler.scheduleWithFixedDelay(() -> {
@@ -188,8 +239,10 @@ class PushConsumerImpl extends ConsumerImpl implements PushConsumer, MessageCach
         }
         super.shutDown();
         consumeService.stopAsync().awaitTerminated();
-        consumptionExecutor.shutdown();
-        ExecutorServices.awaitTerminated(consumptionExecutor);
+        if (consumptionExecutorOwned) {
+            consumptionExecutor.shutdown();
+            ExecutorServices.awaitTerminated(consumptionExecutor);
+        }
         LOGGER.info("Shutdown the rocketmq push consumer successfully, clientId={}", clientId);
     }
 
@@ -197,10 +250,10 @@ class PushConsumerImpl extends ConsumerImpl implements PushConsumer, MessageCach
         final ScheduledExecutorService scheduler = clientManager.getScheduler();
         if (pushConsumerSettings.isFifo()) {
             return new FifoConsumeService(clientId, processQueueTable, messageListener,
-                consumptionExecutor, this, scheduler);
+                consumptionExecutor, this, scheduler, dispatcherExecutor);
         }
         return new StandardConsumeService(clientId, processQueueTable, messageListener,
-            consumptionExecutor, this, scheduler);
+            consumptionExecutor, this, scheduler, dispatcherExecutor);
     }
 
     /**
@@ -483,6 +536,10 @@ class PushConsumerImpl extends ConsumerImpl implements PushConsumer, MessageCach
         return Math.max(1, maxCacheMessageCount / size);
     }
 
+    public int getMaxReceptionConcurrencyPerQueue() {
+        return maxReceptionConcurrencyPerQueue;
+    }
+
     public AtomicLong getReceptionTimes() {
         return receptionTimes;
     }
@@ -491,6 +548,10 @@ class PushConsumerImpl extends ConsumerImpl implements PushConsumer, MessageCach
         return receivedMessagesQuantity;
     }
 
+    public EndpointsBackoff getReceptionBackoff() {
+        return receptionBackoff;
+    }
+
     public ConsumeService getConsumeService() {
         return consumeService;
     }
@@ -542,10 +603,14 @@ class PushConsumerImpl extends ConsumerImpl implements PushConsumer, MessageCach
 
     public ListenableFuture<RpcInvocation<ForwardMessageToDeadLetterQueueResponse>> forwardMessageToDeadLetterQueue(
         final MessageViewImpl messageView) {
-        // Intercept before forwarding message to DLQ.
-        final Stopwatch stopwatch = Stopwatch.createStarted();
-        final List<MessageCommon> messageCommons = Collections.singletonList(messageView.getMessageCommon());
-        doBefore(MessageHookPoints.FORWARD_TO_DLQ, messageCommons);
+        // Intercept before forwarding message to DLQ, skip the hook points entirely if no interceptor is enabled.
+        final boolean intercepted = hasEnabledMessageInterceptor();
+        final Stopwatch stopwatch = intercepted ? Stopwatch.createStarted() : null;
+        final List<MessageCommon> messageCommons = intercepted ?
+            LazyMessageCommonList.singleton(messageView, MessageViewImpl::getMessageCommon) : null;
+        if (intercepted) {
+            doBefore(MessageHookPoints.FORWARD_TO_DLQ, messageCommons);
+        }
 
         final Endpoints endpoints = messageView.getEndpoints();
         ListenableFuture<RpcInvocation<ForwardMessageToDeadLetterQueueResponse>> future;
@@ -561,6 +626,9 @@ class PushConsumerImpl extends ConsumerImpl implements PushConsumer, MessageCach
         Futures.addCallback(future, new FutureCallback<RpcInvocation<ForwardMessageToDeadLetterQueueResponse>>() {
             @Override
             public void onSuccess(RpcInvocation<ForwardMessageToDeadLetterQueueResponse> invocation) {
+                if (!intercepted) {
+                    return;
+                }
                 final ForwardMessageToDeadLetterQueueResponse response = invocation.getResponse();
                 final Duration duration = stopwatch.elapsed();
                 MessageHookPointsStatus messageHookPointsStatus = Code.OK.equals(response.getStatus().getCode()) ?
@@ -571,6 +639,9 @@ class PushConsumerImpl extends ConsumerImpl implements PushConsumer, MessageCach
 
             @Override
             public void onFailure(Throwable t) {
+                if (!intercepted) {
+                    return;
+                }
                 // Intercept after forwarding message to DLQ.
                 final Duration duration = stopwatch.elapsed();
                 doAfter(MessageHookPoints.FORWARD_TO_DLQ, messageCommons, duration, MessageHookPointsStatus.ERROR);
@@ -603,7 +674,7 @@ class PushConsumerImpl extends ConsumerImpl implements PushConsumer, MessageCach
         return pushConsumerSettings.getRetryPolicy();
     }
 
-    public ThreadPoolExecutor getConsumptionExecutor() {
+    public ExecutorService getConsumptionExecutor() {
         return consumptionExecutor;
     }
 
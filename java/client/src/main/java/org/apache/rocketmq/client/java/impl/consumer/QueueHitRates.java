@@ -0,0 +1,113 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.rocketmq.client.java.impl.consumer;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import org.apache.rocketmq.client.java.route.MessageQueueImpl;
+
+/**
+ * Recent hit rate of message queues, which is the exponentially weighted moving average of whether the receive
+ * request of the queue returns any message.
+ *
+ * <p>Queues are taken at random weighted by the hit rate, so the queues with messages are polled more often, while
+ * the empty ones are still probed from time to time.
+ */
+class QueueHitRates {
+    /**
+     * Weight of the latest reception.
+     */
+    static final double ALPHA = 0.2;
+    /**
+     * Minimum weight, which keeps the empty queues probed.
+     */
+    static final double MIN_WEIGHT = 0.05;
+
+    /**
+     * Hit rates in bits of double, the queue which is never polled is assumed to be hit.
+     */
+    private final ConcurrentMap<MessageQueueImpl, AtomicLong> hitRates;
+
+    QueueHitRates() {
+        this.hitRates = new ConcurrentHashMap<>();
+    }
+
+    void record(MessageQueueImpl mq, boolean hit) {
+        final AtomicLong bits = hitRates.computeIfAbsent(mq, k -> new AtomicLong(Double.doubleToLongBits(1.0)));
+        final double sample = hit ? 1.0 : 0.0;
+        long current;
+        long next;
+        do {
+            current = bits.get();
+            final double rate = Double.longBitsToDouble(current);
+            next = Double.doubleToLongBits(rate + ALPHA * (sample - rate));
+        } while (!bits.compareAndSet(current, next));
+    }
+
+    double getHitRate(MessageQueueImpl mq) {
+        final AtomicLong bits = hitRates.get(mq);
+        return null == bits ? 1.0 : Double.longBitsToDouble(bits.get());
+    }
+
+    /**
+     * Take distinct message queues at random weighted by the hit rate.
+     *
+     * @param candidates candidate message queues.
+     * @param count      number of message queues to take at most.
+     * @return message queues taken.
+     */
+    List<MessageQueueImpl> take(List<MessageQueueImpl> candidates, int count) {
+        final ThreadLocalRandom random = ThreadLocalRandom.current();
+        // Weighted sampling without replacement, the queues with the largest keys are taken.
+        final List<WeightedQueue> weighted = new ArrayList<>(candidates.size());
+        for (MessageQueueImpl mq : candidates) {
+            final double weight = Math.max(MIN_WEIGHT, getHitRate(mq));
+            final double key = Math.log(random.nextDouble(Double.MIN_VALUE, 1.0)) / weight;
+            weighted.add(new WeightedQueue(mq, key));
+        }
+        weighted.sort(Comparator.comparingDouble((WeightedQueue w) -> w.key).reversed());
+        final List<MessageQueueImpl> taken = new ArrayList<>();
+        for (int i = 0; i < Math.min(count, weighted.size()); i++) {
+            taken.add(weighted.get(i).mq);
+        }
+        return taken;
+    }
+
+    /**
+     * Remove the hit rates of the message queues which are no longer subscribed.
+     */
+    void retain(Collection<MessageQueueImpl> mqs) {
+        hitRates.keySet().retainAll(mqs);
+    }
+
+    private static class WeightedQueue {
+        private final MessageQueueImpl mq;
+        private final double key;
+
+        WeightedQueue(MessageQueueImpl mq, double key) {
+            this.mq = mq;
+            this.key = key;
+        }
+    }
+}
@@ -35,6 +35,8 @@ public class SimpleConsumerBuilderImpl implements SimpleConsumerBuilder {
     private String consumerGroup = null;
     private Map<String, FilterExpression> subscriptionExpressions = new ConcurrentHashMap<>();
     private Duration awaitDuration = null;
+    private int receiveFanout = 1;
+    private int maxPrefetchMessageCount = 0;
 
     /**
      * @see SimpleConsumerBuilder#setClientConfiguration(ClientConfiguration)
@@ -71,6 +73,26 @@ public class SimpleConsumerBuilderImpl implements SimpleConsumerBuilder {
         return this;
     }
 
+    /**
+     * @see SimpleConsumerBuilder#setReceiveFanout(int)
+     */
+    @Override
+    public SimpleConsumerBuilder setReceiveFanout(int fanout) {
+        checkArgument(fanout > 0, "fanout should be positive");
+        this.receiveFanout = fanout;
+        return this;
+    }
+
+    /**
+     * @see SimpleConsumerBuilder#setMaxPrefetchMessageCount(int)
+     */
+    @Override
+    public SimpleConsumerBuilder setMaxPrefetchMessageCount(int count) {
+        checkArgument(count >= 0, "count should not be negative");
+        this.maxPrefetchMessageCount = count;
+        return this;
+    }
+
     @Override
     public SimpleConsumer build() throws ClientException {
         checkNotNull(clientConfiguration, "clientConfiguration has not been set yet");
@@ -78,7 +100,7 @@ public class SimpleConsumerBuilderImpl implements SimpleConsumerBuilder {
         checkArgument(!subscriptionExpressions.isEmpty(), "subscriptionExpressions have not been set yet");
         checkNotNull(awaitDuration, "awaitDuration has not been set yet");
         final SimpleConsumerImpl consumer = new SimpleConsumerImpl(clientConfiguration, consumerGroup, awaitDuration,
-            subscriptionExpressions);
+            subscriptionExpressions, receiveFanout, maxPrefetchMessageCount);
         consumer.startAsync().awaitRunning();
         return consumer;
     }
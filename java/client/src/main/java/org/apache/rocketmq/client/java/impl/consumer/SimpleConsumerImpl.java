@@ -23,20 +23,31 @@ import apache.rocketmq.v2.Code;
 import apache.rocketmq.v2.ReceiveMessageRequest;
 import apache.rocketmq.v2.Status;
 import com.google.common.math.IntMath;
+import com.google.common.util.concurrent.FutureCallback;
 import com.google.common.util.concurrent.Futures;
 import com.google.common.util.concurrent.ListenableFuture;
 import com.google.common.util.concurrent.MoreExecutors;
 import com.google.common.util.concurrent.SettableFuture;
+import com.google.errorprone.annotations.concurrent.GuardedBy;
 import java.time.Duration;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
-import net.javacrumbs.futureconverter.java8guava.FutureConverter;
+import java.util.concurrent.atomic.AtomicReference;
 import org.apache.commons.lang3.RandomUtils;
 import org.apache.rocketmq.client.apis.ClientConfiguration;
 import org.apache.rocketmq.client.apis.ClientException;
@@ -54,6 +65,8 @@ import org.apache.rocketmq.client.java.exception.UnsupportedException;
 import org.apache.rocketmq.client.java.impl.ClientSettings;
 import org.apache.rocketmq.client.java.message.MessageViewImpl;
 import org.apache.rocketmq.client.java.message.protocol.Resource;
+import org.apache.rocketmq.client.java.misc.CompletableFutureAdapter;
+import org.apache.rocketmq.client.java.misc.RateLimitedLogger;
 import org.apache.rocketmq.client.java.route.MessageQueueImpl;
 import org.apache.rocketmq.client.java.route.TopicRouteDataResult;
 import org.apache.rocketmq.client.java.rpc.RpcInvocation;
@@ -65,27 +78,72 @@ import org.slf4j.LoggerFactory;
  */
 @SuppressWarnings("UnstableApiUsage")
 class SimpleConsumerImpl extends ConsumerImpl implements SimpleConsumer {
+    /**
+     * Invisible duration of the messages which are released, e.g. the messages returned after the fan-out reception
+     * completes and the prefetched messages which are expired, so that they could be received again soon.
+     */
+    static final Duration RELEASE_INVISIBLE_DURATION = Duration.ofSeconds(1);
+    static final int MAX_PREFETCH_BATCH_SIZE = 32;
+    static final Duration PREFETCH_LATER_DELAY = Duration.ofSeconds(1);
+
     private static final Logger LOGGER = LoggerFactory.getLogger(SimpleConsumerImpl.class);
+    private static final RateLimitedLogger PREFETCH_FAILURE_LOGGER =
+        new RateLimitedLogger(LOGGER, "SimpleConsumerImpl.prefetchFailure");
+    private static final RateLimitedLogger PREFETCH_EXTENSION_FAILURE_LOGGER =
+        new RateLimitedLogger(LOGGER, "SimpleConsumerImpl.prefetchExtensionFailure");
 
     private final SimpleConsumerSettings simpleConsumerSettings;
     private final String consumerGroup;
     private final Duration awaitDuration;
+    private final int receiveFanout;
 
     private final AtomicInteger topicIndex;
+    private final QueueHitRates queueHitRates;
+
+    /**
+     * Buffer of the messages prefetched in background, which is null if prefetching is disabled.
+     */
+    private final PrefetchBuffer prefetchBuffer;
+    private final AtomicBoolean prefetching;
+    /**
+     * Receptions which wait for the prefetching in flight since there is no prefetched message, served in order.
+     */
+    @GuardedBy("prefetchWaiters")
+    private final Deque<PrefetchWaiter> prefetchWaiters;
+    /**
+     * Invisible duration of the latest reception, which is applied to prefetching.
+     */
+    private volatile Duration prefetchInvisibleDuration;
+    private volatile ScheduledFuture<?> releaseExpiredFuture;
 
     private final Map<String /* topic */, FilterExpression> subscriptionExpressions;
     private final ConcurrentMap<String /* topic */, SubscriptionLoadBalancer> subTopicRouteDataResultCache;
 
     public SimpleConsumerImpl(ClientConfiguration clientConfiguration, String consumerGroup, Duration awaitDuration,
         Map<String, FilterExpression> subscriptionExpressions) {
+        this(clientConfiguration, consumerGroup, awaitDuration, subscriptionExpressions, 1, 0);
+    }
+
+    public SimpleConsumerImpl(ClientConfiguration clientConfiguration, String consumerGroup, Duration awaitDuration,
+        Map<String, FilterExpression> subscriptionExpressions, int receiveFanout, int maxPrefetchMessageCount) {
         super(clientConfiguration, consumerGroup, subscriptionExpressions.keySet());
         Resource groupResource = new Resource(consumerGroup);
         this.simpleConsumerSettings = new SimpleConsumerSettings(clientId, endpoints, groupResource,
             clientConfiguration.getRequestTimeout(), awaitDuration, subscriptionExpressions);
         this.consumerGroup = consumerGroup;
         this.awaitDuration = awaitDuration;
+        this.receiveFanout = receiveFanout;
 
         this.topicIndex = new AtomicInteger(RandomUtils.nextInt(0, Integer.MAX_VALUE));
+        this.queueHitRates = new QueueHitRates();
+
+        this.prefetchBuffer = maxPrefetchMessageCount > 0 ? new PrefetchBuffer(maxPrefetchMessageCount) : null;
+        this.prefetching = new AtomicBoolean(false);
+        this.prefetchWaiters = new ArrayDeque<>();
+        this.prefetchInvisibleDuration = null;
+        if (null != prefetchBuffer) {
+            clientMeterProvider.setPrefetchBufferObserver(prefetchBuffer);
+        }
 
         this.subscriptionExpressions = subscriptionExpressions;
         this.subTopicRouteDataResultCache = new ConcurrentHashMap<>();
@@ -96,6 +154,18 @@ class SimpleConsumerImpl extends ConsumerImpl implements SimpleConsumer {
         try {
             LOGGER.info("Begin to start the rocketmq simple consumer, clientId={}", clientId);
             super.startUp();
+            if (null != prefetchBuffer) {
+                final ScheduledExecutorService scheduler = clientManager.getScheduler();
+                // Release the expired prefetched messages periodically.
+                releaseExpiredFuture = scheduler.scheduleWithFixedDelay(() -> {
+                    try {
+                        releaseMessages(prefetchBuffer.drainExpired());
+                    } catch (Throwable t) {
+                        LOGGER.error("Exception raised while releasing the expired prefetched messages, clientId={}",
+                            clientId, t);
+                    }
+                }, 1, 1, TimeUnit.SECONDS);
+            }
             LOGGER.info("The rocketmq simple consumer starts successfully, clientId={}", clientId);
         } catch (Throwable t) {
             LOGGER.error("Failed to start the rocketmq simple consumer, try to shutdown it, clientId={}", clientId, t);
@@ -107,6 +177,13 @@ class SimpleConsumerImpl extends ConsumerImpl implements SimpleConsumer {
     @Override
     protected void shutDown() throws InterruptedException {
         LOGGER.info("Begin to shutdown the rocketmq simple consumer, clientId={}", clientId);
+        if (null != releaseExpiredFuture) {
+            releaseExpiredFuture.cancel(false);
+        }
+        if (null != prefetchBuffer) {
+            releaseMessages(prefetchBuffer.drainAll());
+            failPrefetchWaiters(new IllegalStateException("Simple consumer is not running now"));
+        }
         super.shutDown();
         LOGGER.info("Shutdown the rocketmq simple consumer successfully, clientId={}", clientId);
     }
@@ -175,7 +252,7 @@ class SimpleConsumerImpl extends ConsumerImpl implements SimpleConsumer {
     @Override
     public CompletableFuture<List<MessageView>> receiveAsync(int maxMessageNum, Duration invisibleDuration) {
         final ListenableFuture<List<MessageView>> future = receive0(maxMessageNum, invisibleDuration);
-        return FutureConverter.toCompletableFuture(future);
+        return CompletableFutureAdapter.adapt(future, completionExecutor);
     }
 
     public ListenableFuture<List<MessageView>> receive0(int maxMessageNum, Duration invisibleDuration) {
@@ -189,6 +266,13 @@ class SimpleConsumerImpl extends ConsumerImpl implements SimpleConsumer {
             final IllegalArgumentException e = new IllegalArgumentException("maxMessageNum must be greater than 0");
             return Futures.immediateFailedFuture(e);
         }
+        if (null != prefetchBuffer) {
+            return receivePrefetched(maxMessageNum, invisibleDuration);
+        }
+        return receiveRemote(maxMessageNum, invisibleDuration);
+    }
+
+    private ListenableFuture<List<MessageView>> receiveRemote(int maxMessageNum, Duration invisibleDuration) {
         final HashMap<String, FilterExpression> copy = new HashMap<>(subscriptionExpressions);
         final ArrayList<String> topics = new ArrayList<>(copy.keySet());
         // All topic is subscribed.
@@ -196,6 +280,9 @@ class SimpleConsumerImpl extends ConsumerImpl implements SimpleConsumer {
             final IllegalArgumentException e = new IllegalArgumentException("There is no topic to receive message");
             return Futures.immediateFailedFuture(e);
         }
+        if (receiveFanout > 1) {
+            return receiveFanout0(maxMessageNum, invisibleDuration, copy, topics);
+        }
         final String topic = topics.get(IntMath.mod(topicIndex.getAndIncrement(), topics.size()));
         final FilterExpression filterExpression = copy.get(topic);
         final ListenableFuture<SubscriptionLoadBalancer> routeFuture = getSubscriptionTopicRouteResult(topic);
@@ -205,8 +292,329 @@ class SimpleConsumerImpl extends ConsumerImpl implements SimpleConsumer {
                 invisibleDuration);
             return receiveMessage(request, mq, awaitDuration);
         }, MoreExecutors.directExecutor());
-        return Futures.transformAsync(future0, result -> Futures.immediateFuture(result.getMessageViews()),
-            clientCallbackExecutor);
+        return Futures.transform(future0, ReceiveMessageResult::getMessageViews, MoreExecutors.directExecutor());
+    }
+
+    /**
+     * Poll message queues of all subscribed topics in parallel, which are taken by their recent hit rate.
+     */
+    private ListenableFuture<List<MessageView>> receiveFanout0(int maxMessageNum, Duration invisibleDuration,
+        Map<String, FilterExpression> subscriptions, List<String> topics) {
+        final AtomicReference<Throwable> failure = new AtomicReference<>();
+        final List<ListenableFuture<List<MessageQueueImpl>>> futures = new ArrayList<>(topics.size());
+        for (String topic : topics) {
+            final ListenableFuture<List<MessageQueueImpl>> future =
+                Futures.transformAsync(getSubscriptionTopicRouteResult(topic),
+                    balancer -> Futures.immediateFuture(balancer.getMessageQueues()), MoreExecutors.directExecutor());
+            // Skip the topic whose route could not be fetched or is abnormal, unless no topic is available.
+            futures.add(Futures.catching(future, Throwable.class, t -> {
+                failure.set(t);
+                return Collections.emptyList();
+            }, MoreExecutors.directExecutor()));
+        }
+        return Futures.transformAsync(Futures.allAsList(futures), mqsList -> {
+            final List<MessageQueueImpl> candidates = new ArrayList<>();
+            for (List<MessageQueueImpl> mqs : mqsList) {
+                candidates.addAll(mqs);
+            }
+            if (candidates.isEmpty()) {
+                final Throwable t = failure.get();
+                return Futures.immediateFailedFuture(null != t ? t :
+                    new NotFoundException("Failed to take message queue due to readable message queue doesn't exist"));
+            }
+            queueHitRates.retain(new HashSet<>(candidates));
+            // Each queue is supposed to receive one message at least.
+            final List<MessageQueueImpl> mqs = queueHitRates.take(candidates, Math.min(receiveFanout, maxMessageNum));
+            return receiveFanout1(maxMessageNum, invisibleDuration, subscriptions, mqs);
+        }, MoreExecutors.directExecutor());
+    }
+
+    /**
+     * Complete the reception by the first non-empty result. The maximum number of messages is split across the
+     * message queues, so the reception never takes more messages than requested. The receive requests which are still
+     * in flight are cancelled once the reception completes, and the messages returned by them in a race are released
+     * by shortening the invisible duration.
+     *
+     * <p>The reception fails only if all receive requests fail, otherwise it returns an empty list if none of them
+     * returns any message.
+     */
+    private ListenableFuture<List<MessageView>> receiveFanout1(int maxMessageNum, Duration invisibleDuration,
+        Map<String, FilterExpression> subscriptions, List<MessageQueueImpl> mqs) {
+        final SettableFuture<List<MessageView>> future0 = SettableFuture.create();
+        final List<ListenableFuture<ReceiveMessageResult>> futures = new ArrayList<>(mqs.size());
+        final AtomicInteger pending = new AtomicInteger(mqs.size());
+        final AtomicInteger failures = new AtomicInteger();
+        final AtomicReference<Throwable> failure = new AtomicReference<>();
+        final Runnable onCompleted = () -> {
+            if (0 != pending.decrementAndGet()) {
+                return;
+            }
+            if (mqs.size() == failures.get()) {
+                future0.setException(failure.get());
+                return;
+            }
+            future0.set(new ArrayList<>());
+        };
+        for (int i = 0; i < mqs.size() && !future0.isDone(); i++) {
+            final MessageQueueImpl mq = mqs.get(i);
+            final int batchSize = maxMessageNum / mqs.size() + (i < maxMessageNum % mqs.size() ? 1 : 0);
+            final ReceiveMessageRequest request = wrapReceiveMessageRequest(batchSize, mq,
+                subscriptions.get(mq.getTopic()), invisibleDuration);
+            final ListenableFuture<ReceiveMessageResult> future = receiveMessage(request, mq, awaitDuration);
+            futures.add(future);
+            Futures.addCallback(future, new FutureCallback<ReceiveMessageResult>() {
+                @Override
+                public void onSuccess(ReceiveMessageResult result) {
+                    final List<MessageViewImpl> messages = result.getMessageViewImpls();
+                    queueHitRates.record(mq, !messages.isEmpty());
+                    if (!messages.isEmpty() && !future0.set(result.getMessageViews())) {
+                        releaseMessages(messages);
+                    }
+                    onCompleted.run();
+                }
+
+                @Override
+                public void onFailure(Throwable t) {
+                    // Cancelled once the reception completes, which is not a miss of the queue.
+                    if (!future.isCancelled()) {
+                        queueHitRates.record(mq, false);
+                    }
+                    failures.incrementAndGet();
+                    failure.compareAndSet(null, t);
+                    onCompleted.run();
+                }
+            }, MoreExecutors.directExecutor());
+        }
+        // Abort the long polling in flight, which would hold the worker thread until the await duration elapses.
+        future0.addListener(() -> {
+            for (ListenableFuture<ReceiveMessageResult> future : futures) {
+                future.cancel(false);
+            }
+        }, MoreExecutors.directExecutor());
+        return future0;
+    }
+
+    /**
+     * Shorten the invisible duration of messages, the failure is logged and the messages would be received again once
+     * they are visible anyway.
+     */
+    private void releaseMessages(List<MessageViewImpl> messages) {
+        for (MessageViewImpl messageView : messages) {
+            changeInvisibleDuration(messageView, RELEASE_INVISIBLE_DURATION);
+        }
+    }
+
+    /**
+     * Serve the reception from the prefetch buffer, or wait for the prefetching in flight if there is no prefetched
+     * message, rather than receiving from remote in parallel with it.
+     */
+    private ListenableFuture<List<MessageView>> receivePrefetched(int maxMessageNum, Duration invisibleDuration) {
+        prefetchInvisibleDuration = invisibleDuration;
+        final PrefetchedMessages prefetched = takePrefetched(maxMessageNum, invisibleDuration);
+        releaseMessages(prefetched.expired);
+        if (!prefetched.messages.isEmpty()) {
+            prefetch();
+            return servePrefetched(prefetched, invisibleDuration);
+        }
+        final PrefetchWaiter waiter = new PrefetchWaiter(maxMessageNum, invisibleDuration);
+        synchronized (prefetchWaiters) {
+            prefetchWaiters.addLast(waiter);
+        }
+        prefetch();
+        // Messages may be prefetched before the waiter is added.
+        servePrefetchWaiters(false);
+        return waiter.future;
+    }
+
+    /**
+     * Take messages from the prefetch buffer without any remote call, the expired messages are supposed to be
+     * released by the caller.
+     */
+    private PrefetchedMessages takePrefetched(int maxMessageNum, Duration invisibleDuration) {
+        final List<MessageViewImpl> expired = new ArrayList<>();
+        final List<MessageViewImpl> shortened = new ArrayList<>();
+        final List<MessageViewImpl> messages = prefetchBuffer.poll(maxMessageNum, invisibleDuration, expired,
+            shortened);
+        return new PrefetchedMessages(messages, expired, shortened);
+    }
+
+    /**
+     * Serve the messages taken from the prefetch buffer, the invisible duration of the messages whose invisible
+     * duration left is shorter than the requested one is extended before they are served.
+     */
+    private ListenableFuture<List<MessageView>> servePrefetched(PrefetchedMessages prefetched,
+        Duration invisibleDuration) {
+        final List<MessageViewImpl> messages = prefetched.messages;
+        final List<MessageViewImpl> shortened = prefetched.shortened;
+        if (shortened.isEmpty()) {
+            return Futures.immediateFuture(new ArrayList<>(messages));
+        }
+        final List<ListenableFuture<MessageView>> futures = new ArrayList<>(messages.size());
+        int index = 0;
+        // The shortened messages are in the same order as the messages taken.
+        for (MessageViewImpl messageView : messages) {
+            if (index < shortened.size() && messageView == shortened.get(index)) {
+                index++;
+                futures.add(extendInvisibleDuration(messageView, invisibleDuration));
+                continue;
+            }
+            futures.add(Futures.immediateFuture(messageView));
+        }
+        return Futures.transform(Futures.allAsList(futures), messageViews -> {
+            final List<MessageView> served = new ArrayList<>(messageViews.size());
+            for (MessageView messageView : messageViews) {
+                if (null != messageView) {
+                    served.add(messageView);
+                }
+            }
+            return served;
+        }, MoreExecutors.directExecutor());
+    }
+
+    /**
+     * Extend the invisible duration of the prefetched message, the message is dropped if it fails, which would be
+     * received again once it is visible anyway.
+     *
+     * @return the message, or null if it is dropped.
+     */
+    private ListenableFuture<MessageView> extendInvisibleDuration(MessageViewImpl messageView,
+        Duration invisibleDuration) {
+        final ListenableFuture<MessageView> future = Futures.transform(changeInvisibleDuration0(messageView,
+            invisibleDuration), v -> messageView, MoreExecutors.directExecutor());
+        return Futures.catching(future, Throwable.class, t -> {
+            PREFETCH_EXTENSION_FAILURE_LOGGER.error("Failed to extend the invisible duration of prefetched message, "
+                + "drop it, messageId={}, clientId={}", messageView.getMessageId(), clientId, t);
+            return null;
+        }, MoreExecutors.directExecutor());
+    }
+
+    /**
+     * Serve the waiting receptions in order from the prefetch buffer.
+     *
+     * @param exhausted whether to complete the receptions which could not be served by an empty list, e.g. the
+     *                  prefetching returns no message within the await duration.
+     */
+    private void servePrefetchWaiters(boolean exhausted) {
+        // Only the messages are assigned under the lock, the remote calls are made after it is released.
+        final Map<PrefetchWaiter, PrefetchedMessages> assigned = new LinkedHashMap<>();
+        final List<MessageViewImpl> expired = new ArrayList<>();
+        synchronized (prefetchWaiters) {
+            while (!prefetchWaiters.isEmpty()) {
+                final PrefetchWaiter waiter = prefetchWaiters.peekFirst();
+                // Cancelled by the caller.
+                if (waiter.future.isDone()) {
+                    prefetchWaiters.pollFirst();
+                    continue;
+                }
+                final PrefetchedMessages prefetched = takePrefetched(waiter.maxMessageNum, waiter.invisibleDuration);
+                expired.addAll(prefetched.expired);
+                if (prefetched.messages.isEmpty() && !exhausted) {
+                    break;
+                }
+                prefetchWaiters.pollFirst();
+                assigned.put(waiter, prefetched);
+            }
+        }
+        releaseMessages(expired);
+        assigned.forEach((waiter, prefetched) -> {
+            final ListenableFuture<List<MessageView>> future = prefetched.messages.isEmpty() ?
+                Futures.immediateFuture(new ArrayList<>()) : servePrefetched(prefetched, waiter.invisibleDuration);
+            completePrefetchWaiter(waiter, future);
+        });
+    }
+
+    private void completePrefetchWaiter(PrefetchWaiter waiter, ListenableFuture<List<MessageView>> future) {
+        Futures.addCallback(future, new FutureCallback<List<MessageView>>() {
+            @Override
+            public void onSuccess(List<MessageView> messageViews) {
+                if (waiter.future.set(messageViews)) {
+                    return;
+                }
+                // Cancelled in the meantime.
+                final List<MessageViewImpl> messages = new ArrayList<>(messageViews.size());
+                for (MessageView messageView : messageViews) {
+                    messages.add((MessageViewImpl) messageView);
+                }
+                releaseMessages(messages);
+            }
+
+            @Override
+            public void onFailure(Throwable t) {
+                waiter.future.setException(t);
+            }
+        }, MoreExecutors.directExecutor());
+    }
+
+    private void failPrefetchWaiters(Throwable t) {
+        final List<PrefetchWaiter> waiters;
+        synchronized (prefetchWaiters) {
+            waiters = new ArrayList<>(prefetchWaiters);
+            prefetchWaiters.clear();
+        }
+        for (PrefetchWaiter waiter : waiters) {
+            waiter.future.setException(t);
+        }
+    }
+
+    /**
+     * Start prefetching in background if it is not started yet, it keeps going until the buffer is full, and is
+     * started again by the next reception.
+     */
+    private void prefetch() {
+        if (prefetching.compareAndSet(false, true)) {
+            prefetch0();
+        }
+    }
+
+    private void prefetch0() {
+        final Duration invisibleDuration = prefetchInvisibleDuration;
+        final int batchSize = Math.min(MAX_PREFETCH_BATCH_SIZE, prefetchBuffer.remainingCapacity());
+        if (!this.isRunning()) {
+            prefetching.set(false);
+            failPrefetchWaiters(new IllegalStateException("Simple consumer is not running now"));
+            return;
+        }
+        if (batchSize <= 0) {
+            prefetching.set(false);
+            // No more message is on the way, serve the waiting receptions from the full buffer.
+            servePrefetchWaiters(true);
+            return;
+        }
+        final ListenableFuture<List<MessageView>> future = receiveRemote(batchSize, invisibleDuration);
+        Futures.addCallback(future, new FutureCallback<List<MessageView>>() {
+            @Override
+            public void onSuccess(List<MessageView> messageViews) {
+                final List<MessageViewImpl> messages = new ArrayList<>(messageViews.size());
+                for (MessageView messageView : messageViews) {
+                    messages.add((MessageViewImpl) messageView);
+                }
+                // Messages received during shutdown would never be served.
+                if (!SimpleConsumerImpl.this.isRunning()) {
+                    prefetching.set(false);
+                    releaseMessages(messages);
+                    failPrefetchWaiters(new IllegalStateException("Simple consumer is not running now"));
+                    return;
+                }
+                prefetchBuffer.offer(messages, invisibleDuration);
+                // The waiting receptions get nothing within the await duration if nothing is prefetched.
+                servePrefetchWaiters(messages.isEmpty());
+                prefetch0();
+            }
+
+            @Override
+            public void onFailure(Throwable t) {
+                PREFETCH_FAILURE_LOGGER.error("Exception raised while prefetching message, would prefetch later "
+                    + "after {}, clientId={}", PREFETCH_LATER_DELAY, clientId, t);
+                failPrefetchWaiters(t);
+                try {
+                    getScheduler().schedule(SimpleConsumerImpl.this::prefetch0, PREFETCH_LATER_DELAY.toNanos(),
+                        TimeUnit.NANOSECONDS);
+                } catch (Throwable t0) {
+                    prefetching.set(false);
+                    LOGGER.error("Failed to schedule prefetching, clientId={}", clientId, t0);
+                }
+            }
+        }, MoreExecutors.directExecutor());
     }
 
     /**
@@ -224,7 +632,7 @@ class SimpleConsumerImpl extends ConsumerImpl implements SimpleConsumer {
     @Override
     public CompletableFuture<Void> ackAsync(MessageView messageView) {
         final ListenableFuture<Void> future = ack0(messageView);
-        return FutureConverter.toCompletableFuture(future);
+        return CompletableFutureAdapter.adapt(future, completionExecutor);
     }
 
     private ListenableFuture<Void> ack0(MessageView messageView) {
@@ -275,7 +683,7 @@ class SimpleConsumerImpl extends ConsumerImpl implements SimpleConsumer {
                 default:
                     throw new UnsupportedException(codeNumber, requestId, statusMessage);
             }
-        }, clientCallbackExecutor);
+        }, MoreExecutors.directExecutor());
     }
 
     /**
@@ -293,7 +701,7 @@ class SimpleConsumerImpl extends ConsumerImpl implements SimpleConsumer {
     @Override
     public CompletableFuture<Void> changeInvisibleDurationAsync(MessageView messageView, Duration invisibleDuration) {
         final ListenableFuture<Void> future = changeInvisibleDuration0(messageView, invisibleDuration);
-        return FutureConverter.toCompletableFuture(future);
+        return CompletableFutureAdapter.adapt(future, completionExecutor);
     }
 
     public ListenableFuture<Void> changeInvisibleDuration0(MessageView messageView, Duration invisibleDuration) {
@@ -380,4 +788,35 @@ class SimpleConsumerImpl extends ConsumerImpl implements SimpleConsumer {
             return subscriptionLoadBalancer;
         }, MoreExecutors.directExecutor());
     }
+
+    private static class PrefetchWaiter {
+        private final int maxMessageNum;
+        private final Duration invisibleDuration;
+        private final SettableFuture<List<MessageView>> future;
+
+        PrefetchWaiter(int maxMessageNum, Duration invisibleDuration) {
+            this.maxMessageNum = maxMessageNum;
+            this.invisibleDuration = invisibleDuration;
+            this.future = SettableFuture.create();
+        }
+    }
+
+    /**
+     * Messages taken from the prefetch buffer.
+     */
+    private static class PrefetchedMessages {
+        private final List<MessageViewImpl> messages;
+        private final List<MessageViewImpl> expired;
+        /**
+         * Messages whose invisible duration left is shorter than the requested one, in the same order as taken.
+         */
+        private final List<MessageViewImpl> shortened;
+
+        PrefetchedMessages(List<MessageViewImpl> messages, List<MessageViewImpl> expired,
+            List<MessageViewImpl> shortened) {
+            this.messages = messages;
+            this.expired = expired;
+            this.shortened = shortened;
+        }
+    }
 }
@@ -19,6 +19,7 @@ package org.apache.rocketmq.client.java.impl.consumer;
 
 import com.google.common.collect.ImmutableList;
 import com.google.common.math.IntMath;
+import java.util.List;
 import java.util.concurrent.atomic.AtomicInteger;
 import javax.annotation.concurrent.Immutable;
 import org.apache.commons.lang3.RandomUtils;
@@ -58,6 +59,11 @@ public class SubscriptionLoadBalancer {
         this.messageQueues = builder.build();
     }
 
+    public List<MessageQueueImpl> getMessageQueues() throws ClientException {
+        topicRouteDataResult.checkAndGetTopicRouteData();
+        return messageQueues;
+    }
+
     public MessageQueueImpl takeMessageQueue() throws ClientException {
         topicRouteDataResult.checkAndGetTopicRouteData();
         if (messageQueues.isEmpty()) {
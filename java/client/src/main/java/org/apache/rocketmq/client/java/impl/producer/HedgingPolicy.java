@@ -0,0 +1,153 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.rocketmq.client.java.impl.producer;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import com.google.common.base.MoreObjects;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import org.apache.rocketmq.client.java.retry.RetryBudget;
+
+/**
+ * Policy of hedged publishing, which decides when to make the hedged attempt and whether it is allowed.
+ *
+ * <p>The hedge delay is the percentile of the publishing latency, which is estimated over a window of the recent
+ * successful attempts by a log-linear histogram with a relative error of 12.5% at most. No hedged attempt is made
+ * until the first window is complete, and the hedged attempts are limited by a {@link RetryBudget}.
+ */
+class HedgingPolicy {
+    /**
+     * Number of samples to estimate the percentile.
+     */
+    static final int WINDOW_SAMPLES = 512;
+    /**
+     * Each power of two is split into 8 sub-buckets, latency beyond 2^40 nanoseconds falls in the last bucket.
+     */
+    private static final int SUB_BUCKET_BITS = 3;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int MAX_EXPONENT = 40;
+    private static final int BUCKETS = (MAX_EXPONENT - SUB_BUCKET_BITS + 2) * SUB_BUCKETS;
+
+    /**
+     * Hedged attempts are limited to 10% of the publishing, with a reserve of 10 hedged attempts in burst.
+     */
+    private static final double HEDGING_BUDGET_RATIO = 0.1;
+    private static final int HEDGING_BUDGET_MAX_TOKENS = 10;
+
+    private final double percentile;
+    private final AtomicLongArray counts;
+    private final AtomicLong samples;
+    private final RetryBudget budget;
+    private volatile long hedgeDelayNanos;
+
+    /**
+     * @param percentile percentile of the publishing latency to trigger the hedged attempt, in (0, 100).
+     */
+    HedgingPolicy(double percentile) {
+        checkArgument(percentile > 0 && percentile < 100, "percentile should be in (0, 100)");
+        this.percentile = percentile;
+        this.counts = new AtomicLongArray(BUCKETS);
+        this.samples = new AtomicLong(0);
+        this.budget = new RetryBudget(HEDGING_BUDGET_RATIO, HEDGING_BUDGET_MAX_TOKENS);
+        this.hedgeDelayNanos = Long.MAX_VALUE;
+    }
+
+    static int indexOf(long nanos) {
+        if (nanos < SUB_BUCKETS) {
+            return (int) Math.max(0, nanos);
+        }
+        final int exponent = 63 - Long.numberOfLeadingZeros(nanos);
+        if (exponent > MAX_EXPONENT) {
+            return BUCKETS - 1;
+        }
+        final int subBucket = (int) (nanos >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+        return (exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + subBucket;
+    }
+
+    /**
+     * @return the exclusive upper bound of the bucket, which makes the estimation err on the side of fewer hedges.
+     */
+    static long upperBoundOf(int index) {
+        if (index < SUB_BUCKETS) {
+            return index + 1;
+        }
+        final int exponent = index / SUB_BUCKETS + SUB_BUCKET_BITS - 1;
+        final int subBucket = index % SUB_BUCKETS;
+        return ((long) (SUB_BUCKETS + subBucket + 1)) << (exponent - SUB_BUCKET_BITS);
+    }
+
+    /**
+     * Record the latency of a successful attempt, the hedge delay is refreshed once the window is complete.
+     */
+    void record(Duration latency) {
+        counts.incrementAndGet(indexOf(latency.toNanos()));
+        if (samples.incrementAndGet() != WINDOW_SAMPLES) {
+            return;
+        }
+        // Only the thread which completes the window refreshes the hedge delay and resets the window, samples
+        // recorded concurrently might be lost, which is acceptable for the estimation.
+        long total = 0;
+        final long[] snapshot = new long[BUCKETS];
+        for (int i = 0; i < BUCKETS; i++) {
+            snapshot[i] = counts.getAndSet(i, 0);
+            total += snapshot[i];
+        }
+        samples.set(0);
+        final long rank = (long) Math.ceil(total * percentile / 100);
+        long accumulated = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            accumulated += snapshot[i];
+            if (accumulated >= rank) {
+                hedgeDelayNanos = upperBoundOf(i);
+                return;
+            }
+        }
+    }
+
+    /**
+     * @return the delay of the hedged attempt in nanoseconds, or {@link Long#MAX_VALUE} if it is not estimated yet.
+     */
+    long getHedgeDelayNanos() {
+        return hedgeDelayNanos;
+    }
+
+    /**
+     * Deposit for a publishing which is eligible for hedging.
+     */
+    void onSend() {
+        budget.deposit();
+    }
+
+    /**
+     * @return true if the hedged attempt is allowed, false if the hedging budget is exhausted.
+     */
+    boolean tryHedge() {
+        return budget.tryWithdraw();
+    }
+
+    @Override
+    public String toString() {
+        return MoreObjects.toStringHelper(this)
+            .add("percentile", percentile)
+            .add("hedgeDelayNanos", hedgeDelayNanos)
+            .add("budget", budget)
+            .toString();
+    }
+}
@@ -20,6 +20,7 @@ package org.apache.rocketmq.client.java.impl.producer;
 import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkNotNull;
 
+import java.time.Duration;
 import java.util.Arrays;
 import java.util.HashSet;
 import java.util.Set;
@@ -37,6 +38,8 @@ public class ProducerBuilderImpl implements ProducerBuilder {
     private ClientConfiguration clientConfiguration = null;
     private final Set<String> topics = new HashSet<>();
     private int maxAttempts = 3;
+    private Duration sendTimeout = null;
+    private double hedgingPercentile = 0;
     private TransactionChecker checker = null;
 
     public ProducerBuilderImpl() {
@@ -74,6 +77,27 @@ public class ProducerBuilderImpl implements ProducerBuilder {
         return this;
     }
 
+    /**
+     * @see ProducerBuilder#setSendTimeout(Duration)
+     */
+    @Override
+    public ProducerBuilder setSendTimeout(Duration sendTimeout) {
+        checkNotNull(sendTimeout, "sendTimeout should not be null");
+        checkArgument(!sendTimeout.isNegative() && !sendTimeout.isZero(), "sendTimeout should be positive");
+        this.sendTimeout = sendTimeout;
+        return this;
+    }
+
+    /**
+     * @see ProducerBuilder#setHedgingPercentile(double)
+     */
+    @Override
+    public ProducerBuilder setHedgingPercentile(double percentile) {
+        checkArgument(percentile > 0 && percentile < 100, "percentile should be in (0, 100)");
+        this.hedgingPercentile = percentile;
+        return this;
+    }
+
     /**
      * @see ProducerBuilder#setTransactionChecker(TransactionChecker)
      */
@@ -89,7 +113,8 @@ public class ProducerBuilderImpl implements ProducerBuilder {
     @Override
     public Producer build() {
         checkNotNull(clientConfiguration, "clientConfiguration has not been set yet");
-        final ProducerImpl producer = new ProducerImpl(clientConfiguration, topics, maxAttempts, checker);
+        final ProducerImpl producer = new ProducerImpl(clientConfiguration, topics, maxAttempts, checker,
+            sendTimeout, hedgingPercentile);
         producer.startAsync().awaitRunning();
         return producer;
     }
@@ -17,6 +17,7 @@
 
 package org.apache.rocketmq.client.java.impl.producer;
 
+import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkNotNull;
 
 import apache.rocketmq.v2.Code;
@@ -36,20 +37,22 @@ import com.google.common.util.concurrent.ListenableFuture;
 import com.google.common.util.concurrent.ListeningExecutorService;
 import com.google.common.util.concurrent.MoreExecutors;
 import com.google.common.util.concurrent.SettableFuture;
+import com.google.errorprone.annotations.concurrent.GuardedBy;
+import io.grpc.Deadline;
 import io.grpc.Metadata;
 import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
-import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.Callable;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
-import java.util.stream.Collectors;
-import net.javacrumbs.futureconverter.java8guava.FutureConverter;
+import java.util.concurrent.TimeoutException;
+import java.util.function.BooleanSupplier;
 import org.apache.rocketmq.client.apis.ClientConfiguration;
 import org.apache.rocketmq.client.apis.ClientException;
 import org.apache.rocketmq.client.apis.message.Message;
@@ -59,16 +62,32 @@ import org.apache.rocketmq.client.apis.producer.SendReceipt;
 import org.apache.rocketmq.client.apis.producer.Transaction;
 import org.apache.rocketmq.client.apis.producer.TransactionChecker;
 import org.apache.rocketmq.client.apis.producer.TransactionResolution;
+import org.apache.rocketmq.client.java.exception.BadRequestException;
+import org.apache.rocketmq.client.java.exception.ForbiddenException;
+import org.apache.rocketmq.client.java.exception.NotFoundException;
+import org.apache.rocketmq.client.java.exception.PayloadTooLargeException;
+import org.apache.rocketmq.client.java.exception.RequestHeaderFieldsTooLargeException;
 import org.apache.rocketmq.client.java.exception.TooManyRequestsException;
+import org.apache.rocketmq.client.java.exception.UnauthorizedException;
 import org.apache.rocketmq.client.java.hook.MessageHookPoints;
 import org.apache.rocketmq.client.java.hook.MessageHookPointsStatus;
 import org.apache.rocketmq.client.java.impl.ClientImpl;
 import org.apache.rocketmq.client.java.impl.ClientSettings;
+import org.apache.rocketmq.client.java.message.LazyMessageCommonList;
 import org.apache.rocketmq.client.java.message.MessageCommon;
 import org.apache.rocketmq.client.java.message.MessageType;
 import org.apache.rocketmq.client.java.message.MessageViewImpl;
 import org.apache.rocketmq.client.java.message.PublishingMessageImpl;
+import org.apache.rocketmq.client.java.metrics.ClientEvent;
+import org.apache.rocketmq.client.java.metrics.ClientEventType;
+import org.apache.rocketmq.client.java.metrics.ClientEvents;
+import org.apache.rocketmq.client.java.metrics.PipelineStage;
+import org.apache.rocketmq.client.java.metrics.StageTrace;
+import org.apache.rocketmq.client.java.misc.CompletableFutureAdapter;
+import org.apache.rocketmq.client.java.misc.RateLimitedLogger;
+import org.apache.rocketmq.client.java.retry.AimdBackoff;
 import org.apache.rocketmq.client.java.retry.ExponentialBackoffRetryPolicy;
+import org.apache.rocketmq.client.java.retry.RetryBudget;
 import org.apache.rocketmq.client.java.retry.RetryPolicy;
 import org.apache.rocketmq.client.java.route.Endpoints;
 import org.apache.rocketmq.client.java.route.MessageQueueImpl;
@@ -85,11 +104,64 @@ import org.slf4j.LoggerFactory;
 @SuppressWarnings({"UnstableApiUsage", "NullableProblems"})
 class ProducerImpl extends ClientImpl implements Producer {
     private static final Logger LOGGER = LoggerFactory.getLogger(ProducerImpl.class);
+    /**
+     * Loggers of the sending failure, which are rate-limited to avoid flooding the log under overload.
+     */
+    private static final RateLimitedLogger HEDGE_FAILURE_LOGGER =
+        new RateLimitedLogger(LOGGER, "ProducerImpl.hedgeFailure");
+    private static final RateLimitedLogger ATTEMPTS_EXHAUSTED_LOGGER =
+        new RateLimitedLogger(LOGGER, "ProducerImpl.attemptsExhausted");
+    private static final RateLimitedLogger TRANSACTION_SEND_FAILURE_LOGGER =
+        new RateLimitedLogger(LOGGER, "ProducerImpl.transactionSendFailure");
+    private static final RateLimitedLogger DEADLINE_EXCEEDED_LOGGER =
+        new RateLimitedLogger(LOGGER, "ProducerImpl.deadlineExceeded");
+    private static final RateLimitedLogger RETRY_BUDGET_EXHAUSTED_LOGGER =
+        new RateLimitedLogger(LOGGER, "ProducerImpl.retryBudgetExhausted");
+    private static final RateLimitedLogger IMMEDIATE_RESEND_LOGGER =
+        new RateLimitedLogger(LOGGER, "ProducerImpl.immediateResend");
+    private static final RateLimitedLogger DELAYED_RESEND_LOGGER =
+        new RateLimitedLogger(LOGGER, "ProducerImpl.delayedResend");
+
+    /**
+     * Resends are limited to 10% of the first sends, with a reserve of 100 resends in burst.
+     */
+    private static final double RETRY_BUDGET_RATIO = 0.1;
+    private static final int RETRY_BUDGET_MAX_TOKENS = 100;
+    /**
+     * Rate of resends after throttling, which is halved on each throttling and is increased by 1 per second on each
+     * successful send, the delay of resend is in [10ms, 5s].
+     */
+    private static final Duration THROTTLED_RESEND_MIN_DELAY = Duration.ofMillis(10);
+    private static final Duration THROTTLED_RESEND_MAX_DELAY = Duration.ofSeconds(5);
+    private static final double THROTTLED_RESEND_RATE_INCREASE = 1;
+    private static final double THROTTLED_RESEND_RATE_DECREASE_FACTOR = 0.5;
+    /**
+     * Backoff of resends unless it is given by the retry policy, the delay of the n-th attempt is jittered within
+     * [0, min(10ms * 2^(n-1), 1s)).
+     */
+    private static final RetryPolicy DEFAULT_RESEND_BACKOFF = new ExponentialBackoffRetryPolicy(Integer.MAX_VALUE,
+        Duration.ofMillis(10), Duration.ofSeconds(1), 2);
 
     protected final ProducerSettings producerSettings;
 
     private final TransactionChecker checker;
     private final ConcurrentMap<String/* topic */, PublishingLoadBalancer> publishingRouteDataResultCache;
+    /**
+     * Client-wide budget of resends, which prevents a resend storm once the remote is degraded.
+     */
+    private final RetryBudget retryBudget;
+    /**
+     * Client-wide backoff of resends after throttling.
+     */
+    private final AimdBackoff throttledResendBackoff;
+    /**
+     * Total timeout of each message publishing including retries, which is {@code null} if not bounded.
+     */
+    private final Duration sendTimeout;
+    /**
+     * Policy of hedged publishing for normal messages, which is {@code null} if hedging is disabled.
+     */
+    private final HedgingPolicy hedgingPolicy;
 
     /**
      * The caller is supposed to have validated the arguments and handled throwing exception or
@@ -97,12 +169,30 @@ class ProducerImpl extends ClientImpl implements Producer {
      */
     ProducerImpl(ClientConfiguration clientConfiguration, Set<String> topics, int maxAttempts,
         TransactionChecker checker) {
+        this(clientConfiguration, topics, maxAttempts, checker, null, 0);
+    }
+
+    /**
+     * The caller is supposed to have validated the arguments and handled throwing exception or
+     * logging warnings already, so we avoid repeating args check here.
+     *
+     * @param sendTimeout       total timeout of each message publishing, {@code null} means not bounded.
+     * @param hedgingPercentile percentile of the publishing latency to trigger the hedged attempt, 0 means disabled.
+     */
+    ProducerImpl(ClientConfiguration clientConfiguration, Set<String> topics, int maxAttempts,
+        TransactionChecker checker, Duration sendTimeout, double hedgingPercentile) {
         super(clientConfiguration, topics);
         ExponentialBackoffRetryPolicy retryPolicy = ExponentialBackoffRetryPolicy.immediatelyRetryPolicy(maxAttempts);
         this.producerSettings = new ProducerSettings(clientId, endpoints, retryPolicy,
             clientConfiguration.getRequestTimeout(), topics);
         this.checker = checker;
         this.publishingRouteDataResultCache = new ConcurrentHashMap<>();
+        this.retryBudget = new RetryBudget(RETRY_BUDGET_RATIO, RETRY_BUDGET_MAX_TOKENS);
+        this.throttledResendBackoff = new AimdBackoff(THROTTLED_RESEND_MIN_DELAY, THROTTLED_RESEND_MAX_DELAY,
+            THROTTLED_RESEND_RATE_INCREASE, THROTTLED_RESEND_RATE_DECREASE_FACTOR);
+        clientMeterProvider.setRetryBudget(retryBudget);
+        this.sendTimeout = sendTimeout;
+        this.hedgingPolicy = hedgingPercentile > 0 ? new HedgingPolicy(hedgingPercentile) : null;
     }
 
     @Override
@@ -196,9 +286,22 @@ class ProducerImpl extends ClientImpl implements Producer {
      */
     @Override
     public SendReceipt send(Message message) throws ClientException {
-        final ListenableFuture<SendReceipt> future = Futures.transform(send0(Collections.singletonList(message), false),
-            sendReceipts -> sendReceipts.iterator().next(), MoreExecutors.directExecutor());
-        return handleClientFuture(future);
+        return send(message, newDeadline(sendTimeout));
+    }
+
+    /**
+     * @see Producer#send(Message, Duration)
+     */
+    @Override
+    public SendReceipt send(Message message, Duration timeout) throws ClientException {
+        checkTimeout(timeout);
+        return send(message, newDeadline(timeout));
+    }
+
+    private SendReceipt send(Message message, Deadline deadline) throws ClientException {
+        final List<SendReceiptImpl> sendReceipts = handleClientFuture(send0(Collections.singletonList(message),
+            false, deadline));
+        return sendReceipts.iterator().next();
     }
 
     /**
@@ -217,7 +320,7 @@ class ProducerImpl extends ClientImpl implements Producer {
             throw new ClientException(t);
         }
         final ListenableFuture<List<SendReceiptImpl>> future = send0(Collections.singletonList(publishingMessage),
-            true);
+            true, newDeadline(sendTimeout));
         final List<SendReceiptImpl> receipts = handleClientFuture(future);
         final SendReceiptImpl sendReceipt = receipts.iterator().next();
         ((TransactionImpl) transaction).tryAddReceipt(publishingMessage, sendReceipt);
@@ -229,9 +332,23 @@ class ProducerImpl extends ClientImpl implements Producer {
      */
     @Override
     public CompletableFuture<SendReceipt> sendAsync(Message message) {
-        final ListenableFuture<SendReceipt> future = Futures.transform(send0(Collections.singletonList(message), false),
-            sendReceipts -> sendReceipts.iterator().next(), MoreExecutors.directExecutor());
-        return FutureConverter.toCompletableFuture(future);
+        return sendAsync(message, newDeadline(sendTimeout));
+    }
+
+    /**
+     * @see Producer#sendAsync(Message, Duration)
+     */
+    @Override
+    public CompletableFuture<SendReceipt> sendAsync(Message message, Duration timeout) {
+        checkTimeout(timeout);
+        return sendAsync(message, newDeadline(timeout));
+    }
+
+    private CompletableFuture<SendReceipt> sendAsync(Message message, Deadline deadline) {
+        final ListenableFuture<SendReceipt> future = Futures.transform(send0(Collections.singletonList(message),
+            false, deadline), sendReceipts -> sendReceipts.iterator().next(), MoreExecutors.directExecutor());
+        // The publishing is already completed on the completion executor, no need to hop again.
+        return CompletableFutureAdapter.adapt(future, MoreExecutors.directExecutor());
     }
 
     /**
@@ -279,13 +396,19 @@ class ProducerImpl extends ClientImpl implements Producer {
         final List<MessageCommon> messageCommons = Collections.singletonList(messageCommon);
         MessageHookPoints messageHookPoints = TransactionResolution.COMMIT.equals(resolution) ?
             MessageHookPoints.COMMIT_TRANSACTION : MessageHookPoints.ROLLBACK_TRANSACTION;
-        doBefore(messageHookPoints, messageCommons);
+        final boolean intercepted = hasEnabledMessageInterceptor();
+        if (intercepted) {
+            doBefore(messageHookPoints, messageCommons);
+        }
 
         final ListenableFuture<RpcInvocation<EndTransactionResponse>> future =
             clientManager.endTransaction(endpoints, metadata, request, requestTimeout);
         Futures.addCallback(future, new FutureCallback<RpcInvocation<EndTransactionResponse>>() {
             @Override
             public void onSuccess(RpcInvocation<EndTransactionResponse> invocation) {
+                if (!intercepted) {
+                    return;
+                }
                 final Duration duration = stopwatch.elapsed();
                 final EndTransactionResponse response = invocation.getResponse();
                 final Status status = response.getStatus();
@@ -297,6 +420,9 @@ class ProducerImpl extends ClientImpl implements Producer {
 
             @Override
             public void onFailure(Throwable t) {
+                if (!intercepted) {
+                    return;
+                }
                 final Duration duration = stopwatch.elapsed();
                 doAfter(messageHookPoints, messageCommons, duration, MessageHookPointsStatus.ERROR);
             }
@@ -310,25 +436,60 @@ class ProducerImpl extends ClientImpl implements Producer {
         }
     }
 
+    private RetryPolicy getRetryPolicy() {
+        return producerSettings.getRetryPolicy();
+    }
+
     /**
-     * Isolate specified {@link Endpoints}.
+     * The retry policy of the producer resends immediately unless the server says otherwise, so the resends are
+     * jittered by the default backoff in that case, rather than being made at once by all failed publishing.
      */
-    private void isolate(Endpoints endpoints) {
-        isolated.add(endpoints);
+    private Duration getResendDelay(int attempt) {
+        final Duration delay = getRetryPolicy().getNextAttemptDelay(attempt);
+        return delay.isZero() ? DEFAULT_RESEND_BACKOFF.getNextAttemptDelay(attempt) : delay;
     }
 
-    private RetryPolicy getRetryPolicy() {
-        return producerSettings.getRetryPolicy();
+    private static boolean isCausedByRequest(Throwable t) {
+        return t instanceof BadRequestException || t instanceof ForbiddenException
+            || t instanceof UnauthorizedException || t instanceof NotFoundException
+            || t instanceof PayloadTooLargeException || t instanceof RequestHeaderFieldsTooLargeException;
     }
 
     /**
      * Take message queue(s) from route for message publishing.
      */
     private List<MessageQueueImpl> takeMessageQueues(PublishingLoadBalancer result) throws ClientException {
-        return result.takeMessageQueues(isolated, this.getRetryPolicy().getMaxAttempts());
+        return result.takeMessageQueues(circuitBreakers::isAvailable, this.getRetryPolicy().getMaxAttempts());
+    }
+
+    /**
+     * Take the candidate message queue(s) for message publishing, the message queue is decided by the message group
+     * for FIFO message.
+     */
+    private List<MessageQueueImpl> takeMessageQueues(PublishingLoadBalancer result, String messageGroup)
+        throws ClientException {
+        return null == messageGroup ? takeMessageQueues(result) :
+            Collections.singletonList(result.takeMessageQueueByMessageGroup(messageGroup));
     }
 
-    private ListenableFuture<List<SendReceiptImpl>> send0(List<Message> messages, boolean txEnabled) {
+    private static void checkTimeout(Duration timeout) {
+        checkNotNull(timeout, "timeout should not be null");
+        checkArgument(!timeout.isNegative() && !timeout.isZero(), "timeout should be positive");
+    }
+
+    /**
+     * @param timeout total timeout of the publishing, {@code null} means not bounded.
+     * @return the deadline of the publishing, or {@code null} if not bounded.
+     */
+    private static Deadline newDeadline(Duration timeout) {
+        return null == timeout ? null : Deadline.after(timeout.toNanos(), TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * @param deadline deadline of the publishing including retries, {@code null} means not bounded.
+     */
+    private ListenableFuture<List<SendReceiptImpl>> send0(List<Message> messages, boolean txEnabled,
+        Deadline deadline) {
         SettableFuture<List<SendReceiptImpl>> future = SettableFuture.create();
 
         // Check producer state before message publishing.
@@ -340,7 +501,12 @@ class ProducerImpl extends ClientImpl implements Producer {
             return future;
         }
 
-        List<PublishingMessageImpl> pubMessages = new ArrayList<>();
+        if (messages.isEmpty()) {
+            future.setException(new IllegalArgumentException("No message to send"));
+            return future;
+        }
+        final StageTrace stageTrace = startStageTrace();
+        List<PublishingMessageImpl> pubMessages = new ArrayList<>(messages.size());
         for (Message message : messages) {
             try {
                 final PublishingMessageImpl pubMessage = new PublishingMessageImpl(message, producerSettings,
@@ -354,64 +520,74 @@ class ProducerImpl extends ClientImpl implements Producer {
             }
         }
 
-        // Collect topics to send message.
-        final Set<String> topics = pubMessages.stream().map(Message::getTopic).collect(Collectors.toSet());
-        if (1 < topics.size()) {
-            // Messages have different topics, no need to proceed.
-            final IllegalArgumentException e = new IllegalArgumentException("Messages to send have different topics");
-            future.setException(e);
-            LOGGER.error("Messages to be sent have different topics, no need to proceed, topic(s)={}, clientId={}",
-                topics, clientId);
-            return future;
-        }
-
-        final String topic = topics.iterator().next();
-        // Collect message types.
-        final Set<MessageType> messageTypes = pubMessages.stream()
-            .map(PublishingMessageImpl::getMessageType)
-            .collect(Collectors.toSet());
-        if (1 < messageTypes.size()) {
-            // Messages have different message type, no need to proceed.
-            final IllegalArgumentException e = new IllegalArgumentException("Messages to send have different types, "
-                + "please check");
-            future.setException(e);
-            LOGGER.error("Messages to be sent have different message types, no need to proceed, topic={}, messageType"
-                + "(s)={}, clientId={}", topic, messageTypes, clientId, e);
-            return future;
-        }
-
-        final MessageType messageType = messageTypes.iterator().next();
-        final String messageGroup;
-
-        // Message group must be same if message type is FIFO, or no need to proceed.
-        if (MessageType.FIFO.equals(messageType)) {
-            final Set<String> messageGroups = pubMessages.stream()
-                .map(PublishingMessageImpl::getMessageGroup).filter(Optional::isPresent)
-                .map(Optional::get).collect(Collectors.toSet());
-
-            if (1 < messageGroups.size()) {
+        // Messages must share the same topic, message type and message group(for FIFO), validate them in one pass.
+        final PublishingMessageImpl first = pubMessages.get(0);
+        final String topic = first.getTopic();
+        final MessageType messageType = first.getMessageType();
+        final String messageGroup = MessageType.FIFO.equals(messageType) ? first.getMessageGroup().orElse(null) :
+            null;
+        for (int i = 1; i < pubMessages.size(); i++) {
+            final PublishingMessageImpl pubMessage = pubMessages.get(i);
+            if (!topic.equals(pubMessage.getTopic())) {
+                // Messages have different topics, no need to proceed.
+                final IllegalArgumentException e =
+                    new IllegalArgumentException("Messages to send have different topics");
+                future.setException(e);
+                LOGGER.error("Messages to be sent have different topics, no need to proceed, topic(s)=[{}, {}], "
+                    + "clientId={}", topic, pubMessage.getTopic(), clientId);
+                return future;
+            }
+            if (!messageType.equals(pubMessage.getMessageType())) {
+                // Messages have different message type, no need to proceed.
+                final IllegalArgumentException e = new IllegalArgumentException("Messages to send have different "
+                    + "types, please check");
+                future.setException(e);
+                LOGGER.error("Messages to be sent have different message types, no need to proceed, topic={}, "
+                    + "messageType(s)=[{}, {}], clientId={}", topic, messageType, pubMessage.getMessageType(),
+                    clientId, e);
+                return future;
+            }
+            // Message group must be same if message type is FIFO, or no need to proceed.
+            final String group = pubMessage.getMessageGroup().orElse(null);
+            if (null != messageGroup && !messageGroup.equals(group)) {
                 final IllegalArgumentException e = new IllegalArgumentException("FIFO messages to send have different "
-                    + "message groups, messageGroups=" + messageGroups);
+                    + "message groups, messageGroups=[" + messageGroup + ", " + group + "]");
                 future.setException(e);
                 LOGGER.error("FIFO messages to be sent have different message groups, no need to proceed, topic={}, "
-                    + "messageGroups={}, clientId={}", topic, messageGroups, clientId, e);
+                    + "messageGroups=[{}, {}], clientId={}", topic, messageGroup, group, clientId, e);
                 return future;
             }
-            messageGroup = messageGroups.iterator().next();
-        } else {
-            messageGroup = null;
         }
 
+        stageTrace.mark(PipelineStage.SEND_BUILD);
         this.topics.add(topic);
+        // Fast path, resolve the candidates synchronously if the publishing route is cached.
+        final PublishingLoadBalancer cached = publishingRouteDataResultCache.get(topic);
+        if (null != cached) {
+            stageTrace.mark(PipelineStage.SEND_ROUTE);
+            final List<MessageQueueImpl> candidates;
+            try {
+                candidates = takeMessageQueues(cached, messageGroup);
+            } catch (Throwable t) {
+                future.setException(t);
+                return future;
+            }
+            send0(future, topic, messageType, candidates, pubMessages, 1, stageTrace, deadline, null, false);
+            return future;
+        }
         // Get publishing topic route.
-        final ListenableFuture<PublishingLoadBalancer> routeFuture = getPublishingTopicRouteResult(topic);
+        ListenableFuture<PublishingLoadBalancer> routeFuture = getPublishingTopicRouteResult(topic);
+        if (null != deadline) {
+            // The route future may be shared with other publishing, which should not be cancelled by the timeout.
+            routeFuture = Futures.withTimeout(Futures.nonCancellationPropagating(routeFuture),
+                deadline.timeRemaining(TimeUnit.NANOSECONDS), TimeUnit.NANOSECONDS, clientManager.getScheduler());
+        }
         return Futures.transformAsync(routeFuture, result -> {
+            stageTrace.mark(PipelineStage.SEND_ROUTE);
             // Prepare the candidate message queue(s) for retry-sending in advance.
-            final List<MessageQueueImpl> candidates = null == messageGroup ? takeMessageQueues(result) :
-                Collections.singletonList(result.takeMessageQueueByMessageGroup(messageGroup));
-            final SettableFuture<List<SendReceiptImpl>> future0 = SettableFuture.create();
-            send0(future0, topic, messageType, candidates, pubMessages, 1);
-            return future0;
+            send0(future, topic, messageType, takeMessageQueues(result, messageGroup), pubMessages, 1, stageTrace,
+                deadline, null, false);
+            return future;
         }, MoreExecutors.directExecutor());
     }
 
@@ -419,21 +595,54 @@ class ProducerImpl extends ClientImpl implements Producer {
      * The caller is supposed to make sure different messages have the same message type and same topic.
      */
     private SendMessageRequest wrapSendMessageRequest(List<PublishingMessageImpl> messages) {
-        return SendMessageRequest.newBuilder()
-            .addAllMessages(messages.stream().map(PublishingMessageImpl::toProtobuf).collect(Collectors.toList()))
-            .build();
+        final SendMessageRequest.Builder builder = SendMessageRequest.newBuilder();
+        for (PublishingMessageImpl message : messages) {
+            builder.addMessages(message.toProtobuf());
+        }
+        return builder.build();
     }
 
+    /**
+     * @param stageTrace trace of the first attempt only, resends and the hedged attempt are given
+     *                   {@link StageTrace#NOOP} so that their stages are not mixed into the first one.
+     * @param hedgeState state shared by the attempts of the hedgeable publishing, {@code null} before the first
+     *                   attempt is sent or if the publishing is not hedgeable.
+     * @param hedged     whether it is the hedged attempt, which is made to the next candidate while the first attempt
+     *                   is still in flight, and is never resent.
+     */
     private void send0(SettableFuture<List<SendReceiptImpl>> future, String topic, MessageType messageType,
-        final List<MessageQueueImpl> candidates, final List<PublishingMessageImpl> messages, final int attempt) {
+        final List<MessageQueueImpl> candidates, final List<PublishingMessageImpl> messages, final int attempt,
+        final StageTrace stageTrace, final Deadline deadline, final HedgeState hedgeState, final boolean hedged) {
+        // Delayed attempts may fire after the producer is shut down if the scheduler is provided by the caller.
+        if (1 < attempt && !this.isRunning()) {
+            failPublishing(future, hedgeState, new IllegalStateException("Producer is not running now"));
+            return;
+        }
+        if (1 == attempt) {
+            retryBudget.deposit();
+        }
+        // The timeout of each attempt is bounded by the remaining time of the publishing.
+        Duration requestTimeout = clientConfiguration.getRequestTimeout();
+        if (null != deadline) {
+            final long remainingNanos = deadline.timeRemaining(TimeUnit.NANOSECONDS);
+            if (remainingNanos <= 0) {
+                failPublishing(future, hedgeState, new TimeoutException("Send deadline exceeded before the attempt, "
+                    + "topic=" + topic + ", attempt=" + attempt));
+                return;
+            }
+            if (remainingNanos < requestTimeout.toNanos()) {
+                requestTimeout = Duration.ofNanos(remainingNanos);
+            }
+        }
         Metadata metadata;
         try {
             metadata = sign();
         } catch (Throwable t) {
             // Failed to sign, no need to proceed.
-            future.setException(t);
+            failPublishing(future, hedgeState, t);
             return;
         }
+        stageTrace.mark(PipelineStage.SEND_SIGN);
         // Calculate the current message queue.
         final MessageQueueImpl messageQueue = candidates.get(IntMath.mod(attempt - 1, candidates.size()));
         final List<MessageType> acceptMessageTypes = messageQueue.getAcceptMessageTypes();
@@ -441,34 +650,68 @@ class ProducerImpl extends ClientImpl implements Producer {
             final IllegalArgumentException e = new IllegalArgumentException("Current message type not match with "
                 + "topic accept message types, topic=" + topic + ", actualMessageType=" + messageType + ", "
                 + "acceptMessageTypes={}" + acceptMessageTypes);
-            future.setException(e);
+            failPublishing(future, hedgeState, e);
             return;
         }
         final Endpoints endpoints = messageQueue.getBroker().getEndpoints();
+        final int maxAttempts = this.getRetryPolicy().getMaxAttempts();
+        // Take the trial permit if the circuit breaker is half-opened, the candidates are chosen without taking it,
+        // and the breaker may be opened since then.
+        if (!allowRequest(endpoints)) {
+            final int nextAttempt = 1 + attempt;
+            // Move to the next candidate without sending, the refused attempt is counted.
+            if (!hedged && nextAttempt <= maxAttempts && nextAttempt <= candidates.size()) {
+                send0(future, topic, messageType, candidates, messages, nextAttempt, StageTrace.NOOP, deadline,
+                    hedgeState, false);
+                return;
+            }
+            failPublishing(future, hedgeState, new ClientException("Request is refused by the circuit breaker, "
+                + "topic=" + topic + ", endpoints=" + endpoints + ", attempt=" + attempt));
+            return;
+        }
         final SendMessageRequest request = wrapSendMessageRequest(messages);
+        stageTrace.mark(PipelineStage.SEND_SERIALIZE);
+        final ClientEvent sendEvent = ClientEvents.begin(ClientEventType.SEND);
 
         final ListenableFuture<RpcInvocation<SendMessageResponse>> responseFuture =
-            clientManager.sendMessage(endpoints, metadata, request, clientConfiguration.getRequestTimeout());
-
-        final ListenableFuture<List<SendReceiptImpl>> attemptFuture = Futures.transformAsync(responseFuture,
-            invocation -> Futures.immediateFuture(SendReceiptImpl.processSendMessageResponseInvocation(messageQueue,
-                invocation)),
-            MoreExecutors.directExecutor());
-
-        final int maxAttempts = this.getRetryPolicy().getMaxAttempts();
+            clientManager.sendMessage(endpoints, metadata, request, requestTimeout);
+        // The hedged attempt takes the second attempt, so it is counted against the max attempts.
+        final boolean hedgeable = null != hedgingPolicy && MessageType.NORMAL.equals(messageType)
+            && 1 < candidates.size() && 1 < maxAttempts;
+        final HedgeState state = hedgeable && 1 == attempt ? new HedgeState() : hedgeState;
+        if (hedgeable) {
+            // Cancel the attempt once the publishing is completed by another attempt.
+            future.addListener(() -> responseFuture.cancel(false), MoreExecutors.directExecutor());
+            if (1 == attempt) {
+                scheduleHedgedAttempt(future, topic, messageType, candidates, messages, deadline, responseFuture,
+                    state);
+            }
+        }
 
-        // Intercept before message publishing.
+        // Intercept before message publishing, skip the hook points entirely if no interceptor is enabled.
+        final boolean intercepted = hasEnabledMessageInterceptor();
         final Stopwatch stopwatch = Stopwatch.createStarted();
-        final List<MessageCommon> messageCommons =
-            messages.stream().map(PublishingMessageImpl::getMessageCommon).collect(Collectors.toList());
-        doBefore(MessageHookPoints.SEND, messageCommons);
+        final List<MessageCommon> messageCommons = intercepted ?
+            LazyMessageCommonList.of(messages, PublishingMessageImpl::getMessageCommon) : null;
+        if (intercepted) {
+            doBefore(MessageHookPoints.SEND, messageCommons);
+        }
 
-        Futures.addCallback(attemptFuture, new FutureCallback<List<SendReceiptImpl>>() {
+        final FutureCallback<List<SendReceiptImpl>> attemptCallback = new FutureCallback<List<SendReceiptImpl>>() {
             @Override
             public void onSuccess(List<SendReceiptImpl> sendReceipts) {
+                stageTrace.mark(PipelineStage.SEND_CALLBACK_HOP);
+                sendEvent.complete(topic, messageQueue, endpoints, attempt, messages.size(), true);
                 // Intercept after message publishing.
                 final Duration duration = stopwatch.elapsed();
-                doAfter(MessageHookPoints.SEND, messageCommons, duration, MessageHookPointsStatus.OK);
+                if (intercepted) {
+                    doAfter(MessageHookPoints.SEND, messageCommons, duration, MessageHookPointsStatus.OK);
+                }
+                throttledResendBackoff.onSuccess();
+                onRequestSuccess(endpoints, duration);
+                if (hedgeable) {
+                    hedgingPolicy.record(duration);
+                }
 
                 if (sendReceipts.size() != messages.size()) {
                     LOGGER.error("[Bug] Due to an unknown reason from remote, received send receipts' quantity[{}]" +
@@ -477,7 +720,7 @@ class ProducerImpl extends ClientImpl implements Producer {
                 // No need more attempts.
                 future.set(sendReceipts);
                 // Resend message(s) successfully.
-                if (1 < attempt) {
+                if (1 < attempt && !hedged) {
                     // Collect messageId(s) for logging.
                     List<MessageId> messageIds = new ArrayList<>();
                     for (SendReceipt receipt : sendReceipts) {
@@ -492,51 +735,210 @@ class ProducerImpl extends ClientImpl implements Producer {
 
             @Override
             public void onFailure(Throwable t) {
+                stageTrace.mark(PipelineStage.SEND_CALLBACK_HOP);
+                // The publishing is completed by another attempt, and this attempt has been cancelled, which is
+                // neither a failure of the publishing nor of the endpoints.
+                if (responseFuture.isCancelled()) {
+                    return;
+                }
+                sendEvent.complete(topic, messageQueue, endpoints, attempt, messages.size(), false);
                 // Intercept after message publishing.
-                final Duration duration = stopwatch.elapsed();
-                doAfter(MessageHookPoints.SEND, messageCommons, duration, MessageHookPointsStatus.ERROR);
+                if (intercepted) {
+                    final Duration duration = stopwatch.elapsed();
+                    doAfter(MessageHookPoints.SEND, messageCommons, duration, MessageHookPointsStatus.ERROR);
+                }
+                // The publishing is completed by another attempt.
+                if (future.isDone()) {
+                    return;
+                }
 
                 // Collect messageId(s) for logging.
                 List<MessageId> messageIds = new ArrayList<>();
                 for (PublishingMessageImpl message : messages) {
                     messageIds.add(message.getMessageId());
                 }
-                // Isolate endpoints because of sending failure.
-                isolate(endpoints);
-                if (attempt >= maxAttempts) {
+                // Failures caused by the request itself say nothing about the health of the endpoints.
+                if (!isCausedByRequest(t)) {
+                    onRequestFailure(endpoints);
+                }
+                final boolean throttled = t instanceof TooManyRequestsException;
+                if (throttled) {
+                    throttledResendBackoff.onThrottled();
+                }
+                // The hedged attempt is never resent, the publishing fails with it only if the first attempt has
+                // given up.
+                if (hedged) {
+                    if (failPublishing(future, state, t)) {
+                        ATTEMPTS_EXHAUSTED_LOGGER.error("Failed to send message(s) finally by the hedged attempt, "
+                                + "maxAttempts={}, topic={}, messageId(s)={}, endpoints={}, clientId={}", maxAttempts,
+                            topic, messageIds, endpoints, clientId, t);
+                        return;
+                    }
+                    HEDGE_FAILURE_LOGGER.warn("Failed to send message by the hedged attempt, topic={}, "
+                        + "messageId(s)={}, endpoints={}, clientId={}", topic, messageIds, endpoints, clientId, t);
+                    return;
+                }
+                // Skip the candidate which is taken by the hedged attempt, and never go back to the failed ones.
+                final boolean hedgeIssued = null != state && state.decideIssued();
+                final int nextAttempt = hedgeIssued && 1 == attempt ? 3 : 1 + attempt;
+                if (nextAttempt > maxAttempts || (hedgeIssued && nextAttempt > candidates.size())) {
                     // No need more attempts.
-                    future.setException(t);
-                    LOGGER.error("Failed to send message(s) finally, run out of attempt times, maxAttempts={}, " +
-                            "attempt={}, topic={}, messageId(s)={}, endpoints={}, clientId={}",
-                        maxAttempts, attempt, topic, messageIds, endpoints, clientId, t);
+                    if (failPublishing(future, state, t)) {
+                        ATTEMPTS_EXHAUSTED_LOGGER.error("Failed to send message(s) finally, run out of attempt "
+                                + "times, maxAttempts={}, attempt={}, topic={}, messageId(s)={}, endpoints={}, "
+                                + "clientId={}", maxAttempts, attempt, topic, messageIds, endpoints, clientId, t);
+                    }
                     return;
                 }
-                // No need more attempts for transactional message.
+                // No need more attempts for transactional message, which is never hedged.
                 if (MessageType.TRANSACTION.equals(messageType)) {
                     future.setException(t);
-                    LOGGER.error("Failed to send transactional message finally, maxAttempts=1, attempt={}, " +
-                            "topic={}, messageId(s)={}, endpoints={}, clientId={}", attempt, topic, messageIds,
-                        endpoints, clientId, t);
+                    TRANSACTION_SEND_FAILURE_LOGGER.error("Failed to send transactional message finally, "
+                            + "maxAttempts=1, attempt={}, topic={}, messageId(s)={}, endpoints={}, clientId={}",
+                        attempt, topic, messageIds, endpoints, clientId, t);
                     return;
                 }
-                // Try to do more attempts.
-                int nextAttempt = 1 + attempt;
-                // Retry immediately if the request is not throttled.
-                if (!(t instanceof TooManyRequestsException)) {
-                    LOGGER.warn("Failed to send message, would attempt to resend right now, maxAttempts={}, "
-                            + "attempt={}, topic={}, messageId(s)={}, endpoints={}, clientId={}", maxAttempts, attempt,
-                        topic, messageIds, endpoints, clientId, t);
-                    send0(future, topic, messageType, candidates, messages, nextAttempt);
+                final Duration delay = throttled ? throttledResendBackoff.getNextDelay() :
+                    getResendDelay(nextAttempt);
+                // No more attempts if it could not be done before the deadline.
+                if (null != deadline && deadline.timeRemaining(TimeUnit.NANOSECONDS) <= delay.toNanos()) {
+                    if (failPublishing(future, state, t)) {
+                        DEADLINE_EXCEEDED_LOGGER.error("Failed to send message(s) finally, no time left before the "
+                                + "deadline, maxAttempts={}, attempt={}, topic={}, messageId(s)={}, endpoints={}, "
+                                + "clientId={}", maxAttempts, attempt, topic, messageIds, endpoints, clientId, t);
+                    }
+                    return;
+                }
+                // No more attempts if the retry budget is exhausted, which means the remote is degraded.
+                if (!retryBudget.tryWithdraw()) {
+                    if (failPublishing(future, state, t)) {
+                        RETRY_BUDGET_EXHAUSTED_LOGGER.error("Failed to send message(s) finally, run out of retry "
+                                + "budget, maxAttempts={}, attempt={}, topic={}, messageId(s)={}, endpoints={}, "
+                                + "retryBudget={}, clientId={}", maxAttempts, attempt, topic, messageIds, endpoints,
+                            retryBudget, clientId, t);
+                    }
                     return;
                 }
-                final Duration delay = ProducerImpl.this.getRetryPolicy().getNextAttemptDelay(nextAttempt);
-                LOGGER.warn("Failed to send message due to too many requests, would attempt to resend after {}, "
+                if (delay.isZero()) {
+                    IMMEDIATE_RESEND_LOGGER.warn("Failed to send message, would attempt to resend right now, "
+                            + "maxAttempts={}, attempt={}, topic={}, messageId(s)={}, endpoints={}, clientId={}",
+                        maxAttempts, attempt, topic, messageIds, endpoints, clientId, t);
+                    send0(future, topic, messageType, candidates, messages, nextAttempt, StageTrace.NOOP, deadline,
+                        state, false);
+                    return;
+                }
+                DELAYED_RESEND_LOGGER.warn("Failed to send message, would attempt to resend after {}, throttled={}, "
                         + "maxAttempts={}, attempt={}, topic={}, messageId(s)={}, endpoints={}, clientId={}", delay,
-                    maxAttempts, attempt, topic, messageIds, endpoints, clientId, t);
+                    throttled, maxAttempts, attempt, topic, messageIds, endpoints, clientId, t);
                 clientManager.getScheduler().schedule(() -> send0(future, topic, messageType, candidates, messages,
-                    nextAttempt), delay.toNanos(), TimeUnit.NANOSECONDS);
+                    nextAttempt, StageTrace.NOOP, deadline, state, false), delay.toNanos(), TimeUnit.NANOSECONDS);
             }
-        }, clientCallbackExecutor);
+        };
+        // Process the response on the RPC thread, and then hop to the completion executor only once.
+        Futures.addCallback(responseFuture, new FutureCallback<RpcInvocation<SendMessageResponse>>() {
+            @Override
+            public void onSuccess(RpcInvocation<SendMessageResponse> invocation) {
+                stageTrace.mark(PipelineStage.SEND_RPC);
+                final List<SendReceiptImpl> sendReceipts;
+                try {
+                    sendReceipts = SendReceiptImpl.processSendMessageResponseInvocation(messageQueue, invocation);
+                } catch (Throwable t) {
+                    completionExecutor.execute(() -> attemptCallback.onFailure(t));
+                    return;
+                }
+                completionExecutor.execute(() -> attemptCallback.onSuccess(sendReceipts));
+            }
+
+            @Override
+            public void onFailure(Throwable t) {
+                completionExecutor.execute(() -> attemptCallback.onFailure(t));
+            }
+        }, MoreExecutors.directExecutor());
+    }
+
+    /**
+     * Schedule the hedged attempt to the next candidate, which is made only if the first attempt is still in flight
+     * after the hedge delay and the hedging budget is not exhausted.
+     *
+     * @param hedgeState state of the publishing, the hedged attempt is made only if the first attempt has not been
+     *                   decided to be resent.
+     */
+    private void scheduleHedgedAttempt(SettableFuture<List<SendReceiptImpl>> future, String topic,
+        MessageType messageType, List<MessageQueueImpl> candidates, List<PublishingMessageImpl> messages,
+        Deadline deadline, ListenableFuture<?> firstAttemptFuture, HedgeState hedgeState) {
+        hedgingPolicy.onSend();
+        final long hedgeDelayNanos = hedgingPolicy.getHedgeDelayNanos();
+        // No hedged attempt before the hedge delay is estimated, or if it could not be done before the deadline.
+        if (Long.MAX_VALUE == hedgeDelayNanos || (null != deadline
+            && deadline.timeRemaining(TimeUnit.NANOSECONDS) <= hedgeDelayNanos)) {
+            return;
+        }
+        final ScheduledFuture<?> hedgeFuture = clientManager.getScheduler().schedule(() -> {
+            if (future.isDone() || firstAttemptFuture.isDone() || !hedgeState.tryIssue(hedgingPolicy::tryHedge)) {
+                return;
+            }
+            send0(future, topic, messageType, candidates, messages, 2, StageTrace.NOOP, deadline, hedgeState, true);
+        }, hedgeDelayNanos, TimeUnit.NANOSECONDS);
+        firstAttemptFuture.addListener(() -> hedgeFuture.cancel(false), MoreExecutors.directExecutor());
+    }
+
+    /**
+     * Fail the publishing once no attempt is left, the first attempt and the hedged attempt give up independently.
+     *
+     * @return {@code true} if the publishing is failed by this call.
+     */
+    private static boolean failPublishing(SettableFuture<List<SendReceiptImpl>> future, HedgeState hedgeState,
+        Throwable t) {
+        if (null != hedgeState && !hedgeState.release()) {
+            return false;
+        }
+        return future.setException(t);
+    }
+
+    /**
+     * State of the hedgeable publishing, which is shared by the first attempt, its resends and the hedged attempt.
+     */
+    private static class HedgeState {
+        @GuardedBy("this")
+        private boolean decided = false;
+        @GuardedBy("this")
+        private boolean issued = false;
+        /**
+         * Number of the attempt chains which have not given up, the first attempt and its resends make one chain,
+         * and the hedged attempt makes another.
+         */
+        @GuardedBy("this")
+        private int pending = 1;
+
+        /**
+         * Issue the hedged attempt if the first attempt is still undecided and the hedging budget allows.
+         */
+        synchronized boolean tryIssue(BooleanSupplier budget) {
+            if (decided || !budget.getAsBoolean()) {
+                return false;
+            }
+            decided = true;
+            issued = true;
+            pending++;
+            return true;
+        }
+
+        /**
+         * Called once the first attempt fails, no hedged attempt would be issued since then.
+         *
+         * @return whether the hedged attempt has been issued.
+         */
+        synchronized boolean decideIssued() {
+            decided = true;
+            return issued;
+        }
+
+        /**
+         * @return {@code true} if it is the last attempt chain to give up.
+         */
+        synchronized boolean release() {
+            return 0 == --pending;
+        }
     }
 
     @Override
@@ -547,19 +949,15 @@ class ProducerImpl extends ClientImpl implements Producer {
     }
 
     private ListenableFuture<PublishingLoadBalancer> getPublishingTopicRouteResult(final String topic) {
-        SettableFuture<PublishingLoadBalancer> future0 = SettableFuture.create();
         final PublishingLoadBalancer result = publishingRouteDataResultCache.get(topic);
         if (null != result) {
-            future0.set(result);
-            return future0;
+            return Futures.immediateFuture(result);
         }
-        return Futures.transformAsync(getRouteDataResult(topic), topicRouteDataResult -> {
-            SettableFuture<PublishingLoadBalancer> future = SettableFuture.create();
+        return Futures.transform(getRouteDataResult(topic), topicRouteDataResult -> {
             final PublishingLoadBalancer publishingLoadBalancer =
                 new PublishingLoadBalancer(topicRouteDataResult);
             publishingRouteDataResultCache.put(topic, publishingLoadBalancer);
-            future.set(publishingLoadBalancer);
-            return future;
+            return publishingLoadBalancer;
         }, MoreExecutors.directExecutor());
     }
 }
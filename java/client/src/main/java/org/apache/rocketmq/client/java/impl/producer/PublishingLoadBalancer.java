@@ -28,6 +28,7 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Predicate;
 import javax.annotation.concurrent.Immutable;
 import org.apache.commons.lang3.RandomUtils;
 import org.apache.rocketmq.client.apis.ClientException;
@@ -82,7 +83,12 @@ public class PublishingLoadBalancer {
         return messageQueues.get(index);
     }
 
-    public List<MessageQueueImpl> takeMessageQueues(Set<Endpoints> excluded, int count) throws ClientException {
+    /**
+     * Take message queues of different brokers in round-robin, brokers whose endpoints are not available are skipped
+     * unless none is available.
+     */
+    public List<MessageQueueImpl> takeMessageQueues(Predicate<Endpoints> available, int count)
+        throws ClientException {
         preconditionCheckBeforeTakingMessageQueue();
         int next = index.getAndIncrement();
         List<MessageQueueImpl> candidates = new ArrayList<>();
@@ -92,7 +98,7 @@ public class PublishingLoadBalancer {
             final MessageQueueImpl messageQueueImpl = messageQueues.get(IntMath.mod(next++, messageQueues.size()));
             final Broker broker = messageQueueImpl.getBroker();
             final String brokerName = broker.getName();
-            if (!excluded.contains(broker.getEndpoints()) && !candidateBrokerNames.contains(brokerName)) {
+            if (!candidateBrokerNames.contains(brokerName) && available.test(broker.getEndpoints())) {
                 candidateBrokerNames.add(brokerName);
                 candidates.add(messageQueueImpl);
             }
@@ -100,7 +106,7 @@ public class PublishingLoadBalancer {
                 return candidates;
             }
         }
-        // If all endpoints are isolated.
+        // If all endpoints are unavailable.
         if (candidates.isEmpty()) {
             for (int i = 0; i < messageQueues.size(); i++) {
                 final MessageQueueImpl messageQueueImpl = messageQueues.get(IntMath.mod(next++, messageQueues.size()));
@@ -0,0 +1,69 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.rocketmq.client.java.message;
+
+import java.util.AbstractList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Function;
+
+/**
+ * Read-only list of {@link MessageCommon} whose elements are only materialised when they are read for the first
+ * time, so that messages are not copied for interceptors that never look at them.
+ *
+ * @param <T> type of the source message.
+ */
+public class LazyMessageCommonList<T> extends AbstractList<MessageCommon> {
+    private final List<T> messages;
+    private final Function<T, MessageCommon> converter;
+    private final AtomicReferenceArray<MessageCommon> messageCommons;
+
+    private LazyMessageCommonList(List<T> messages, Function<T, MessageCommon> converter) {
+        this.messages = messages;
+        this.converter = converter;
+        this.messageCommons = new AtomicReferenceArray<>(messages.size());
+    }
+
+    public static <T> List<MessageCommon> of(List<T> messages, Function<T, MessageCommon> converter) {
+        if (messages.isEmpty()) {
+            return Collections.emptyList();
+        }
+        return new LazyMessageCommonList<>(messages, converter);
+    }
+
+    public static <T> List<MessageCommon> singleton(T message, Function<T, MessageCommon> converter) {
+        return new LazyMessageCommonList<>(Collections.singletonList(message), converter);
+    }
+
+    @Override
+    public MessageCommon get(int index) {
+        MessageCommon messageCommon = messageCommons.get(index);
+        if (null != messageCommon) {
+            return messageCommon;
+        }
+        messageCommon = converter.apply(messages.get(index));
+        // Keep the first materialised instance if another thread has raced with us.
+        return messageCommons.compareAndSet(index, null, messageCommon) ? messageCommon : messageCommons.get(index);
+    }
+
+    @Override
+    public int size() {
+        return messages.size();
+    }
+}
@@ -65,13 +65,21 @@ public class MessageIdCodec {
     public static final String MESSAGE_ID_VERSION_V0 = "00";
     public static final String MESSAGE_ID_VERSION_V1 = "01";
 
+    private static final char[] HEX_DIGITS = "0123456789ABCDEF".toCharArray();
+
     private static final MessageIdCodec INSTANCE = new MessageIdCodec();
 
-    private final String processFixedStringV1;
+    /**
+     * Version and the process fixed part of message id, which is shared by all message ids generated by the process.
+     */
+    private final char[] processFixedCharsV1;
     private final long secondsSinceCustomEpoch;
     private final long secondsStartTimestamp;
-    private long seconds;
     private final AtomicInteger sequence;
+    /**
+     * Thread-local buffer to encode message id, each message id is encoded into the buffer before copied into string.
+     */
+    private final ThreadLocal<char[]> buffer;
 
     private MessageIdCodec() {
         ByteBuffer buffer = ByteBuffer.allocate(8);
@@ -89,13 +97,17 @@ public class MessageIdCodec {
         buffer.put(pidBuffer.array(), 2, 2);
 
         buffer.flip();
-        processFixedStringV1 = Utilities.encodeHexString(buffer, false);
+        processFixedCharsV1 = (MESSAGE_ID_VERSION_V1 + Utilities.encodeHexString(buffer, false)).toCharArray();
 
         secondsSinceCustomEpoch = TimeUnit.MILLISECONDS.toSeconds(System.currentTimeMillis() - customEpochMillis());
         secondsStartTimestamp = TimeUnit.NANOSECONDS.toSeconds(System.nanoTime());
-        seconds = deltaSeconds();
 
         sequence = new AtomicInteger(0);
+        this.buffer = ThreadLocal.withInitial(() -> {
+            final char[] chars = new char[MESSAGE_ID_LENGTH_FOR_V1_OR_LATER];
+            System.arraycopy(processFixedCharsV1, 0, chars, 0, processFixedCharsV1.length);
+            return chars;
+        });
     }
 
     public static MessageIdCodec getInstance() {
@@ -121,28 +133,29 @@ public class MessageIdCodec {
     }
 
     public MessageId nextMessageId() {
-        ByteBuffer buffer = ByteBuffer.allocate(8);
-        buffer.order(ByteOrder.BIG_ENDIAN);
+        final char[] chars = buffer.get();
+        int offset = processFixedCharsV1.length;
+        // Lower 4 bytes of seconds, which is derived from the monotonic clock and is thread-safe naturally.
+        offset = encodeInt(chars, offset, (int) deltaSeconds());
+        encodeInt(chars, offset, sequence.getAndIncrement());
+        return new MessageIdImpl(MESSAGE_ID_VERSION_V1, new String(chars));
+    }
 
-        final ByteBuffer deltaSecondsBuffer = ByteBuffer.allocate(8);
-        deltaSecondsBuffer.order(ByteOrder.BIG_ENDIAN);
-        final long deltaSeconds = deltaSeconds();
-        if (seconds != deltaSeconds) {
-            seconds = deltaSeconds;
+    private static int encodeInt(char[] chars, int offset, int value) {
+        for (int i = offset + 7; i >= offset; i--) {
+            chars[i] = HEX_DIGITS[value & 0xF];
+            value >>>= 4;
         }
-        deltaSecondsBuffer.putLong(seconds);
-        buffer.put(deltaSecondsBuffer.array(), 4, 4);
-        buffer.putInt(sequence.getAndIncrement());
-
-        buffer.flip();
-        final String suffix = processFixedStringV1 + Utilities.encodeHexString(buffer, false);
-        return new MessageIdImpl(MESSAGE_ID_VERSION_V1, suffix);
+        return offset + 8;
     }
 
     public MessageId decode(String messageId) {
         if (MESSAGE_ID_LENGTH_FOR_V1_OR_LATER != messageId.length()) {
             return new MessageIdImpl(MESSAGE_ID_VERSION_V0, messageId);
         }
-        return new MessageIdImpl(messageId.substring(0, 2), messageId.substring(2));
+        // Reuse the constant version to avoid the substring for the most common version.
+        final String version = messageId.startsWith(MESSAGE_ID_VERSION_V1) ? MESSAGE_ID_VERSION_V1 :
+            messageId.substring(0, 2);
+        return new MessageIdImpl(version, messageId);
     }
 }
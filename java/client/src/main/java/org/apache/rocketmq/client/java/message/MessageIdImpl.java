@@ -22,11 +22,21 @@ import org.apache.rocketmq.client.apis.message.MessageId;
 
 public class MessageIdImpl implements MessageId {
     private final String version;
-    private final String suffix;
+    /**
+     * String form of message id, which is cached because it is used by each acknowledgement and invisible duration
+     * change.
+     */
+    private final String messageId;
 
-    public MessageIdImpl(String version, String suffix) {
+    /**
+     * Construct the message id by its version and the whole string form.
+     *
+     * @param version   version of message id.
+     * @param messageId string form of message id, the version is included except for V0.
+     */
+    MessageIdImpl(String version, String messageId) {
         this.version = version;
-        this.suffix = suffix;
+        this.messageId = messageId;
     }
 
     /**
@@ -42,11 +52,7 @@ public class MessageIdImpl implements MessageId {
      */
     @Override
     public String toString() {
-        // Use suffix directly for V0
-        if (MessageIdCodec.MESSAGE_ID_VERSION_V0.equals(version)) {
-            return suffix;
-        }
-        return version + suffix;
+        return messageId;
     }
 
     @Override
@@ -57,12 +63,12 @@ public class MessageIdImpl implements MessageId {
         if (o == null || getClass() != o.getClass()) {
             return false;
         }
-        MessageIdImpl messageId = (MessageIdImpl) o;
-        return Objects.equal(version, messageId.version) && Objects.equal(suffix, messageId.suffix);
+        MessageIdImpl that = (MessageIdImpl) o;
+        return Objects.equal(version, that.version) && Objects.equal(messageId, that.messageId);
     }
 
     @Override
     public int hashCode() {
-        return Objects.hashCode(version, suffix);
+        return Objects.hashCode(version, messageId);
     }
 }
@@ -39,6 +39,7 @@ import java.util.Map;
 import java.util.Optional;
 import org.apache.rocketmq.client.apis.message.MessageId;
 import org.apache.rocketmq.client.apis.message.MessageView;
+import org.apache.rocketmq.client.java.metrics.StageTrace;
 import org.apache.rocketmq.client.java.misc.LinkedElement;
 import org.apache.rocketmq.client.java.misc.LinkedIterator;
 import org.apache.rocketmq.client.java.misc.Utilities;
@@ -70,6 +71,7 @@ public class MessageViewImpl implements LinkedElement<MessageViewImpl>, MessageV
     private final Stopwatch decodeStopwatch;
     private final Timestamp deliveryTimestampFromRemote;
     private MessageViewImpl next;
+    private volatile StageTrace stageTrace;
 
     public MessageViewImpl(MessageId messageId, String topic, byte[] body, String tag, String messageGroup,
         Long deliveryTimestamp, Collection<String> keys, Map<String, String> properties,
@@ -96,6 +98,7 @@ public class MessageViewImpl implements LinkedElement<MessageViewImpl>, MessageV
         this.decodeStopwatch = Stopwatch.createStarted();
         this.deliveryTimestampFromRemote = deliveryTimestampFromRemote;
         this.next = null;
+        this.stageTrace = StageTrace.NOOP;
     }
 
     public MessageCommon getMessageCommon() {
@@ -225,6 +228,17 @@ public class MessageViewImpl implements LinkedElement<MessageViewImpl>, MessageV
         return corrupted;
     }
 
+    /**
+     * Get the trace to profile the consumption stages of message, which is {@link StageTrace#NOOP} if not sampled.
+     */
+    public StageTrace getStageTrace() {
+        return stageTrace;
+    }
+
+    public void setStageTrace(StageTrace stageTrace) {
+        this.stageTrace = null == stageTrace ? StageTrace.NOOP : stageTrace;
+    }
+
     public void setNext(MessageViewImpl messageView) {
         this.next = messageView;
     }
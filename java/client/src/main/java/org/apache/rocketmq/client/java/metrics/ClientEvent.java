@@ -0,0 +1,45 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.rocketmq.client.java.metrics;
+
+import org.apache.rocketmq.client.java.route.Endpoints;
+import org.apache.rocketmq.client.java.route.MessageQueueImpl;
+
+/**
+ * Event of the client which has begun, it is reported once {@link #complete} is invoked.
+ *
+ * <p>Events are created by {@link ClientEvents#begin(ClientEventType)}, and {@link #NOOP} is returned if the event
+ * is not being recorded, so nothing is formatted or allocated for it.
+ */
+public interface ClientEvent {
+    ClientEvent NOOP = (topic, mq, endpoints, attempt, batchSize, success) -> {
+    };
+
+    /**
+     * Complete the event and report it, nullable arguments are left blank in the record.
+     *
+     * @param topic     topic of the event, nullable.
+     * @param mq        message queue of the event, nullable.
+     * @param endpoints remote endpoints of the event, nullable.
+     * @param attempt   attempt times, starts from 1.
+     * @param batchSize count of messages involved.
+     * @param success   whether the operation succeeded.
+     */
+    void complete(String topic, MessageQueueImpl mq, Endpoints endpoints, int attempt, int batchSize,
+        boolean success);
+}
@@ -0,0 +1,62 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.rocketmq.client.java.metrics;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Entry of the Java Flight Recorder events of the client.
+ *
+ * <p>Events are built upon {@code jdk.jfr}, which are compiled against Java 11 and packaged into
+ * {@code META-INF/versions/11} of the multi-release jar. On the earlier runtime the factory could not be loaded and
+ * every event falls back to {@link ClientEvent#NOOP}.
+ */
+public class ClientEvents {
+    static final String JFR_EVENT_FACTORY_CLASS_NAME =
+        "org.apache.rocketmq.client.java.metrics.jfr.JfrClientEventFactory";
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ClientEvents.class);
+
+    private static final ClientEventFactory NOOP_FACTORY = type -> ClientEvent.NOOP;
+
+    private static final ClientEventFactory FACTORY = loadFactory();
+
+    private ClientEvents() {
+    }
+
+    static ClientEventFactory loadFactory() {
+        try {
+            final Class<?> clazz = Class.forName(JFR_EVENT_FACTORY_CLASS_NAME);
+            final ClientEventFactory factory = (ClientEventFactory) clazz.getDeclaredConstructor().newInstance();
+            LOGGER.debug("Java Flight Recorder events of client are available");
+            return factory;
+        } catch (Throwable t) {
+            LOGGER.debug("Java Flight Recorder events of client are not available on the current runtime");
+            return NOOP_FACTORY;
+        }
+    }
+
+    static ClientEventFactory getFactory() {
+        return FACTORY;
+    }
+
+    public static ClientEvent begin(ClientEventType type) {
+        return FACTORY.begin(type);
+    }
+}
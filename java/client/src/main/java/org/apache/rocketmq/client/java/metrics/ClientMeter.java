@@ -23,9 +23,9 @@ import com.google.common.base.MoreObjects;
 import io.opentelemetry.api.metrics.DoubleHistogram;
 import io.opentelemetry.api.metrics.Meter;
 import io.opentelemetry.sdk.metrics.SdkMeterProvider;
-import java.util.Optional;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.ConcurrentMap;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
 import java.util.concurrent.CountDownLatch;
 import org.apache.rocketmq.client.java.route.Endpoints;
 import org.slf4j.Logger;
@@ -39,14 +39,22 @@ public class ClientMeter {
     private final Meter meter;
     private final Endpoints endpoints;
     private final SdkMeterProvider provider;
-    private final ConcurrentMap<String /* histogram name */, DoubleHistogram> histogramMap;
+    private final Map<HistogramEnum, DoubleHistogram> histogramMap;
 
+    /**
+     * @param endpoints endpoints to export metrics to, which is {@code null} if metrics are only exported locally.
+     */
     public ClientMeter(Meter meter, Endpoints endpoints, SdkMeterProvider provider) {
         this.enabled = true;
         this.meter = checkNotNull(meter, "meter should not be null");
-        this.endpoints = checkNotNull(endpoints, "endpoints should not be null");
+        this.endpoints = endpoints;
         this.provider = checkNotNull(provider, "provider should not be null");
-        this.histogramMap = new ConcurrentHashMap<>();
+        // Bind all histograms once, so that recording does not need to look them up by name.
+        final Map<HistogramEnum, DoubleHistogram> histograms = new EnumMap<>(HistogramEnum.class);
+        for (HistogramEnum histogramEnum : HistogramEnum.values()) {
+            histograms.put(histogramEnum, meter.histogramBuilder(histogramEnum.getName()).build());
+        }
+        this.histogramMap = histograms;
     }
 
     private ClientMeter() {
@@ -54,7 +62,7 @@ public class ClientMeter {
         this.meter = null;
         this.endpoints = null;
         this.provider = null;
-        this.histogramMap = new ConcurrentHashMap<>();
+        this.histogramMap = Collections.emptyMap();
     }
 
     public boolean isEnabled() {
@@ -65,10 +73,13 @@ public class ClientMeter {
         return endpoints;
     }
 
-    Optional<DoubleHistogram> getHistogramByEnum(HistogramEnum histogramEnum) {
-        final DoubleHistogram histogram = histogramMap.computeIfAbsent(histogramEnum.getName(), name -> enabled ?
-            meter.histogramBuilder(histogramEnum.getName()).build() : null);
-        return null == histogram ? Optional.empty() : Optional.of(histogram);
+    /**
+     * Get the histogram bound to the current meter.
+     *
+     * @return histogram, or {@code null} if the meter is disabled.
+     */
+    DoubleHistogram getHistogram(HistogramEnum histogramEnum) {
+        return histogramMap.get(histogramEnum);
     }
 
     public void shutdown() {
@@ -84,11 +95,19 @@ public class ClientMeter {
         }
     }
 
-    public boolean satisfy(Metric metric) {
-        if (enabled && metric.isOn() && endpoints.equals(metric.getEndpoints())) {
-            return true;
+    /**
+     * Check if the current meter satisfies the metric settings.
+     *
+     * @param metric       metric settings issued by the server.
+     * @param localEnabled whether metrics are exported locally.
+     * @return true if the current meter could be kept.
+     */
+    public boolean satisfy(Metric metric, boolean localEnabled) {
+        if (!metric.isOn()) {
+            // Remote metrics are off, metrics are either exported locally only or disabled.
+            return localEnabled ? enabled && null == endpoints : !enabled;
         }
-        return !enabled && !metric.isOn();
+        return enabled && metric.getEndpoints().equals(endpoints);
     }
 
     @Override
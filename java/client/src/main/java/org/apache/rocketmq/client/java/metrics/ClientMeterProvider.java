@@ -17,6 +17,7 @@
 
 package org.apache.rocketmq.client.java.metrics;
 
+import io.grpc.ClientInterceptor;
 import io.grpc.ManagedChannel;
 import io.grpc.netty.shaded.io.grpc.netty.GrpcSslContexts;
 import io.grpc.netty.shaded.io.grpc.netty.NettyChannelBuilder;
@@ -30,6 +31,7 @@ import io.opentelemetry.sdk.OpenTelemetrySdk;
 import io.opentelemetry.sdk.metrics.InstrumentSelector;
 import io.opentelemetry.sdk.metrics.InstrumentType;
 import io.opentelemetry.sdk.metrics.SdkMeterProvider;
+import io.opentelemetry.sdk.metrics.SdkMeterProviderBuilder;
 import io.opentelemetry.sdk.metrics.View;
 import io.opentelemetry.sdk.metrics.export.PeriodicMetricReader;
 import io.opentelemetry.sdk.resources.Resource;
@@ -38,8 +40,17 @@ import java.time.Duration;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
 import org.apache.rocketmq.client.apis.consumer.PushConsumer;
+import org.apache.rocketmq.client.apis.consumer.SimpleConsumer;
 import org.apache.rocketmq.client.java.impl.ClientImpl;
+import org.apache.rocketmq.client.java.misc.RateLimitedLogger;
+import org.apache.rocketmq.client.java.retry.RetryBudget;
+import org.apache.rocketmq.client.java.route.CircuitBreaker;
+import org.apache.rocketmq.client.java.route.CircuitBreakers;
 import org.apache.rocketmq.client.java.route.Endpoints;
 import org.apache.rocketmq.client.java.rpc.AuthInterceptor;
 import org.apache.rocketmq.client.java.rpc.IpNameResolverFactory;
@@ -56,79 +67,163 @@ public class ClientMeterProvider {
     private final ClientImpl client;
     private volatile ClientMeter clientMeter;
     private volatile MessageCacheObserver messageCacheObserver;
+    private volatile PrefetchBufferObserver prefetchBufferObserver;
+    private volatile RetryBudget retryBudget;
+    private volatile CircuitBreakers circuitBreakers;
+    private final ConcurrentMap<Endpoints, RpcMeterInterceptor> rpcMeterInterceptors;
+    private final ConcurrentMap<String /* executor name */, ThreadPoolExecutor> executors;
+    private final StageProfiler stageProfiler;
+    private LocalMetricsExporter localMetricsExporter;
 
     public ClientMeterProvider(ClientImpl client) {
         this.client = client;
         this.client.registerMessageInterceptor(new MessageMeterInterceptor(this));
         this.clientMeter = ClientMeter.DISABLED;
         this.messageCacheObserver = null;
+        this.prefetchBufferObserver = null;
+        this.retryBudget = null;
+        this.circuitBreakers = null;
+        this.localMetricsExporter = null;
+        this.rpcMeterInterceptors = new ConcurrentHashMap<>();
+        this.executors = new ConcurrentHashMap<>();
+        this.stageProfiler = new StageProfiler(this);
+    }
+
+    public StageProfiler getStageProfiler() {
+        return stageProfiler;
+    }
+
+    /**
+     * Get the interceptor to be installed on the channel to the specified endpoints, which records the RPC latency
+     * and in-flight requests.
+     */
+    public ClientInterceptor getRpcMeterInterceptor(Endpoints endpoints) {
+        return rpcMeterInterceptors.computeIfAbsent(endpoints, e -> new RpcMeterInterceptor(this, e));
+    }
+
+    /**
+     * Remove the interceptor once the channel to the specified endpoints is closed, so that the in-flight gauge no
+     * longer reports it.
+     */
+    public void removeRpcMeterInterceptor(Endpoints endpoints) {
+        rpcMeterInterceptors.remove(endpoints);
+    }
+
+    /**
+     * Register the executor whose queue size and active threads are exported as gauges, executors other than
+     * {@link ThreadPoolExecutor} are ignored.
+     */
+    public void registerExecutor(String name, ExecutorService executor) {
+        if (executor instanceof ThreadPoolExecutor) {
+            executors.put(name, (ThreadPoolExecutor) executor);
+        }
     }
 
     public void setMessageCacheObserver(MessageCacheObserver messageCacheObserver) {
         this.messageCacheObserver = messageCacheObserver;
     }
 
-    Optional<DoubleHistogram> getHistogramByEnum(HistogramEnum histogramEnum) {
-        return clientMeter.getHistogramByEnum(histogramEnum);
+    public void setPrefetchBufferObserver(PrefetchBufferObserver prefetchBufferObserver) {
+        this.prefetchBufferObserver = prefetchBufferObserver;
+    }
+
+    /**
+     * Set the retry budget of producer, whose exhaustion is exported as counter.
+     */
+    public void setRetryBudget(RetryBudget retryBudget) {
+        this.retryBudget = retryBudget;
+    }
+
+    /**
+     * Set the circuit breakers of the client, whose states are exported as gauge and counter.
+     */
+    public void setCircuitBreakers(CircuitBreakers circuitBreakers) {
+        this.circuitBreakers = circuitBreakers;
+    }
+
+    DoubleHistogram getHistogram(HistogramEnum histogramEnum) {
+        return clientMeter.getHistogram(histogramEnum);
+    }
+
+    /**
+     * Apply the sample rate of stage profiler and start the local metrics exporter if configured, local metrics are
+     * collected even if the remote metrics are off.
+     */
+    public synchronized void start() {
+        stageProfiler.setSampleRate(client.getClientConfiguration().getStageLatencySampleRate());
+        final Optional<LocalMetricsExporter> optionalExporter = LocalMetricsExporter.create(client.clientId(),
+            client.getClientConfiguration());
+        if (!optionalExporter.isPresent()) {
+            return;
+        }
+        localMetricsExporter = optionalExporter.get();
+        localMetricsExporter.start();
+        reset0(null);
+    }
+
+    public synchronized void shutdown() {
+        clientMeter.shutdown();
+        clientMeter = ClientMeter.DISABLED;
+        if (null != localMetricsExporter) {
+            localMetricsExporter.shutdown();
+            localMetricsExporter = null;
+        }
     }
 
     public synchronized void reset(Metric metric) {
+        final String clientId = client.clientId();
+        if (clientMeter.satisfy(metric, null != localMetricsExporter)) {
+            LOGGER.debug("Metric settings is satisfied by the current message meter, clientId={}", clientId);
+            return;
+        }
+        if (!metric.isOn() && null == localMetricsExporter) {
+            LOGGER.debug("Metric is off, clientId={}", clientId);
+            clientMeter.shutdown();
+            clientMeter = ClientMeter.DISABLED;
+            return;
+        }
+        reset0(metric.isOn() ? metric.getEndpoints() : null);
+    }
+
+    /**
+     * Reset the client meter.
+     *
+     * @param endpoints endpoints to export metrics to, or {@code null} if metrics are only exported locally.
+     */
+    private void reset0(Endpoints endpoints) {
         final String clientId = client.clientId();
         try {
-            if (clientMeter.satisfy(metric)) {
-                LOGGER.debug("Metric settings is satisfied by the current message meter, clientId={}", clientId);
-                return;
+            final SdkMeterProviderBuilder providerBuilder = SdkMeterProvider.builder()
+                .setResource(Resource.empty());
+            for (HistogramEnum histogramEnum : HistogramEnum.values()) {
+                final InstrumentSelector instrumentSelector = InstrumentSelector.builder()
+                    .setType(InstrumentType.HISTOGRAM).setName(histogramEnum.getName()).build();
+                final View view = View.builder().setAggregation(histogramEnum.getBucket()).build();
+                providerBuilder.registerView(instrumentSelector, view);
             }
-            if (!metric.isOn()) {
-                LOGGER.debug("Metric is off, clientId={}", clientId);
-                clientMeter.shutdown();
-                clientMeter = ClientMeter.DISABLED;
-                return;
+
+            if (null != endpoints) {
+                final SslContext sslContext = GrpcSslContexts.forClient()
+                    .trustManager(InsecureTrustManagerFactory.INSTANCE).build();
+                final NettyChannelBuilder channelBuilder = NettyChannelBuilder.forTarget(endpoints.getGrpcTarget())
+                    .sslContext(sslContext).intercept(new AuthInterceptor(client.getClientConfiguration(), clientId));
+                final List<InetSocketAddress> socketAddresses = endpoints.toSocketAddresses();
+                if (null != socketAddresses) {
+                    IpNameResolverFactory metricResolverFactory = new IpNameResolverFactory(socketAddresses);
+                    channelBuilder.nameResolverFactory(metricResolverFactory);
+                }
+                ManagedChannel channel = channelBuilder.build();
+                OtlpGrpcMetricExporter exporter = OtlpGrpcMetricExporter.builder().setChannel(channel)
+                    .setTimeout(METRIC_EXPORTER_RPC_TIMEOUT)
+                    .build();
+                PeriodicMetricReader reader = PeriodicMetricReader.builder(exporter)
+                    .setInterval(METRIC_READER_INTERVAL).build();
+                providerBuilder.registerMetricReader(reader);
             }
-            final Endpoints endpoints = metric.getEndpoints();
-            final SslContext sslContext = GrpcSslContexts.forClient().trustManager(InsecureTrustManagerFactory.INSTANCE)
-                .build();
-            final NettyChannelBuilder channelBuilder = NettyChannelBuilder.forTarget(endpoints.getGrpcTarget())
-                .sslContext(sslContext).intercept(new AuthInterceptor(client.getClientConfiguration(), clientId));
-            final List<InetSocketAddress> socketAddresses = endpoints.toSocketAddresses();
-            if (null != socketAddresses) {
-                IpNameResolverFactory metricResolverFactory = new IpNameResolverFactory(socketAddresses);
-                channelBuilder.nameResolverFactory(metricResolverFactory);
+            if (null != localMetricsExporter) {
+                providerBuilder.registerMetricReader(localMetricsExporter.newMetricReader());
             }
-            ManagedChannel channel = channelBuilder.build();
-            OtlpGrpcMetricExporter exporter = OtlpGrpcMetricExporter.builder().setChannel(channel)
-                .setTimeout(METRIC_EXPORTER_RPC_TIMEOUT)
-                .build();
-
-            InstrumentSelector sendSuccessCostTimeInstrumentSelector = InstrumentSelector.builder()
-                .setType(InstrumentType.HISTOGRAM).setName(HistogramEnum.SEND_SUCCESS_COST_TIME.getName()).build();
-            final View sendSuccessCostTimeView = View.builder()
-                .setAggregation(HistogramEnum.SEND_SUCCESS_COST_TIME.getBucket()).build();
-
-            InstrumentSelector deliveryLatencyInstrumentSelector = InstrumentSelector.builder()
-                .setType(InstrumentType.HISTOGRAM).setName(HistogramEnum.DELIVERY_LATENCY.getName()).build();
-            final View deliveryLatencyView = View.builder().setAggregation(HistogramEnum.DELIVERY_LATENCY.getBucket())
-                .build();
-
-            InstrumentSelector awaitTimeInstrumentSelector = InstrumentSelector.builder()
-                .setType(InstrumentType.HISTOGRAM).setName(HistogramEnum.AWAIT_TIME.getName()).build();
-            final View awaitTimeView = View.builder().setAggregation(HistogramEnum.AWAIT_TIME.getBucket()).build();
-
-            InstrumentSelector processTimeInstrumentSelector = InstrumentSelector.builder()
-                .setType(InstrumentType.HISTOGRAM).setName(HistogramEnum.PROCESS_TIME.getName()).build();
-            final View processTimeView = View.builder().setAggregation(HistogramEnum.PROCESS_TIME.getBucket()).build();
-
-            PeriodicMetricReader reader = PeriodicMetricReader.builder(exporter)
-                .setInterval(METRIC_READER_INTERVAL).build();
-
-            final SdkMeterProvider provider = SdkMeterProvider.builder()
-                .setResource(Resource.empty())
-                .registerMetricReader(reader)
-                .registerView(sendSuccessCostTimeInstrumentSelector, sendSuccessCostTimeView)
-                .registerView(deliveryLatencyInstrumentSelector, deliveryLatencyView)
-                .registerView(awaitTimeInstrumentSelector, awaitTimeView)
-                .registerView(processTimeInstrumentSelector, processTimeView)
-                .build();
+            final SdkMeterProvider provider = providerBuilder.build();
 
             final OpenTelemetrySdk openTelemetry = OpenTelemetrySdk.builder().setMeterProvider(provider).build();
             Meter meter = openTelemetry.getMeter(METRIC_INSTRUMENTATION_NAME);
@@ -137,15 +232,107 @@ public class ClientMeterProvider {
             ClientMeter existedClientMeter = clientMeter;
             clientMeter = new ClientMeter(meter, endpoints, provider);
             existedClientMeter.shutdown();
-            LOGGER.info("Metrics is on, endpoints={}, clientId={}", endpoints, clientId);
+            LOGGER.info("Metrics is on, endpoints={}, local={}, clientId={}", endpoints, null != localMetricsExporter,
+                clientId);
+
+            meter.gaugeBuilder(GaugeEnum.RPC_INFLIGHT_REQUESTS.getName()).buildWithCallback(measurement -> {
+                for (RpcMeterInterceptor interceptor : rpcMeterInterceptors.values()) {
+                    Attributes attributes = Attributes.builder()
+                        .put(MetricLabels.RPC_TARGET, interceptor.getEndpoints().getFacade())
+                        .put(MetricLabels.CLIENT_ID, clientId).build();
+                    measurement.record(interceptor.getInflight(), attributes);
+                }
+            });
+            meter.gaugeBuilder(GaugeEnum.EXECUTOR_QUEUE_SIZE.getName()).buildWithCallback(measurement -> {
+                for (Map.Entry<String, ThreadPoolExecutor> entry : executors.entrySet()) {
+                    Attributes attributes = Attributes.builder()
+                        .put(MetricLabels.EXECUTOR, entry.getKey())
+                        .put(MetricLabels.CLIENT_ID, clientId).build();
+                    measurement.record(entry.getValue().getQueue().size(), attributes);
+                }
+            });
+            meter.gaugeBuilder(GaugeEnum.EXECUTOR_ACTIVE_THREADS.getName()).buildWithCallback(measurement -> {
+                for (Map.Entry<String, ThreadPoolExecutor> entry : executors.entrySet()) {
+                    Attributes attributes = Attributes.builder()
+                        .put(MetricLabels.EXECUTOR, entry.getKey())
+                        .put(MetricLabels.CLIENT_ID, clientId).build();
+                    measurement.record(entry.getValue().getActiveCount(), attributes);
+                }
+            });
+            meter.counterBuilder(CounterEnum.SEND_RETRY_BUDGET_EXHAUSTED.getName()).buildWithCallback(measurement -> {
+                final RetryBudget budget = retryBudget;
+                if (null == budget) {
+                    return;
+                }
+                measurement.record(budget.getExhaustedTimes(), Attributes.of(MetricLabels.CLIENT_ID, clientId));
+            });
+            meter.counterBuilder(CounterEnum.SUPPRESSED_LOGS.getName()).buildWithCallback(measurement -> {
+                for (RateLimitedLogger logger : RateLimitedLogger.getAll()) {
+                    Attributes attributes = Attributes.builder()
+                        .put(MetricLabels.LOG_SITE, logger.getSite())
+                        .put(MetricLabels.CLIENT_ID, clientId).build();
+                    measurement.record(logger.getSuppressedTotal(), attributes);
+                }
+            });
 
+            meter.gaugeBuilder(GaugeEnum.CIRCUIT_BREAKER_STATE.getName()).buildWithCallback(measurement -> {
+                final CircuitBreakers breakers = circuitBreakers;
+                if (null == breakers) {
+                    return;
+                }
+                for (CircuitBreaker breaker : breakers.getAll()) {
+                    Attributes attributes = Attributes.builder()
+                        .put(MetricLabels.RPC_TARGET, breaker.getEndpoints().getFacade())
+                        .put(MetricLabels.CLIENT_ID, clientId).build();
+                    measurement.record(breaker.getState().ordinal(), attributes);
+                }
+            });
+            meter.counterBuilder(CounterEnum.CIRCUIT_BREAKER_OPENED.getName()).buildWithCallback(measurement -> {
+                final CircuitBreakers breakers = circuitBreakers;
+                if (null == breakers) {
+                    return;
+                }
+                for (CircuitBreaker breaker : breakers.getAll()) {
+                    Attributes attributes = Attributes.builder()
+                        .put(MetricLabels.RPC_TARGET, breaker.getEndpoints().getFacade())
+                        .put(MetricLabels.CLIENT_ID, clientId).build();
+                    measurement.record(breaker.getOpenedTimes(), attributes);
+                }
+            });
+
+            if (client instanceof SimpleConsumer) {
+                final String group = ((SimpleConsumer) client).getConsumerGroup();
+                final Attributes attributes = Attributes.builder()
+                    .put(MetricLabels.CONSUMER_GROUP, group)
+                    .put(MetricLabels.CLIENT_ID, clientId).build();
+                meter.gaugeBuilder(GaugeEnum.CONSUMER_PREFETCHED_MESSAGES.getName()).buildWithCallback(measurement -> {
+                    final PrefetchBufferObserver observer = prefetchBufferObserver;
+                    if (null == observer) {
+                        return;
+                    }
+                    measurement.record(observer.getPrefetchedMessageCount(), attributes);
+                });
+                meter.counterBuilder(CounterEnum.CONSUMER_PREFETCH_DISCARDED_MESSAGES.getName())
+                    .buildWithCallback(measurement -> {
+                        final PrefetchBufferObserver observer = prefetchBufferObserver;
+                        if (null == observer) {
+                            return;
+                        }
+                        measurement.record(observer.getDiscardedMessageCount(), attributes);
+                    });
+                return;
+            }
             if (!(client instanceof PushConsumer)) {
-                // No need for producer and simple consumer.
+                // No need for producer.
                 return;
             }
             final String consumerGroup = ((PushConsumer) client).getConsumerGroup();
             meter.gaugeBuilder(GaugeEnum.CONSUMER_CACHED_MESSAGES.getName()).buildWithCallback(measurement -> {
-                final Map<String, Long> cachedMessageCountMap = messageCacheObserver.getCachedMessageCount();
+                final MessageCacheObserver observer = messageCacheObserver;
+                if (null == observer) {
+                    return;
+                }
+                final Map<String, Long> cachedMessageCountMap = observer.getCachedMessageCount();
                 for (Map.Entry<String, Long> entry : cachedMessageCountMap.entrySet()) {
                     final String topic = entry.getKey();
                     Attributes attributes = Attributes.builder()
@@ -156,7 +343,11 @@ public class ClientMeterProvider {
                 }
             });
             meter.gaugeBuilder(GaugeEnum.CONSUMER_CACHED_BYTES.getName()).buildWithCallback(measurement -> {
-                final Map<String, Long> cachedMessageBytesMap = messageCacheObserver.getCachedMessageBytes();
+                final MessageCacheObserver observer = messageCacheObserver;
+                if (null == observer) {
+                    return;
+                }
+                final Map<String, Long> cachedMessageBytesMap = observer.getCachedMessageBytes();
                 for (Map.Entry<String, Long> entry : cachedMessageBytesMap.entrySet()) {
                     final String topic = entry.getKey();
                     Attributes attributes = Attributes.builder()
@@ -171,6 +362,10 @@ public class ClientMeterProvider {
         }
     }
 
+    synchronized Optional<LocalMetricsExporter> getLocalMetricsExporter() {
+        return Optional.ofNullable(localMetricsExporter);
+    }
+
     public boolean isEnabled() {
         return clientMeter.isEnabled();
     }
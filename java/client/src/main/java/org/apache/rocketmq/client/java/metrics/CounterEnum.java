@@ -0,0 +1,56 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.rocketmq.client.java.metrics;
+
+public enum CounterEnum {
+    /**
+     * A counter that records the times that a resend is refused because the retry budget of producer is exhausted.
+     *
+     * <p>Labels: {@link MetricLabels#CLIENT_ID}.
+     */
+    SEND_RETRY_BUDGET_EXHAUSTED("rocketmq_send_retry_budget_exhausted"),
+    /**
+     * A counter that records the times that the circuit breaker of each remote endpoints is opened.
+     *
+     * <p>Labels: {@link MetricLabels#RPC_TARGET}, {@link MetricLabels#CLIENT_ID}.
+     */
+    CIRCUIT_BREAKER_OPENED("rocketmq_circuit_breaker_opened"),
+    /**
+     * A counter that records the prefetched messages of simple consumer which are discarded without being received.
+     *
+     * <p>Labels: {@link MetricLabels#CLIENT_ID}, {@link MetricLabels#CONSUMER_GROUP}.
+     */
+    CONSUMER_PREFETCH_DISCARDED_MESSAGES("rocketmq_consumer_prefetch_discarded_messages"),
+    /**
+     * A counter that records the logs suppressed by each rate-limited call site, the call sites are shared by all
+     * clients of the process.
+     *
+     * <p>Labels: {@link MetricLabels#LOG_SITE}, {@link MetricLabels#CLIENT_ID}.
+     */
+    SUPPRESSED_LOGS("rocketmq_suppressed_logs");
+
+    private final String name;
+
+    CounterEnum(String name) {
+        this.name = name;
+    }
+
+    public String getName() {
+        return name;
+    }
+}
@@ -29,7 +29,38 @@ public enum GaugeEnum {
      *
      * <p>Labels: {@link MetricLabels#TOPIC}, {@link MetricLabels#CLIENT_ID}, {@link MetricLabels#CONSUMER_GROUP}.
      */
-    CONSUMER_CACHED_BYTES("rocketmq_consumer_cached_bytes");
+    CONSUMER_CACHED_BYTES("rocketmq_consumer_cached_bytes"),
+    /**
+     * A gauge that records the in-flight RPCs of each remote endpoints.
+     *
+     * <p>Labels: {@link MetricLabels#RPC_TARGET}, {@link MetricLabels#CLIENT_ID}.
+     */
+    RPC_INFLIGHT_REQUESTS("rocketmq_rpc_inflight_requests"),
+    /**
+     * A gauge that records the queued tasks of client executors.
+     *
+     * <p>Labels: {@link MetricLabels#EXECUTOR}, {@link MetricLabels#CLIENT_ID}.
+     */
+    EXECUTOR_QUEUE_SIZE("rocketmq_executor_queue_size"),
+    /**
+     * A gauge that records the active threads of client executors.
+     *
+     * <p>Labels: {@link MetricLabels#EXECUTOR}, {@link MetricLabels#CLIENT_ID}.
+     */
+    EXECUTOR_ACTIVE_THREADS("rocketmq_executor_active_threads"),
+    /**
+     * A gauge that records the state of the circuit breaker of each remote endpoints, which is 0 for closed, 1 for
+     * half-open and 2 for open.
+     *
+     * <p>Labels: {@link MetricLabels#RPC_TARGET}, {@link MetricLabels#CLIENT_ID}.
+     */
+    CIRCUIT_BREAKER_STATE("rocketmq_circuit_breaker_state"),
+    /**
+     * A gauge that records the prefetched message count of simple consumer.
+     *
+     * <p>Labels: {@link MetricLabels#CLIENT_ID}, {@link MetricLabels#CONSUMER_GROUP}.
+     */
+    CONSUMER_PREFETCHED_MESSAGES("rocketmq_consumer_prefetched_messages");
 
     private final String name;
 
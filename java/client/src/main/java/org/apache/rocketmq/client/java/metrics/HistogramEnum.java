@@ -59,7 +59,26 @@ public enum HistogramEnum {
      * <p>The time unit of bucket is milliseconds.
      */
     PROCESS_TIME("rocketmq_process_time", Aggregation.explicitBucketHistogram(Arrays.asList(1.0, 5.0,
-        10.0, 100.0, 1000.0, 10 * 1000.0, 60 * 1000.0)));
+        10.0, 100.0, 1000.0, 10 * 1000.0, 60 * 1000.0))),
+    /**
+     * A histogram that records the latency of each RPC, the count of each status code is also available from it.
+     *
+     * <p>Labels: {@link MetricLabels#RPC_METHOD}, {@link MetricLabels#RPC_TARGET},
+     * {@link MetricLabels#RPC_STATUS_CODE}, {@link MetricLabels#CLIENT_ID}.
+     *
+     * <p>The time unit of bucket is milliseconds, and fine-grained buckets are kept for sub-millisecond RPCs.
+     */
+    RPC_LATENCY("rocketmq_rpc_latency", Aggregation.explicitBucketHistogram(Arrays.asList(0.1, 0.25, 0.5,
+        1.0, 2.5, 5.0, 10.0, 25.0, 50.0, 100.0, 250.0, 500.0, 1000.0, 5 * 1000.0, 30 * 1000.0))),
+    /**
+     * A histogram that records the sampled latency of each stage of message publishing and consumption.
+     *
+     * <p>Labels: {@link MetricLabels#STAGE}, {@link MetricLabels#CLIENT_ID}.
+     *
+     * <p>The time unit of bucket is milliseconds.
+     */
+    STAGE_LATENCY("rocketmq_stage_latency", Aggregation.explicitBucketHistogram(Arrays.asList(0.01, 0.05, 0.1,
+        0.25, 0.5, 1.0, 2.5, 5.0, 10.0, 25.0, 50.0, 100.0, 250.0, 1000.0, 5 * 1000.0, 30 * 1000.0)));
 
     private final String name;
     private final Aggregation bucket;
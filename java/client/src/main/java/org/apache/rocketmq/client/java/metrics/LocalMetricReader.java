@@ -0,0 +1,114 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.rocketmq.client.java.metrics;
+
+import io.opentelemetry.sdk.common.CompletableResultCode;
+import io.opentelemetry.sdk.metrics.InstrumentType;
+import io.opentelemetry.sdk.metrics.data.AggregationTemporality;
+import io.opentelemetry.sdk.metrics.data.MetricData;
+import io.opentelemetry.sdk.metrics.export.CollectionRegistration;
+import io.opentelemetry.sdk.metrics.export.MetricExporter;
+import io.opentelemetry.sdk.metrics.export.MetricReader;
+import io.opentelemetry.sdk.metrics.export.PeriodicMetricReader;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Collections;
+
+/**
+ * Pull-based {@link MetricReader}, metrics are only aggregated once they are collected by the local exporter.
+ *
+ * <p>The SDK exposes no public way to collect metrics from a {@link CollectionRegistration} on demand, so the
+ * reader wraps a {@link PeriodicMetricReader} which never fires by itself, and captures what it exports while
+ * being flushed.
+ */
+class LocalMetricReader implements MetricReader {
+    /**
+     * Long enough that metrics are never exported periodically.
+     */
+    private static final Duration EXPORT_INTERVAL = Duration.ofDays(365);
+
+    private final CapturingMetricExporter exporter;
+    private final PeriodicMetricReader delegate;
+    private volatile boolean shutdown = false;
+
+    LocalMetricReader() {
+        this.exporter = new CapturingMetricExporter();
+        this.delegate = PeriodicMetricReader.builder(exporter).setInterval(EXPORT_INTERVAL).build();
+    }
+
+    @Override
+    public void register(CollectionRegistration registration) {
+        delegate.register(registration);
+    }
+
+    /**
+     * Flushing the delegate collects and exports synchronously, the lock makes sure that concurrent callers do not
+     * observe the capture of each other.
+     */
+    synchronized Collection<MetricData> collectAllMetrics() {
+        if (shutdown) {
+            return Collections.emptyList();
+        }
+        // Nothing is exported if there is no metric at all.
+        exporter.captured = Collections.emptyList();
+        delegate.forceFlush();
+        return exporter.captured;
+    }
+
+    @Override
+    public AggregationTemporality getAggregationTemporality(InstrumentType instrumentType) {
+        return AggregationTemporality.CUMULATIVE;
+    }
+
+    @Override
+    public CompletableResultCode forceFlush() {
+        return CompletableResultCode.ofSuccess();
+    }
+
+    @Override
+    public CompletableResultCode shutdown() {
+        shutdown = true;
+        return delegate.shutdown();
+    }
+
+    private static class CapturingMetricExporter implements MetricExporter {
+        private volatile Collection<MetricData> captured = Collections.emptyList();
+
+        @Override
+        public CompletableResultCode export(Collection<MetricData> metrics) {
+            captured = metrics;
+            return CompletableResultCode.ofSuccess();
+        }
+
+        @Override
+        public CompletableResultCode flush() {
+            return CompletableResultCode.ofSuccess();
+        }
+
+        @Override
+        public CompletableResultCode shutdown() {
+            captured = Collections.emptyList();
+            return CompletableResultCode.ofSuccess();
+        }
+
+        @Override
+        public AggregationTemporality getAggregationTemporality(InstrumentType instrumentType) {
+            return AggregationTemporality.CUMULATIVE;
+        }
+    }
+}
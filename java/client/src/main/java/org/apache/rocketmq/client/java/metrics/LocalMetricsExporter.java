@@ -0,0 +1,163 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.rocketmq.client.java.metrics;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import io.opentelemetry.sdk.metrics.data.MetricData;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import org.apache.rocketmq.client.apis.ClientConfiguration;
+import org.apache.rocketmq.client.java.misc.ThreadFactoryImpl;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Export client metrics locally, which works regardless of the metric settings issued by the server.
+ *
+ * <p>Metrics are pulled on demand, either in Prometheus text format over HTTP or through a JMX MBean.
+ */
+public class LocalMetricsExporter {
+    private static final Logger LOGGER = LoggerFactory.getLogger(LocalMetricsExporter.class);
+
+    private static final String METRICS_PATH = "/metrics";
+    private static final String OBJECT_NAME_PREFIX = "org.apache.rocketmq.client:type=Metrics,clientId=";
+
+    private final String clientId;
+    private final Integer port;
+    private final boolean jmxEnabled;
+
+    /**
+     * The reader is replaced once the meter provider is reset.
+     */
+    private volatile LocalMetricReader reader;
+
+    private HttpServer httpServer;
+    private ExecutorService httpExecutor;
+    private ObjectName objectName;
+
+    LocalMetricsExporter(String clientId, Integer port, boolean jmxEnabled) {
+        this.clientId = clientId;
+        this.port = port;
+        this.jmxEnabled = jmxEnabled;
+        this.reader = null;
+    }
+
+    static Optional<LocalMetricsExporter> create(String clientId, ClientConfiguration clientConfiguration) {
+        final Optional<Integer> optionalPort = clientConfiguration.getLocalMetricsPort();
+        final boolean jmxEnabled = clientConfiguration.isLocalMetricsJmxEnabled();
+        if (!optionalPort.isPresent() && !jmxEnabled) {
+            return Optional.empty();
+        }
+        return Optional.of(new LocalMetricsExporter(clientId, optionalPort.orElse(null), jmxEnabled));
+    }
+
+    /**
+     * Create a new reader to be registered into the meter provider, metrics are collected from it since then.
+     */
+    LocalMetricReader newMetricReader() {
+        final LocalMetricReader metricReader = new LocalMetricReader();
+        this.reader = metricReader;
+        return metricReader;
+    }
+
+    Collection<MetricData> collectAllMetrics() {
+        final LocalMetricReader metricReader = reader;
+        return null == metricReader ? Collections.emptyList() : metricReader.collectAllMetrics();
+    }
+
+    public synchronized void start() {
+        if (null != port && null == httpServer) {
+            try {
+                final HttpServer server = HttpServer.create(new InetSocketAddress(port), 0);
+                final ThreadPoolExecutor executor = new ThreadPoolExecutor(1, 1, 60, TimeUnit.SECONDS,
+                    new LinkedBlockingQueue<>(), new ThreadFactoryImpl("LocalMetricsExporter"));
+                server.setExecutor(executor);
+                server.createContext(METRICS_PATH, this::handle);
+                server.start();
+                this.httpServer = server;
+                this.httpExecutor = executor;
+                LOGGER.info("Local metrics exporter is serving on {}{}, clientId={}", server.getAddress(),
+                    METRICS_PATH, clientId);
+            } catch (Throwable t) {
+                LOGGER.error("Failed to start local metrics exporter, port={}, clientId={}", port, clientId, t);
+            }
+        }
+        if (jmxEnabled && null == objectName) {
+            try {
+                final ObjectName name = new ObjectName(OBJECT_NAME_PREFIX + ObjectName.quote(clientId));
+                final MBeanServer mBeanServer = ManagementFactory.getPlatformMBeanServer();
+                mBeanServer.registerMBean(new LocalMetricsMBean(this::collectAllMetrics), name);
+                this.objectName = name;
+                LOGGER.info("Local metrics MBean is registered, objectName={}, clientId={}", name, clientId);
+            } catch (Throwable t) {
+                LOGGER.error("Failed to register local metrics MBean, clientId={}", clientId, t);
+            }
+        }
+    }
+
+    public synchronized void shutdown() {
+        if (null != httpServer) {
+            httpServer.stop(0);
+            httpExecutor.shutdown();
+            httpServer = null;
+            httpExecutor = null;
+        }
+        if (null != objectName) {
+            try {
+                ManagementFactory.getPlatformMBeanServer().unregisterMBean(objectName);
+            } catch (Throwable t) {
+                LOGGER.error("Failed to unregister local metrics MBean, clientId={}", clientId, t);
+            }
+            objectName = null;
+        }
+    }
+
+    synchronized Optional<InetSocketAddress> getAddress() {
+        return null == httpServer ? Optional.empty() : Optional.of(httpServer.getAddress());
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try {
+            if (!"GET".equals(exchange.getRequestMethod())) {
+                exchange.sendResponseHeaders(405, -1);
+                return;
+            }
+            final byte[] body = PrometheusTextFormatter.format(collectAllMetrics()).getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type", PrometheusTextFormatter.CONTENT_TYPE);
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream os = exchange.getResponseBody()) {
+                os.write(body);
+            }
+        } finally {
+            exchange.close();
+        }
+    }
+}
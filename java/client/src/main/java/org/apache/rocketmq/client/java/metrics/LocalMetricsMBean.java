@@ -0,0 +1,153 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.rocketmq.client.java.metrics;
+
+import io.opentelemetry.api.common.Attributes;
+import io.opentelemetry.sdk.metrics.data.DoublePointData;
+import io.opentelemetry.sdk.metrics.data.HistogramPointData;
+import io.opentelemetry.sdk.metrics.data.LongPointData;
+import io.opentelemetry.sdk.metrics.data.MetricData;
+import java.util.Collection;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.Supplier;
+import javax.management.Attribute;
+import javax.management.AttributeList;
+import javax.management.AttributeNotFoundException;
+import javax.management.DynamicMBean;
+import javax.management.MBeanAttributeInfo;
+import javax.management.MBeanConstructorInfo;
+import javax.management.MBeanInfo;
+import javax.management.MBeanNotificationInfo;
+import javax.management.MBeanOperationInfo;
+
+/**
+ * Read-only MBean which exposes each metric point as an attribute, histograms are exposed by their count and sum.
+ *
+ * <p>Attribute values are computed on demand, so no overhead is introduced unless the MBean is read.
+ */
+class LocalMetricsMBean implements DynamicMBean {
+    private final Supplier<Collection<MetricData>> metricsSupplier;
+
+    LocalMetricsMBean(Supplier<Collection<MetricData>> metricsSupplier) {
+        this.metricsSupplier = metricsSupplier;
+    }
+
+    Map<String, Double> snapshot() {
+        final Map<String, Double> values = new TreeMap<>();
+        for (MetricData metric : metricsSupplier.get()) {
+            final String name = metric.getName();
+            switch (metric.getType()) {
+                case DOUBLE_GAUGE:
+                    for (DoublePointData point : metric.getDoubleGaugeData().getPoints()) {
+                        values.put(attributeName(name, point.getAttributes(), ""), point.getValue());
+                    }
+                    break;
+                case LONG_GAUGE:
+                    for (LongPointData point : metric.getLongGaugeData().getPoints()) {
+                        values.put(attributeName(name, point.getAttributes(), ""), (double) point.getValue());
+                    }
+                    break;
+                case DOUBLE_SUM:
+                    for (DoublePointData point : metric.getDoubleSumData().getPoints()) {
+                        values.put(attributeName(name, point.getAttributes(), ""), point.getValue());
+                    }
+                    break;
+                case LONG_SUM:
+                    for (LongPointData point : metric.getLongSumData().getPoints()) {
+                        values.put(attributeName(name, point.getAttributes(), ""), (double) point.getValue());
+                    }
+                    break;
+                case HISTOGRAM:
+                    for (HistogramPointData point : metric.getHistogramData().getPoints()) {
+                        values.put(attributeName(name, point.getAttributes(), ".count"), (double) point.getCount());
+                        values.put(attributeName(name, point.getAttributes(), ".sum"), point.getSum());
+                    }
+                    break;
+                default:
+                    break;
+            }
+        }
+        return values;
+    }
+
+    private static String attributeName(String name, Attributes attributes, String suffix) {
+        if (attributes.isEmpty()) {
+            return name + suffix;
+        }
+        final StringBuilder sb = new StringBuilder(name).append('{');
+        final boolean[] first = {true};
+        attributes.forEach((key, value) -> {
+            if (!first[0]) {
+                sb.append(',');
+            }
+            first[0] = false;
+            sb.append(key.getKey()).append('=').append(value);
+        });
+        return sb.append('}').append(suffix).toString();
+    }
+
+    @Override
+    public Object getAttribute(String attribute) throws AttributeNotFoundException {
+        final Double value = snapshot().get(attribute);
+        if (null == value) {
+            throw new AttributeNotFoundException(attribute);
+        }
+        return value;
+    }
+
+    @Override
+    public void setAttribute(Attribute attribute) {
+        throw new UnsupportedOperationException("Metrics are read-only");
+    }
+
+    @Override
+    public AttributeList getAttributes(String[] attributes) {
+        final Map<String, Double> values = snapshot();
+        final AttributeList list = new AttributeList();
+        for (String attribute : attributes) {
+            final Double value = values.get(attribute);
+            if (null != value) {
+                list.add(new Attribute(attribute, value));
+            }
+        }
+        return list;
+    }
+
+    @Override
+    public AttributeList setAttributes(AttributeList attributes) {
+        return new AttributeList();
+    }
+
+    @Override
+    public Object invoke(String actionName, Object[] params, String[] signature) {
+        throw new UnsupportedOperationException("No operation is supported");
+    }
+
+    @Override
+    public MBeanInfo getMBeanInfo() {
+        final Map<String, Double> values = snapshot();
+        final MBeanAttributeInfo[] attributeInfos = new MBeanAttributeInfo[values.size()];
+        int i = 0;
+        for (String name : values.keySet()) {
+            attributeInfos[i++] = new MBeanAttributeInfo(name, Double.class.getName(), name, true, false, false);
+        }
+        return new MBeanInfo(LocalMetricsMBean.class.getName(), "Metrics of rocketmq client", attributeInfos,
+            new MBeanConstructorInfo[0], new MBeanOperationInfo[0], new MBeanNotificationInfo[0]);
+    }
+}
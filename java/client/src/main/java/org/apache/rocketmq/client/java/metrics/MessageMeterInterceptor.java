@@ -22,8 +22,12 @@ import com.google.protobuf.util.Timestamps;
 import io.opentelemetry.api.common.Attributes;
 import io.opentelemetry.api.metrics.DoubleHistogram;
 import java.time.Duration;
+import java.util.EnumMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import org.apache.rocketmq.client.apis.consumer.PushConsumer;
 import org.apache.rocketmq.client.apis.consumer.SimpleConsumer;
 import org.apache.rocketmq.client.java.hook.MessageHookPoints;
@@ -39,25 +43,99 @@ public class MessageMeterInterceptor implements MessageInterceptor {
 
     private final ClientMeterProvider clientMeterProvider;
 
+    /**
+     * Attributes are immutable, cache them by topic and invocation status to avoid rebuilding them per message.
+     */
+    private final Map<InvocationStatus, ConcurrentMap<String /* topic */, Attributes>> sendAttributesTable;
+    private final Map<InvocationStatus, ConcurrentMap<String /* topic */, Attributes>> processAttributesTable;
+    private final ConcurrentMap<String /* topic */, Attributes> consumeAttributesTable;
+
+    /**
+     * Consumer group is resolved lazily because the interceptor is created in the constructor of {@link ClientImpl},
+     * before the consumer group of its subclass is assigned.
+     */
+    private volatile String consumerGroup;
+
     public MessageMeterInterceptor(ClientMeterProvider clientMeterProvider) {
         this.clientMeterProvider = clientMeterProvider;
+        this.sendAttributesTable = new EnumMap<>(InvocationStatus.class);
+        this.processAttributesTable = new EnumMap<>(InvocationStatus.class);
+        for (InvocationStatus invocationStatus : InvocationStatus.values()) {
+            sendAttributesTable.put(invocationStatus, new ConcurrentHashMap<>());
+            processAttributesTable.put(invocationStatus, new ConcurrentHashMap<>());
+        }
+        this.consumeAttributesTable = new ConcurrentHashMap<>();
+    }
+
+    private static InvocationStatus toInvocationStatus(MessageHookPointsStatus status) {
+        return MessageHookPointsStatus.OK.equals(status) ? InvocationStatus.SUCCESS : InvocationStatus.FAILURE;
+    }
+
+    private String getConsumerGroup() {
+        String group = consumerGroup;
+        if (null != group) {
+            return group;
+        }
+        final ClientImpl client = clientMeterProvider.getClient();
+        if (client instanceof PushConsumer) {
+            group = ((PushConsumer) client).getConsumerGroup();
+        }
+        if (client instanceof SimpleConsumer) {
+            group = ((SimpleConsumer) client).getConsumerGroup();
+        }
+        consumerGroup = group;
+        return group;
+    }
+
+    Attributes getSendAttributes(String topic, InvocationStatus invocationStatus) {
+        final ConcurrentMap<String, Attributes> table = sendAttributesTable.get(invocationStatus);
+        final Attributes attributes = table.get(topic);
+        if (null != attributes) {
+            return attributes;
+        }
+        return table.computeIfAbsent(topic, t -> Attributes.builder().put(MetricLabels.TOPIC, t)
+            .put(MetricLabels.CLIENT_ID, clientMeterProvider.getClient().clientId())
+            .put(MetricLabels.INVOCATION_STATUS, invocationStatus.getName()).build());
+    }
+
+    Attributes getConsumeAttributes(String topic, String consumerGroup) {
+        final Attributes attributes = consumeAttributesTable.get(topic);
+        if (null != attributes) {
+            return attributes;
+        }
+        return consumeAttributesTable.computeIfAbsent(topic, t -> Attributes.builder().put(MetricLabels.TOPIC, t)
+            .put(MetricLabels.CONSUMER_GROUP, consumerGroup)
+            .put(MetricLabels.CLIENT_ID, clientMeterProvider.getClient().clientId()).build());
+    }
+
+    Attributes getProcessAttributes(String topic, String consumerGroup, InvocationStatus invocationStatus) {
+        final ConcurrentMap<String, Attributes> table = processAttributesTable.get(invocationStatus);
+        final Attributes attributes = table.get(topic);
+        if (null != attributes) {
+            return attributes;
+        }
+        return table.computeIfAbsent(topic, t -> Attributes.builder().put(MetricLabels.TOPIC, t)
+            .put(MetricLabels.CONSUMER_GROUP, consumerGroup)
+            .put(MetricLabels.CLIENT_ID, clientMeterProvider.getClient().clientId())
+            .put(MetricLabels.INVOCATION_STATUS, invocationStatus.getName()).build());
     }
 
     private void doAfterSendMessage(List<MessageCommon> messageCommons, Duration duration,
         MessageHookPointsStatus status) {
-        final Optional<DoubleHistogram> optionalHistogram =
-            clientMeterProvider.getHistogramByEnum(HistogramEnum.SEND_SUCCESS_COST_TIME);
-        if (!optionalHistogram.isPresent()) {
+        if (messageCommons.isEmpty()) {
             return;
         }
-        final DoubleHistogram histogram = optionalHistogram.get();
-        for (MessageCommon messageCommon : messageCommons) {
-            InvocationStatus invocationStatus = MessageHookPointsStatus.OK.equals(status) ? InvocationStatus.SUCCESS :
-                InvocationStatus.FAILURE;
-            Attributes attributes = Attributes.builder().put(MetricLabels.TOPIC, messageCommon.getTopic())
-                .put(MetricLabels.CLIENT_ID, clientMeterProvider.getClient().clientId())
-                .put(MetricLabels.INVOCATION_STATUS, invocationStatus.getName()).build();
-            histogram.record(duration.toMillis(), attributes);
+        final DoubleHistogram histogram = clientMeterProvider.getHistogram(HistogramEnum.SEND_SUCCESS_COST_TIME);
+        if (null == histogram) {
+            return;
+        }
+        // Messages in the same batch share the same topic, so attributes are resolved only once.
+        final String topic = messageCommons.get(0).getTopic();
+        final Attributes attributes = getSendAttributes(topic, toInvocationStatus(status));
+        final long millis = duration.toMillis();
+        // OpenTelemetry histograms have no weighted recording, one measurement is still required per message.
+        for (int i = 0; i < messageCommons.size(); i++) {
+            histogram.record(millis, attributes);
         }
     }
 
@@ -65,63 +143,44 @@ public class MessageMeterInterceptor implements MessageInterceptor {
         if (messageCommons.isEmpty()) {
             return;
         }
-        final ClientImpl client = clientMeterProvider.getClient();
-        String consumerGroup = null;
-        if (client instanceof PushConsumer) {
-            consumerGroup = ((PushConsumer) client).getConsumerGroup();
-        }
-        if (client instanceof SimpleConsumer) {
-            consumerGroup = ((SimpleConsumer) client).getConsumerGroup();
-        }
-        if (null == consumerGroup) {
-            LOGGER.error("[Bug] consumerGroup is not recognized, clientId={}", client.clientId());
+        final String group = getConsumerGroup();
+        if (null == group) {
+            LOGGER.error("[Bug] consumerGroup is not recognized, clientId={}",
+                clientMeterProvider.getClient().clientId());
             return;
         }
-        final MessageCommon messageCommon = messageCommons.iterator().next();
+        final MessageCommon messageCommon = messageCommons.get(0);
         final Optional<Timestamp> optionalDeliveryTimestampFromRemote = messageCommon.getDeliveryTimestampFromRemote();
         if (!optionalDeliveryTimestampFromRemote.isPresent()) {
             return;
         }
-        final Timestamp deliveryTimestampFromRemote = optionalDeliveryTimestampFromRemote.get();
-        final long latency = System.currentTimeMillis() - Timestamps.toMillis(deliveryTimestampFromRemote);
-        final Optional<DoubleHistogram> optionalHistogram =
-            clientMeterProvider.getHistogramByEnum(HistogramEnum.DELIVERY_LATENCY);
-        if (!optionalHistogram.isPresent()) {
+        final DoubleHistogram histogram = clientMeterProvider.getHistogram(HistogramEnum.DELIVERY_LATENCY);
+        if (null == histogram) {
             return;
         }
-        final DoubleHistogram histogram = optionalHistogram.get();
-        final Attributes attributes = Attributes.builder().put(MetricLabels.TOPIC, messageCommon.getTopic())
-            .put(MetricLabels.CONSUMER_GROUP, consumerGroup)
-            .put(MetricLabels.CLIENT_ID, client.clientId()).build();
-        histogram.record(latency, attributes);
+        final Timestamp deliveryTimestampFromRemote = optionalDeliveryTimestampFromRemote.get();
+        final long latency = System.currentTimeMillis() - Timestamps.toMillis(deliveryTimestampFromRemote);
+        histogram.record(latency, getConsumeAttributes(messageCommon.getTopic(), group));
     }
 
     private void doBeforeConsumeMessage(List<MessageCommon> messageCommons) {
-        final ClientImpl client = clientMeterProvider.getClient();
-        String consumerGroup = null;
-        if (client instanceof PushConsumer) {
-            consumerGroup = ((PushConsumer) client).getConsumerGroup();
-        }
-        if (null == consumerGroup) {
-            LOGGER.error("[Bug] consumerGroup is not recognized, clientId={}", client.clientId());
+        if (!(clientMeterProvider.getClient() instanceof PushConsumer)) {
+            LOGGER.error("[Bug] consumerGroup is not recognized, clientId={}",
+                clientMeterProvider.getClient().clientId());
             return;
         }
-        final MessageCommon messageCommon = messageCommons.iterator().next();
+        final String group = getConsumerGroup();
+        final MessageCommon messageCommon = messageCommons.get(0);
         final Optional<Duration> optionalDurationAfterDecoding = messageCommon.getDurationAfterDecoding();
         if (!optionalDurationAfterDecoding.isPresent()) {
             return;
         }
-        final Duration durationAfterDecoding = optionalDurationAfterDecoding.get();
-        Attributes attributes = Attributes.builder().put(MetricLabels.TOPIC, messageCommon.getTopic())
-            .put(MetricLabels.CONSUMER_GROUP, consumerGroup)
-            .put(MetricLabels.CLIENT_ID, client.clientId()).build();
-        final Optional<DoubleHistogram> optionalHistogram =
-            clientMeterProvider.getHistogramByEnum(HistogramEnum.AWAIT_TIME);
-        if (!optionalHistogram.isPresent()) {
+        final DoubleHistogram histogram = clientMeterProvider.getHistogram(HistogramEnum.AWAIT_TIME);
+        if (null == histogram) {
             return;
         }
-        final DoubleHistogram histogram = optionalHistogram.get();
-        histogram.record(durationAfterDecoding.toMillis(), attributes);
+        final Duration durationAfterDecoding = optionalDurationAfterDecoding.get();
+        histogram.record(durationAfterDecoding.toMillis(), getConsumeAttributes(messageCommon.getTopic(), group));
     }
 
     private void doAfterProcessMessage(List<MessageCommon> messageCommons, Duration duration,
@@ -132,25 +191,23 @@ public class MessageMeterInterceptor implements MessageInterceptor {
             LOGGER.error("[Bug] current client is not push consumer, clientId={}", client.clientId());
             return;
         }
-        PushConsumer pushConsumer = (PushConsumer) client;
+        final DoubleHistogram histogram = clientMeterProvider.getHistogram(HistogramEnum.PROCESS_TIME);
+        if (null == histogram) {
+            return;
+        }
+        final String group = getConsumerGroup();
+        final InvocationStatus invocationStatus = toInvocationStatus(status);
+        final long millis = duration.toMillis();
         for (MessageCommon messageCommon : messageCommons) {
-            InvocationStatus invocationStatus = MessageHookPointsStatus.OK.equals(status) ? InvocationStatus.SUCCESS :
-                InvocationStatus.FAILURE;
-            Attributes attributes = Attributes.builder().put(MetricLabels.TOPIC, messageCommon.getTopic())
-                .put(MetricLabels.CONSUMER_GROUP, pushConsumer.getConsumerGroup())
-                .put(MetricLabels.CLIENT_ID, clientMeterProvider.getClient().clientId())
-                .put(MetricLabels.INVOCATION_STATUS, invocationStatus.getName())
-                .build();
-            final Optional<DoubleHistogram> optionalHistogram =
-                clientMeterProvider.getHistogramByEnum(HistogramEnum.PROCESS_TIME);
-            if (!optionalHistogram.isPresent()) {
-                return;
-            }
-            final DoubleHistogram histogram = optionalHistogram.get();
-            histogram.record(duration.toMillis(), attributes);
+            histogram.record(millis, getProcessAttributes(messageCommon.getTopic(), group, invocationStatus));
         }
     }
 
+    @Override
+    public boolean isEnabled() {
+        return clientMeterProvider.isEnabled();
+    }
+
     @Override
     public void doBefore(MessageHookPoints messageHookPoints, List<MessageCommon> messageCommons) {
         if (!clientMeterProvider.isEnabled()) {
@@ -26,6 +26,12 @@ public class MetricLabels {
     public static final AttributeKey<String> CLIENT_ID = stringKey("client_id");
     public static final AttributeKey<String> CONSUMER_GROUP = stringKey("consumer_group");
     public static final AttributeKey<String> INVOCATION_STATUS = stringKey("invocation_status");
+    public static final AttributeKey<String> RPC_METHOD = stringKey("rpc_method");
+    public static final AttributeKey<String> RPC_TARGET = stringKey("rpc_target");
+    public static final AttributeKey<String> RPC_STATUS_CODE = stringKey("rpc_status_code");
+    public static final AttributeKey<String> EXECUTOR = stringKey("executor");
+    public static final AttributeKey<String> STAGE = stringKey("stage");
+    public static final AttributeKey<String> LOG_SITE = stringKey("log_site");
 
     private MetricLabels() {
     }
@@ -0,0 +1,84 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.rocketmq.client.java.metrics;
+
+/**
+ * Stages of message publishing and consumption inside the client, which are profiled by {@link StageProfiler}.
+ *
+ * <p>The duration of each stage is measured from the end of the previous stage.
+ */
+public enum PipelineStage {
+    /**
+     * Build {@code PublishingMessageImpl} from the message of user.
+     */
+    SEND_BUILD("send_build"),
+    /**
+     * Look up the publishing route of topic.
+     */
+    SEND_ROUTE("send_route"),
+    /**
+     * Sign the request.
+     */
+    SEND_SIGN("send_sign"),
+    /**
+     * Serialize messages to protobuf.
+     */
+    SEND_SERIALIZE("send_serialize"),
+    /**
+     * From the start of gRPC call to the arrival of response.
+     */
+    SEND_RPC("send_rpc"),
+    /**
+     * Hand off the response to the client callback executor.
+     */
+    SEND_CALLBACK_HOP("send_callback_hop"),
+    /**
+     * From the start of receive request to the arrival of response, long-polling included.
+     */
+    RECEIVE_RPC("receive_rpc"),
+    /**
+     * Decode messages and verify their checksum.
+     */
+    RECEIVE_DECODE("receive_decode"),
+    /**
+     * Wait in the cache of process queue until the message is dispatched.
+     */
+    CONSUME_CACHE_WAIT("consume_cache_wait"),
+    /**
+     * Wait in the consumption executor until the listener is invoked.
+     */
+    CONSUME_DISPATCH("consume_dispatch"),
+    /**
+     * Execute the message listener.
+     */
+    CONSUME_LISTENER("consume_listener"),
+    /**
+     * From the end of consumption to the response of ack.
+     */
+    CONSUME_ACK("consume_ack");
+
+    private final String name;
+
+    PipelineStage(String name) {
+        this.name = name;
+    }
+
+    public String getName() {
+        return name;
+    }
+}
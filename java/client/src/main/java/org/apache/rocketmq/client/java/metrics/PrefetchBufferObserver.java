@@ -0,0 +1,40 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.rocketmq.client.java.metrics;
+
+import org.apache.rocketmq.client.apis.consumer.SimpleConsumer;
+
+/**
+ * The observer which could record the occupancy and discards of the prefetch buffer in {@link SimpleConsumer}.
+ */
+public interface PrefetchBufferObserver {
+    /**
+     * Get the count of the messages in the prefetch buffer.
+     *
+     * @return the prefetched message count.
+     */
+    int getPrefetchedMessageCount();
+
+    /**
+     * Get the count of the prefetched messages which are discarded without being received, because they sit in the
+     * buffer too long or the consumer is shutdown.
+     *
+     * @return the discarded message count.
+     */
+    long getDiscardedMessageCount();
+}
@@ -0,0 +1,171 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.rocketmq.client.java.metrics;
+
+import io.opentelemetry.api.common.Attributes;
+import io.opentelemetry.sdk.metrics.data.DoublePointData;
+import io.opentelemetry.sdk.metrics.data.HistogramPointData;
+import io.opentelemetry.sdk.metrics.data.LongPointData;
+import io.opentelemetry.sdk.metrics.data.MetricData;
+import io.opentelemetry.sdk.metrics.data.SumData;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Write {@link MetricData} in the
+ * <a href="https://prometheus.io/docs/instrumenting/exposition_formats/#text-based-format">Prometheus text format</a>.
+ */
+final class PrometheusTextFormatter {
+    static final String CONTENT_TYPE = "text/plain; version=0.0.4; charset=utf-8";
+
+    private PrometheusTextFormatter() {
+    }
+
+    static String format(Collection<MetricData> metrics) {
+        final StringBuilder sb = new StringBuilder();
+        for (MetricData metric : metrics) {
+            final String name = sanitizeName(metric.getName());
+            switch (metric.getType()) {
+                case DOUBLE_GAUGE:
+                    writeType(sb, name, "gauge");
+                    for (DoublePointData point : metric.getDoubleGaugeData().getPoints()) {
+                        writeSample(sb, name, point.getAttributes(), null, point.getValue());
+                    }
+                    break;
+                case LONG_GAUGE:
+                    writeType(sb, name, "gauge");
+                    for (LongPointData point : metric.getLongGaugeData().getPoints()) {
+                        writeSample(sb, name, point.getAttributes(), null, point.getValue());
+                    }
+                    break;
+                case DOUBLE_SUM:
+                    final SumData<DoublePointData> doubleSumData = metric.getDoubleSumData();
+                    writeType(sb, name, doubleSumData.isMonotonic() ? "counter" : "gauge");
+                    for (DoublePointData point : doubleSumData.getPoints()) {
+                        writeSample(sb, name, point.getAttributes(), null, point.getValue());
+                    }
+                    break;
+                case LONG_SUM:
+                    final SumData<LongPointData> longSumData = metric.getLongSumData();
+                    writeType(sb, name, longSumData.isMonotonic() ? "counter" : "gauge");
+                    for (LongPointData point : longSumData.getPoints()) {
+                        writeSample(sb, name, point.getAttributes(), null, point.getValue());
+                    }
+                    break;
+                case HISTOGRAM:
+                    writeType(sb, name, "histogram");
+                    for (HistogramPointData point : metric.getHistogramData().getPoints()) {
+                        writeHistogram(sb, name, point);
+                    }
+                    break;
+                default:
+                    // Other types are not produced by the client.
+                    break;
+            }
+        }
+        return sb.toString();
+    }
+
+    private static void writeHistogram(StringBuilder sb, String name, HistogramPointData point) {
+        final Attributes attributes = point.getAttributes();
+        final List<Double> boundaries = point.getBoundaries();
+        final List<Long> counts = point.getCounts();
+        final String bucketName = name + "_bucket";
+        long cumulativeCount = 0;
+        for (int i = 0; i < counts.size(); i++) {
+            cumulativeCount += counts.get(i);
+            final String le = i < boundaries.size() ? Double.toString(boundaries.get(i)) : "+Inf";
+            writeSample(sb, bucketName, attributes, le, cumulativeCount);
+        }
+        writeSample(sb, name + "_sum", attributes, null, point.getSum());
+        writeSample(sb, name + "_count", attributes, null, point.getCount());
+    }
+
+    private static void writeType(StringBuilder sb, String name, String type) {
+        sb.append("# TYPE ").append(name).append(' ').append(type).append('\n');
+    }
+
+    private static void writeSample(StringBuilder sb, String name, Attributes attributes, String le, double value) {
+        sb.append(name);
+        if (!attributes.isEmpty() || null != le) {
+            sb.append('{');
+            final boolean[] first = {true};
+            attributes.forEach((key, v) -> {
+                if (!first[0]) {
+                    sb.append(',');
+                }
+                first[0] = false;
+                writeLabel(sb, sanitizeLabelName(key.getKey()), String.valueOf(v));
+            });
+            if (null != le) {
+                if (!first[0]) {
+                    sb.append(',');
+                }
+                writeLabel(sb, "le", le);
+            }
+            sb.append('}');
+        }
+        sb.append(' ').append(value).append('\n');
+    }
+
+    private static void writeLabel(StringBuilder sb, String key, String value) {
+        sb.append(key).append("=\"");
+        for (int i = 0; i < value.length(); i++) {
+            final char c = value.charAt(i);
+            switch (c) {
+                case '\\':
+                    sb.append("\\\\");
+                    break;
+                case '"':
+                    sb.append("\\\"");
+                    break;
+                case '\n':
+                    sb.append("\\n");
+                    break;
+                default:
+                    sb.append(c);
+            }
+        }
+        sb.append('"');
+    }
+
+    /**
+     * Metric names match {@code [a-zA-Z_:][a-zA-Z0-9_:]*}.
+     */
+    static String sanitizeName(String name) {
+        return sanitize(name, true);
+    }
+
+    /**
+     * Label names match {@code [a-zA-Z_][a-zA-Z0-9_]*}, colons are reserved for metric names.
+     */
+    static String sanitizeLabelName(String name) {
+        return sanitize(name, false);
+    }
+
+    private static String sanitize(String name, boolean colonAllowed) {
+        final StringBuilder sb = new StringBuilder(name.length());
+        for (int i = 0; i < name.length(); i++) {
+            final char c = name.charAt(i);
+            final boolean valid = (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || c == '_'
+                || (colonAllowed && c == ':') || (i > 0 && c >= '0' && c <= '9');
+            sb.append(valid ? c : '_');
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,122 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.rocketmq.client.java.metrics;
+
+import io.grpc.CallOptions;
+import io.grpc.Channel;
+import io.grpc.ClientCall;
+import io.grpc.ClientInterceptor;
+import io.grpc.ForwardingClientCall;
+import io.grpc.ForwardingClientCallListener;
+import io.grpc.Metadata;
+import io.grpc.MethodDescriptor;
+import io.grpc.Status;
+import io.opentelemetry.api.common.Attributes;
+import io.opentelemetry.api.metrics.DoubleHistogram;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import org.apache.rocketmq.client.java.route.Endpoints;
+
+/**
+ * gRPC interceptor which records the latency and in-flight count of RPCs to the specified endpoints.
+ *
+ * <p>Bidirectional streams such as telemetry are not recorded because they last as long as the session.
+ */
+public class RpcMeterInterceptor implements ClientInterceptor {
+    private static final double NANOS_PER_MILLI = 1000 * 1000.0;
+    private static final Status.Code[] STATUS_CODES = Status.Code.values();
+
+    private final ClientMeterProvider clientMeterProvider;
+    private final Endpoints endpoints;
+    private final AtomicInteger inflight;
+
+    /**
+     * Attributes indexed by method name and status code.
+     */
+    private final ConcurrentMap<String /* method */, AtomicReferenceArray<Attributes>> attributesTable;
+
+    RpcMeterInterceptor(ClientMeterProvider clientMeterProvider, Endpoints endpoints) {
+        this.clientMeterProvider = clientMeterProvider;
+        this.endpoints = endpoints;
+        this.inflight = new AtomicInteger(0);
+        this.attributesTable = new ConcurrentHashMap<>();
+    }
+
+    Endpoints getEndpoints() {
+        return endpoints;
+    }
+
+    int getInflight() {
+        return inflight.get();
+    }
+
+    Attributes getRpcAttributes(String method, Status.Code code) {
+        AtomicReferenceArray<Attributes> array = attributesTable.get(method);
+        if (null == array) {
+            array = attributesTable.computeIfAbsent(method, m -> new AtomicReferenceArray<>(STATUS_CODES.length));
+        }
+        final int index = code.ordinal();
+        Attributes attributes = array.get(index);
+        if (null == attributes) {
+            attributes = Attributes.builder().put(MetricLabels.RPC_METHOD, method)
+                .put(MetricLabels.RPC_TARGET, endpoints.getFacade())
+                .put(MetricLabels.RPC_STATUS_CODE, code.name())
+                .put(MetricLabels.CLIENT_ID, clientMeterProvider.getClient().clientId()).build();
+            array.compareAndSet(index, null, attributes);
+        }
+        return array.get(index);
+    }
+
+    @Override
+    public <T, E> ClientCall<T, E> interceptCall(MethodDescriptor<T, E> method, CallOptions callOptions,
+        Channel next) {
+        if (!clientMeterProvider.isEnabled() || MethodDescriptor.MethodType.BIDI_STREAMING.equals(method.getType())) {
+            return next.newCall(method, callOptions);
+        }
+        final String methodName = method.getBareMethodName();
+        return new ForwardingClientCall.SimpleForwardingClientCall<T, E>(next.newCall(method, callOptions)) {
+            @Override
+            public void start(Listener<E> responseListener, Metadata headers) {
+                final long startNanoTime = System.nanoTime();
+                inflight.incrementAndGet();
+                final Listener<E> listener =
+                    new ForwardingClientCallListener.SimpleForwardingClientCallListener<E>(responseListener) {
+                        @Override
+                        public void onClose(Status status, Metadata trailers) {
+                            inflight.decrementAndGet();
+                            final DoubleHistogram histogram =
+                                clientMeterProvider.getHistogram(HistogramEnum.RPC_LATENCY);
+                            if (null != histogram) {
+                                final double millis = (System.nanoTime() - startNanoTime) / NANOS_PER_MILLI;
+                                histogram.record(millis, getRpcAttributes(methodName, status.getCode()));
+                            }
+                            super.onClose(status, trailers);
+                        }
+                    };
+                try {
+                    super.start(listener, headers);
+                } catch (Throwable t) {
+                    inflight.decrementAndGet();
+                    throw t;
+                }
+            }
+        };
+    }
+}
@@ -0,0 +1,82 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.rocketmq.client.java.metrics;
+
+import io.opentelemetry.api.common.Attributes;
+import io.opentelemetry.api.metrics.DoubleHistogram;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Sampled profiler of the per-stage latency of message publishing and consumption, which is reported as
+ * {@link HistogramEnum#STAGE_LATENCY}.
+ *
+ * <p>Nothing but a volatile read is paid if the pipeline is not sampled.
+ */
+public class StageProfiler {
+    private static final double NANOS_PER_MILLI = 1000 * 1000.0;
+
+    private final ClientMeterProvider clientMeterProvider;
+    private final AtomicReferenceArray<Attributes> attributesArray;
+    private volatile double sampleRate;
+
+    StageProfiler(ClientMeterProvider clientMeterProvider) {
+        this.clientMeterProvider = clientMeterProvider;
+        this.attributesArray = new AtomicReferenceArray<>(PipelineStage.values().length);
+        this.sampleRate = 0;
+    }
+
+    void setSampleRate(double sampleRate) {
+        this.sampleRate = sampleRate;
+    }
+
+    /**
+     * Start to trace a pipeline if it is sampled.
+     *
+     * @return trace of the pipeline, or {@link StageTrace#NOOP} if not sampled.
+     */
+    public StageTrace startTrace() {
+        final double rate = sampleRate;
+        if (rate <= 0 || !clientMeterProvider.isEnabled()) {
+            return StageTrace.NOOP;
+        }
+        if (rate < 1 && ThreadLocalRandom.current().nextDouble() >= rate) {
+            return StageTrace.NOOP;
+        }
+        return new StageTrace(this);
+    }
+
+    void record(PipelineStage stage, long nanos) {
+        final DoubleHistogram histogram = clientMeterProvider.getHistogram(HistogramEnum.STAGE_LATENCY);
+        if (null == histogram) {
+            return;
+        }
+        histogram.record(nanos / NANOS_PER_MILLI, getAttributes(stage));
+    }
+
+    private Attributes getAttributes(PipelineStage stage) {
+        final int index = stage.ordinal();
+        Attributes attributes = attributesArray.get(index);
+        if (null == attributes) {
+            attributes = Attributes.builder().put(MetricLabels.STAGE, stage.getName())
+                .put(MetricLabels.CLIENT_ID, clientMeterProvider.getClient().clientId()).build();
+            attributesArray.compareAndSet(index, null, attributes);
+        }
+        return attributesArray.get(index);
+    }
+}
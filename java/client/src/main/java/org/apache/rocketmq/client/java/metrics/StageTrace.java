@@ -0,0 +1,52 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.rocketmq.client.java.metrics;
+
+/**
+ * Timestamps of a sampled message pipeline, each {@link #mark(PipelineStage)} records the elapsed time since the
+ * previous mark as the duration of the stage.
+ *
+ * <p>Marks are supposed to be invoked in sequence, although they may happen on different threads.
+ */
+public class StageTrace {
+    /**
+     * Trace which is not sampled, marks on it are ignored.
+     */
+    public static final StageTrace NOOP = new StageTrace(null);
+
+    private final StageProfiler profiler;
+    private volatile long lastNanoTime;
+
+    StageTrace(StageProfiler profiler) {
+        this.profiler = profiler;
+        this.lastNanoTime = System.nanoTime();
+    }
+
+    public boolean isSampled() {
+        return null != profiler;
+    }
+
+    public void mark(PipelineStage stage) {
+        if (null == profiler) {
+            return;
+        }
+        final long nanoTime = System.nanoTime();
+        profiler.record(stage, nanoTime - lastNanoTime);
+        lastNanoTime = nanoTime;
+    }
+}
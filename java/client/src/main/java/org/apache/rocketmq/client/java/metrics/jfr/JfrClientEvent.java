@@ -0,0 +1,67 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.rocketmq.client.java.metrics.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Label;
+import jdk.jfr.StackTrace;
+import org.apache.rocketmq.client.java.metrics.ClientEvent;
+import org.apache.rocketmq.client.java.route.Endpoints;
+import org.apache.rocketmq.client.java.route.MessageQueueImpl;
+
+/**
+ * Base of the Java Flight Recorder events of the client, the duration spans from {@link #begin()} to
+ * {@link #complete}.
+ */
+@Category({"Apache RocketMQ", "Client"})
+@StackTrace(false)
+abstract class JfrClientEvent extends jdk.jfr.Event implements ClientEvent {
+    @Label("Topic")
+    String topic;
+
+    @Label("Message Queue")
+    String messageQueue;
+
+    @Label("Endpoints")
+    String endpoints;
+
+    @Label("Attempt")
+    int attempt;
+
+    @Label("Batch Size")
+    int batchSize;
+
+    @Label("Success")
+    boolean success;
+
+    @Override
+    public void complete(String topic, MessageQueueImpl mq, Endpoints endpoints, int attempt, int batchSize,
+        boolean success) {
+        end();
+        if (!shouldCommit()) {
+            return;
+        }
+        this.topic = topic;
+        this.messageQueue = null == mq ? null : mq.toString();
+        this.endpoints = null == endpoints ? null : endpoints.getFacade();
+        this.attempt = attempt;
+        this.batchSize = batchSize;
+        this.success = success;
+        commit();
+    }
+}
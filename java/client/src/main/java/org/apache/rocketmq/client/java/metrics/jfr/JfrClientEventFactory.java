@@ -0,0 +1,58 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.rocketmq.client.java.metrics.jfr;
+
+import org.apache.rocketmq.client.java.metrics.ClientEvent;
+import org.apache.rocketmq.client.java.metrics.ClientEventFactory;
+import org.apache.rocketmq.client.java.metrics.ClientEventType;
+
+/**
+ * Factory of the Java Flight Recorder events, which is only available on Java 11 or later.
+ *
+ * <p>The event is discarded at once if it is not enabled by the ongoing recording, so that it could be eliminated by
+ * escape analysis.
+ */
+public class JfrClientEventFactory implements ClientEventFactory {
+    @Override
+    public ClientEvent begin(ClientEventType type) {
+        final JfrClientEvent event = newEvent(type);
+        if (!event.isEnabled()) {
+            return ClientEvent.NOOP;
+        }
+        event.begin();
+        return event;
+    }
+
+    private static JfrClientEvent newEvent(ClientEventType type) {
+        switch (type) {
+            case SEND:
+                return new SendEvent();
+            case RECEIVE:
+                return new ReceiveEvent();
+            case CONSUME:
+                return new ConsumeEvent();
+            case ACK:
+                return new AckEvent();
+            case CHANGE_INVISIBLE_DURATION:
+                return new ChangeInvisibleDurationEvent();
+            case ROUTE_REFRESH:
+            default:
+                return new RouteRefreshEvent();
+        }
+    }
+}
@@ -0,0 +1,61 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.rocketmq.client.java.misc;
+
+import com.google.common.util.concurrent.FutureCallback;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+/**
+ * {@link CompletableFuture} completed by a {@link ListenableFuture} in the specified executor, which is the callback
+ * of the source future itself, so only one object is allocated for each adaption.
+ *
+ * <p>Cancellation is propagated to the source future.
+ */
+public class CompletableFutureAdapter<T> extends CompletableFuture<T> implements FutureCallback<T> {
+    private final ListenableFuture<T> source;
+
+    private CompletableFutureAdapter(ListenableFuture<T> source) {
+        this.source = source;
+    }
+
+    public static <T> CompletableFuture<T> adapt(ListenableFuture<T> source, Executor executor) {
+        final CompletableFutureAdapter<T> future = new CompletableFutureAdapter<>(source);
+        Futures.addCallback(source, future, executor);
+        return future;
+    }
+
+    @Override
+    public void onSuccess(T result) {
+        complete(result);
+    }
+
+    @Override
+    public void onFailure(Throwable t) {
+        completeExceptionally(t);
+    }
+
+    @Override
+    public boolean cancel(boolean mayInterruptIfRunning) {
+        final boolean cancelled = super.cancel(mayInterruptIfRunning);
+        source.cancel(mayInterruptIfRunning);
+        return cancelled;
+    }
+}
@@ -18,6 +18,9 @@
 package org.apache.rocketmq.client.java.misc;
 
 import com.google.common.util.concurrent.AbstractIdleService;
+import com.google.common.util.concurrent.MoreExecutors;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
@@ -63,18 +66,45 @@ public abstract class Dispatcher extends AbstractIdleService {
      * Flag indicates that whether task is queued or not.
      */
     private final AtomicBoolean dispatched;
-    private final ThreadPoolExecutor dispatcherExecutor;
+    /**
+     * Executor provided by the caller or created by the dispatcher itself, which is single-threaded if created.
+     */
+    private final ExecutorService dispatcherExecutor;
+    /**
+     * Executor to execute the dispatch task, which ensures dispatches are executed one by one even if the provided
+     * executor is multi-threaded.
+     */
+    private final Executor sequentialExecutor;
+    private final boolean dispatcherExecutorOwned;
 
     public Dispatcher(String clientId) {
+        this(clientId, null);
+    }
+
+    /**
+     * @param dispatcherExecutor executor provided by the caller, or {@code null} to create one, the provided executor
+     *                           is not shut down along with the dispatcher.
+     */
+    public Dispatcher(String clientId, ExecutorService dispatcherExecutor) {
         this.clientId = clientId;
         this.dispatched = new AtomicBoolean(false);
-        this.dispatcherExecutor = new ThreadPoolExecutor(
+        this.dispatcherExecutorOwned = null == dispatcherExecutor;
+        this.dispatcherExecutor = dispatcherExecutorOwned ? new ThreadPoolExecutor(
             1,
             1,
             60,
             TimeUnit.SECONDS,
             new LinkedBlockingQueue<>(),
-            new ThreadFactoryImpl("Dispatcher"));
+            new ThreadFactoryImpl("Dispatcher")) : dispatcherExecutor;
+        this.sequentialExecutor = dispatcherExecutorOwned ? this.dispatcherExecutor :
+            MoreExecutors.newSequentialExecutor(dispatcherExecutor);
+    }
+
+    /**
+     * Expose the dispatcher executor for metrics only.
+     */
+    public ExecutorService getDispatcherExecutor() {
+        return dispatcherExecutor;
     }
 
     @Override
@@ -83,6 +113,9 @@ public abstract class Dispatcher extends AbstractIdleService {
 
     @Override
     public void shutDown() throws InterruptedException {
+        if (!dispatcherExecutorOwned) {
+            return;
+        }
         dispatcherExecutor.shutdown();
         if (!ExecutorServices.awaitTerminated(dispatcherExecutor)) {
             LOGGER.error("[Bug] Failed to shutdown the batch dispatcher, clientId={}", clientId);
@@ -100,7 +133,7 @@ public abstract class Dispatcher extends AbstractIdleService {
     public void signal() {
         if (dispatched.compareAndSet(false, true)) {
             try {
-                dispatcherExecutor.submit(() -> {
+                sequentialExecutor.execute(() -> {
                     dispatched.compareAndSet(true, false);
                     try {
                         dispatch();
@@ -109,6 +142,8 @@ public abstract class Dispatcher extends AbstractIdleService {
                     }
                 });
             } catch (Throwable t) {
+                // Allow the next signal to retry if the task is rejected.
+                dispatched.compareAndSet(true, false);
                 if (!dispatcherExecutor.isShutdown()) {
                     LOGGER.error("[Bug] Failed to submit dispatch task, clientId={}", clientId, t);
                 }
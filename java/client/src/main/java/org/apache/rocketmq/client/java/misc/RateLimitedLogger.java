@@ -0,0 +1,153 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.rocketmq.client.java.misc;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import org.slf4j.Logger;
+
+/**
+ * Logger which is rate-limited per call site, aims to prevent the hot path from flooding the log under overload.
+ *
+ * <p>Each call site should hold its own instance, at most one log is printed during each interval, and the logs
+ * dropped in the meantime are counted and attached to the next printed one if there are any.
+ *
+ * <p>Every instance is registered by its call site, so that the total quantity of suppressed logs of each call site
+ * could be exported as metrics, see {@link #getAll()}.
+ */
+public class RateLimitedLogger {
+    private static final Duration DEFAULT_INTERVAL = Duration.ofSeconds(1);
+    private static final String SUPPRESSED_SUFFIX = ", suppressed {} similar log(s)";
+    private static final ConcurrentMap<String /* site */, RateLimitedLogger> LOGGERS = new ConcurrentHashMap<>();
+
+    private final Logger logger;
+    private final String site;
+    private final long intervalNanos;
+    private final AtomicLong nextLogNanoTime;
+    private final AtomicLong suppressed;
+    private final AtomicLong suppressedTotal;
+
+    public RateLimitedLogger(Logger logger, String site) {
+        this(logger, site, DEFAULT_INTERVAL);
+    }
+
+    public RateLimitedLogger(Logger logger, String site, Duration interval) {
+        this.logger = logger;
+        this.site = site;
+        this.intervalNanos = interval.toNanos();
+        this.nextLogNanoTime = new AtomicLong(System.nanoTime());
+        this.suppressed = new AtomicLong(0);
+        this.suppressedTotal = new AtomicLong(0);
+        LOGGERS.put(site, this);
+    }
+
+    /**
+     * Get all rate-limited loggers of the process, each call site has at most one.
+     */
+    public static Collection<RateLimitedLogger> getAll() {
+        return Collections.unmodifiableCollection(LOGGERS.values());
+    }
+
+    public String getSite() {
+        return site;
+    }
+
+    public void info(String format, Object... arguments) {
+        if (!logger.isInfoEnabled() || !acquire()) {
+            return;
+        }
+        final long count = suppressed.getAndSet(0);
+        logger.info(withSuppressed(format, count), withSuppressed(arguments, count));
+    }
+
+    public void warn(String format, Object... arguments) {
+        if (!logger.isWarnEnabled() || !acquire()) {
+            return;
+        }
+        final long count = suppressed.getAndSet(0);
+        logger.warn(withSuppressed(format, count), withSuppressed(arguments, count));
+    }
+
+    public void error(String format, Object... arguments) {
+        if (!logger.isErrorEnabled() || !acquire()) {
+            return;
+        }
+        final long count = suppressed.getAndSet(0);
+        logger.error(withSuppressed(format, count), withSuppressed(arguments, count));
+    }
+
+    /**
+     * Get the quantity of logs suppressed since the last printed one.
+     */
+    public long getSuppressed() {
+        return suppressed.get();
+    }
+
+    /**
+     * Get the total quantity of logs suppressed since the logger is created, which never decreases.
+     */
+    public long getSuppressedTotal() {
+        return suppressedTotal.get();
+    }
+
+    /**
+     * Try to acquire the permit to print log, the log is counted as suppressed if failed.
+     */
+    private boolean acquire() {
+        final long now = System.nanoTime();
+        final long next = nextLogNanoTime.get();
+        if (now - next < 0 || !nextLogNanoTime.compareAndSet(next, now + intervalNanos)) {
+            suppressed.incrementAndGet();
+            suppressedTotal.incrementAndGet();
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Attach the suffix of the suppressed quantity to format, unless no log is suppressed.
+     */
+    private static String withSuppressed(String format, long count) {
+        return count > 0 ? format + SUPPRESSED_SUFFIX : format;
+    }
+
+    /**
+     * Insert the suppressed quantity into arguments unless no log is suppressed, the trailing throwable is kept in
+     * the last place.
+     */
+    private static Object[] withSuppressed(Object[] arguments, long count) {
+        if (count <= 0) {
+            return arguments;
+        }
+        final Object[] result = new Object[arguments.length + 1];
+        final int length = arguments.length;
+        if (length > 0 && arguments[length - 1] instanceof Throwable) {
+            System.arraycopy(arguments, 0, result, 0, length - 1);
+            result[length - 1] = count;
+            result[length] = arguments[length - 1];
+            return result;
+        }
+        System.arraycopy(arguments, 0, result, 0, length);
+        result[length] = count;
+        return result;
+    }
+}
@@ -17,16 +17,57 @@
 
 package org.apache.rocketmq.client.java.misc;
 
-import java.util.UUID;
+import java.security.SecureRandom;
+import java.util.concurrent.atomic.AtomicLong;
 
+/**
+ * Generator of request id, which is unique among the processes with high probability.
+ *
+ * <p>Request id is composed of a random process-wide prefix and an increasing sequence, and is formatted the same as
+ * the canonical {@link java.util.UUID} string. Unlike {@link java.util.UUID#randomUUID()}, the secure random is only
+ * used once, and each id is encoded into a reused thread-local buffer.
+ */
 public class RequestIdGenerator {
     private static final RequestIdGenerator INSTANCE = new RequestIdGenerator();
 
+    private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+    private static final int REQUEST_ID_LENGTH = 36;
+
+    private static final ThreadLocal<char[]> BUFFER = ThreadLocal.withInitial(() -> new char[REQUEST_ID_LENGTH]);
+
+    private final long prefix;
+    private final AtomicLong sequence;
+
+    private RequestIdGenerator() {
+        final SecureRandom random = new SecureRandom();
+        this.prefix = random.nextLong();
+        this.sequence = new AtomicLong(random.nextLong());
+    }
+
     public static RequestIdGenerator getInstance() {
         return INSTANCE;
     }
 
     public String next() {
-        return UUID.randomUUID().toString();
+        final long seq = sequence.getAndIncrement();
+        final char[] buffer = BUFFER.get();
+        // Layout: xxxxxxxx-xxxx-xxxx-xxxx-xxxxxxxxxxxx, prefix takes the first 16 digits.
+        encode(buffer, 0, prefix >>> 32, 8);
+        buffer[8] = '-';
+        encode(buffer, 9, prefix >>> 16, 4);
+        buffer[13] = '-';
+        encode(buffer, 14, prefix, 4);
+        buffer[18] = '-';
+        encode(buffer, 19, seq >>> 48, 4);
+        buffer[23] = '-';
+        encode(buffer, 24, seq, 12);
+        return new String(buffer);
+    }
+
+    private static void encode(char[] buffer, int offset, long value, int digits) {
+        for (int i = offset + digits - 1; i >= offset; i--) {
+            buffer[i] = HEX_DIGITS[(int) (value & 0xf)];
+            value >>>= 4;
+        }
     }
 }
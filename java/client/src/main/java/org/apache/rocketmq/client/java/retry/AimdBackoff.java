@@ -0,0 +1,114 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.rocketmq.client.java.retry;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import com.google.common.base.MoreObjects;
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Backoff whose rate is adapted by AIMD (additive increase, multiplicative decrease) according to the throttling of
+ * the remote.
+ *
+ * <p>The rate is multiplied by {@code decreaseFactor} once the request is throttled, and is increased by
+ * {@code additiveIncrease} once a request succeeds, which is bounded by the reciprocals of {@code maxDelay} and
+ * {@code minDelay}. The delay is the reciprocal of the rate with equal jitter, which is within [delay / 2, delay].
+ */
+public class AimdBackoff {
+    private static final double NANOS_PER_SECOND = 1_000_000_000d;
+
+    /**
+     * Rate in permits per second.
+     */
+    private final double minRate;
+    private final double maxRate;
+    private final double additiveIncrease;
+    private final double decreaseFactor;
+    /**
+     * Bits of the current rate in double.
+     */
+    private final AtomicLong rateBits;
+
+    /**
+     * @param minDelay         minimum delay, which corresponds to the maximum rate and is the initial delay.
+     * @param maxDelay         maximum delay, which corresponds to the minimum rate.
+     * @param additiveIncrease rate in permits per second to increase once a request succeeds.
+     * @param decreaseFactor   factor in (0, 1) to multiply the rate once a request is throttled.
+     */
+    public AimdBackoff(Duration minDelay, Duration maxDelay, double additiveIncrease, double decreaseFactor) {
+        checkArgument(!minDelay.isNegative() && !minDelay.isZero(), "minDelay should be positive");
+        checkArgument(maxDelay.compareTo(minDelay) >= 0, "maxDelay should not be less than minDelay");
+        checkArgument(additiveIncrease > 0, "additiveIncrease should be positive");
+        checkArgument(decreaseFactor > 0 && decreaseFactor < 1, "decreaseFactor should be in (0, 1)");
+        this.minRate = NANOS_PER_SECOND / maxDelay.toNanos();
+        this.maxRate = NANOS_PER_SECOND / minDelay.toNanos();
+        this.additiveIncrease = additiveIncrease;
+        this.decreaseFactor = decreaseFactor;
+        this.rateBits = new AtomicLong(Double.doubleToLongBits(maxRate));
+    }
+
+    public void onSuccess() {
+        long current;
+        double rate;
+        do {
+            current = rateBits.get();
+            rate = Double.longBitsToDouble(current);
+            if (rate >= maxRate) {
+                return;
+            }
+        } while (!rateBits.compareAndSet(current, Double.doubleToLongBits(Math.min(maxRate,
+            rate + additiveIncrease))));
+    }
+
+    public void onThrottled() {
+        long current;
+        double rate;
+        do {
+            current = rateBits.get();
+            rate = Double.longBitsToDouble(current);
+        } while (!rateBits.compareAndSet(current, Double.doubleToLongBits(Math.max(minRate,
+            rate * decreaseFactor))));
+    }
+
+    /**
+     * @return rate in permits per second.
+     */
+    public double getRate() {
+        return Double.longBitsToDouble(rateBits.get());
+    }
+
+    public Duration getNextDelay() {
+        final long delayNanos = (long) (NANOS_PER_SECOND / getRate());
+        final long half = delayNanos / 2;
+        return Duration.ofNanos(half + ThreadLocalRandom.current().nextLong(delayNanos - half + 1));
+    }
+
+    @Override
+    public String toString() {
+        return MoreObjects.toStringHelper(this)
+            .add("minRate", minRate)
+            .add("maxRate", maxRate)
+            .add("additiveIncrease", additiveIncrease)
+            .add("decreaseFactor", decreaseFactor)
+            .add("rate", getRate())
+            .toString();
+    }
+}
@@ -0,0 +1,208 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.rocketmq.client.java.retry;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import com.google.common.base.MoreObjects;
+import com.google.errorprone.annotations.concurrent.GuardedBy;
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.apache.rocketmq.client.java.route.Endpoints;
+
+/**
+ * Exponential backoff for each remote {@link Endpoints}, which is shared by all requests to the same endpoints.
+ *
+ * <p>The delay is {@code initialDelay * multiplier^(failures - 1)} bounded by {@code maxDelay}, where
+ * {@code failures} is the consecutive failures of the endpoints, and is within [delay / 2, delay] by equal jitter.
+ * Requests failed at once, e.g. those of all queues on the same endpoints, belong to the same backoff round, so the
+ * failures are increased at most once per round, which ends no sooner than the minimum delay of the round.
+ *
+ * <p>The consecutive failures are reset once any request to the endpoints succeeds, and the retries scheduled by
+ * {@link #schedule(ScheduledExecutorService, Endpoints, Duration, Runnable)} are run at once, so all requests recover
+ * at once.
+ */
+public class EndpointsBackoff {
+    private final long initialDelayNanos;
+    private final long maxDelayNanos;
+    private final double multiplier;
+    private final ConcurrentMap<Endpoints, Backoff> backoffTable;
+
+    /**
+     * @param initialDelay delay after the first failure.
+     * @param maxDelay     maximum delay.
+     * @param multiplier   multiplier of the delay on each consecutive failure, which is no less than 1.
+     */
+    public EndpointsBackoff(Duration initialDelay, Duration maxDelay, double multiplier) {
+        checkArgument(!initialDelay.isNegative() && !initialDelay.isZero(), "initialDelay should be positive");
+        checkArgument(maxDelay.compareTo(initialDelay) >= 0, "maxDelay should not be less than initialDelay");
+        checkArgument(multiplier >= 1, "multiplier should not be less than 1");
+        this.initialDelayNanos = initialDelay.toNanos();
+        this.maxDelayNanos = maxDelay.toNanos();
+        this.multiplier = multiplier;
+        this.backoffTable = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * Reset the consecutive failures of the endpoints, and run the pending retries to the endpoints at once.
+     */
+    public void onSuccess(Endpoints endpoints) {
+        final Backoff backoff = backoffTable.get(endpoints);
+        if (null == backoff) {
+            return;
+        }
+        backoff.reset();
+        for (PendingRetry retry : backoff.pendingRetries) {
+            retry.runNow();
+        }
+    }
+
+    /**
+     * Record a failure of the endpoints, the consecutive failures are increased at most once per backoff round.
+     *
+     * @return the delay before the next request.
+     */
+    public Duration onFailure(Endpoints endpoints) {
+        final int failures = backoffTable.computeIfAbsent(endpoints, e -> new Backoff()).escalate();
+        return jitter(delayNanos(failures));
+    }
+
+    /**
+     * @return the delay before the next request according to the current consecutive failures, which is the initial
+     * delay if the endpoints has not failed.
+     */
+    public Duration getDelay(Endpoints endpoints) {
+        return jitter(delayNanos(Math.max(1, getFailures(endpoints))));
+    }
+
+    /**
+     * @return the consecutive failures of the endpoints.
+     */
+    public int getFailures(Endpoints endpoints) {
+        final Backoff backoff = backoffTable.get(endpoints);
+        return null == backoff ? 0 : backoff.getFailures();
+    }
+
+    /**
+     * Schedule the retry to the endpoints after the delay, or at once if any request to the endpoints succeeds in the
+     * meantime. The retry is run only once either way.
+     */
+    public void schedule(ScheduledExecutorService scheduler, Endpoints endpoints, Duration delay, Runnable task) {
+        final Backoff backoff = backoffTable.computeIfAbsent(endpoints, e -> new Backoff());
+        final PendingRetry retry = new PendingRetry(backoff, scheduler, task);
+        backoff.pendingRetries.add(retry);
+        try {
+            retry.future = scheduler.schedule(retry, delay.toNanos(), TimeUnit.NANOSECONDS);
+        } catch (Throwable t) {
+            backoff.pendingRetries.remove(retry);
+            throw t;
+        }
+    }
+
+    private long delayNanos(int failures) {
+        final double delay = initialDelayNanos * Math.pow(multiplier, failures - 1);
+        return delay >= maxDelayNanos ? maxDelayNanos : (long) delay;
+    }
+
+    private static Duration jitter(long delayNanos) {
+        final long half = delayNanos / 2;
+        return Duration.ofNanos(half + ThreadLocalRandom.current().nextLong(delayNanos - half + 1));
+    }
+
+    @Override
+    public String toString() {
+        return MoreObjects.toStringHelper(this)
+            .add("initialDelayNanos", initialDelayNanos)
+            .add("maxDelayNanos", maxDelayNanos)
+            .add("multiplier", multiplier)
+            .toString();
+    }
+
+    private class Backoff {
+        private final Set<PendingRetry> pendingRetries = ConcurrentHashMap.newKeySet();
+        @GuardedBy("this")
+        private int failures = 0;
+        @GuardedBy("this")
+        private long escalationNanoTime;
+
+        synchronized int escalate() {
+            final long now = System.nanoTime();
+            // The failures of the current round are those earlier than the minimum delay since the escalation.
+            if (0 == failures || now - escalationNanoTime >= delayNanos(failures) / 2) {
+                failures++;
+                escalationNanoTime = now;
+            }
+            return failures;
+        }
+
+        synchronized void reset() {
+            failures = 0;
+        }
+
+        synchronized int getFailures() {
+            return failures;
+        }
+    }
+
+    private static class PendingRetry implements Runnable {
+        private final Backoff backoff;
+        private final ScheduledExecutorService scheduler;
+        private final Runnable task;
+        private final AtomicBoolean done;
+        private volatile ScheduledFuture<?> future;
+
+        PendingRetry(Backoff backoff, ScheduledExecutorService scheduler, Runnable task) {
+            this.backoff = backoff;
+            this.scheduler = scheduler;
+            this.task = task;
+            this.done = new AtomicBoolean(false);
+        }
+
+        void runNow() {
+            if (done.get()) {
+                return;
+            }
+            try {
+                scheduler.execute(this);
+            } catch (Throwable ignore) {
+                // Run by the delayed one instead.
+                return;
+            }
+            final ScheduledFuture<?> scheduled = future;
+            if (null != scheduled) {
+                scheduled.cancel(false);
+            }
+        }
+
+        @Override
+        public void run() {
+            if (!done.compareAndSet(false, true)) {
+                return;
+            }
+            backoff.pendingRetries.remove(this);
+            task.run();
+        }
+    }
+}
@@ -0,0 +1,109 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.rocketmq.client.java.retry;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import com.google.common.base.MoreObjects;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Token bucket to limit the retries to a ratio of the first attempts, which prevents retries from multiplying the load
+ * on a degraded remote.
+ *
+ * <p>Each first attempt deposits {@code ratio} token and each retry withdraws one token, the bucket is full initially
+ * and holds {@code maxTokens} at most, so retries are allowed in burst at the beginning, and are no more than the ratio
+ * of first attempts in the long run.
+ */
+public class RetryBudget {
+    /**
+     * Tokens are accounted in milli-tokens to avoid floating-point arithmetic.
+     */
+    private static final long TOKEN = 1000;
+
+    private final double ratio;
+    private final long deposit;
+    private final long capacity;
+    private final AtomicLong balance;
+    private final LongAdder exhaustedTimes;
+
+    /**
+     * @param ratio     ratio of retries to first attempts in (0, 1].
+     * @param maxTokens capacity of the bucket, which is the number of retries allowed in burst.
+     */
+    public RetryBudget(double ratio, int maxTokens) {
+        checkArgument(ratio > 0 && ratio <= 1, "ratio should be in (0, 1]");
+        checkArgument(maxTokens > 0, "maxTokens should be positive");
+        this.ratio = ratio;
+        this.deposit = Math.max(1, Math.round(ratio * TOKEN));
+        this.capacity = maxTokens * TOKEN;
+        this.balance = new AtomicLong(capacity);
+        this.exhaustedTimes = new LongAdder();
+    }
+
+    /**
+     * Deposit for a first attempt.
+     */
+    public void deposit() {
+        long current;
+        do {
+            current = balance.get();
+            if (current >= capacity) {
+                return;
+            }
+        } while (!balance.compareAndSet(current, Math.min(capacity, current + deposit)));
+    }
+
+    /**
+     * Try to withdraw for a retry.
+     *
+     * @return true if the retry is allowed, false if the budget is exhausted.
+     */
+    public boolean tryWithdraw() {
+        long current;
+        do {
+            current = balance.get();
+            if (current < TOKEN) {
+                exhaustedTimes.increment();
+                return false;
+            }
+        } while (!balance.compareAndSet(current, current - TOKEN));
+        return true;
+    }
+
+    public double getAvailableTokens() {
+        return (double) balance.get() / TOKEN;
+    }
+
+    /**
+     * @return the times that a retry is refused because of exhausted budget.
+     */
+    public long getExhaustedTimes() {
+        return exhaustedTimes.sum();
+    }
+
+    @Override
+    public String toString() {
+        return MoreObjects.toStringHelper(this)
+            .add("ratio", ratio)
+            .add("maxTokens", capacity / TOKEN)
+            .add("availableTokens", getAvailableTokens())
+            .toString();
+    }
+}
@@ -0,0 +1,285 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.rocketmq.client.java.route;
+
+import com.google.common.base.MoreObjects;
+import com.google.errorprone.annotations.concurrent.GuardedBy;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Circuit breaker of the remote {@link Endpoints}, which stops the requests to the endpoints once it is unhealthy.
+ *
+ * <ul>
+ *     <li>{@link State#CLOSED}: requests are allowed, the outcomes of the recent {@value #WINDOW_SIZE} requests are
+ *     recorded, and the breaker is opened if the failure rate or the slow request rate exceeds the threshold.</li>
+ *     <li>{@link State#OPEN}: requests are refused, the breaker is half-opened once the endpoints is probed
+ *     successfully.</li>
+ *     <li>{@link State#HALF_OPEN}: trial requests are allowed at a limited rate, the breaker is closed after
+ *     {@value #HALF_OPEN_SUCCESSES} successful trial requests, and is opened again on any failure. Successes of
+ *     requests which are not admitted as trial, e.g. those admitted before opening, are ignored.</li>
+ * </ul>
+ *
+ * <p>The probe delay after opening starts from {@link #MIN_OPEN_DURATION}, it is doubled on each failed probe, and on
+ * each reopening within {@link #FLAPPING_INTERVAL} after closing, so a flapping endpoints is kept out longer.
+ */
+public class CircuitBreaker {
+    public enum State {
+        CLOSED,
+        HALF_OPEN,
+        OPEN
+    }
+
+    static final int WINDOW_SIZE = 20;
+    static final int MINIMUM_REQUESTS = 10;
+    static final int HALF_OPEN_SUCCESSES = 3;
+    static final Duration HALF_OPEN_TRIAL_INTERVAL = Duration.ofMillis(100);
+    static final Duration MIN_OPEN_DURATION = Duration.ofMillis(500);
+    /**
+     * Same as the heartbeat period, which probes the endpoints as well.
+     */
+    static final Duration MAX_OPEN_DURATION = Duration.ofSeconds(10);
+    static final Duration FLAPPING_INTERVAL = Duration.ofSeconds(30);
+
+    private static final int FAILURE_RATE_THRESHOLD_PERCENT = 50;
+    private static final int SLOW_RATE_THRESHOLD_PERCENT = 80;
+
+    private final Endpoints endpoints;
+    private final long slowRequestNanos;
+    private volatile State state;
+    private final AtomicLong nextTrialNanoTime;
+    /**
+     * Trial requests admitted in {@link State#HALF_OPEN} whose outcomes are not recorded yet.
+     */
+    private final AtomicInteger pendingTrials;
+    private final LongAdder openedTimes;
+
+    @GuardedBy("this")
+    private final boolean[] failedWindow;
+    @GuardedBy("this")
+    private final boolean[] slowWindow;
+    @GuardedBy("this")
+    private int windowIndex;
+    @GuardedBy("this")
+    private int requests;
+    @GuardedBy("this")
+    private int failures;
+    @GuardedBy("this")
+    private int slowRequests;
+    @GuardedBy("this")
+    private int halfOpenSuccesses;
+    @GuardedBy("this")
+    private long openDurationNanos;
+    @GuardedBy("this")
+    private long closedNanoTime;
+
+    /**
+     * @param slowRequestDuration requests whose latency is no less than it are regarded as slow.
+     */
+    public CircuitBreaker(Endpoints endpoints, Duration slowRequestDuration) {
+        this.endpoints = endpoints;
+        this.slowRequestNanos = slowRequestDuration.toNanos();
+        this.state = State.CLOSED;
+        this.nextTrialNanoTime = new AtomicLong(System.nanoTime());
+        this.pendingTrials = new AtomicInteger(0);
+        this.openedTimes = new LongAdder();
+        this.failedWindow = new boolean[WINDOW_SIZE];
+        this.slowWindow = new boolean[WINDOW_SIZE];
+        this.openDurationNanos = MIN_OPEN_DURATION.toNanos();
+        this.closedNanoTime = System.nanoTime() - FLAPPING_INTERVAL.toNanos();
+    }
+
+    public Endpoints getEndpoints() {
+        return endpoints;
+    }
+
+    public State getState() {
+        return state;
+    }
+
+    /**
+     * @return the times that the breaker is opened.
+     */
+    public long getOpenedTimes() {
+        return openedTimes.sum();
+    }
+
+    /**
+     * Check whether the request would be allowed without taking the trial permit, which is supposed to be used while
+     * choosing among endpoints, see {@link #allowRequest()}.
+     */
+    public boolean isAvailable() {
+        final State current = state;
+        if (State.CLOSED == current) {
+            return true;
+        }
+        if (State.OPEN == current) {
+            return false;
+        }
+        return System.nanoTime() - nextTrialNanoTime.get() >= 0;
+    }
+
+    /**
+     * Check whether the request is allowed, the trial request is admitted once per
+     * {@link #HALF_OPEN_TRIAL_INTERVAL} if the breaker is half-opened.
+     *
+     * <p>The trial permit is taken if allowed, so it is supposed to be invoked right before the request.
+     */
+    public boolean allowRequest() {
+        final State current = state;
+        if (State.CLOSED == current) {
+            return true;
+        }
+        if (State.OPEN == current) {
+            return false;
+        }
+        final long now = System.nanoTime();
+        final long next = nextTrialNanoTime.get();
+        if (now - next >= 0 && nextTrialNanoTime.compareAndSet(next, now + HALF_OPEN_TRIAL_INTERVAL.toNanos())) {
+            pendingTrials.incrementAndGet();
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Record a successful request.
+     *
+     * @param latency latency of the request, {@link Duration#ZERO} if it should not be accounted, e.g. long polling.
+     */
+    public synchronized void onSuccess(Duration latency) {
+        if (State.HALF_OPEN == state) {
+            // Only the successes of trial requests are counted.
+            if (pendingTrials.getAndUpdate(n -> Math.max(0, n - 1)) <= 0) {
+                return;
+            }
+            if (++halfOpenSuccesses >= HALF_OPEN_SUCCESSES) {
+                close();
+            }
+            return;
+        }
+        // Requests admitted before opening are ignored.
+        if (State.CLOSED == state) {
+            record(false, latency.toNanos() >= slowRequestNanos);
+        }
+    }
+
+    /**
+     * Record a failed request.
+     *
+     * @return true if the breaker is opened by this failure, the caller is supposed to probe the endpoints then.
+     */
+    public synchronized boolean onFailure() {
+        if (State.HALF_OPEN == state) {
+            open();
+            return true;
+        }
+        if (State.CLOSED == state) {
+            return record(true, false);
+        }
+        return false;
+    }
+
+    /**
+     * Half-open the breaker once the endpoints is probed successfully.
+     */
+    public synchronized void onProbeSuccess() {
+        if (State.OPEN != state) {
+            return;
+        }
+        halfOpenSuccesses = 0;
+        pendingTrials.set(0);
+        nextTrialNanoTime.set(System.nanoTime());
+        state = State.HALF_OPEN;
+    }
+
+    /**
+     * @return the delay of next probe, which is doubled on each failed probe.
+     */
+    public synchronized Duration onProbeFailure() {
+        openDurationNanos = Math.min(openDurationNanos * 2, MAX_OPEN_DURATION.toNanos());
+        return Duration.ofNanos(openDurationNanos);
+    }
+
+    /**
+     * @return the delay of the first probe after opening.
+     */
+    public synchronized Duration getOpenDuration() {
+        return Duration.ofNanos(openDurationNanos);
+    }
+
+    @GuardedBy("this")
+    private boolean record(boolean failed, boolean slow) {
+        if (requests < WINDOW_SIZE) {
+            requests++;
+        } else {
+            failures -= failedWindow[windowIndex] ? 1 : 0;
+            slowRequests -= slowWindow[windowIndex] ? 1 : 0;
+        }
+        failedWindow[windowIndex] = failed;
+        slowWindow[windowIndex] = slow;
+        failures += failed ? 1 : 0;
+        slowRequests += slow ? 1 : 0;
+        windowIndex = (windowIndex + 1) % WINDOW_SIZE;
+        if (requests < MINIMUM_REQUESTS) {
+            return false;
+        }
+        if (failures * 100 >= FAILURE_RATE_THRESHOLD_PERCENT * requests
+            || slowRequests * 100 >= SLOW_RATE_THRESHOLD_PERCENT * requests) {
+            open();
+            return true;
+        }
+        return false;
+    }
+
+    @GuardedBy("this")
+    private void open() {
+        final long now = System.nanoTime();
+        openDurationNanos = now - closedNanoTime < FLAPPING_INTERVAL.toNanos() ?
+            Math.min(openDurationNanos * 2, MAX_OPEN_DURATION.toNanos()) : MIN_OPEN_DURATION.toNanos();
+        resetWindow();
+        openedTimes.increment();
+        state = State.OPEN;
+    }
+
+    @GuardedBy("this")
+    private void close() {
+        closedNanoTime = System.nanoTime();
+        resetWindow();
+        state = State.CLOSED;
+    }
+
+    @GuardedBy("this")
+    private void resetWindow() {
+        windowIndex = 0;
+        requests = 0;
+        failures = 0;
+        slowRequests = 0;
+    }
+
+    @Override
+    public String toString() {
+        return MoreObjects.toStringHelper(this)
+            .add("endpoints", endpoints)
+            .add("state", state)
+            .add("openedTimes", getOpenedTimes())
+            .toString();
+    }
+}
@@ -0,0 +1,74 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.rocketmq.client.java.route;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Circuit breakers of all remote endpoints of a client, which are shared by the publishing and the consumption.
+ */
+public class CircuitBreakers {
+    private final Duration slowRequestDuration;
+    private final ConcurrentMap<Endpoints, CircuitBreaker> breakers;
+
+    /**
+     * @param slowRequestDuration requests whose latency is no less than it are regarded as slow.
+     */
+    public CircuitBreakers(Duration slowRequestDuration) {
+        this.slowRequestDuration = slowRequestDuration;
+        this.breakers = new ConcurrentHashMap<>();
+    }
+
+    public CircuitBreaker get(Endpoints endpoints) {
+        final CircuitBreaker breaker = breakers.get(endpoints);
+        if (null != breaker) {
+            return breaker;
+        }
+        return breakers.computeIfAbsent(endpoints, e -> new CircuitBreaker(e, slowRequestDuration));
+    }
+
+    /**
+     * @return the circuit breaker of the endpoints, or {@code null} if no request has been recorded for it.
+     */
+    public CircuitBreaker getIfPresent(Endpoints endpoints) {
+        return breakers.get(endpoints);
+    }
+
+    /**
+     * @see CircuitBreaker#isAvailable()
+     */
+    public boolean isAvailable(Endpoints endpoints) {
+        final CircuitBreaker breaker = breakers.get(endpoints);
+        return null == breaker || breaker.isAvailable();
+    }
+
+    /**
+     * @see CircuitBreaker#allowRequest()
+     */
+    public boolean allowRequest(Endpoints endpoints) {
+        final CircuitBreaker breaker = breakers.get(endpoints);
+        return null == breaker || breaker.allowRequest();
+    }
+
+    public Collection<CircuitBreaker> getAll() {
+        return breakers.values();
+    }
+}
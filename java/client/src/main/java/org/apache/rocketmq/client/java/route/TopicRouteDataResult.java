@@ -81,6 +81,16 @@ public class TopicRouteDataResult {
         }
     }
 
+    /**
+     * Construct the result by the topic route which is restored locally rather than fetched from remote.
+     *
+     * @param topicRouteData topic route restored locally.
+     */
+    public TopicRouteDataResult(TopicRouteData topicRouteData) {
+        this.topicRouteData = topicRouteData;
+        this.exception = null;
+    }
+
     public TopicRouteData getTopicRouteData() {
         return topicRouteData;
     }
@@ -0,0 +1,114 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.rocketmq.client.java.route;
+
+import apache.rocketmq.v2.MessageQueue;
+import apache.rocketmq.v2.QueryRouteResponse;
+import java.io.IOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.List;
+import java.util.Optional;
+import java.util.regex.Pattern;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Local snapshot of topic route, which helps the client to start quickly and survive the temporary unavailability of
+ * remote endpoints during startup.
+ *
+ * <p>Each topic route is persisted into an individual file under the directory of the access point, and the file is
+ * replaced atomically once the route changes, so that the snapshot would never be read partially.
+ */
+public class TopicRouteSnapshot {
+    private static final Logger LOGGER = LoggerFactory.getLogger(TopicRouteSnapshot.class);
+
+    private static final Pattern UNSAFE_FILE_NAME_PATTERN = Pattern.compile("[^a-zA-Z0-9._%-]");
+    private static final String SNAPSHOT_FILE_SUFFIX = ".route";
+    private static final String TEMPORARY_FILE_SUFFIX = ".tmp";
+
+    private final Path directory;
+
+    public TopicRouteSnapshot(String directory, Endpoints accessPoint) {
+        final String name = UNSAFE_FILE_NAME_PATTERN.matcher(accessPoint.getFacade()).replaceAll("_");
+        this.directory = Paths.get(directory, name);
+    }
+
+    private Path snapshotFile(String topic) {
+        return directory.resolve(topic + SNAPSHOT_FILE_SUFFIX);
+    }
+
+    /**
+     * Load the topic route from the snapshot.
+     *
+     * <p>Never thrown any exception, return {@link Optional#empty()} if the snapshot does not exist or is corrupted.
+     *
+     * @param topic topic to load.
+     * @return the topic route restored.
+     */
+    public Optional<TopicRouteData> load(String topic) {
+        final Path file = snapshotFile(topic);
+        try {
+            final byte[] bytes = Files.readAllBytes(file);
+            final List<MessageQueue> messageQueues = QueryRouteResponse.parseFrom(bytes).getMessageQueuesList();
+            if (messageQueues.isEmpty()) {
+                return Optional.empty();
+            }
+            return Optional.of(new TopicRouteData(messageQueues));
+        } catch (NoSuchFileException e) {
+            return Optional.empty();
+        } catch (Throwable t) {
+            LOGGER.warn("Failed to load topic route snapshot, topic={}, file={}", topic, file, t);
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Store the topic route into the snapshot, the existed snapshot would be replaced atomically.
+     *
+     * <p>Never thrown any exception.
+     *
+     * @param topic          topic to store.
+     * @param topicRouteData the latest topic route.
+     */
+    public synchronized void store(String topic, TopicRouteData topicRouteData) {
+        final Path file = snapshotFile(topic);
+        final Path temporaryFile = directory.resolve(topic + SNAPSHOT_FILE_SUFFIX + TEMPORARY_FILE_SUFFIX);
+        final QueryRouteResponse.Builder builder = QueryRouteResponse.newBuilder();
+        for (MessageQueueImpl messageQueue : topicRouteData.getMessageQueues()) {
+            builder.addMessageQueues(messageQueue.toProtobuf());
+        }
+        try {
+            Files.createDirectories(directory);
+            Files.write(temporaryFile, builder.build().toByteArray());
+            try {
+                Files.move(temporaryFile, file, StandardCopyOption.ATOMIC_MOVE,
+                    StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temporaryFile, file, StandardCopyOption.REPLACE_EXISTING);
+            }
+            LOGGER.debug("Store topic route snapshot successfully, topic={}, file={}", topic, file);
+        } catch (IOException e) {
+            LOGGER.warn("Failed to store topic route snapshot, topic={}, file={}", topic, file, e);
+        }
+    }
+}
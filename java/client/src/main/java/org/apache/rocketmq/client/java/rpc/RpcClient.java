@@ -116,7 +116,8 @@ public interface RpcClient {
         QueryAssignmentRequest request, Executor executor, Duration duration);
 
     /**
-     * Receiving message asynchronously from server.
+     * Receiving message asynchronously from server, the call is bound to the gRPC {@link io.grpc.Context} of the
+     * caller, so it is aborted once the context is cancelled, even if the responses are being iterated.
      *
      * @param metadata gRPC request header metadata.
      * @param request  receiving message request.
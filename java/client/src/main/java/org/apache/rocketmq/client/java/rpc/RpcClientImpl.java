@@ -76,8 +76,15 @@ public class RpcClientImpl implements RpcClient {
 
     private long activityNanoTime;
 
-    @SuppressWarnings("deprecation")
     public RpcClientImpl(Endpoints endpoints) throws SSLException {
+        this(endpoints, new ClientInterceptor[0]);
+    }
+
+    /**
+     * @param interceptors extra interceptors to be installed on the channel, such as the one to record RPC metrics.
+     */
+    @SuppressWarnings("deprecation")
+    public RpcClientImpl(Endpoints endpoints, ClientInterceptor... interceptors) throws SSLException {
         this.endpoints = endpoints;
         final SslContextBuilder builder = GrpcSslContexts.forClient();
         builder.trustManager(InsecureTrustManagerFactory.INSTANCE);
@@ -89,6 +96,7 @@ public class RpcClientImpl implements RpcClient {
                 .keepAliveTime(KEEP_ALIVE_DURATION.toNanos(), TimeUnit.NANOSECONDS)
                 .maxInboundMessageSize(GRPC_MAX_MESSAGE_SIZE)
                 .intercept(LoggingInterceptor.getInstance())
+                .intercept(interceptors)
                 .sslContext(sslContext);
         // Disable grpc's auto-retry here.
 
@@ -170,8 +178,9 @@ public class RpcClientImpl implements RpcClient {
         final Callable<Iterator<ReceiveMessageResponse>> callable = () -> blockingStub
             .withInterceptors(MetadataUtils.newAttachHeadersInterceptor(metadata)).withExecutor(executor)
             .withDeadlineAfter(duration.toNanos(), TimeUnit.NANOSECONDS).receiveMessage(request);
+        // Start the call in the context of the caller, so that the caller could abort it by cancelling the context.
         final ListenableFuture<Iterator<ReceiveMessageResponse>> future =
-            MoreExecutors.listeningDecorator(executor).submit(callable);
+            MoreExecutors.listeningDecorator(executor).submit(io.grpc.Context.current().wrap(callable));
         return wrapInvocationContext(future, metadata);
     }
 
@@ -0,0 +1,351 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.rocketmq.client.java.impl;
+
+import apache.rocketmq.v2.AckMessageRequest;
+import apache.rocketmq.v2.AckMessageResponse;
+import apache.rocketmq.v2.Broker;
+import apache.rocketmq.v2.ChangeInvisibleDurationRequest;
+import apache.rocketmq.v2.ChangeInvisibleDurationResponse;
+import apache.rocketmq.v2.Code;
+import apache.rocketmq.v2.EndTransactionRequest;
+import apache.rocketmq.v2.EndTransactionResponse;
+import apache.rocketmq.v2.ForwardMessageToDeadLetterQueueRequest;
+import apache.rocketmq.v2.ForwardMessageToDeadLetterQueueResponse;
+import apache.rocketmq.v2.HeartbeatRequest;
+import apache.rocketmq.v2.HeartbeatResponse;
+import apache.rocketmq.v2.MessageQueue;
+import apache.rocketmq.v2.NotifyClientTerminationRequest;
+import apache.rocketmq.v2.NotifyClientTerminationResponse;
+import apache.rocketmq.v2.Permission;
+import apache.rocketmq.v2.QueryAssignmentRequest;
+import apache.rocketmq.v2.QueryAssignmentResponse;
+import apache.rocketmq.v2.QueryRouteRequest;
+import apache.rocketmq.v2.QueryRouteResponse;
+import apache.rocketmq.v2.ReceiveMessageRequest;
+import apache.rocketmq.v2.ReceiveMessageResponse;
+import apache.rocketmq.v2.Resource;
+import apache.rocketmq.v2.SendMessageRequest;
+import apache.rocketmq.v2.SendMessageResponse;
+import apache.rocketmq.v2.Settings;
+import apache.rocketmq.v2.Status;
+import apache.rocketmq.v2.TelemetryCommand;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.SettableFuture;
+import io.grpc.Metadata;
+import io.grpc.stub.StreamObserver;
+import java.lang.reflect.Field;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+import org.apache.rocketmq.client.apis.ClientConfiguration;
+import org.apache.rocketmq.client.java.misc.ThreadFactoryImpl;
+import org.apache.rocketmq.client.java.route.Endpoints;
+import org.apache.rocketmq.client.java.route.TopicRouteData;
+import org.apache.rocketmq.client.java.route.TopicRouteDataResult;
+import org.apache.rocketmq.client.java.route.TopicRouteSnapshot;
+import org.apache.rocketmq.client.java.rpc.RpcInvocation;
+import org.apache.rocketmq.client.java.tool.TestBase;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class ClientImplTest extends TestBase {
+    private static final int TOPIC_COUNT = 10000;
+    private static final int BROKER_COUNT = 8;
+    private static final int MAX_INFLIGHT_ROUTE_REFRESH_REQUESTS = 64;
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private final ClientConfiguration clientConfiguration = ClientConfiguration.newBuilder()
+        .setEndpoints(FAKE_ACCESS_POINT).build();
+
+    private final RouteRefreshClient client = new RouteRefreshClient(clientConfiguration);
+    private final StandInClientManager clientManager = new StandInClientManager();
+
+    @Before
+    public void setUp() throws Exception {
+        replaceClientManager(client);
+    }
+
+    /**
+     * Replace the client manager by the stand-in one.
+     */
+    private void replaceClientManager(ClientImpl client) throws Exception {
+        final Field field = ClientImpl.class.getDeclaredField("clientManager");
+        field.setAccessible(true);
+        field.set(client, clientManager);
+    }
+
+    @After
+    public void tearDown() {
+        clientManager.scheduler.shutdownNow();
+    }
+
+    private void await(BooleanSupplier condition) throws InterruptedException {
+        final long deadline = System.currentTimeMillis() + Duration.ofSeconds(30).toMillis();
+        while (!condition.getAsBoolean()) {
+            Assert.assertTrue("Timeout to wait for the condition", System.currentTimeMillis() < deadline);
+            Thread.sleep(10);
+        }
+    }
+
+    @Test
+    public void testUpdateRouteCacheWithMassiveTopics() throws Exception {
+        List<ListenableFuture<TopicRouteDataResult>> futures = new ArrayList<>();
+        for (int i = 0; i < TOPIC_COUNT; i++) {
+            final String topic = FAKE_TOPIC_0 + i;
+            clientManager.topicBrokerIndexTable.put(topic, i % BROKER_COUNT);
+            futures.add(client.getRouteDataResult(topic));
+        }
+        Futures.allAsList(futures).get(30, TimeUnit.SECONDS);
+        Assert.assertEquals(TOPIC_COUNT, client.updateTimes.get());
+        final int telemetryTimes = clientManager.telemetryTimes.get();
+
+        // Route of the first topic is changed, others remain the same.
+        clientManager.topicBrokerIndexTable.put(FAKE_TOPIC_0 + 0, BROKER_COUNT);
+        clientManager.queryRouteTimes.set(0);
+        clientManager.maxInflightQueryRouteRequests.set(0);
+        client.updateRouteCache(Duration.ofMillis(100));
+        await(() -> TOPIC_COUNT == clientManager.queryRouteTimes.get()
+            && 0 == clientManager.inflightQueryRouteRequests.get());
+        await(() -> TOPIC_COUNT + 1 == client.updateTimes.get());
+        Assert.assertTrue(clientManager.maxInflightQueryRouteRequests.get() <= MAX_INFLIGHT_ROUTE_REFRESH_REQUESTS);
+        // Only the session of the new endpoints is registered.
+        Assert.assertEquals(telemetryTimes + 1, clientManager.telemetryTimes.get());
+        Thread.sleep(100);
+        Assert.assertEquals(TOPIC_COUNT, clientManager.queryRouteTimes.get());
+        Assert.assertEquals(TOPIC_COUNT + 1, client.updateTimes.get());
+    }
+
+    @Test
+    public void testStartUpWithRouteSnapshot() throws Exception {
+        final String directory = temporaryFolder.newFolder().getPath();
+        final TopicRouteSnapshot snapshot = new TopicRouteSnapshot(directory, new Endpoints(FAKE_ACCESS_POINT));
+        final TopicRouteData snapshotRouteData = new TopicRouteData(Collections.singletonList(fakePbMessageQueue0()));
+        snapshot.store(FAKE_TOPIC_0, snapshotRouteData);
+        // Route served by remote differs from the snapshot.
+        clientManager.topicBrokerIndexTable.put(FAKE_TOPIC_0, BROKER_COUNT);
+
+        final ClientConfiguration configuration = ClientConfiguration.newBuilder().setEndpoints(FAKE_ACCESS_POINT)
+            .setRouteSnapshotDirectory(directory).build();
+        final RouteRefreshClient warmClient = new RouteRefreshClient(configuration,
+            Collections.singleton(FAKE_TOPIC_0));
+        replaceClientManager(warmClient);
+        warmClient.startUp();
+        // The route is restored from the snapshot firstly, then replaced by the one refreshed from remote.
+        await(() -> 2 == warmClient.updatedResults.size());
+        Assert.assertEquals(snapshotRouteData, warmClient.updatedResults.get(0).getTopicRouteData());
+        final TopicRouteData remoteRouteData = warmClient.updatedResults.get(1).getTopicRouteData();
+        Assert.assertNotEquals(snapshotRouteData, remoteRouteData);
+        Assert.assertEquals(remoteRouteData,
+            warmClient.getRouteDataResult(FAKE_TOPIC_0).get(30, TimeUnit.SECONDS).getTopicRouteData());
+        // The snapshot is replaced by the refreshed route as well.
+        await(() -> remoteRouteData.equals(snapshot.load(FAKE_TOPIC_0).orElse(null)));
+        Assert.assertEquals(1, clientManager.queryRouteTimes.get());
+    }
+
+    static class RouteRefreshClient extends ClientImpl {
+        private final ClientSettings clientSettings;
+        private final AtomicInteger updateTimes = new AtomicInteger();
+        private final List<TopicRouteDataResult> updatedResults = new CopyOnWriteArrayList<>();
+
+        RouteRefreshClient(ClientConfiguration clientConfiguration) {
+            this(clientConfiguration, new HashSet<>());
+        }
+
+        RouteRefreshClient(ClientConfiguration clientConfiguration, Set<String> topics) {
+            super(clientConfiguration, topics);
+            this.clientSettings = new ClientSettings(clientId, ClientType.PRODUCER, endpoints,
+                clientConfiguration.getRequestTimeout()) {
+                @Override
+                public Settings toProtobuf() {
+                    return Settings.getDefaultInstance();
+                }
+
+                @Override
+                public void applySettingsCommand(Settings settings) {
+                }
+            };
+            clientSettings.getArrivedFuture().set(null);
+        }
+
+        @Override
+        public ClientSettings getClientSettings() {
+            return clientSettings;
+        }
+
+        @Override
+        public NotifyClientTerminationRequest wrapNotifyClientTerminationRequest() {
+            return NotifyClientTerminationRequest.getDefaultInstance();
+        }
+
+        @Override
+        public HeartbeatRequest wrapHeartbeatRequest() {
+            return HeartbeatRequest.getDefaultInstance();
+        }
+
+        @Override
+        public void onTopicRouteDataResultUpdate0(String topic, TopicRouteDataResult topicRouteDataResult) {
+            updateTimes.incrementAndGet();
+            updatedResults.add(topicRouteDataResult);
+        }
+    }
+
+    /**
+     * Stand-in client manager, which serves the topic route only and completes each query asynchronously.
+     */
+    class StandInClientManager extends ClientManager {
+        private final ScheduledThreadPoolExecutor scheduler = new ScheduledThreadPoolExecutor(4,
+            new ThreadFactoryImpl("TestRouteScheduler"));
+        /**
+         * Broker index of topic route.
+         */
+        private final Map<String, Integer> topicBrokerIndexTable = new ConcurrentHashMap<>();
+        private final AtomicInteger telemetryTimes = new AtomicInteger();
+        private final AtomicInteger queryRouteTimes = new AtomicInteger();
+        private final AtomicInteger inflightQueryRouteRequests = new AtomicInteger();
+        private final AtomicInteger maxInflightQueryRouteRequests = new AtomicInteger();
+
+        @Override
+        protected void startUp() {
+        }
+
+        @Override
+        protected void shutDown() {
+        }
+
+        @Override
+        public ScheduledExecutorService getScheduler() {
+            return scheduler;
+        }
+
+        @Override
+        public ListenableFuture<RpcInvocation<QueryRouteResponse>> queryRoute(Endpoints endpoints,
+            Metadata metadata, QueryRouteRequest request, Duration duration) {
+            final String topic = request.getTopic().getName();
+            final int inflight = inflightQueryRouteRequests.incrementAndGet();
+            maxInflightQueryRouteRequests.accumulateAndGet(inflight, Math::max);
+            queryRouteTimes.incrementAndGet();
+            final int brokerIndex = topicBrokerIndexTable.get(topic);
+            final MessageQueue mq = MessageQueue.newBuilder().setTopic(Resource.newBuilder().setName(topic))
+                .setBroker(Broker.newBuilder().setName(FAKE_BROKER_NAME_0 + brokerIndex)
+                    .setEndpoints(fakePbEndpoints(fakePbAddress(FAKE_HOST_0, FAKE_PORT_0 + brokerIndex))))
+                .setPermission(Permission.READ_WRITE).build();
+            final QueryRouteResponse response = QueryRouteResponse.newBuilder()
+                .setStatus(Status.newBuilder().setCode(Code.OK)).addMessageQueues(mq).build();
+            SettableFuture<RpcInvocation<QueryRouteResponse>> future = SettableFuture.create();
+            scheduler.schedule(() -> {
+                inflightQueryRouteRequests.decrementAndGet();
+                future.set(new RpcInvocation<>(response, fakeRpcContext()));
+            }, 1, TimeUnit.MILLISECONDS);
+            return future;
+        }
+
+        @Override
+        public StreamObserver<TelemetryCommand> telemetry(Endpoints endpoints, Metadata metadata,
+            Duration duration, StreamObserver<TelemetryCommand> responseObserver) {
+            telemetryTimes.incrementAndGet();
+            return new StreamObserver<TelemetryCommand>() {
+                @Override
+                public void onNext(TelemetryCommand value) {
+                }
+
+                @Override
+                public void onError(Throwable t) {
+                }
+
+                @Override
+                public void onCompleted() {
+                }
+            };
+        }
+
+        @Override
+        public ListenableFuture<RpcInvocation<HeartbeatResponse>> heartbeat(Endpoints endpoints,
+            Metadata metadata, HeartbeatRequest request, Duration duration) {
+            return Futures.immediateFailedFuture(new UnsupportedOperationException());
+        }
+
+        @Override
+        public ListenableFuture<RpcInvocation<SendMessageResponse>> sendMessage(Endpoints endpoints,
+            Metadata metadata, SendMessageRequest request, Duration duration) {
+            return Futures.immediateFailedFuture(new UnsupportedOperationException());
+        }
+
+        @Override
+        public ListenableFuture<RpcInvocation<QueryAssignmentResponse>> queryAssignment(Endpoints endpoints,
+            Metadata metadata, QueryAssignmentRequest request, Duration duration) {
+            return Futures.immediateFailedFuture(new UnsupportedOperationException());
+        }
+
+        @Override
+        public ListenableFuture<RpcInvocation<Iterator<ReceiveMessageResponse>>> receiveMessage(
+            Endpoints endpoints, Metadata metadata, ReceiveMessageRequest request, Duration duration) {
+            return Futures.immediateFailedFuture(new UnsupportedOperationException());
+        }
+
+        @Override
+        public ListenableFuture<RpcInvocation<AckMessageResponse>> ackMessage(Endpoints endpoints,
+            Metadata metadata, AckMessageRequest request, Duration duration) {
+            return Futures.immediateFailedFuture(new UnsupportedOperationException());
+        }
+
+        @Override
+        public ListenableFuture<RpcInvocation<ChangeInvisibleDurationResponse>> changeInvisibleDuration(
+            Endpoints endpoints, Metadata metadata, ChangeInvisibleDurationRequest request, Duration duration) {
+            return Futures.immediateFailedFuture(new UnsupportedOperationException());
+        }
+
+        @Override
+        public ListenableFuture<RpcInvocation<ForwardMessageToDeadLetterQueueResponse>>
+        forwardMessageToDeadLetterQueue(Endpoints endpoints, Metadata metadata,
+            ForwardMessageToDeadLetterQueueRequest request, Duration duration) {
+            return Futures.immediateFailedFuture(new UnsupportedOperationException());
+        }
+
+        @Override
+        public ListenableFuture<RpcInvocation<EndTransactionResponse>> endTransaction(Endpoints endpoints,
+            Metadata metadata, EndTransactionRequest request, Duration duration) {
+            return Futures.immediateFailedFuture(new UnsupportedOperationException());
+        }
+
+        @Override
+        public ListenableFuture<RpcInvocation<NotifyClientTerminationResponse>> notifyClientTermination(
+            Endpoints endpoints, Metadata metadata, NotifyClientTerminationRequest request, Duration duration) {
+            return Futures.immediateFailedFuture(new UnsupportedOperationException());
+        }
+    }
+}
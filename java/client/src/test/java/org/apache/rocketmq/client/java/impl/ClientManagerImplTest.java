@@ -29,8 +29,12 @@ import apache.rocketmq.v2.ReceiveMessageRequest;
 import apache.rocketmq.v2.SendMessageRequest;
 import io.grpc.Metadata;
 import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
 import org.apache.rocketmq.client.java.tool.TestBase;
 import org.junit.AfterClass;
+import org.junit.Assert;
 import org.junit.BeforeClass;
 import org.junit.Test;
 
@@ -136,4 +140,25 @@ public class ClientManagerImplTest extends TestBase {
         CLIENT_MANAGER.notifyClientTermination(null, metadata, request, Duration.ofSeconds(1));
         // Expect no exception thrown.
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testProvidedExecutorsAreNotShutdown() {
+        final ScheduledThreadPoolExecutor scheduler = new ScheduledThreadPoolExecutor(1);
+        scheduler.setRemoveOnCancelPolicy(true);
+        final ExecutorService asyncWorker = Executors.newSingleThreadExecutor();
+        try {
+            final ClientManagerImpl clientManager = new ClientManagerImpl(null, null, scheduler, asyncWorker);
+            Assert.assertSame(scheduler, clientManager.getScheduler());
+            clientManager.startAsync().awaitRunning();
+            Assert.assertFalse(scheduler.getQueue().isEmpty());
+            clientManager.stopAsync().awaitTerminated();
+            Assert.assertFalse(scheduler.isShutdown());
+            Assert.assertFalse(asyncWorker.isShutdown());
+            // Periodic tasks are cancelled.
+            Assert.assertTrue(scheduler.getQueue().isEmpty());
+        } finally {
+            scheduler.shutdown();
+            asyncWorker.shutdown();
+        }
+    }
+}
@@ -0,0 +1,64 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.rocketmq.client.java.impl.consumer;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import org.apache.rocketmq.client.apis.consumer.ConsumeResult;
+import org.apache.rocketmq.client.java.hook.MessageHookPoints;
+import org.apache.rocketmq.client.java.hook.MessageHookPointsStatus;
+import org.apache.rocketmq.client.java.hook.MessageInterceptor;
+import org.apache.rocketmq.client.java.message.MessageViewImpl;
+import org.apache.rocketmq.client.java.tool.TestBase;
+import org.junit.Test;
+
+public class ConsumeTaskTest extends TestBase {
+
+    @Test
+    public void testCallWithEnabledInterceptor() {
+        final MessageViewImpl messageView = fakeMessageViewImpl();
+        final MessageInterceptor interceptor = mock(MessageInterceptor.class);
+        when(interceptor.isEnabled()).thenReturn(true);
+        final ConsumeTask task = new ConsumeTask(FAKE_CLIENT_ID, view -> ConsumeResult.SUCCESS, messageView,
+            interceptor);
+        assertEquals(ConsumeResult.SUCCESS, task.call());
+        verify(interceptor, times(1)).doBefore(eq(MessageHookPoints.CONSUME), anyList());
+        verify(interceptor, times(1)).doAfter(eq(MessageHookPoints.CONSUME), anyList(), any(),
+            eq(MessageHookPointsStatus.OK));
+    }
+
+    @Test
+    public void testCallWithDisabledInterceptor() {
+        final MessageViewImpl messageView = fakeMessageViewImpl();
+        final MessageInterceptor interceptor = mock(MessageInterceptor.class);
+        when(interceptor.isEnabled()).thenReturn(false);
+        final ConsumeTask task = new ConsumeTask(FAKE_CLIENT_ID, view -> ConsumeResult.FAILURE, messageView,
+            interceptor);
+        assertEquals(ConsumeResult.FAILURE, task.call());
+        verify(interceptor, never()).doBefore(any(), any());
+        verify(interceptor, never()).doAfter(any(), any(), any(), any());
+    }
+}
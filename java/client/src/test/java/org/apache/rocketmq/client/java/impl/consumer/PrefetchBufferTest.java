@@ -0,0 +1,95 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.rocketmq.client.java.impl.consumer;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import org.apache.rocketmq.client.java.message.MessageViewImpl;
+import org.apache.rocketmq.client.java.tool.TestBase;
+import org.junit.Test;
+
+public class PrefetchBufferTest extends TestBase {
+
+    private List<MessageViewImpl> fakeMessageViews(int count) {
+        final List<MessageViewImpl> messageViews = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            messageViews.add(fakeMessageViewImpl());
+        }
+        return messageViews;
+    }
+
+    @Test
+    public void testPoll() {
+        final PrefetchBuffer buffer = new PrefetchBuffer(8);
+        final List<MessageViewImpl> messageViews = fakeMessageViews(3);
+        buffer.offer(messageViews, Duration.ofSeconds(30));
+        assertEquals(3, buffer.getPrefetchedMessageCount());
+        assertEquals(5, buffer.remainingCapacity());
+
+        final List<MessageViewImpl> expired = new ArrayList<>();
+        final List<MessageViewImpl> shortened = new ArrayList<>();
+        final List<MessageViewImpl> taken = buffer.poll(2, Duration.ofSeconds(10), expired, shortened);
+        assertEquals(messageViews.subList(0, 2), taken);
+        assertTrue(expired.isEmpty());
+        assertTrue(shortened.isEmpty());
+        assertEquals(1, buffer.getPrefetchedMessageCount());
+        assertEquals(messageViews.subList(2, 3), buffer.poll(2, Duration.ofSeconds(10), expired, shortened));
+        assertEquals(0, buffer.getDiscardedMessageCount());
+    }
+
+    @Test
+    public void testPollShortened() {
+        final PrefetchBuffer buffer = new PrefetchBuffer(8);
+        final List<MessageViewImpl> messageViews = fakeMessageViews(2);
+        buffer.offer(messageViews, Duration.ofSeconds(30));
+
+        final List<MessageViewImpl> expired = new ArrayList<>();
+        final List<MessageViewImpl> shortened = new ArrayList<>();
+        // Less invisible duration is left than requested.
+        assertEquals(messageViews, buffer.poll(2, Duration.ofSeconds(30), expired, shortened));
+        assertEquals(messageViews, shortened);
+        assertTrue(expired.isEmpty());
+    }
+
+    @Test
+    public void testExpired() {
+        final PrefetchBuffer buffer = new PrefetchBuffer(8);
+        final List<MessageViewImpl> expiredMessageViews = fakeMessageViews(2);
+        buffer.offer(expiredMessageViews, Duration.ZERO);
+        final List<MessageViewImpl> messageViews = fakeMessageViews(2);
+        buffer.offer(messageViews, Duration.ofSeconds(30));
+
+        final List<MessageViewImpl> expired = new ArrayList<>();
+        assertEquals(messageViews.subList(0, 1), buffer.poll(1, Duration.ofSeconds(10), expired,
+            new ArrayList<>()));
+        assertEquals(expiredMessageViews, expired);
+        assertEquals(2, buffer.getDiscardedMessageCount());
+        assertTrue(buffer.drainExpired().isEmpty());
+
+        buffer.offer(fakeMessageViews(1), Duration.ZERO);
+        assertEquals(1, buffer.drainExpired().size());
+        assertEquals(3, buffer.getDiscardedMessageCount());
+        assertEquals(1, buffer.drainAll().size());
+        assertEquals(4, buffer.getDiscardedMessageCount());
+        assertEquals(0, buffer.getPrefetchedMessageCount());
+    }
+}
@@ -0,0 +1,122 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.rocketmq.client.java.impl.consumer;
+
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assume.assumeTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+import apache.rocketmq.v2.AckMessageRequest;
+import apache.rocketmq.v2.AckMessageResponse;
+import apache.rocketmq.v2.Code;
+import apache.rocketmq.v2.ReceiveMessageRequest;
+import apache.rocketmq.v2.ReceiveMessageResponse;
+import apache.rocketmq.v2.Status;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import io.grpc.Metadata;
+import java.lang.reflect.Field;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import org.apache.rocketmq.client.apis.ClientConfiguration;
+import org.apache.rocketmq.client.apis.consumer.ConsumeResult;
+import org.apache.rocketmq.client.apis.consumer.FilterExpression;
+import org.apache.rocketmq.client.java.impl.ClientImpl;
+import org.apache.rocketmq.client.java.impl.ClientManagerImpl;
+import org.apache.rocketmq.client.java.message.MessageViewImpl;
+import org.apache.rocketmq.client.java.route.Endpoints;
+import org.apache.rocketmq.client.java.route.MessageQueueImpl;
+import org.apache.rocketmq.client.java.rpc.RpcInvocation;
+import org.apache.rocketmq.client.java.tool.AllocationMeter;
+import org.apache.rocketmq.client.java.tool.TestBase;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+/**
+ * Allocation budget of the consuming fast path, raise the budget only if the extra allocation is justified.
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class ProcessQueueAllocationTest extends TestBase {
+    /**
+     * Bytes allocated to receive, cache, take and acknowledge one message through {@link ProcessQueueImpl}.
+     */
+    private static final long RECEIVE_CONSUME_ACK_BUDGET = 48 * 1024;
+
+    private static final int WARMUP_ITERATIONS = 5000;
+    private static final int ITERATIONS = 2000;
+
+    // Stub only, the invocations are not recorded to avoid allocation of the mock itself.
+    @Mock(stubOnly = true)
+    private ClientManagerImpl clientManager;
+
+    private final ClientConfiguration clientConfiguration = ClientConfiguration.newBuilder()
+        .setEndpoints(FAKE_ACCESS_POINT).build();
+
+    private final PushConsumerImpl pushConsumer = new PushConsumerImpl(clientConfiguration, FAKE_GROUP_0,
+        Collections.singletonMap(FAKE_TOPIC_0, FilterExpression.SUB_ALL), messageView -> ConsumeResult.SUCCESS,
+        1024, 64 * 1024 * 1024, 1);
+
+    private final MessageQueueImpl mq = fakeMessageQueueImpl0();
+
+    private ProcessQueueImpl processQueue;
+
+    @Before
+    public void setup() throws IllegalAccessException, NoSuchFieldException {
+        Field field = ClientImpl.class.getDeclaredField("clientManager");
+        field.setAccessible(true);
+        field.set(pushConsumer, clientManager);
+        this.processQueue = new ProcessQueueImpl(pushConsumer, mq, FilterExpression.SUB_ALL);
+
+        final Status status = Status.newBuilder().setCode(Code.OK).build();
+        final apache.rocketmq.v2.Message pbMessage = fakePbMessage(FAKE_TOPIC_0);
+        final apache.rocketmq.v2.Message message = pbMessage.toBuilder().setSystemProperties(
+            pbMessage.getSystemProperties().toBuilder().setReceiptHandle(FAKE_RECEIPT_HANDLE_0)).build();
+        List<ReceiveMessageResponse> responses = new ArrayList<>();
+        responses.add(ReceiveMessageResponse.newBuilder().setStatus(status).build());
+        responses.add(ReceiveMessageResponse.newBuilder().setMessage(message).build());
+        when(clientManager.receiveMessage(any(Endpoints.class), any(Metadata.class),
+            any(ReceiveMessageRequest.class), any(Duration.class)))
+            .thenAnswer(invocation -> Futures.immediateFuture(new RpcInvocation<>(responses.iterator(),
+                fakeRpcContext())));
+        final ListenableFuture<RpcInvocation<AckMessageResponse>> future = okAckMessageResponseFuture();
+        when(clientManager.ackMessage(any(Endpoints.class), any(Metadata.class), any(AckMessageRequest.class),
+            any(Duration.class))).thenReturn(future);
+    }
+
+    @Test
+    public void testReceiveConsumeAck() throws Exception {
+        assumeTrue(AllocationMeter.isSupported());
+        final long bytes = AllocationMeter.measure(WARMUP_ITERATIONS, ITERATIONS, () -> {
+            final ReceiveMessageRequest request = pushConsumer.wrapReceiveMessageRequest(1, mq,
+                FilterExpression.SUB_ALL);
+            final ReceiveMessageResult result = pushConsumer.receiveMessage(request, mq, Duration.ofSeconds(15))
+                .get();
+            processQueue.cacheMessages(result.getMessageViewImpls());
+            final MessageViewImpl messageView = processQueue.tryTakeMessage().get();
+            processQueue.eraseMessage(messageView, ConsumeResult.SUCCESS);
+        });
+        assertTrue("Receive, consume and ack allocated " + bytes + " bytes, exceeds the budget of "
+            + RECEIVE_CONSUME_ACK_BUDGET, bytes <= RECEIVE_CONSUME_ACK_BUDGET);
+    }
+}
@@ -22,6 +22,10 @@ import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -40,19 +44,24 @@ import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicLong;
 import org.apache.rocketmq.client.apis.ClientException;
 import org.apache.rocketmq.client.apis.consumer.ConsumeResult;
 import org.apache.rocketmq.client.apis.consumer.FilterExpression;
 import org.apache.rocketmq.client.java.message.MessageViewImpl;
 import org.apache.rocketmq.client.java.misc.RequestIdGenerator;
+import org.apache.rocketmq.client.java.retry.EndpointsBackoff;
 import org.apache.rocketmq.client.java.retry.RetryPolicy;
+import org.apache.rocketmq.client.java.route.Endpoints;
 import org.apache.rocketmq.client.java.route.MessageQueueImpl;
 import org.apache.rocketmq.client.java.rpc.RpcInvocation;
 import org.apache.rocketmq.client.java.tool.TestBase;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.junit.MockitoJUnitRunner;
 
@@ -158,6 +167,9 @@ public class ProcessQueueImplTest extends TestBase {
         when(pushConsumer.receiveMessage(any(ReceiveMessageRequest.class), any(MessageQueueImpl.class),
             any(Duration.class))).thenReturn(future0);
         when(pushConsumerSettings.getReceiveBatchSize()).thenReturn(32);
+        when(pushConsumer.allowRequest(any(Endpoints.class))).thenReturn(true);
+        when(pushConsumer.getReceptionBackoff()).thenReturn(new EndpointsBackoff(Duration.ofMillis(100),
+            Duration.ofSeconds(10), 2));
         ReceiveMessageRequest request = ReceiveMessageRequest.newBuilder().build();
         when(pushConsumer.wrapReceiveMessageRequest(anyInt(), any(MessageQueueImpl.class),
             any(FilterExpression.class))).thenReturn(request);
@@ -167,6 +179,95 @@ public class ProcessQueueImplTest extends TestBase {
             .receiveMessage(any(ReceiveMessageRequest.class), any(MessageQueueImpl.class), any(Duration.class));
     }
 
+    @Test
+    public void testReceiveMessageConcurrently() throws ClientException {
+        when(pushConsumer.cacheMessageCountThresholdPerQueue()).thenReturn(10);
+        when(pushConsumer.cacheMessageBytesThresholdPerQueue()).thenReturn(Integer.MAX_VALUE);
+        when(pushConsumer.getMaxReceptionConcurrencyPerQueue()).thenReturn(4);
+        when(pushConsumer.getReceptionTimes()).thenReturn(new AtomicLong());
+        when(pushConsumerSettings.getReceiveBatchSize()).thenReturn(4);
+        when(pushConsumer.allowRequest(any(Endpoints.class))).thenReturn(true);
+        when(pushConsumer.getReceptionBackoff()).thenReturn(new EndpointsBackoff(Duration.ofMillis(100),
+            Duration.ofSeconds(10), 2));
+        when(pushConsumer.wrapReceiveMessageRequest(anyInt(), any(MessageQueueImpl.class),
+            any(FilterExpression.class))).thenReturn(ReceiveMessageRequest.newBuilder().build());
+        SettableFuture<ReceiveMessageResult> future0 = SettableFuture.create();
+        SettableFuture<ReceiveMessageResult> future1 = SettableFuture.create();
+        SettableFuture<ReceiveMessageResult> future2 = SettableFuture.create();
+        when(pushConsumer.receiveMessage(any(ReceiveMessageRequest.class), any(MessageQueueImpl.class),
+            any(Duration.class))).thenReturn(future0, future1, future2);
+        processQueue.fetchMessageImmediately();
+        verify(pushConsumer, times(1))
+            .receiveMessage(any(ReceiveMessageRequest.class), any(MessageQueueImpl.class), any(Duration.class));
+
+        // A full batch grows the concurrency, the batch size is limited by the rest of the cache.
+        List<MessageViewImpl> messageViewList = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            messageViewList.add(fakeMessageViewImpl());
+        }
+        Status status = Status.newBuilder().setCode(Code.OK).build();
+        future0.set(new ReceiveMessageResult(fakeEndpoints(), RequestIdGenerator.getInstance().next(), status,
+            messageViewList));
+        verify(pushConsumer, times(3))
+            .receiveMessage(any(ReceiveMessageRequest.class), any(MessageQueueImpl.class), any(Duration.class));
+        verify(pushConsumer, times(2)).wrapReceiveMessageRequest(eq(4), any(MessageQueueImpl.class),
+            any(FilterExpression.class));
+        verify(pushConsumer, times(1)).wrapReceiveMessageRequest(eq(2), any(MessageQueueImpl.class),
+            any(FilterExpression.class));
+        assertEquals(4, processQueue.cachedMessagesCount());
+    }
+
+    @Test
+    public void testReceiveMessageConcurrentlyWithinBytesThreshold() throws ClientException {
+        final int bodySize = 64;
+        when(pushConsumer.cacheMessageCountThresholdPerQueue()).thenReturn(Integer.MAX_VALUE);
+        // Room for 10 messages, 4 of them are taken by the first batch.
+        when(pushConsumer.cacheMessageBytesThresholdPerQueue()).thenReturn(10 * bodySize);
+        when(pushConsumer.getMaxReceptionConcurrencyPerQueue()).thenReturn(4);
+        when(pushConsumer.getReceptionTimes()).thenReturn(new AtomicLong());
+        when(pushConsumerSettings.getReceiveBatchSize()).thenReturn(4);
+        when(pushConsumer.allowRequest(any(Endpoints.class))).thenReturn(true);
+        when(pushConsumer.getReceptionBackoff()).thenReturn(new EndpointsBackoff(Duration.ofMillis(100),
+            Duration.ofSeconds(10), 2));
+        when(pushConsumer.wrapReceiveMessageRequest(anyInt(), any(MessageQueueImpl.class),
+            any(FilterExpression.class))).thenReturn(ReceiveMessageRequest.newBuilder().build());
+        SettableFuture<ReceiveMessageResult> future0 = SettableFuture.create();
+        SettableFuture<ReceiveMessageResult> future1 = SettableFuture.create();
+        SettableFuture<ReceiveMessageResult> future2 = SettableFuture.create();
+        when(pushConsumer.receiveMessage(any(ReceiveMessageRequest.class), any(MessageQueueImpl.class),
+            any(Duration.class))).thenReturn(future0, future1, future2);
+        processQueue.fetchMessageImmediately();
+
+        List<MessageViewImpl> messageViewList = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            messageViewList.add(fakeMessageViewImpl(bodySize, false));
+        }
+        Status status = Status.newBuilder().setCode(Code.OK).build();
+        future0.set(new ReceiveMessageResult(fakeEndpoints(), RequestIdGenerator.getInstance().next(), status,
+            messageViewList));
+        // The batch size is limited by the rest of the memory, rather than the message count.
+        verify(pushConsumer, times(3))
+            .receiveMessage(any(ReceiveMessageRequest.class), any(MessageQueueImpl.class), any(Duration.class));
+        verify(pushConsumer, times(2)).wrapReceiveMessageRequest(eq(4), any(MessageQueueImpl.class),
+            any(FilterExpression.class));
+        verify(pushConsumer, times(1)).wrapReceiveMessageRequest(eq(2), any(MessageQueueImpl.class),
+            any(FilterExpression.class));
+        assertEquals(4 * bodySize, processQueue.cachedMessageBytes());
+    }
+
+    @Test
+    public void testReceiveMessageLaterAfterShutdown() {
+        final ScheduledExecutorService scheduler = mock(ScheduledExecutorService.class);
+        when(pushConsumer.getScheduler()).thenReturn(scheduler);
+        processQueue.receiveMessageLater();
+        final ArgumentCaptor<Runnable> captor = ArgumentCaptor.forClass(Runnable.class);
+        verify(scheduler, times(1)).schedule(captor.capture(), anyLong(), any(TimeUnit.class));
+        // The caller-provided scheduler keeps running the task after the consumer is shut down.
+        when(pushConsumer.isRunning()).thenReturn(false);
+        captor.getValue().run();
+        verify(pushConsumer, never()).cacheMessageCountThresholdPerQueue();
+    }
+
     @Test
     public void testEraseMessageWithConsumeOk() {
         List<MessageViewImpl> messageViewList = new ArrayList<>();
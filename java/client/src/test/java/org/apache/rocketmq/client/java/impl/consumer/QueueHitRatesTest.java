@@ -0,0 +1,86 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.rocketmq.client.java.impl.consumer;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import org.apache.rocketmq.client.java.route.MessageQueueImpl;
+import org.apache.rocketmq.client.java.tool.TestBase;
+import org.junit.Test;
+
+public class QueueHitRatesTest extends TestBase {
+
+    @Test
+    public void testRecord() {
+        final QueueHitRates hitRates = new QueueHitRates();
+        final MessageQueueImpl mq = fakeMessageQueueImpl0();
+        assertEquals(1.0, hitRates.getHitRate(mq), 0.0);
+        hitRates.record(mq, false);
+        assertEquals(1.0 - QueueHitRates.ALPHA, hitRates.getHitRate(mq), 1e-9);
+        hitRates.record(mq, true);
+        assertEquals(1.0 - QueueHitRates.ALPHA + QueueHitRates.ALPHA * QueueHitRates.ALPHA,
+            hitRates.getHitRate(mq), 1e-9);
+        hitRates.retain(Collections.emptyList());
+        assertEquals(1.0, hitRates.getHitRate(mq), 0.0);
+    }
+
+    @Test
+    public void testTakeDistinctQueues() {
+        final QueueHitRates hitRates = new QueueHitRates();
+        final List<MessageQueueImpl> candidates = new ArrayList<>();
+        candidates.add(fakeMessageQueueImpl0());
+        candidates.add(fakeMessageQueueImpl1());
+        final List<MessageQueueImpl> taken = hitRates.take(candidates, 2);
+        assertEquals(2, taken.size());
+        assertNotEquals(taken.get(0), taken.get(1));
+        assertEquals(new HashSet<>(candidates), new HashSet<>(taken));
+        assertEquals(2, hitRates.take(candidates, 3).size());
+        assertEquals(1, hitRates.take(candidates, 1).size());
+    }
+
+    @Test
+    public void testTakeWeightedByHitRate() {
+        final QueueHitRates hitRates = new QueueHitRates();
+        final MessageQueueImpl hit = fakeMessageQueueImpl0();
+        final MessageQueueImpl miss = fakeMessageQueueImpl1();
+        for (int i = 0; i < 100; i++) {
+            hitRates.record(miss, false);
+        }
+        final List<MessageQueueImpl> candidates = new ArrayList<>();
+        candidates.add(hit);
+        candidates.add(miss);
+        int hitTimes = 0;
+        int missTimes = 0;
+        for (int i = 0; i < 1000; i++) {
+            if (hit.equals(hitRates.take(candidates, 1).get(0))) {
+                hitTimes++;
+                continue;
+            }
+            missTimes++;
+        }
+        // Queue which is always empty is still probed.
+        assertTrue(missTimes > 0);
+        assertTrue(hitTimes > 800);
+    }
+}
@@ -17,20 +17,46 @@
 
 package org.apache.rocketmq.client.java.impl.consumer;
 
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import apache.rocketmq.v2.AckMessageResponse;
 import apache.rocketmq.v2.ChangeInvisibleDurationResponse;
 import apache.rocketmq.v2.Code;
+import apache.rocketmq.v2.QueryRouteRequest;
+import apache.rocketmq.v2.QueryRouteResponse;
+import apache.rocketmq.v2.ReceiveMessageRequest;
+import apache.rocketmq.v2.ReceiveMessageResponse;
+import apache.rocketmq.v2.Status;
+import com.google.common.util.concurrent.ForwardingListenableFuture;
+import com.google.common.util.concurrent.Futures;
 import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.SettableFuture;
+import io.grpc.Context;
+import io.grpc.Metadata;
+import io.grpc.StatusRuntimeException;
+import java.lang.reflect.Field;
 import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.NoSuchElementException;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
 import org.apache.rocketmq.client.apis.ClientConfiguration;
 import org.apache.rocketmq.client.apis.ClientException;
 import org.apache.rocketmq.client.apis.consumer.FilterExpression;
@@ -43,13 +69,21 @@ import org.apache.rocketmq.client.java.exception.ProxyTimeoutException;
 import org.apache.rocketmq.client.java.exception.TooManyRequestsException;
 import org.apache.rocketmq.client.java.exception.UnauthorizedException;
 import org.apache.rocketmq.client.java.exception.UnsupportedException;
+import org.apache.rocketmq.client.java.impl.ClientImpl;
+import org.apache.rocketmq.client.java.impl.ClientManager;
 import org.apache.rocketmq.client.java.message.MessageViewImpl;
+import org.apache.rocketmq.client.java.misc.RequestIdGenerator;
+import org.apache.rocketmq.client.java.route.Endpoints;
+import org.apache.rocketmq.client.java.route.MessageQueueImpl;
+import org.apache.rocketmq.client.java.route.TopicRouteDataResult;
 import org.apache.rocketmq.client.java.rpc.RpcInvocation;
 import org.apache.rocketmq.client.java.tool.TestBase;
 import org.junit.Test;
 import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mockito;
+import org.mockito.invocation.Invocation;
 import org.mockito.junit.MockitoJUnitRunner;
 
 @RunWith(MockitoJUnitRunner.class)
@@ -459,4 +493,233 @@ public class SimpleConsumerImplTest extends TestBase {
             }
         }
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testReceiveFanout() throws ClientException, ExecutionException, InterruptedException {
+        simpleConsumer = Mockito.spy(new SimpleConsumerImpl(clientConfiguration, FAKE_GROUP_0, awaitDuration,
+            subExpressions, 2, 0));
+        when(simpleConsumer.isRunning()).thenReturn(true);
+        final Status status = Status.newBuilder().setCode(Code.OK).build();
+        final QueryRouteResponse response = QueryRouteResponse.newBuilder().setStatus(status)
+            .addMessageQueues(fakePbMessageQueue0()).addMessageQueues(fakePbMessageQueue1()).build();
+        simpleConsumer.onTopicRouteDataResultUpdate0(FAKE_TOPIC_0,
+            new TopicRouteDataResult(new RpcInvocation<>(response, fakeRpcContext())));
+
+        final MessageQueueImpl mq0 = fakeMessageQueueImpl0();
+        final MessageQueueImpl mq1 = fakeMessageQueueImpl1();
+        final SettableFuture<ReceiveMessageResult> future0 = SettableFuture.create();
+        final SettableFuture<ReceiveMessageResult> future1 = SettableFuture.create();
+        // The late one could not be cancelled, e.g. the messages have been returned already.
+        final ListenableFuture<ReceiveMessageResult> lateFuture1 =
+            new ForwardingListenableFuture.SimpleForwardingListenableFuture<ReceiveMessageResult>(future1) {
+                @Override
+                public boolean cancel(boolean mayInterruptIfRunning) {
+                    return false;
+                }
+            };
+        doReturn(future0).when(simpleConsumer).receiveMessage(any(ReceiveMessageRequest.class), eq(mq0),
+            any(Duration.class));
+        doReturn(lateFuture1).when(simpleConsumer).receiveMessage(any(ReceiveMessageRequest.class), eq(mq1),
+            any(Duration.class));
+
+        final CompletableFuture<List<MessageView>> future = simpleConsumer.receiveAsync(2, Duration.ofSeconds(30));
+        // The max number of messages is split across the queues.
+        final ArgumentCaptor<ReceiveMessageRequest> captor = ArgumentCaptor.forClass(ReceiveMessageRequest.class);
+        verify(simpleConsumer, times(2)).receiveMessage(captor.capture(), any(MessageQueueImpl.class),
+            any(Duration.class));
+        for (ReceiveMessageRequest request : captor.getAllValues()) {
+            assertEquals(1, request.getBatchSize());
+        }
+
+        // Return as soon as the first non-empty result arrives, and the other polls are cancelled.
+        final MessageViewImpl messageView0 = fakeMessageViewImpl(mq0);
+        future0.set(new ReceiveMessageResult(fakeEndpoints(), RequestIdGenerator.getInstance().next(), status,
+            Collections.singletonList(messageView0)));
+        final List<MessageView> messageViews = future.get();
+        assertEquals(1, messageViews.size());
+        assertEquals(messageView0, messageViews.get(0));
+
+        // Messages returned after that are released.
+        final MessageViewImpl messageView1 = fakeMessageViewImpl(mq1);
+        doReturn(okChangeInvisibleDurationCtxFuture()).when(simpleConsumer).changeInvisibleDuration(messageView1,
+            SimpleConsumerImpl.RELEASE_INVISIBLE_DURATION);
+        future1.set(new ReceiveMessageResult(fakeEndpoints(), RequestIdGenerator.getInstance().next(), status,
+            Collections.singletonList(messageView1)));
+        verify(simpleConsumer, times(1)).changeInvisibleDuration(messageView1,
+            SimpleConsumerImpl.RELEASE_INVISIBLE_DURATION);
+    }
+
+    @Test
+    public void testReceiveFanoutSkipsTopicWithoutRoute() throws Exception {
+        final Map<String, FilterExpression> subscriptions = new HashMap<>(subExpressions);
+        subscriptions.putAll(createSubscriptionExpressions(FAKE_TOPIC_1));
+        simpleConsumer = Mockito.spy(new SimpleConsumerImpl(clientConfiguration, FAKE_GROUP_0, awaitDuration,
+            subscriptions, 2, 0));
+        when(simpleConsumer.isRunning()).thenReturn(true);
+        final ClientManager clientManager = Mockito.mock(ClientManager.class);
+        final Field field = ClientImpl.class.getDeclaredField("clientManager");
+        field.setAccessible(true);
+        field.set(simpleConsumer, clientManager);
+        // The route of the other topic could not be fetched.
+        when(clientManager.queryRoute(any(Endpoints.class), any(Metadata.class), any(QueryRouteRequest.class),
+            any(Duration.class))).thenReturn(Futures.immediateFailedFuture(new RuntimeException("fake failure")));
+        final Status status = Status.newBuilder().setCode(Code.OK).build();
+        final QueryRouteResponse response = QueryRouteResponse.newBuilder().setStatus(status)
+            .addMessageQueues(fakePbMessageQueue0()).build();
+        simpleConsumer.onTopicRouteDataResultUpdate0(FAKE_TOPIC_0,
+            new TopicRouteDataResult(new RpcInvocation<>(response, fakeRpcContext())));
+
+        final MessageQueueImpl mq0 = fakeMessageQueueImpl0();
+        final MessageViewImpl messageView0 = fakeMessageViewImpl(mq0);
+        doReturn(Futures.immediateFuture(new ReceiveMessageResult(fakeEndpoints(),
+            RequestIdGenerator.getInstance().next(), status, Collections.singletonList(messageView0))))
+            .when(simpleConsumer).receiveMessage(any(ReceiveMessageRequest.class), eq(mq0), any(Duration.class));
+        final List<MessageView> messageViews = simpleConsumer.receiveAsync(2, Duration.ofSeconds(30)).get();
+        assertEquals(1, messageViews.size());
+        assertEquals(messageView0, messageViews.get(0));
+    }
+
+    @Test
+    public void testReceiveFanoutCancelsPollsInFlight() throws ClientException, ExecutionException,
+        InterruptedException {
+        simpleConsumer = Mockito.spy(new SimpleConsumerImpl(clientConfiguration, FAKE_GROUP_0, awaitDuration,
+            subExpressions, 2, 0));
+        when(simpleConsumer.isRunning()).thenReturn(true);
+        final Status status = Status.newBuilder().setCode(Code.OK).build();
+        final QueryRouteResponse response = QueryRouteResponse.newBuilder().setStatus(status)
+            .addMessageQueues(fakePbMessageQueue0()).addMessageQueues(fakePbMessageQueue1()).build();
+        simpleConsumer.onTopicRouteDataResultUpdate0(FAKE_TOPIC_0,
+            new TopicRouteDataResult(new RpcInvocation<>(response, fakeRpcContext())));
+
+        final MessageQueueImpl mq0 = fakeMessageQueueImpl0();
+        final MessageQueueImpl mq1 = fakeMessageQueueImpl1();
+        final SettableFuture<ReceiveMessageResult> future0 = SettableFuture.create();
+        final SettableFuture<ReceiveMessageResult> future1 = SettableFuture.create();
+        doReturn(future0).when(simpleConsumer).receiveMessage(any(ReceiveMessageRequest.class), eq(mq0),
+            any(Duration.class));
+        doReturn(future1).when(simpleConsumer).receiveMessage(any(ReceiveMessageRequest.class), eq(mq1),
+            any(Duration.class));
+        final CompletableFuture<List<MessageView>> future = simpleConsumer.receiveAsync(2, Duration.ofSeconds(30));
+        future1.set(new ReceiveMessageResult(fakeEndpoints(), RequestIdGenerator.getInstance().next(), status,
+            Collections.singletonList(fakeMessageViewImpl(mq1))));
+        assertEquals(1, future.get().size());
+        assertTrue(future0.isCancelled());
+    }
+
+    @Test
+    public void testCancelReceptionAbortsCall() throws Exception {
+        simpleConsumer = new SimpleConsumerImpl(clientConfiguration, FAKE_GROUP_0, awaitDuration, subExpressions);
+        final ClientManager clientManager = Mockito.mock(ClientManager.class);
+        final Field field = ClientImpl.class.getDeclaredField("clientManager");
+        field.setAccessible(true);
+        field.set(simpleConsumer, clientManager);
+        final AtomicReference<Context> context = new AtomicReference<>();
+        when(clientManager.receiveMessage(any(Endpoints.class), any(Metadata.class), any(ReceiveMessageRequest.class),
+            any(Duration.class))).thenAnswer(invocation -> {
+                context.set(Context.current());
+                return SettableFuture.create();
+            });
+        final ReceiveMessageRequest request = ReceiveMessageRequest.newBuilder().build();
+        final ListenableFuture<ReceiveMessageResult> future = simpleConsumer.receiveMessage(request,
+            fakeMessageQueueImpl0(), awaitDuration);
+        assertFalse(context.get().isCancelled());
+        future.cancel(false);
+        assertTrue(context.get().isCancelled());
+    }
+
+    @Test
+    public void testFailureWhileReadingResponsesIsRecorded() throws Exception {
+        simpleConsumer = Mockito.spy(new SimpleConsumerImpl(clientConfiguration, FAKE_GROUP_0, awaitDuration,
+            subExpressions));
+        final ClientManager clientManager = Mockito.mock(ClientManager.class);
+        final Field field = ClientImpl.class.getDeclaredField("clientManager");
+        field.setAccessible(true);
+        field.set(simpleConsumer, clientManager);
+        // The long polling fails after the call is started.
+        final Iterator<ReceiveMessageResponse> it = new Iterator<ReceiveMessageResponse>() {
+            @Override
+            public boolean hasNext() {
+                throw new StatusRuntimeException(io.grpc.Status.DEADLINE_EXCEEDED);
+            }
+
+            @Override
+            public ReceiveMessageResponse next() {
+                throw new NoSuchElementException();
+            }
+        };
+        when(clientManager.receiveMessage(any(Endpoints.class), any(Metadata.class), any(ReceiveMessageRequest.class),
+            any(Duration.class))).thenReturn(Futures.immediateFuture(new RpcInvocation<>(it, fakeRpcContext())));
+        final MessageQueueImpl mq = fakeMessageQueueImpl0();
+        final ListenableFuture<ReceiveMessageResult> future = simpleConsumer.receiveMessage(
+            ReceiveMessageRequest.newBuilder().build(), mq, awaitDuration);
+        try {
+            future.get();
+            fail();
+        } catch (ExecutionException e) {
+            assertTrue(e.getCause() instanceof StatusRuntimeException);
+        }
+        // Recorded as a failure rather than a success by the circuit breaker.
+        final List<String> invoked = new ArrayList<>();
+        for (Invocation invocation : Mockito.mockingDetails(simpleConsumer).getInvocations()) {
+            invoked.add(invocation.getMethod().getName());
+        }
+        assertTrue(invoked.contains("onRequestFailure"));
+        assertFalse(invoked.contains("onRequestSuccess"));
+    }
+
+    @Test
+    public void testReceivePrefetched() throws ClientException, ExecutionException, InterruptedException,
+        NoSuchFieldException, IllegalAccessException {
+        simpleConsumer = Mockito.spy(new SimpleConsumerImpl(clientConfiguration, FAKE_GROUP_0, awaitDuration,
+            subExpressions, 1, 4));
+        when(simpleConsumer.isRunning()).thenReturn(true);
+        final Status status = Status.newBuilder().setCode(Code.OK).build();
+        final QueryRouteResponse response = QueryRouteResponse.newBuilder().setStatus(status)
+            .addMessageQueues(fakePbMessageQueue0()).build();
+        simpleConsumer.onTopicRouteDataResultUpdate0(FAKE_TOPIC_0,
+            new TopicRouteDataResult(new RpcInvocation<>(response, fakeRpcContext())));
+
+        final List<MessageViewImpl> prefetched = new ArrayList<>();
+        prefetched.add(fakeMessageViewImpl());
+        prefetched.add(fakeMessageViewImpl());
+        final ReceiveMessageResult prefetchResult = new ReceiveMessageResult(fakeEndpoints(),
+            RequestIdGenerator.getInstance().next(), status, prefetched);
+        final SettableFuture<ReceiveMessageResult> pendingFuture = SettableFuture.create();
+        doReturn(Futures.immediateFuture(prefetchResult), pendingFuture, SettableFuture.create())
+            .when(simpleConsumer).receiveMessage(any(ReceiveMessageRequest.class), any(MessageQueueImpl.class),
+                any(Duration.class));
+        // Less invisible duration is left than requested, which is extended before served.
+        final Field field = SimpleConsumerImpl.class.getDeclaredField("prefetchWaiters");
+        field.setAccessible(true);
+        final Object prefetchWaiters = field.get(simpleConsumer);
+        final AtomicBoolean extendedUnderLock = new AtomicBoolean(false);
+        for (MessageViewImpl messageView : prefetched) {
+            doAnswer(invocation -> {
+                if (Thread.holdsLock(prefetchWaiters)) {
+                    extendedUnderLock.set(true);
+                }
+                return okChangeInvisibleDurationCtxFuture();
+            }).when(simpleConsumer).changeInvisibleDuration(messageView, Duration.ofSeconds(30));
+        }
+
+        // Served by the prefetching in flight rather than receiving from remote in parallel.
+        final List<MessageView> messageViews = simpleConsumer.receiveAsync(4, Duration.ofSeconds(30)).get();
+        assertEquals(new ArrayList<MessageView>(prefetched), messageViews);
+        verify(simpleConsumer, times(2)).receiveMessage(any(ReceiveMessageRequest.class),
+            any(MessageQueueImpl.class), any(Duration.class));
+        for (MessageViewImpl messageView : prefetched) {
+            verify(simpleConsumer, times(1)).changeInvisibleDuration(messageView, Duration.ofSeconds(30));
+        }
+        // The remote calls are never made while the waiters are locked.
+        assertFalse(extendedUnderLock.get());
+
+        // Wait for the prefetching in flight, which returns nothing within the await duration.
+        final CompletableFuture<List<MessageView>> future = simpleConsumer.receiveAsync(4, Duration.ofSeconds(30));
+        assertFalse(future.isDone());
+        pendingFuture.set(new ReceiveMessageResult(fakeEndpoints(), RequestIdGenerator.getInstance().next(), status,
+            new ArrayList<>()));
+        assertTrue(future.get().isEmpty());
+        verify(simpleConsumer, times(3)).receiveMessage(any(ReceiveMessageRequest.class),
+            any(MessageQueueImpl.class), any(Duration.class));
+    }
+}
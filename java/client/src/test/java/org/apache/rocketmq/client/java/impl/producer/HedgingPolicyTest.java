@@ -0,0 +1,77 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.rocketmq.client.java.impl.producer;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.time.Duration;
+import org.junit.Test;
+
+public class HedgingPolicyTest {
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testIllegalPercentile() {
+        new HedgingPolicy(100);
+    }
+
+    @Test
+    public void testBucketBounds() {
+        long previous = 0;
+        for (long nanos = 0; nanos < 1L << 20; nanos += 7) {
+            final long upperBound = HedgingPolicy.upperBoundOf(HedgingPolicy.indexOf(nanos));
+            assertTrue(nanos < upperBound);
+            // The relative error is 12.5% at most.
+            assertTrue(upperBound - nanos <= Math.max(1, nanos / 8));
+            assertTrue(upperBound >= previous);
+            previous = upperBound;
+        }
+        assertEquals(HedgingPolicy.indexOf(Long.MAX_VALUE), HedgingPolicy.indexOf(1L << 50));
+    }
+
+    @Test
+    public void testHedgeDelay() {
+        final HedgingPolicy policy = new HedgingPolicy(90);
+        for (int i = 1; i < HedgingPolicy.WINDOW_SAMPLES; i++) {
+            policy.record(Duration.ofMillis(i));
+        }
+        assertEquals(Long.MAX_VALUE, policy.getHedgeDelayNanos());
+        policy.record(Duration.ofMillis(HedgingPolicy.WINDOW_SAMPLES));
+        final long expected = Duration.ofMillis((long) Math.ceil(HedgingPolicy.WINDOW_SAMPLES * 0.9)).toNanos();
+        final long hedgeDelayNanos = policy.getHedgeDelayNanos();
+        assertTrue(hedgeDelayNanos > expected);
+        assertTrue(hedgeDelayNanos <= expected + expected / 8);
+    }
+
+    @Test
+    public void testHedgingBudget() {
+        final HedgingPolicy policy = new HedgingPolicy(90);
+        int hedges = 0;
+        while (policy.tryHedge()) {
+            hedges++;
+        }
+        assertTrue(hedges > 0);
+        for (int i = 0; i < 9; i++) {
+            policy.onSend();
+            assertFalse(policy.tryHedge());
+        }
+        policy.onSend();
+        assertTrue(policy.tryHedge());
+    }
+}
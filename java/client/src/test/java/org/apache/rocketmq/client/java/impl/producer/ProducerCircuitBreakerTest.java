@@ -0,0 +1,166 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.rocketmq.client.java.impl.producer;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import apache.rocketmq.v2.Broker;
+import apache.rocketmq.v2.Code;
+import apache.rocketmq.v2.ExponentialBackoff;
+import apache.rocketmq.v2.MessageQueue;
+import apache.rocketmq.v2.Permission;
+import apache.rocketmq.v2.Publishing;
+import apache.rocketmq.v2.QueryRouteRequest;
+import apache.rocketmq.v2.QueryRouteResponse;
+import apache.rocketmq.v2.Resource;
+import apache.rocketmq.v2.RetryPolicy;
+import apache.rocketmq.v2.SendMessageRequest;
+import apache.rocketmq.v2.SendMessageResponse;
+import apache.rocketmq.v2.Settings;
+import apache.rocketmq.v2.Status;
+import apache.rocketmq.v2.TelemetryCommand;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.Service;
+import com.google.common.util.concurrent.SettableFuture;
+import com.google.protobuf.util.Durations;
+import io.grpc.Metadata;
+import io.grpc.stub.StreamObserver;
+import java.lang.reflect.Field;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import org.apache.rocketmq.client.apis.ClientConfiguration;
+import org.apache.rocketmq.client.apis.ClientException;
+import org.apache.rocketmq.client.apis.producer.SendReceipt;
+import org.apache.rocketmq.client.java.impl.ClientImpl;
+import org.apache.rocketmq.client.java.impl.ClientManagerImpl;
+import org.apache.rocketmq.client.java.impl.ClientSessionImpl;
+import org.apache.rocketmq.client.java.route.CircuitBreaker;
+import org.apache.rocketmq.client.java.route.CircuitBreakers;
+import org.apache.rocketmq.client.java.route.Endpoints;
+import org.apache.rocketmq.client.java.rpc.RpcInvocation;
+import org.apache.rocketmq.client.java.tool.TestBase;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+@RunWith(MockitoJUnitRunner.class)
+public class ProducerCircuitBreakerTest extends TestBase {
+
+    @Mock
+    private ClientManagerImpl clientManager;
+    @Mock
+    private StreamObserver<TelemetryCommand> telemetryRequestObserver;
+
+    private final ClientConfiguration clientConfiguration = ClientConfiguration.newBuilder()
+        .setEndpoints(FAKE_ACCESS_POINT).setRequestTimeout(Duration.ofSeconds(3)).build();
+
+    private final ProducerImpl producer = new ProducerImpl(clientConfiguration,
+        new HashSet<>(Collections.singleton(FAKE_TOPIC_0)), 3, null);
+
+    @Before
+    public void setup() throws ClientException, IllegalAccessException, NoSuchFieldException {
+        Field field = ClientImpl.class.getDeclaredField("clientManager");
+        field.setAccessible(true);
+        field.set(producer, clientManager);
+
+        Status status = Status.newBuilder().setCode(Code.OK).build();
+        MessageQueue mq = MessageQueue.newBuilder().setTopic(Resource.newBuilder().setName(FAKE_TOPIC_0))
+            .setPermission(Permission.READ_WRITE)
+            .setBroker(Broker.newBuilder().setName(FAKE_BROKER_NAME_0).setEndpoints(fakePbEndpoints0()))
+            .setId(0).build();
+        MessageQueue mq1 = MessageQueue.newBuilder().setTopic(Resource.newBuilder().setName(FAKE_TOPIC_0))
+            .setPermission(Permission.READ_WRITE)
+            .setBroker(Broker.newBuilder().setName(FAKE_BROKER_NAME_1).setEndpoints(fakePbEndpoints1()))
+            .setId(0).build();
+        QueryRouteResponse response = QueryRouteResponse.newBuilder().setStatus(status).addMessageQueues(mq)
+            .addMessageQueues(mq1).build();
+        when(clientManager.queryRoute(any(Endpoints.class), any(Metadata.class), any(QueryRouteRequest.class),
+            any(Duration.class))).thenReturn(Futures.immediateFuture(new RpcInvocation<>(response,
+            fakeRpcContext())));
+        when(clientManager.telemetry(any(Endpoints.class), any(Metadata.class), any(Duration.class),
+            any(ClientSessionImpl.class))).thenReturn(telemetryRequestObserver);
+        when(clientManager.getScheduler()).thenReturn(SCHEDULER);
+        when(clientManager.startAsync()).thenReturn(clientManager);
+        when(clientManager.stopAsync()).thenReturn(clientManager);
+
+        Publishing publishing = Publishing.newBuilder().setMaxBodySize(4 * 1024 * 1024).build();
+        RetryPolicy retryPolicy = RetryPolicy.newBuilder().setMaxAttempts(3)
+            .setExponentialBackoff(ExponentialBackoff.newBuilder().setInitial(Durations.fromMillis(10))
+                .setMax(Durations.fromSeconds(1)).setMultiplier(2)).build();
+        Settings settings = Settings.newBuilder().setPublishing(publishing).setBackoffPolicy(retryPolicy).build();
+        final Service service = producer.startAsync();
+        producer.getClientSettings().applySettingsCommand(settings);
+        service.awaitRunning();
+    }
+
+    @After
+    public void shutdown() {
+        producer.stopAsync().awaitTerminated();
+    }
+
+    private CircuitBreaker openCircuitBreaker(Endpoints endpoints) throws NoSuchFieldException,
+        IllegalAccessException {
+        Field field = ClientImpl.class.getDeclaredField("circuitBreakers");
+        field.setAccessible(true);
+        final CircuitBreaker breaker = ((CircuitBreakers) field.get(producer)).get(endpoints);
+        boolean opened = false;
+        while (!opened) {
+            opened = breaker.onFailure();
+        }
+        return breaker;
+    }
+
+    @Test
+    public void testConcurrentSendsToHalfOpenedEndpoints() throws NoSuchFieldException, IllegalAccessException,
+        InterruptedException {
+        openCircuitBreaker(new Endpoints(fakePbEndpoints0()));
+        final CircuitBreaker breaker = openCircuitBreaker(new Endpoints(fakePbEndpoints1()));
+        breaker.onProbeSuccess();
+        final SettableFuture<RpcInvocation<SendMessageResponse>> trialFuture = SettableFuture.create();
+        when(clientManager.sendMessage(any(Endpoints.class), any(Metadata.class), any(SendMessageRequest.class),
+            any(Duration.class))).thenReturn(trialFuture);
+        final CompletableFuture<SendReceipt> future0 = producer.sendAsync(fakeMessage(FAKE_TOPIC_0));
+        final CompletableFuture<SendReceipt> future1 = producer.sendAsync(fakeMessage(FAKE_TOPIC_0));
+        // Only the trial request is sent, the other one is refused rather than sent.
+        try {
+            future1.get();
+            fail();
+        } catch (ExecutionException e) {
+            assertTrue(e.getCause() instanceof ClientException);
+        }
+        assertFalse(future0.isDone());
+        final ArgumentCaptor<Endpoints> captor = ArgumentCaptor.forClass(Endpoints.class);
+        verify(clientManager, times(1)).sendMessage(captor.capture(), any(Metadata.class),
+            any(SendMessageRequest.class), any(Duration.class));
+        assertEquals(breaker.getEndpoints(), captor.getValue());
+    }
+}
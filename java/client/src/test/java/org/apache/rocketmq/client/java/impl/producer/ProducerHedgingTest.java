@@ -0,0 +1,224 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.rocketmq.client.java.impl.producer;
+
+import static org.awaitility.Awaitility.await;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.fail;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import apache.rocketmq.v2.Broker;
+import apache.rocketmq.v2.Code;
+import apache.rocketmq.v2.ExponentialBackoff;
+import apache.rocketmq.v2.MessageQueue;
+import apache.rocketmq.v2.Permission;
+import apache.rocketmq.v2.Publishing;
+import apache.rocketmq.v2.QueryRouteRequest;
+import apache.rocketmq.v2.QueryRouteResponse;
+import apache.rocketmq.v2.Resource;
+import apache.rocketmq.v2.RetryPolicy;
+import apache.rocketmq.v2.SendMessageRequest;
+import apache.rocketmq.v2.SendMessageResponse;
+import apache.rocketmq.v2.Settings;
+import apache.rocketmq.v2.Status;
+import apache.rocketmq.v2.TelemetryCommand;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.Service;
+import com.google.common.util.concurrent.SettableFuture;
+import com.google.protobuf.util.Durations;
+import io.grpc.Metadata;
+import io.grpc.stub.StreamObserver;
+import java.lang.reflect.Field;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import org.apache.rocketmq.client.apis.ClientConfiguration;
+import org.apache.rocketmq.client.apis.ClientException;
+import org.apache.rocketmq.client.apis.producer.SendReceipt;
+import org.apache.rocketmq.client.java.impl.ClientImpl;
+import org.apache.rocketmq.client.java.impl.ClientManagerImpl;
+import org.apache.rocketmq.client.java.impl.ClientSessionImpl;
+import org.apache.rocketmq.client.java.route.Endpoints;
+import org.apache.rocketmq.client.java.rpc.RpcInvocation;
+import org.apache.rocketmq.client.java.tool.TestBase;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+@RunWith(MockitoJUnitRunner.class)
+public class ProducerHedgingTest extends TestBase {
+
+    @Mock
+    private ClientManagerImpl clientManager;
+    @Mock
+    private StreamObserver<TelemetryCommand> telemetryRequestObserver;
+
+    private final ClientConfiguration clientConfiguration = ClientConfiguration.newBuilder()
+        .setEndpoints(FAKE_ACCESS_POINT).setRequestTimeout(Duration.ofSeconds(3)).build();
+
+    private final ProducerImpl producer = new ProducerImpl(clientConfiguration,
+        new HashSet<>(Collections.singleton(FAKE_TOPIC_0)), 3, null, null, 50);
+
+    @Before
+    public void setup() throws ClientException, IllegalAccessException, NoSuchFieldException {
+        Status status = Status.newBuilder().setCode(Code.OK).build();
+        MessageQueue mq = MessageQueue.newBuilder().setTopic(Resource.newBuilder().setName(FAKE_TOPIC_0))
+            .setPermission(Permission.READ_WRITE)
+            .setBroker(Broker.newBuilder().setName(FAKE_BROKER_NAME_0).setEndpoints(fakePbEndpoints0()))
+            .setId(0).build();
+        MessageQueue mq1 = MessageQueue.newBuilder().setTopic(Resource.newBuilder().setName(FAKE_TOPIC_0))
+            .setPermission(Permission.READ_WRITE)
+            .setBroker(Broker.newBuilder().setName(FAKE_BROKER_NAME_1).setEndpoints(fakePbEndpoints1()))
+            .setId(0).build();
+        QueryRouteResponse response = QueryRouteResponse.newBuilder().setStatus(status).addMessageQueues(mq)
+            .addMessageQueues(mq1).build();
+        when(clientManager.queryRoute(any(Endpoints.class), any(Metadata.class), any(QueryRouteRequest.class),
+            any(Duration.class))).thenReturn(Futures.immediateFuture(new RpcInvocation<>(response,
+            fakeRpcContext())));
+        when(clientManager.telemetry(any(Endpoints.class), any(Metadata.class), any(Duration.class),
+            any(ClientSessionImpl.class))).thenReturn(telemetryRequestObserver);
+        when(clientManager.getScheduler()).thenReturn(SCHEDULER);
+        when(clientManager.startAsync()).thenReturn(clientManager);
+        when(clientManager.stopAsync()).thenReturn(clientManager);
+        start(producer);
+    }
+
+    private void start(ProducerImpl producer) throws NoSuchFieldException, IllegalAccessException {
+        Field field = ClientImpl.class.getDeclaredField("clientManager");
+        field.setAccessible(true);
+        field.set(producer, clientManager);
+
+        Publishing publishing = Publishing.newBuilder().setMaxBodySize(4 * 1024 * 1024).build();
+        RetryPolicy retryPolicy = RetryPolicy.newBuilder().setMaxAttempts(3)
+            .setExponentialBackoff(ExponentialBackoff.newBuilder().setInitial(Durations.fromMillis(10))
+                .setMax(Durations.fromSeconds(1)).setMultiplier(2)).build();
+        Settings settings = Settings.newBuilder().setPublishing(publishing).setBackoffPolicy(retryPolicy).build();
+        final Service service = producer.startAsync();
+        producer.getClientSettings().applySettingsCommand(settings);
+        service.awaitRunning();
+    }
+
+    @After
+    public void shutdown() {
+        producer.stopAsync().awaitTerminated();
+    }
+
+    @Test
+    public void testNoHedgeBeforeDelayEstimated() throws ClientException {
+        when(clientManager.sendMessage(any(Endpoints.class), any(Metadata.class), any(SendMessageRequest.class),
+            any(Duration.class))).thenReturn(okSendMessageResponseFutureWithSingleEntry());
+        producer.send(fakeMessage(FAKE_TOPIC_0));
+        verify(clientManager, times(1)).sendMessage(any(Endpoints.class), any(Metadata.class),
+            any(SendMessageRequest.class), any(Duration.class));
+    }
+
+    private void estimateHedgeDelay(ProducerImpl producer) throws NoSuchFieldException, IllegalAccessException {
+        Field field = ProducerImpl.class.getDeclaredField("hedgingPolicy");
+        field.setAccessible(true);
+        final HedgingPolicy hedgingPolicy = (HedgingPolicy) field.get(producer);
+        for (int i = 0; i < HedgingPolicy.WINDOW_SAMPLES; i++) {
+            hedgingPolicy.record(Duration.ofMillis(1));
+        }
+    }
+
+    @Test
+    public void testResendSkipsHedgedCandidate() throws NoSuchFieldException, IllegalAccessException,
+        ExecutionException, InterruptedException, TimeoutException {
+        estimateHedgeDelay(producer);
+        final SettableFuture<RpcInvocation<SendMessageResponse>> firstFuture = SettableFuture.create();
+        // The hedged attempt never completes.
+        final SettableFuture<RpcInvocation<SendMessageResponse>> hedgedFuture = SettableFuture.create();
+        when(clientManager.sendMessage(any(Endpoints.class), any(Metadata.class), any(SendMessageRequest.class),
+            any(Duration.class))).thenReturn(firstFuture, hedgedFuture);
+        final CompletableFuture<SendReceipt> future = producer.sendAsync(fakeMessage(FAKE_TOPIC_0));
+        final ArgumentCaptor<Endpoints> captor = ArgumentCaptor.forClass(Endpoints.class);
+        verify(clientManager, timeout(3000).times(2)).sendMessage(captor.capture(), any(Metadata.class),
+            any(SendMessageRequest.class), any(Duration.class));
+        assertNotEquals(captor.getAllValues().get(0), captor.getAllValues().get(1));
+        firstFuture.setException(new RuntimeException("fake failure"));
+        // Both candidates are taken, the first attempt is not resent to the failed one, and the publishing is left
+        // to the hedged attempt.
+        Thread.sleep(100);
+        assertFalse(future.isDone());
+        hedgedFuture.setFuture(okSendMessageResponseFutureWithSingleEntry());
+        future.get(3, TimeUnit.SECONDS);
+        verify(clientManager, times(2)).sendMessage(any(Endpoints.class), any(Metadata.class),
+            any(SendMessageRequest.class), any(Duration.class));
+    }
+
+    @Test
+    public void testHedgeCountedAgainstMaxAttempts() throws NoSuchFieldException, IllegalAccessException,
+        InterruptedException, TimeoutException {
+        final ProducerImpl producer = new ProducerImpl(clientConfiguration,
+            new HashSet<>(Collections.singleton(FAKE_TOPIC_0)), 2, null, null, 50);
+        start(producer);
+        try {
+            estimateHedgeDelay(producer);
+            final SettableFuture<RpcInvocation<SendMessageResponse>> firstFuture = SettableFuture.create();
+            final SettableFuture<RpcInvocation<SendMessageResponse>> hedgedFuture = SettableFuture.create();
+            when(clientManager.sendMessage(any(Endpoints.class), any(Metadata.class),
+                any(SendMessageRequest.class), any(Duration.class))).thenReturn(firstFuture, hedgedFuture);
+            final CompletableFuture<SendReceipt> future = producer.sendAsync(fakeMessage(FAKE_TOPIC_0));
+            verify(clientManager, timeout(3000).times(2)).sendMessage(any(Endpoints.class), any(Metadata.class),
+                any(SendMessageRequest.class), any(Duration.class));
+            hedgedFuture.setException(new RuntimeException("fake failure of the hedged attempt"));
+            // The first attempt is still in flight.
+            Thread.sleep(100);
+            assertFalse(future.isDone());
+            firstFuture.setException(new RuntimeException("fake failure of the first attempt"));
+            try {
+                future.get(3, TimeUnit.SECONDS);
+                fail();
+            } catch (ExecutionException ignore) {
+                // Expected.
+            }
+            verify(clientManager, times(2)).sendMessage(any(Endpoints.class), any(Metadata.class),
+                any(SendMessageRequest.class), any(Duration.class));
+        } finally {
+            producer.stopAsync().awaitTerminated();
+        }
+    }
+
+    @Test
+    public void testHedgedAttemptWins() throws ClientException, NoSuchFieldException, IllegalAccessException {
+        estimateHedgeDelay(producer);
+        // The first attempt never completes.
+        final SettableFuture<RpcInvocation<SendMessageResponse>> slowFuture = SettableFuture.create();
+        when(clientManager.sendMessage(any(Endpoints.class), any(Metadata.class), any(SendMessageRequest.class),
+            any(Duration.class))).thenReturn(slowFuture, okSendMessageResponseFutureWithSingleEntry());
+        producer.send(fakeMessage(FAKE_TOPIC_0));
+        final ArgumentCaptor<Endpoints> captor = ArgumentCaptor.forClass(Endpoints.class);
+        verify(clientManager, times(2)).sendMessage(captor.capture(), any(Metadata.class),
+            any(SendMessageRequest.class), any(Duration.class));
+        assertNotEquals(captor.getAllValues().get(0), captor.getAllValues().get(1));
+        await().atMost(Duration.ofSeconds(3)).until(slowFuture::isCancelled);
+    }
+}
@@ -135,6 +135,21 @@ public class ProducerImplTest extends TestBase {
         producer.send(message);
     }
 
+    @Test(expected = NullPointerException.class)
+    public void testSendWithNullTimeout() throws ClientException {
+        producer.send(fakeMessage(FAKE_TOPIC_0), (Duration) null);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testSendWithNonPositiveTimeout() throws ClientException {
+        producer.send(fakeMessage(FAKE_TOPIC_0), Duration.ZERO);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testSendAsyncWithNonPositiveTimeout() {
+        producer.sendAsync(fakeMessage(FAKE_TOPIC_0), Duration.ofSeconds(-1));
+    }
+
     @Test
     @Ignore
     public void testSendWithTopicBinding() throws ClientException, ExecutionException, InterruptedException {
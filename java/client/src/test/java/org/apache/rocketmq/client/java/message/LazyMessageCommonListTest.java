@@ -0,0 +1,67 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.rocketmq.client.java.message;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.apache.rocketmq.client.java.tool.TestBase;
+import org.junit.Test;
+
+public class LazyMessageCommonListTest extends TestBase {
+
+    @Test
+    public void testMaterialisedOnlyOnRead() {
+        final List<MessageViewImpl> messageViews = new ArrayList<>();
+        messageViews.add(fakeMessageViewImpl());
+        messageViews.add(fakeMessageViewImpl());
+        final AtomicInteger counter = new AtomicInteger(0);
+        final List<MessageCommon> messageCommons = LazyMessageCommonList.of(messageViews, messageView -> {
+            counter.incrementAndGet();
+            return messageView.getMessageCommon();
+        });
+        assertEquals(2, messageCommons.size());
+        assertEquals(0, counter.get());
+        final MessageCommon messageCommon = messageCommons.get(1);
+        assertEquals(messageViews.get(1).getTopic(), messageCommon.getTopic());
+        assertEquals(1, counter.get());
+        assertSame(messageCommon, messageCommons.get(1));
+        assertEquals(1, counter.get());
+    }
+
+    @Test
+    public void testEmpty() {
+        final List<MessageCommon> messageCommons = LazyMessageCommonList.of(Collections.<MessageViewImpl>emptyList(),
+            MessageViewImpl::getMessageCommon);
+        assertTrue(messageCommons.isEmpty());
+    }
+
+    @Test
+    public void testSingleton() {
+        final MessageViewImpl messageView = fakeMessageViewImpl();
+        final List<MessageCommon> messageCommons = LazyMessageCommonList.singleton(messageView,
+            MessageViewImpl::getMessageCommon);
+        assertEquals(1, messageCommons.size());
+        assertEquals(messageView.getMessageId(), messageCommons.iterator().next().getMessageId().orElse(null));
+    }
+}
@@ -19,6 +19,10 @@ package org.apache.rocketmq.client.java.message;
 
 import java.util.HashSet;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
 import org.apache.rocketmq.client.apis.message.MessageId;
 import org.junit.Assert;
 import org.junit.Test;
@@ -49,4 +53,38 @@ public class MessageIdCodecTest {
         Assert.assertEquals(MessageIdCodec.MESSAGE_ID_VERSION_V1, messageId.getVersion());
         Assert.assertEquals(messageIdString, messageId.toString());
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testDecodeV0() {
+        String messageIdString = "AC1415116D1418B4AAC217FE1B4E0000";
+        final MessageId messageId = codec.decode(messageIdString);
+        Assert.assertEquals(MessageIdCodec.MESSAGE_ID_VERSION_V0, messageId.getVersion());
+        Assert.assertEquals(messageIdString, messageId.toString());
+    }
+
+    @Test
+    public void testNextMessageIdDecodedEqually() {
+        final MessageId messageId = codec.nextMessageId();
+        final String messageIdString = messageId.toString();
+        Assert.assertTrue(messageIdString.startsWith(MessageIdCodec.MESSAGE_ID_VERSION_V1));
+        Assert.assertEquals(messageId, codec.decode(messageIdString));
+    }
+
+    @Test
+    public void testNextMessageIdConcurrently() throws InterruptedException {
+        final int threads = 4;
+        final int messageIdCount = 10000;
+        final Set<MessageId> messageIds = ConcurrentHashMap.newKeySet();
+        final ExecutorService executor = Executors.newFixedThreadPool(threads);
+        for (int i = 0; i < threads; i++) {
+            executor.submit(() -> {
+                for (int j = 0; j < messageIdCount; j++) {
+                    messageIds.add(codec.nextMessageId());
+                }
+            });
+        }
+        executor.shutdown();
+        Assert.assertTrue(executor.awaitTermination(30, TimeUnit.SECONDS));
+        Assert.assertEquals(threads * messageIdCount, messageIds.size());
+    }
+}
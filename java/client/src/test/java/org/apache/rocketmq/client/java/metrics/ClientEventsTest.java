@@ -0,0 +1,44 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.rocketmq.client.java.metrics;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assume.assumeFalse;
+
+import org.apache.rocketmq.client.java.tool.TestBase;
+import org.junit.Test;
+
+public class ClientEventsTest extends TestBase {
+
+    @Test
+    public void testLoadFactory() {
+        assumeFalse(System.getProperty("java.specification.version").startsWith("1."));
+        final ClientEventFactory factory = ClientEvents.loadFactory();
+        assertEquals(ClientEvents.JFR_EVENT_FACTORY_CLASS_NAME, factory.getClass().getName());
+    }
+
+    @Test
+    public void testBeginWithoutRecording() {
+        for (ClientEventType type : ClientEventType.values()) {
+            final ClientEvent event = ClientEvents.begin(type);
+            assertSame(ClientEvent.NOOP, event);
+            event.complete(FAKE_TOPIC_0, null, fakeEndpoints(), 1, 1, true);
+        }
+    }
+}
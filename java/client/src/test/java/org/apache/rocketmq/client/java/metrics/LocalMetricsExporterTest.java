@@ -0,0 +1,108 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.rocketmq.client.java.metrics;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import io.opentelemetry.api.common.Attributes;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.lang.management.ManagementFactory;
+import java.net.HttpURLConnection;
+import java.net.InetSocketAddress;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import javax.management.ObjectName;
+import org.apache.rocketmq.client.apis.ClientConfiguration;
+import org.apache.rocketmq.client.java.impl.ClientImpl;
+import org.apache.rocketmq.client.java.tool.TestBase;
+import org.junit.Test;
+
+public class LocalMetricsExporterTest extends TestBase {
+
+    private String scrape(InetSocketAddress address) throws Exception {
+        final URL url = new URL("http://127.0.0.1:" + address.getPort() + "/metrics");
+        final HttpURLConnection connection = (HttpURLConnection) url.openConnection();
+        try (InputStream in = connection.getInputStream()) {
+            assertEquals(200, connection.getResponseCode());
+            final ByteArrayOutputStream out = new ByteArrayOutputStream();
+            final byte[] buffer = new byte[4096];
+            int n;
+            while ((n = in.read(buffer)) > 0) {
+                out.write(buffer, 0, n);
+            }
+            return new String(out.toByteArray(), StandardCharsets.UTF_8);
+        } finally {
+            connection.disconnect();
+        }
+    }
+
+    @Test
+    public void testExportWithoutRemoteMetrics() throws Exception {
+        final ClientConfiguration clientConfiguration = ClientConfiguration.newBuilder().setEndpoints("127.0.0.1:8080")
+            .setLocalMetricsPort(0).setLocalMetricsJmxEnabled(true).build();
+        final ClientImpl client = mock(ClientImpl.class);
+        when(client.clientId()).thenReturn(FAKE_CLIENT_ID);
+        when(client.getClientConfiguration()).thenReturn(clientConfiguration);
+        final ClientMeterProvider provider = new ClientMeterProvider(client);
+        assertFalse(provider.isEnabled());
+        provider.start();
+        try {
+            assertTrue(provider.isEnabled());
+            final Attributes attributes = Attributes.builder().put(MetricLabels.TOPIC, FAKE_TOPIC_0)
+                .put(MetricLabels.CLIENT_ID, FAKE_CLIENT_ID)
+                .put(MetricLabels.INVOCATION_STATUS, InvocationStatus.SUCCESS.getName()).build();
+            provider.getHistogram(HistogramEnum.SEND_SUCCESS_COST_TIME).record(3, attributes);
+            provider.getHistogram(HistogramEnum.SEND_SUCCESS_COST_TIME).record(30, attributes);
+
+            final LocalMetricsExporter exporter = provider.getLocalMetricsExporter().get();
+            final String text = scrape(exporter.getAddress().get());
+            assertTrue(text.contains("# TYPE rocketmq_send_cost_time histogram"));
+            assertTrue(text.contains("rocketmq_send_cost_time_count{"));
+            assertTrue(text.contains("le=\"5.0\"} 1.0"));
+            assertTrue(text.contains("le=\"+Inf\"} 2.0"));
+
+            final ObjectName objectName = new ObjectName("org.apache.rocketmq.client:type=Metrics,clientId="
+                + ObjectName.quote(FAKE_CLIENT_ID));
+            final String attributeName = "rocketmq_send_cost_time{client_id=" + FAKE_CLIENT_ID
+                + ",invocation_status=success,topic=" + FAKE_TOPIC_0 + "}.count";
+            assertEquals(2.0, ManagementFactory.getPlatformMBeanServer().getAttribute(objectName, attributeName));
+        } finally {
+            provider.shutdown();
+        }
+        assertFalse(provider.isEnabled());
+        assertFalse(provider.getLocalMetricsExporter().isPresent());
+    }
+
+    @Test
+    public void testSanitizeName() {
+        assertEquals("rocketmq_a_b", PrometheusTextFormatter.sanitizeName("rocketmq.a-b"));
+        assertEquals("_0a", PrometheusTextFormatter.sanitizeName("00a"));
+    }
+
+    @Test
+    public void testSanitizeLabelName() {
+        assertEquals("rocketmq:a", PrometheusTextFormatter.sanitizeName("rocketmq:a"));
+        assertEquals("rocketmq_a", PrometheusTextFormatter.sanitizeLabelName("rocketmq:a"));
+        assertEquals("_0a", PrometheusTextFormatter.sanitizeLabelName("00a"));
+    }
+}
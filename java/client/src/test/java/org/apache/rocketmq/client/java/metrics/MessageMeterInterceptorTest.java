@@ -0,0 +1,62 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.rocketmq.client.java.metrics;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import io.opentelemetry.api.common.Attributes;
+import org.apache.rocketmq.client.java.impl.ClientImpl;
+import org.apache.rocketmq.client.java.tool.TestBase;
+import org.junit.Test;
+
+public class MessageMeterInterceptorTest extends TestBase {
+
+    @Test
+    public void testAttributesAreCached() {
+        final ClientImpl client = mock(ClientImpl.class);
+        when(client.clientId()).thenReturn(FAKE_CLIENT_ID);
+        final MessageMeterInterceptor interceptor = new MessageMeterInterceptor(new ClientMeterProvider(client));
+        final Attributes attributes = interceptor.getSendAttributes(FAKE_TOPIC_0, InvocationStatus.SUCCESS);
+        assertEquals(FAKE_TOPIC_0, attributes.get(MetricLabels.TOPIC));
+        assertEquals(FAKE_CLIENT_ID, attributes.get(MetricLabels.CLIENT_ID));
+        assertEquals(InvocationStatus.SUCCESS.getName(), attributes.get(MetricLabels.INVOCATION_STATUS));
+        assertSame(attributes, interceptor.getSendAttributes(FAKE_TOPIC_0, InvocationStatus.SUCCESS));
+        assertNotSame(attributes, interceptor.getSendAttributes(FAKE_TOPIC_0, InvocationStatus.FAILURE));
+
+        final Attributes processAttributes = interceptor.getProcessAttributes(FAKE_TOPIC_0, FAKE_GROUP_0,
+            InvocationStatus.FAILURE);
+        assertEquals(FAKE_GROUP_0, processAttributes.get(MetricLabels.CONSUMER_GROUP));
+        assertSame(processAttributes, interceptor.getProcessAttributes(FAKE_TOPIC_0, FAKE_GROUP_0,
+            InvocationStatus.FAILURE));
+    }
+
+    @Test
+    public void testDisabledByDefault() {
+        final ClientImpl client = mock(ClientImpl.class);
+        final ClientMeterProvider provider = new ClientMeterProvider(client);
+        final MessageMeterInterceptor interceptor = new MessageMeterInterceptor(provider);
+        assertFalse(interceptor.isEnabled());
+        assertNull(provider.getHistogram(HistogramEnum.SEND_SUCCESS_COST_TIME));
+    }
+}
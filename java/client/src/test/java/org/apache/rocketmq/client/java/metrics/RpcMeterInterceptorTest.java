@@ -0,0 +1,122 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.rocketmq.client.java.metrics;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import apache.rocketmq.v2.MessagingServiceGrpc;
+import apache.rocketmq.v2.SendMessageRequest;
+import apache.rocketmq.v2.SendMessageResponse;
+import io.grpc.CallOptions;
+import io.grpc.Channel;
+import io.grpc.ClientCall;
+import io.grpc.Metadata;
+import io.grpc.Status;
+import io.opentelemetry.sdk.metrics.data.HistogramPointData;
+import io.opentelemetry.sdk.metrics.data.MetricData;
+import org.apache.rocketmq.client.apis.ClientConfiguration;
+import org.apache.rocketmq.client.java.impl.ClientImpl;
+import org.apache.rocketmq.client.java.tool.TestBase;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+
+public class RpcMeterInterceptorTest extends TestBase {
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testRecordLatencyAndInflight() {
+        final ClientConfiguration clientConfiguration = ClientConfiguration.newBuilder().setEndpoints("127.0.0.1:8080")
+            .setLocalMetricsJmxEnabled(true).build();
+        final ClientImpl client = mock(ClientImpl.class);
+        when(client.clientId()).thenReturn(FAKE_CLIENT_ID);
+        when(client.getClientConfiguration()).thenReturn(clientConfiguration);
+        final ClientMeterProvider provider = new ClientMeterProvider(client);
+        provider.start();
+        try {
+            provider.registerExecutor("FakeExecutor", SINGLE_THREAD_POOL_EXECUTOR);
+            final RpcMeterInterceptor interceptor =
+                (RpcMeterInterceptor) provider.getRpcMeterInterceptor(fakeEndpoints());
+            assertSame(interceptor, provider.getRpcMeterInterceptor(fakeEndpoints()));
+
+            final Channel channel = mock(Channel.class);
+            final ClientCall<SendMessageRequest, SendMessageResponse> call = mock(ClientCall.class);
+            when(channel.newCall(any(), any())).thenReturn((ClientCall) call);
+            final ClientCall<SendMessageRequest, SendMessageResponse> intercepted =
+                interceptor.interceptCall(MessagingServiceGrpc.getSendMessageMethod(), CallOptions.DEFAULT, channel);
+            intercepted.start(mock(ClientCall.Listener.class), new Metadata());
+            assertEquals(1, interceptor.getInflight());
+
+            final ArgumentCaptor<ClientCall.Listener<SendMessageResponse>> captor =
+                ArgumentCaptor.forClass(ClientCall.Listener.class);
+            verify(call).start(captor.capture(), any());
+            captor.getValue().onClose(Status.DEADLINE_EXCEEDED, new Metadata());
+            assertEquals(0, interceptor.getInflight());
+
+            boolean recorded = false;
+            boolean executorReported = false;
+            for (MetricData metric : provider.getLocalMetricsExporter().get().collectAllMetrics()) {
+                if (HistogramEnum.RPC_LATENCY.getName().equals(metric.getName())) {
+                    for (HistogramPointData point : metric.getHistogramData().getPoints()) {
+                        assertEquals("SendMessage", point.getAttributes().get(MetricLabels.RPC_METHOD));
+                        assertEquals(Status.Code.DEADLINE_EXCEEDED.name(),
+                            point.getAttributes().get(MetricLabels.RPC_STATUS_CODE));
+                        assertEquals(1, point.getCount());
+                        recorded = true;
+                    }
+                }
+                if (GaugeEnum.EXECUTOR_QUEUE_SIZE.getName().equals(metric.getName())) {
+                    executorReported = true;
+                }
+            }
+            assertTrue(recorded);
+            assertTrue(executorReported);
+        } finally {
+            provider.shutdown();
+        }
+    }
+
+    @Test
+    public void testRemoveRpcMeterInterceptor() {
+        final ClientConfiguration clientConfiguration = ClientConfiguration.newBuilder().setEndpoints("127.0.0.1:8080")
+            .setLocalMetricsJmxEnabled(true).build();
+        final ClientImpl client = mock(ClientImpl.class);
+        when(client.clientId()).thenReturn(FAKE_CLIENT_ID);
+        when(client.getClientConfiguration()).thenReturn(clientConfiguration);
+        final ClientMeterProvider provider = new ClientMeterProvider(client);
+        provider.start();
+        try {
+            final RpcMeterInterceptor interceptor =
+                (RpcMeterInterceptor) provider.getRpcMeterInterceptor(fakeEndpoints());
+            provider.removeRpcMeterInterceptor(fakeEndpoints());
+            for (MetricData metric : provider.getLocalMetricsExporter().get().collectAllMetrics()) {
+                assertFalse(GaugeEnum.RPC_INFLIGHT_REQUESTS.getName().equals(metric.getName()));
+            }
+            assertNotSame(interceptor, provider.getRpcMeterInterceptor(fakeEndpoints()));
+        } finally {
+            provider.shutdown();
+        }
+    }
+}
@@ -0,0 +1,86 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.rocketmq.client.java.metrics;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import io.opentelemetry.sdk.metrics.data.HistogramPointData;
+import io.opentelemetry.sdk.metrics.data.MetricData;
+import org.apache.rocketmq.client.apis.ClientConfiguration;
+import org.apache.rocketmq.client.java.impl.ClientImpl;
+import org.apache.rocketmq.client.java.tool.TestBase;
+import org.junit.Test;
+
+public class StageProfilerTest extends TestBase {
+
+    private ClientMeterProvider createProvider(double sampleRate) {
+        final ClientConfiguration clientConfiguration = ClientConfiguration.newBuilder().setEndpoints("127.0.0.1:8080")
+            .setLocalMetricsJmxEnabled(true).setStageLatencySampleRate(sampleRate).build();
+        final ClientImpl client = mock(ClientImpl.class);
+        when(client.clientId()).thenReturn(FAKE_CLIENT_ID);
+        when(client.getClientConfiguration()).thenReturn(clientConfiguration);
+        final ClientMeterProvider provider = new ClientMeterProvider(client);
+        provider.start();
+        return provider;
+    }
+
+    @Test
+    public void testNotSampled() {
+        final ClientMeterProvider provider = createProvider(0);
+        try {
+            final StageTrace trace = provider.getStageProfiler().startTrace();
+            assertSame(StageTrace.NOOP, trace);
+            assertFalse(trace.isSampled());
+            trace.mark(PipelineStage.SEND_BUILD);
+        } finally {
+            provider.shutdown();
+        }
+    }
+
+    @Test
+    public void testRecordPerStage() {
+        final ClientMeterProvider provider = createProvider(1);
+        try {
+            final StageTrace trace = provider.getStageProfiler().startTrace();
+            assertTrue(trace.isSampled());
+            trace.mark(PipelineStage.SEND_BUILD);
+            trace.mark(PipelineStage.SEND_ROUTE);
+            trace.mark(PipelineStage.SEND_ROUTE);
+            int stages = 0;
+            for (MetricData metric : provider.getLocalMetricsExporter().get().collectAllMetrics()) {
+                if (!HistogramEnum.STAGE_LATENCY.getName().equals(metric.getName())) {
+                    continue;
+                }
+                for (HistogramPointData point : metric.getHistogramData().getPoints()) {
+                    final String stage = point.getAttributes().get(MetricLabels.STAGE);
+                    final long expected = PipelineStage.SEND_ROUTE.getName().equals(stage) ? 2 : 1;
+                    assertEquals(expected, point.getCount());
+                    stages++;
+                }
+            }
+            assertEquals(2, stages);
+        } finally {
+            provider.shutdown();
+        }
+    }
+}
@@ -0,0 +1,74 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.rocketmq.client.java.misc;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import com.google.common.util.concurrent.MoreExecutors;
+import com.google.common.util.concurrent.SettableFuture;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.Test;
+
+public class CompletableFutureAdapterTest {
+
+    @Test
+    public void testCompleteInExecutor() throws ExecutionException, InterruptedException {
+        final SettableFuture<String> source = SettableFuture.create();
+        final AtomicInteger executed = new AtomicInteger();
+        final CompletableFuture<String> future = CompletableFutureAdapter.adapt(source, command -> {
+            executed.incrementAndGet();
+            command.run();
+        });
+        assertFalse(future.isDone());
+        source.set("foo");
+        assertEquals(1, executed.get());
+        assertEquals("foo", future.get());
+    }
+
+    @Test
+    public void testCompleteExceptionally() throws InterruptedException {
+        final SettableFuture<String> source = SettableFuture.create();
+        final CompletableFuture<String> future = CompletableFutureAdapter.adapt(source,
+            MoreExecutors.directExecutor());
+        final Throwable t = new RuntimeException();
+        source.setException(t);
+        assertTrue(future.isCompletedExceptionally());
+        try {
+            future.get();
+            fail();
+        } catch (ExecutionException e) {
+            assertSame(t, e.getCause());
+        }
+    }
+
+    @Test
+    public void testCancel() {
+        final SettableFuture<String> source = SettableFuture.create();
+        final CompletableFuture<String> future = CompletableFutureAdapter.adapt(source,
+            MoreExecutors.directExecutor());
+        assertTrue(future.cancel(false));
+        assertTrue(source.isCancelled());
+        assertTrue(future.isCancelled());
+    }
+}
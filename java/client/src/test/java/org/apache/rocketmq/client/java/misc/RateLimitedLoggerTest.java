@@ -0,0 +1,69 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.rocketmq.client.java.misc;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import org.junit.Assert;
+import org.junit.Test;
+import org.slf4j.Logger;
+
+public class RateLimitedLoggerTest {
+    private static final String FORMAT = "Failed to do something, clientId={}";
+    private static final String SUPPRESSED_FORMAT = FORMAT + ", suppressed {} similar log(s)";
+
+    @Test
+    public void testWarnSuppressedWithinInterval() throws InterruptedException {
+        final Logger logger = mock(Logger.class);
+        when(logger.isWarnEnabled()).thenReturn(true);
+        final RateLimitedLogger rateLimitedLogger = new RateLimitedLogger(logger, "testWarnSuppressedWithinInterval",
+            Duration.ofMillis(100));
+        for (int i = 0; i < 10; i++) {
+            rateLimitedLogger.warn(FORMAT, "foo");
+        }
+        // Nothing is suppressed before the first log.
+        verify(logger, times(1)).warn(FORMAT, new Object[] {"foo"});
+        Assert.assertEquals(9, rateLimitedLogger.getSuppressed());
+        Thread.sleep(150);
+        final Throwable t = new RuntimeException();
+        rateLimitedLogger.warn(FORMAT, "bar", t);
+        // The trailing throwable is kept in the last place.
+        verify(logger, times(1)).warn(SUPPRESSED_FORMAT, new Object[] {"bar", 9L, t});
+        Assert.assertEquals(0, rateLimitedLogger.getSuppressed());
+        // The total quantity is kept for metrics.
+        Assert.assertEquals(9, rateLimitedLogger.getSuppressedTotal());
+        Assert.assertTrue(RateLimitedLogger.getAll().contains(rateLimitedLogger));
+    }
+
+    @Test
+    public void testErrorWithLevelDisabled() {
+        final Logger logger = mock(Logger.class);
+        when(logger.isErrorEnabled()).thenReturn(false);
+        final RateLimitedLogger rateLimitedLogger = new RateLimitedLogger(logger, "testErrorWithLevelDisabled");
+        rateLimitedLogger.error(FORMAT, "foo");
+        verify(logger, never()).error(eq(FORMAT), any(Object[].class));
+        Assert.assertEquals(0, rateLimitedLogger.getSuppressed());
+    }
+}
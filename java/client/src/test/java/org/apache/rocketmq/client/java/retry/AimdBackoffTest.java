@@ -0,0 +1,63 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.rocketmq.client.java.retry;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.time.Duration;
+import org.junit.Test;
+
+public class AimdBackoffTest {
+
+    @Test
+    public void testMultiplicativeDecreaseAndAdditiveIncrease() {
+        final AimdBackoff backoff = new AimdBackoff(Duration.ofMillis(100), Duration.ofSeconds(1), 1, 0.5);
+        assertEquals(10, backoff.getRate(), 1e-9);
+        backoff.onThrottled();
+        assertEquals(5, backoff.getRate(), 1e-9);
+        backoff.onThrottled();
+        backoff.onThrottled();
+        backoff.onThrottled();
+        // Bounded by the max delay.
+        assertEquals(1, backoff.getRate(), 1e-9);
+        backoff.onSuccess();
+        assertEquals(2, backoff.getRate(), 1e-9);
+        for (int i = 0; i < 100; i++) {
+            backoff.onSuccess();
+        }
+        // Bounded by the min delay.
+        assertEquals(10, backoff.getRate(), 1e-9);
+    }
+
+    @Test
+    public void testNextDelayIsJittered() {
+        final AimdBackoff backoff = new AimdBackoff(Duration.ofMillis(100), Duration.ofSeconds(1), 1, 0.5);
+        backoff.onThrottled();
+        for (int i = 0; i < 100; i++) {
+            final Duration delay = backoff.getNextDelay();
+            assertTrue(delay.compareTo(Duration.ofMillis(100)) >= 0);
+            assertTrue(delay.compareTo(Duration.ofMillis(200)) <= 0);
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testIllegalDecreaseFactor() {
+        new AimdBackoff(Duration.ofMillis(100), Duration.ofSeconds(1), 1, 1);
+    }
+}
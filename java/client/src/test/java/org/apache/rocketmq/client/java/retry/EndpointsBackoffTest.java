@@ -0,0 +1,101 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.rocketmq.client.java.retry;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.apache.rocketmq.client.java.route.Endpoints;
+import org.apache.rocketmq.client.java.tool.TestBase;
+import org.junit.Test;
+
+public class EndpointsBackoffTest extends TestBase {
+    private final Endpoints endpoints0 = new Endpoints("127.0.0.1:8080");
+    private final Endpoints endpoints1 = new Endpoints("127.0.0.2:8080");
+
+    private static void assertJittered(Duration expected, Duration actual) {
+        assertTrue(actual.compareTo(expected.dividedBy(2)) >= 0);
+        assertTrue(actual.compareTo(expected) <= 0);
+    }
+
+    @Test
+    public void testExponentialBackoffPerEndpoints() throws InterruptedException {
+        final EndpointsBackoff backoff = new EndpointsBackoff(Duration.ofMillis(10), Duration.ofMillis(100), 2);
+        assertJittered(Duration.ofMillis(10), backoff.getDelay(endpoints0));
+        assertJittered(Duration.ofMillis(10), backoff.onFailure(endpoints0));
+        Thread.sleep(10);
+        assertJittered(Duration.ofMillis(20), backoff.onFailure(endpoints0));
+        Thread.sleep(20);
+        assertJittered(Duration.ofMillis(40), backoff.onFailure(endpoints0));
+        assertJittered(Duration.ofMillis(40), backoff.getDelay(endpoints0));
+        Thread.sleep(40);
+        assertJittered(Duration.ofMillis(80), backoff.onFailure(endpoints0));
+        for (int i = 0; i < 3; i++) {
+            Thread.sleep(100);
+            // Bounded by the max delay.
+            assertJittered(Duration.ofMillis(100), backoff.onFailure(endpoints0));
+        }
+        // Other endpoints are not affected.
+        assertEquals(0, backoff.getFailures(endpoints1));
+        assertJittered(Duration.ofMillis(10), backoff.onFailure(endpoints1));
+    }
+
+    @Test
+    public void testFailuresOfSameRoundEscalateOnce() {
+        final EndpointsBackoff backoff = new EndpointsBackoff(Duration.ofSeconds(1), Duration.ofSeconds(10), 2);
+        for (int i = 0; i < 100; i++) {
+            assertJittered(Duration.ofSeconds(1), backoff.onFailure(endpoints0));
+        }
+        assertEquals(1, backoff.getFailures(endpoints0));
+    }
+
+    @Test
+    public void testRecoverOnSuccess() throws InterruptedException {
+        final EndpointsBackoff backoff = new EndpointsBackoff(Duration.ofMillis(10), Duration.ofSeconds(1), 2);
+        backoff.onFailure(endpoints0);
+        Thread.sleep(10);
+        backoff.onFailure(endpoints0);
+        assertEquals(2, backoff.getFailures(endpoints0));
+        backoff.onSuccess(endpoints0);
+        assertEquals(0, backoff.getFailures(endpoints0));
+        assertJittered(Duration.ofMillis(10), backoff.onFailure(endpoints0));
+    }
+
+    @Test
+    public void testRescheduleOnSuccess() throws InterruptedException {
+        final EndpointsBackoff backoff = new EndpointsBackoff(Duration.ofMillis(100), Duration.ofSeconds(1), 2);
+        final AtomicInteger retries0 = new AtomicInteger();
+        final AtomicInteger retries1 = new AtomicInteger();
+        backoff.schedule(SCHEDULER, endpoints0, Duration.ofHours(1), retries0::incrementAndGet);
+        backoff.schedule(SCHEDULER, endpoints0, Duration.ofHours(1), retries0::incrementAndGet);
+        backoff.schedule(SCHEDULER, endpoints1, Duration.ofHours(1), retries1::incrementAndGet);
+        backoff.onSuccess(endpoints0);
+        backoff.onSuccess(endpoints0);
+        Thread.sleep(100);
+        assertEquals(2, retries0.get());
+        // Retries to other endpoints are not affected.
+        assertEquals(0, retries1.get());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testIllegalMultiplier() {
+        new EndpointsBackoff(Duration.ofMillis(100), Duration.ofSeconds(1), 0.5);
+    }
+}
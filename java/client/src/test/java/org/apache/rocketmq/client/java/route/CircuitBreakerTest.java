@@ -0,0 +1,154 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.rocketmq.client.java.route;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.time.Duration;
+import org.junit.Test;
+
+public class CircuitBreakerTest {
+    private static final Duration SLOW_REQUEST_DURATION = Duration.ofSeconds(1);
+
+    private final CircuitBreaker breaker = new CircuitBreaker(new Endpoints("127.0.0.1:8080"),
+        SLOW_REQUEST_DURATION);
+
+    private void open() {
+        boolean opened = false;
+        for (int i = 0; i < CircuitBreaker.MINIMUM_REQUESTS && !opened; i++) {
+            opened = breaker.onFailure();
+        }
+        assertTrue(opened);
+    }
+
+    private void succeedTrial() throws InterruptedException {
+        while (!breaker.allowRequest()) {
+            Thread.sleep(CircuitBreaker.HALF_OPEN_TRIAL_INTERVAL.toMillis() / 10);
+        }
+        breaker.onSuccess(Duration.ZERO);
+    }
+
+    @Test
+    public void testTransientFailureDoesNotOpen() {
+        assertFalse(breaker.onFailure());
+        for (int i = 0; i < CircuitBreaker.WINDOW_SIZE; i++) {
+            breaker.onSuccess(Duration.ZERO);
+        }
+        assertFalse(breaker.onFailure());
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+        assertTrue(breaker.allowRequest());
+    }
+
+    @Test
+    public void testOpenOnFailureRate() {
+        for (int i = 0; i < CircuitBreaker.MINIMUM_REQUESTS / 2; i++) {
+            breaker.onSuccess(Duration.ZERO);
+        }
+        for (int i = 0; i < CircuitBreaker.MINIMUM_REQUESTS / 2 - 1; i++) {
+            assertFalse(breaker.onFailure());
+        }
+        assertTrue(breaker.onFailure());
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+        assertFalse(breaker.allowRequest());
+        assertEquals(1, breaker.getOpenedTimes());
+        assertEquals(CircuitBreaker.MIN_OPEN_DURATION, breaker.getOpenDuration());
+    }
+
+    @Test
+    public void testOpenOnSlowRate() {
+        for (int i = 0; i < CircuitBreaker.MINIMUM_REQUESTS; i++) {
+            breaker.onSuccess(SLOW_REQUEST_DURATION);
+        }
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+    }
+
+    @Test
+    public void testHalfOpenAndClose() throws InterruptedException {
+        open();
+        breaker.onProbeSuccess();
+        assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.getState());
+        // Trial requests are admitted at a limited rate.
+        assertTrue(breaker.allowRequest());
+        assertFalse(breaker.allowRequest());
+        breaker.onSuccess(Duration.ZERO);
+        for (int i = 1; i < CircuitBreaker.HALF_OPEN_SUCCESSES; i++) {
+            assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.getState());
+            succeedTrial();
+        }
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+        assertTrue(breaker.allowRequest());
+    }
+
+    @Test
+    public void testReopenOnTrialFailure() {
+        open();
+        breaker.onProbeSuccess();
+        assertTrue(breaker.onFailure());
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+        assertEquals(2, breaker.getOpenedTimes());
+    }
+
+    @Test
+    public void testIsAvailableDoesNotTakeTrialPermit() {
+        open();
+        assertFalse(breaker.isAvailable());
+        breaker.onProbeSuccess();
+        assertTrue(breaker.isAvailable());
+        assertTrue(breaker.isAvailable());
+        assertTrue(breaker.allowRequest());
+        assertFalse(breaker.isAvailable());
+    }
+
+    @Test
+    public void testNonTrialSuccessIsIgnoredWhenHalfOpened() {
+        open();
+        breaker.onProbeSuccess();
+        // Successes of requests admitted before opening.
+        for (int i = 0; i < CircuitBreaker.HALF_OPEN_SUCCESSES; i++) {
+            breaker.onSuccess(Duration.ZERO);
+        }
+        assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.getState());
+    }
+
+    @Test
+    public void testFlappingIsKeptOutLonger() throws InterruptedException {
+        open();
+        breaker.onProbeSuccess();
+        for (int i = 0; i < CircuitBreaker.HALF_OPEN_SUCCESSES; i++) {
+            succeedTrial();
+        }
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+        open();
+        assertEquals(CircuitBreaker.MIN_OPEN_DURATION.multipliedBy(2), breaker.getOpenDuration());
+    }
+
+    @Test
+    public void testProbeFailureBackoff() {
+        open();
+        Duration delay = breaker.getOpenDuration();
+        for (int i = 0; i < 10; i++) {
+            final Duration next = breaker.onProbeFailure();
+            assertTrue(next.compareTo(delay) >= 0);
+            delay = next;
+        }
+        assertEquals(CircuitBreaker.MAX_OPEN_DURATION, delay);
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+    }
+}
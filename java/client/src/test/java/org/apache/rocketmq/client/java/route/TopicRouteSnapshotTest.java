@@ -0,0 +1,75 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.rocketmq.client.java.route;
+
+import apache.rocketmq.v2.MessageQueue;
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import org.apache.rocketmq.client.java.tool.TestBase;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class TopicRouteSnapshotTest extends TestBase {
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Test
+    public void testLoadWithoutSnapshot() throws Exception {
+        final File directory = temporaryFolder.newFolder();
+        final TopicRouteSnapshot snapshot = new TopicRouteSnapshot(directory.getPath(), fakeEndpoints());
+        Assert.assertFalse(snapshot.load(FAKE_TOPIC_0).isPresent());
+    }
+
+    @Test
+    public void testStoreAndLoad() throws Exception {
+        final File directory = temporaryFolder.newFolder();
+        final TopicRouteSnapshot snapshot = new TopicRouteSnapshot(directory.getPath(), fakeEndpoints());
+        List<MessageQueue> messageQueues = new ArrayList<>();
+        messageQueues.add(fakePbMessageQueue0());
+        messageQueues.add(fakePbMessageQueue1());
+        final TopicRouteData topicRouteData = new TopicRouteData(messageQueues);
+        snapshot.store(FAKE_TOPIC_0, topicRouteData);
+        final Optional<TopicRouteData> restored = snapshot.load(FAKE_TOPIC_0);
+        Assert.assertTrue(restored.isPresent());
+        Assert.assertEquals(topicRouteData, restored.get());
+        // Restore from another instance with the same access point.
+        final TopicRouteSnapshot other = new TopicRouteSnapshot(directory.getPath(), fakeEndpoints());
+        Assert.assertEquals(topicRouteData, other.load(FAKE_TOPIC_0).orElse(null));
+    }
+
+    @Test
+    public void testLoadWithCorruptedSnapshot() throws Exception {
+        final File directory = temporaryFolder.newFolder();
+        final TopicRouteSnapshot snapshot = new TopicRouteSnapshot(directory.getPath(), fakeEndpoints());
+        List<MessageQueue> messageQueues = new ArrayList<>();
+        messageQueues.add(fakePbMessageQueue0());
+        snapshot.store(FAKE_TOPIC_0, new TopicRouteData(messageQueues));
+        try (java.util.stream.Stream<Path> files = Files.walk(directory.toPath())) {
+            for (Path file : (Iterable<Path>) files.filter(Files::isRegularFile)::iterator) {
+                Files.write(file, new byte[] {(byte) 0xff, (byte) 0xff, (byte) 0xff});
+            }
+        }
+        Assert.assertFalse(snapshot.load(FAKE_TOPIC_0).isPresent());
+    }
+}
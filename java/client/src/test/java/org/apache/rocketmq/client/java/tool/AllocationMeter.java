@@ -0,0 +1,85 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.rocketmq.client.java.tool;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Measure the heap allocation of an operation, which is summed over all live threads so that the allocation of
+ * asynchronous callbacks is counted too.
+ */
+public class AllocationMeter {
+    private static final int ROUNDS = 3;
+
+    private AllocationMeter() {
+    }
+
+    public interface Operation {
+        void run() throws Exception;
+    }
+
+    public static boolean isSupported() {
+        final ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        return bean instanceof com.sun.management.ThreadMXBean
+            && ((com.sun.management.ThreadMXBean) bean).isThreadAllocatedMemorySupported()
+            && ((com.sun.management.ThreadMXBean) bean).isThreadAllocatedMemoryEnabled();
+    }
+
+    private static Map<Long, Long> allocatedBytes() {
+        final com.sun.management.ThreadMXBean bean =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        final long[] threadIds = bean.getAllThreadIds();
+        final long[] bytes = bean.getThreadAllocatedBytes(threadIds);
+        Map<Long, Long> allocatedBytes = new HashMap<>();
+        for (int i = 0; i < threadIds.length; i++) {
+            if (bytes[i] >= 0) {
+                allocatedBytes.put(threadIds[i], bytes[i]);
+            }
+        }
+        return allocatedBytes;
+    }
+
+    /**
+     * Run the operation for warmup, and then measure it in a few rounds.
+     *
+     * @return the minimal average bytes allocated per operation among all rounds, which filters out the noise of
+     * background threads.
+     */
+    public static long measure(int warmupIterations, int iterations, Operation operation) throws Exception {
+        for (int i = 0; i < warmupIterations; i++) {
+            operation.run();
+        }
+        long min = Long.MAX_VALUE;
+        for (int round = 0; round < ROUNDS; round++) {
+            final Map<Long, Long> start = allocatedBytes();
+            for (int i = 0; i < iterations; i++) {
+                operation.run();
+            }
+            final Map<Long, Long> end = allocatedBytes();
+            long bytes = 0;
+            for (Map.Entry<Long, Long> entry : end.entrySet()) {
+                bytes += entry.getValue() - start.getOrDefault(entry.getKey(), 0L);
+            }
+            min = Math.min(min, bytes / iterations);
+        }
+        return min;
+    }
+}